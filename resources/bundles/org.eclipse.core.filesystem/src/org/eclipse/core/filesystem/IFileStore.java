@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2005, 2015 IBM Corporation and others.
+ * Copyright (c) 2005, 2022 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -18,6 +18,7 @@ package org.eclipse.core.filesystem;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.URI;
+import java.nio.channels.SeekableByteChannel;
 import org.eclipse.core.filesystem.provider.FileStore;
 import org.eclipse.core.internal.filesystem.FileStoreUtil;
 import org.eclipse.core.runtime.*;
@@ -219,6 +220,40 @@ public interface IFileStore extends IAdaptable {
 	 */
 	public IFileInfo fetchInfo(int options, IProgressMonitor monitor) throws CoreException;
 
+	/**
+	 * Fetches information about this store and the files and directories below
+	 * it, up to the given depth, and returns it as a file tree. File systems
+	 * can fetch the information of a whole subtree at once, which is much
+	 * faster than fetching it directory by directory with
+	 * {@link #childInfos(int, IProgressMonitor)}.
+	 * <p>
+	 * The contents of symbolic links to directories, and of directories below
+	 * the given depth, are not fetched in advance. The returned tree fetches
+	 * them from the file system when they are requested.
+	 * </p><p>
+	 * The information of the whole subtree is held in memory until the tree is
+	 * discarded. Clients that only visit parts of the subtree, for example
+	 * because they skip filtered directories, should rather list the
+	 * directories they visit with {@link #childInfos(int, IProgressMonitor)}.
+	 * </p>
+	 *
+	 * @param depth the number of directory levels below this store to fetch:
+	 * <code>0</code> for this store only, <code>1</code> for its children, or
+	 * {@link Integer#MAX_VALUE} for all files and directories below it
+	 * @param options bit-wise or of option flag constants (currently only {@link EFS#NONE}
+	 * is applicable).
+	 * @param monitor a progress monitor, or <code>null</code> if progress
+	 *    reporting and cancellation are not desired
+	 * @return A file tree rooted at this store.
+	 * @exception CoreException if this method fails. Reasons include:
+	 * <ul>
+	 * <li>Problems occurred while contacting the file system.</li>
+	 * </ul>
+	 * @see IFileSystem#fetchFileTree(IFileStore, IProgressMonitor)
+	 * @since org.eclipse.core.filesystem 1.10
+	 */
+	public IFileTree fetchInfoTree(int depth, int options, IProgressMonitor monitor) throws CoreException;
+
 	/**
 	 * Returns a child of this store as specified by the provided path.  The
 	 * path is treated as relative to this store.  This is equivalent to
@@ -412,6 +447,36 @@ public interface IFileStore extends IAdaptable {
 	 */
 	public InputStream openInputStream(int options, IProgressMonitor monitor) throws CoreException;
 
+	/**
+	 * Returns an open read-only channel on the contents of this file. Unlike an
+	 * input stream, the channel can be positioned anywhere in the file, so that
+	 * clients that need only parts of a file, like its header, do not need to
+	 * read or transfer the rest of it.
+	 * The caller is responsible for closing the provided channel when it is no
+	 * longer needed.
+	 * <p>
+	 * How expensive it is to change the position of the channel depends on the
+	 * implementation. Implementations that can only provide sequential access
+	 * may have to skip over or read again the contents before the new position.
+	 * </p>
+	 *
+	 * @param options bit-wise or of option flag constants (currently only {@link EFS#NONE}
+	 * is applicable).
+	 * @param monitor a progress monitor, or <code>null</code> if progress
+	 *    reporting and cancellation are not desired
+	 * @return A read-only channel on the contents of this file.
+	 * @exception CoreException if this method fails. The status code associated with exception
+	 *     reflects the cause of the failure. Reasons include:
+	 * <ul>
+	 * <li>{@link EFS#ERROR_NOT_EXISTS} - This store does not exist.</li>
+	 * <li>{@link EFS#ERROR_WRONG_TYPE} - This store represents a directory.</li>
+	 * <li>{@link EFS#ERROR_READ} - The file could not be opened.</li>
+	 * </ul>
+	 * @see #openInputStream(int, IProgressMonitor)
+	 * @since org.eclipse.core.filesystem 1.10
+	 */
+	public SeekableByteChannel openChannel(int options, IProgressMonitor monitor) throws CoreException;
+
 	/**
 	 * Returns an open output stream on the contents of this file. The number of
 	 * concurrently open streams depends on implementation and can be limited.
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2005, 2015 IBM Corporation and others.
+ * Copyright (c) 2005, 2022 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -16,6 +16,7 @@ package org.eclipse.core.filesystem.provider;
 
 import java.io.*;
 import java.net.URI;
+import java.nio.channels.SeekableByteChannel;
 import org.eclipse.core.filesystem.*;
 import org.eclipse.core.internal.filesystem.*;
 import org.eclipse.core.runtime.*;
@@ -249,6 +250,37 @@ public abstract class FileStore extends PlatformObject implements IFileStore {
 		return toURI().equals(((FileStore) obj).toURI());
 	}
 
+	/**
+	 * The default implementation of {@link IFileStore#fetchInfoTree(int, int, IProgressMonitor)}.
+	 * This implementation calls {@link #childInfos(int, IProgressMonitor)} for
+	 * each directory in the tree. Subclasses should override this method where
+	 * a more efficient implementation is possible.
+	 *
+	 * @since org.eclipse.core.filesystem 1.10
+	 */
+	@Override
+	public IFileTree fetchInfoTree(int depth, int options, IProgressMonitor monitor) throws CoreException {
+		SubMonitor subMonitor = SubMonitor.convert(monitor, 1);
+		FileInfoTree tree = new FileInfoTree(this, fetchInfo(options, null));
+		if (depth > 0 && tree.getFileInfo(this).isDirectory())
+			fetchChildInfos(tree, this, depth, options, subMonitor);
+		return tree;
+	}
+
+	private static void fetchChildInfos(FileInfoTree tree, IFileStore store, int depth, int options, SubMonitor monitor) throws CoreException {
+		if (monitor.isCanceled())
+			throw new OperationCanceledException();
+		IFileInfo[] infos = store.childInfos(options, null);
+		tree.setChildInfos(store, infos);
+		if (depth == 1)
+			return;
+		for (IFileInfo info : infos) {
+			//symbolic links are fetched on demand, which also avoids cycles
+			if (info.isDirectory() && !info.getAttribute(EFS.ATTRIBUTE_SYMLINK))
+				fetchChildInfos(tree, store.getChild(info.getName()), depth - 1, options, monitor);
+		}
+	}
+
 	/**
 	 * The default implementation of {@link IFileStore#fetchInfo()}.
 	 * This implementation forwards to {@link IFileStore#fetchInfo(int, IProgressMonitor)}.
@@ -396,6 +428,26 @@ public abstract class FileStore extends PlatformObject implements IFileStore {
 	@Override
 	public abstract InputStream openInputStream(int options, IProgressMonitor monitor) throws CoreException;
 
+	/**
+	 * The default implementation of {@link IFileStore#openChannel(int, IProgressMonitor)}.
+	 * This implementation returns a channel that reads the contents through
+	 * {@link #openInputStream(int, IProgressMonitor)}. Moving the position of the
+	 * channel forward skips over the contents, and moving it backward opens a
+	 * new stream. Subclasses should override this method where a more efficient
+	 * implementation is possible.
+	 *
+	 * @since org.eclipse.core.filesystem 1.10
+	 */
+	@Override
+	public SeekableByteChannel openChannel(int options, IProgressMonitor monitor) throws CoreException {
+		IFileInfo info = fetchInfo(EFS.NONE, monitor);
+		if (!info.exists())
+			Policy.error(EFS.ERROR_NOT_EXISTS, NLS.bind(Messages.fileNotFound, toString()));
+		if (info.isDirectory())
+			Policy.error(EFS.ERROR_WRONG_TYPE, NLS.bind(Messages.notAFile, toString()));
+		return new InputStreamChannel(this, info.getLength());
+	}
+
 	/**
 	 * The default implementation of {@link IFileStore#openOutputStream(int, IProgressMonitor)}.
 	 * This implementation always throws an exception indicating that this file system
@@ -0,0 +1,266 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.core.internal.filesystem;
+
+import java.io.*;
+import java.net.URI;
+import java.nio.channels.SeekableByteChannel;
+import org.eclipse.core.filesystem.*;
+import org.eclipse.core.filesystem.provider.FileInfo;
+import org.eclipse.core.filesystem.provider.FileStore;
+import org.eclipse.core.runtime.*;
+
+/**
+ * A store of a {@link CachingFileSystem}. File infos and child lists are
+ * served from the cache of the file system, and all other requests are
+ * forwarded to the wrapped store. Requests that change the wrapped store
+ * discard the cached information they affect.
+ */
+public class CachingFileStore extends FileStore {
+	/**
+	 * The attributes copied from infos that are not {@link FileInfo}s. The
+	 * derived attributes come first, so that the permission bits they affect
+	 * are copied as they are.
+	 */
+	private static final int[] ATTRIBUTES = {EFS.ATTRIBUTE_READ_ONLY, EFS.ATTRIBUTE_EXECUTABLE, EFS.ATTRIBUTE_IMMUTABLE, EFS.ATTRIBUTE_OWNER_READ, EFS.ATTRIBUTE_OWNER_WRITE, EFS.ATTRIBUTE_OWNER_EXECUTE, EFS.ATTRIBUTE_GROUP_READ, EFS.ATTRIBUTE_GROUP_WRITE, EFS.ATTRIBUTE_GROUP_EXECUTE, EFS.ATTRIBUTE_OTHER_READ, EFS.ATTRIBUTE_OTHER_WRITE, EFS.ATTRIBUTE_OTHER_EXECUTE, EFS.ATTRIBUTE_ARCHIVE, EFS.ATTRIBUTE_HIDDEN, EFS.ATTRIBUTE_SYMLINK};
+
+	private final CachingFileSystem fileSystem;
+	private final IFileStore delegate;
+
+	CachingFileStore(CachingFileSystem fileSystem, IFileStore delegate) {
+		this.fileSystem = fileSystem;
+		this.delegate = delegate;
+	}
+
+	/**
+	 * Returns the store whose information is cached.
+	 */
+	public IFileStore getDelegate() {
+		return delegate;
+	}
+
+	static IFileStore unwrap(IFileStore store) {
+		return store instanceof CachingFileStore ? ((CachingFileStore) store).delegate : store;
+	}
+
+	private static void changed(IFileStore store, boolean subtree) {
+		if (store instanceof CachingFileStore) {
+			CachingFileStore cachingStore = (CachingFileStore) store;
+			cachingStore.fileSystem.changed(cachingStore.delegate, subtree);
+		}
+	}
+
+	static IFileInfo copy(IFileInfo info) {
+		if (info instanceof FileInfo)
+			return (IFileInfo) ((FileInfo) info).clone();
+		FileInfo result = new FileInfo(info.getName());
+		result.setExists(info.exists());
+		result.setDirectory(info.isDirectory());
+		result.setLength(info.getLength());
+		result.setLastModified(info.getLastModified());
+		result.setError(info.getError());
+		for (int attribute : ATTRIBUTES)
+			result.setAttribute(attribute, info.getAttribute(attribute));
+		result.setStringAttribute(EFS.ATTRIBUTE_LINK_TARGET, info.getStringAttribute(EFS.ATTRIBUTE_LINK_TARGET));
+		return result;
+	}
+
+	static IFileInfo[] copy(IFileInfo[] infos) {
+		IFileInfo[] result = new IFileInfo[infos.length];
+		for (int i = 0; i < infos.length; i++)
+			result[i] = copy(infos[i]);
+		return result;
+	}
+
+	@Override
+	public IFileInfo[] childInfos(int options, IProgressMonitor monitor) throws CoreException {
+		if (options != EFS.NONE)
+			return delegate.childInfos(options, monitor);
+		IFileInfo[] infos = fileSystem.getChildInfos().get(delegate);
+		if (infos == null) {
+			infos = copy(delegate.childInfos(options, monitor));
+			fileSystem.getChildInfos().put(delegate, infos);
+		}
+		//the cached infos are shared, never hand them out
+		return copy(infos);
+	}
+
+	@Override
+	public String[] childNames(int options, IProgressMonitor monitor) throws CoreException {
+		if (options != EFS.NONE)
+			return delegate.childNames(options, monitor);
+		String[] names = fileSystem.getChildNames().get(delegate);
+		if (names == null) {
+			names = delegate.childNames(options, monitor).clone();
+			fileSystem.getChildNames().put(delegate, names);
+		}
+		return names.clone();
+	}
+
+	@Override
+	public IFileInfo fetchInfo(int options, IProgressMonitor monitor) throws CoreException {
+		if (options != EFS.NONE)
+			return delegate.fetchInfo(options, monitor);
+		IFileInfo info = fileSystem.getInfos().get(delegate);
+		if (info == null) {
+			info = copy(delegate.fetchInfo(options, monitor));
+			fileSystem.getInfos().put(delegate, info);
+		}
+		return copy(info);
+	}
+
+	@Override
+	public void copy(IFileStore destination, int options, IProgressMonitor monitor) throws CoreException {
+		try {
+			delegate.copy(unwrap(destination), options, monitor);
+		} finally {
+			changed(destination, true);
+		}
+	}
+
+	@Override
+	public void delete(int options, IProgressMonitor monitor) throws CoreException {
+		try {
+			delegate.delete(options, monitor);
+		} finally {
+			fileSystem.changed(delegate, true);
+		}
+	}
+
+	@Override
+	public IFileStore mkdir(int options, IProgressMonitor monitor) throws CoreException {
+		try {
+			delegate.mkdir(options, monitor);
+		} finally {
+			fileSystem.changed(delegate, false);
+			//missing parents are created as well
+			if ((options & EFS.SHALLOW) == 0) {
+				for (IFileStore parent = delegate.getParent(); parent != null; parent = parent.getParent())
+					fileSystem.changed(parent, false);
+			}
+		}
+		return this;
+	}
+
+	@Override
+	public void move(IFileStore destination, int options, IProgressMonitor monitor) throws CoreException {
+		try {
+			delegate.move(unwrap(destination), options, monitor);
+		} finally {
+			fileSystem.changed(delegate, true);
+			changed(destination, true);
+		}
+	}
+
+	@Override
+	public InputStream openInputStream(int options, IProgressMonitor monitor) throws CoreException {
+		return delegate.openInputStream(options, monitor);
+	}
+
+	@Override
+	public SeekableByteChannel openChannel(int options, IProgressMonitor monitor) throws CoreException {
+		return delegate.openChannel(options, monitor);
+	}
+
+	@Override
+	public OutputStream openOutputStream(int options, IProgressMonitor monitor) throws CoreException {
+		fileSystem.changed(delegate, false);
+		OutputStream out = delegate.openOutputStream(options, monitor);
+		return new FilterOutputStream(out) {
+			@Override
+			public void write(byte[] b, int off, int len) throws IOException {
+				out.write(b, off, len);
+			}
+
+			@Override
+			public void close() throws IOException {
+				try {
+					super.close();
+				} finally {
+					//the length and time stamp are known once the contents are written
+					fileSystem.changed(delegate, false);
+				}
+			}
+		};
+	}
+
+	@Override
+	public void putInfo(IFileInfo info, int options, IProgressMonitor monitor) throws CoreException {
+		try {
+			delegate.putInfo(info, options, monitor);
+		} finally {
+			fileSystem.changed(delegate, false);
+		}
+	}
+
+	@Override
+	public File toLocalFile(int options, IProgressMonitor monitor) throws CoreException {
+		return delegate.toLocalFile(options, monitor);
+	}
+
+	@Deprecated
+	@Override
+	public IFileStore getChild(IPath path) {
+		return fileSystem.wrapStore(delegate.getChild(path));
+	}
+
+	@Override
+	public IFileStore getFileStore(IPath path) {
+		return fileSystem.wrapStore(delegate.getFileStore(path));
+	}
+
+	@Override
+	public IFileStore getChild(String name) {
+		return fileSystem.wrapStore(delegate.getChild(name));
+	}
+
+	@Override
+	public IFileStore getParent() {
+		return fileSystem.wrapStore(delegate.getParent());
+	}
+
+	@Override
+	public IFileSystem getFileSystem() {
+		return fileSystem;
+	}
+
+	@Override
+	public String getName() {
+		return delegate.getName();
+	}
+
+	@Override
+	public boolean isParentOf(IFileStore other) {
+		return other instanceof CachingFileStore && delegate.isParentOf(((CachingFileStore) other).delegate);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (!(obj instanceof CachingFileStore))
+			return false;
+		return delegate.equals(((CachingFileStore) obj).delegate);
+	}
+
+	@Override
+	public int hashCode() {
+		return delegate.hashCode();
+	}
+
+	@Override
+	public URI toURI() {
+		return delegate.toURI();
+	}
+}
@@ -0,0 +1,304 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.core.internal.filesystem;
+
+import java.net.URI;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.eclipse.core.filesystem.*;
+import org.eclipse.core.filesystem.provider.FileSystem;
+import org.eclipse.core.filesystem.provider.FileTree;
+import org.eclipse.core.runtime.*;
+
+/**
+ * A file system that wraps another file system, and caches the file infos and
+ * child lists of its stores for a limited time. This helps with file systems
+ * for which every request is expensive, like remote file systems. File trees
+ * fetched from the wrapped file system fill the cache as well.
+ * <p>
+ * The cache is updated when files are changed through the stores of this file
+ * system. Changes made by other means are only seen once the cached
+ * information has expired.
+ * </p>
+ * <p>
+ * Caching is enabled for the schemes given in the system property
+ * {@value #PROP_CACHE}, as a comma separated list of schemes with the time
+ * to live in milliseconds, for example <code>ftp=10000,zip=60000</code>. The
+ * system property {@value #PROP_CACHE_SIZE} sets the maximum number of stores
+ * for which information is cached per file system.
+ * </p>
+ */
+public class CachingFileSystem extends FileSystem {
+	public static final String PROP_CACHE = "eclipse.filesystem.cache"; //$NON-NLS-1$
+	public static final String PROP_CACHE_SIZE = "eclipse.filesystem.cache.size"; //$NON-NLS-1$
+
+	private static final int DEFAULT_CACHE_SIZE = 10000;
+
+	/**
+	 * Information about stores that expires after some time. The least
+	 * recently used entries are evicted once the maximum size is reached.
+	 */
+	static final class Cache<T> {
+		private static final class Cached<T> {
+			final T value;
+			final long expires;
+
+			Cached(T value, long expires) {
+				this.value = value;
+				this.expires = expires;
+			}
+		}
+
+		private final long timeToLive;
+		private final Map<IFileStore, Cached<T>> entries;
+
+		Cache(long timeToLive, int maxSize) {
+			this.timeToLive = timeToLive;
+			this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+				private static final long serialVersionUID = 1L;
+
+				@Override
+				protected boolean removeEldestEntry(Map.Entry<IFileStore, Cached<T>> eldest) {
+					return size() > maxSize;
+				}
+			};
+		}
+
+		synchronized T get(IFileStore store) {
+			Cached<T> entry = entries.get(store);
+			if (entry == null)
+				return null;
+			if (System.nanoTime() - entry.expires >= 0) {
+				entries.remove(store);
+				return null;
+			}
+			return entry.value;
+		}
+
+		synchronized void put(IFileStore store, T value) {
+			entries.put(store, new Cached<>(value, System.nanoTime() + timeToLive));
+		}
+
+		synchronized void remove(IFileStore store, boolean subtree) {
+			if (subtree)
+				entries.keySet().removeIf(key -> store.equals(key) || store.isParentOf(key));
+			else
+				entries.remove(store);
+		}
+
+		synchronized void clear() {
+			entries.clear();
+		}
+	}
+
+	private final IFileSystem delegate;
+	private final Cache<IFileInfo> infos;
+	private final Cache<String[]> childNames;
+	private final Cache<IFileInfo[]> childInfos;
+
+	/**
+	 * Returns the given file system, wrapped in a caching file system if
+	 * caching is enabled for its scheme.
+	 *
+	 * @see #PROP_CACHE
+	 */
+	public static IFileSystem wrap(IFileSystem fileSystem) {
+		long timeToLive = getTimeToLive(fileSystem.getScheme());
+		if (timeToLive <= 0)
+			return fileSystem;
+		int maxSize = DEFAULT_CACHE_SIZE;
+		try {
+			maxSize = Integer.parseInt(System.getProperty(PROP_CACHE_SIZE, String.valueOf(DEFAULT_CACHE_SIZE)).trim());
+		} catch (NumberFormatException e) {
+			Policy.log(IStatus.WARNING, "Invalid value of " + PROP_CACHE_SIZE, e); //$NON-NLS-1$
+		}
+		return new CachingFileSystem(fileSystem, timeToLive, maxSize);
+	}
+
+	/**
+	 * Returns the configured time to live in milliseconds for the given scheme,
+	 * or 0 if its file system should not be cached.
+	 */
+	private static long getTimeToLive(String scheme) {
+		String property = System.getProperty(PROP_CACHE);
+		if (property == null || scheme == null)
+			return 0;
+		for (String setting : property.split(",")) { //$NON-NLS-1$
+			int separator = setting.indexOf('=');
+			if (separator < 0 || !setting.substring(0, separator).trim().equals(scheme))
+				continue;
+			try {
+				return Long.parseLong(setting.substring(separator + 1).trim());
+			} catch (NumberFormatException e) {
+				Policy.log(IStatus.WARNING, "Invalid value of " + PROP_CACHE + ": " + setting, e); //$NON-NLS-1$ //$NON-NLS-2$
+			}
+		}
+		return 0;
+	}
+
+	/**
+	 * @param delegate the file system to cache
+	 * @param timeToLive the time in milliseconds after which cached information expires
+	 * @param maxSize the maximum number of stores for which information is cached
+	 */
+	public CachingFileSystem(IFileSystem delegate, long timeToLive, int maxSize) {
+		this.delegate = delegate;
+		long nanos = TimeUnit.MILLISECONDS.toNanos(timeToLive);
+		this.infos = new Cache<>(nanos, maxSize);
+		this.childNames = new Cache<>(nanos, maxSize);
+		this.childInfos = new Cache<>(nanos, maxSize);
+		initialize(delegate.getScheme());
+	}
+
+	/**
+	 * Returns the file system whose information is cached.
+	 */
+	public IFileSystem getDelegate() {
+		return delegate;
+	}
+
+	/**
+	 * Discards all cached information.
+	 */
+	public void clearCache() {
+		infos.clear();
+		childNames.clear();
+		childInfos.clear();
+	}
+
+	Cache<IFileInfo> getInfos() {
+		return infos;
+	}
+
+	Cache<String[]> getChildNames() {
+		return childNames;
+	}
+
+	Cache<IFileInfo[]> getChildInfos() {
+		return childInfos;
+	}
+
+	/**
+	 * Discards the cached information about the given store of the wrapped
+	 * file system, and the child list of its parent.
+	 *
+	 * @param subtree whether to discard the information about the stores
+	 * below the given store as well
+	 */
+	void changed(IFileStore store, boolean subtree) {
+		infos.remove(store, subtree);
+		childNames.remove(store, subtree);
+		childInfos.remove(store, subtree);
+		IFileStore parent = store.getParent();
+		if (parent != null) {
+			infos.remove(parent, false);
+			childNames.remove(parent, false);
+			childInfos.remove(parent, false);
+		}
+	}
+
+	/**
+	 * Puts the information in the given tree of the wrapped file system into
+	 * the cache, starting at the given store.
+	 */
+	private void seed(IFileTree tree, IFileStore store, IFileInfo info) {
+		infos.put(store, CachingFileStore.copy(info));
+		if (!info.isDirectory())
+			return;
+		IFileInfo[] children = tree.getChildInfos(store);
+		String[] names = new String[children.length];
+		for (int i = 0; i < children.length; i++)
+			names[i] = children[i].getName();
+		childInfos.put(store, CachingFileStore.copy(children));
+		childNames.put(store, names);
+		for (IFileInfo child : children) {
+			//the tree may fetch the targets of symbolic links on demand
+			if (!child.getAttribute(EFS.ATTRIBUTE_SYMLINK))
+				seed(tree, store.getChild(child.getName()), child);
+		}
+	}
+
+	IFileStore wrapStore(IFileStore store) {
+		return store == null ? null : new CachingFileStore(this, store);
+	}
+
+	@Override
+	public int attributes() {
+		return delegate.attributes();
+	}
+
+	@Override
+	public boolean canDelete() {
+		return delegate.canDelete();
+	}
+
+	@Override
+	public boolean canWrite() {
+		return delegate.canWrite();
+	}
+
+	/**
+	 * Fetches the tree from the wrapped file system, and puts its information
+	 * into the cache.
+	 */
+	@Override
+	public IFileTree fetchFileTree(IFileStore root, IProgressMonitor monitor) throws CoreException {
+		IFileStore delegateRoot = CachingFileStore.unwrap(root);
+		IFileTree tree = delegate.fetchFileTree(delegateRoot, monitor);
+		if (tree == null)
+			return null;
+		seed(tree, delegateRoot, tree.getFileInfo(delegateRoot));
+		return new FileTree(wrapStore(delegateRoot)) {
+			@Override
+			public IFileInfo[] getChildInfos(IFileStore store) {
+				return CachingFileStore.copy(tree.getChildInfos(CachingFileStore.unwrap(store)));
+			}
+
+			@Override
+			public IFileStore[] getChildStores(IFileStore store) {
+				IFileStore[] stores = tree.getChildStores(CachingFileStore.unwrap(store));
+				IFileStore[] result = new IFileStore[stores.length];
+				for (int i = 0; i < stores.length; i++)
+					result[i] = wrapStore(stores[i]);
+				return result;
+			}
+
+			@Override
+			public IFileInfo getFileInfo(IFileStore store) {
+				return CachingFileStore.copy(tree.getFileInfo(CachingFileStore.unwrap(store)));
+			}
+		};
+	}
+
+	@Override
+	public IFileStore fromLocalFile(java.io.File file) {
+		return wrapStore(delegate.fromLocalFile(file));
+	}
+
+	@Override
+	public IFileStore getStore(IPath path) {
+		return wrapStore(delegate.getStore(path));
+	}
+
+	@Override
+	public IFileStore getStore(URI uri) {
+		return wrapStore(delegate.getStore(uri));
+	}
+
+	@Override
+	public boolean isCaseSensitive() {
+		return delegate.isCaseSensitive();
+	}
+}
@@ -0,0 +1,101 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.core.internal.filesystem;
+
+import java.util.HashMap;
+import java.util.Map;
+import org.eclipse.core.filesystem.*;
+import org.eclipse.core.filesystem.provider.FileInfo;
+import org.eclipse.core.filesystem.provider.FileTree;
+import org.eclipse.core.runtime.CoreException;
+
+/**
+ * A file tree that holds the child infos fetched for the directories of a
+ * subtree. The children of directories that have not been fetched, like the
+ * targets of symbolic links, are fetched from the file system when they are
+ * requested.
+ *
+ * @see IFileStore#fetchInfoTree(int, int, org.eclipse.core.runtime.IProgressMonitor)
+ */
+public class FileInfoTree extends FileTree {
+	private static final IFileInfo[] NO_CHILDREN = {};
+
+	/**
+	 * The infos of the children of a directory, indexed by name.
+	 */
+	private static final class Children {
+		final IFileInfo[] infos;
+		final Map<String, IFileInfo> byName;
+
+		Children(IFileInfo[] infos) {
+			this.infos = infos;
+			this.byName = new HashMap<>(infos.length * 4 / 3 + 1);
+			for (IFileInfo info : infos)
+				byName.put(info.getName(), info);
+		}
+	}
+
+	private final IFileInfo rootInfo;
+	private final Map<IFileStore, Children> childInfos = new HashMap<>();
+
+	public FileInfoTree(IFileStore treeRoot, IFileInfo rootInfo) {
+		super(treeRoot);
+		this.rootInfo = rootInfo;
+	}
+
+	/**
+	 * Sets the infos of the children of the given directory.
+	 */
+	public void setChildInfos(IFileStore store, IFileInfo[] infos) {
+		childInfos.put(store, new Children(infos));
+	}
+
+	@Override
+	public IFileInfo[] getChildInfos(IFileStore store) {
+		Children children = childInfos.get(store);
+		if (children != null)
+			return children.infos;
+		if (!contains(store))
+			return NO_CHILDREN;
+		try {
+			return store.childInfos(EFS.NONE, null);
+		} catch (CoreException e) {
+			return NO_CHILDREN;
+		}
+	}
+
+	@Override
+	public IFileStore[] getChildStores(IFileStore store) {
+		IFileInfo[] infos = getChildInfos(store);
+		IFileStore[] stores = new IFileStore[infos.length];
+		for (int i = 0; i < infos.length; i++)
+			stores[i] = store.getChild(infos[i].getName());
+		return stores;
+	}
+
+	@Override
+	public IFileInfo getFileInfo(IFileStore store) {
+		if (treeRoot.equals(store))
+			return rootInfo;
+		Children siblings = childInfos.get(store.getParent());
+		if (siblings == null)
+			return contains(store) ? store.fetchInfo() : new FileInfo(store.getName());
+		IFileInfo info = siblings.byName.get(store.getName());
+		return info != null ? info : new FileInfo(store.getName());
+	}
+
+	private boolean contains(IFileStore store) {
+		return treeRoot.equals(store) || treeRoot.isParentOf(store);
+	}
+}
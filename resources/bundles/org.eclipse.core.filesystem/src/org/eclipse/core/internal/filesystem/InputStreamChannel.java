@@ -0,0 +1,171 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.core.internal.filesystem;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.*;
+import org.eclipse.core.filesystem.EFS;
+import org.eclipse.core.filesystem.IFileStore;
+import org.eclipse.core.runtime.CoreException;
+
+/**
+ * A read-only channel on the contents of a file store, for stores that only
+ * provide input streams. The stream is opened on the first read. Moving the
+ * position forward skips over the contents of the current stream, and moving
+ * it backward opens a new stream.
+ *
+ * @see IFileStore#openChannel(int, org.eclipse.core.runtime.IProgressMonitor)
+ */
+public class InputStreamChannel implements SeekableByteChannel {
+	private final IFileStore store;
+	/**
+	 * The length of the contents, or -1 if it is not known yet.
+	 */
+	private long size;
+	private long position;
+	private InputStream stream;
+	/**
+	 * The position of the next byte read from the stream.
+	 */
+	private long streamPosition;
+	private boolean open = true;
+
+	/**
+	 * @param store the store whose contents are read
+	 * @param size the length of the contents, or a negative value if it is not known
+	 */
+	public InputStreamChannel(IFileStore store, long size) {
+		this.store = store;
+		this.size = size < 0 ? -1 : size;
+	}
+
+	private void ensureOpen() throws IOException {
+		if (!open)
+			throw new ClosedChannelException();
+	}
+
+	private void openStream() throws IOException {
+		closeStream();
+		try {
+			stream = store.openInputStream(EFS.NONE, null);
+		} catch (CoreException e) {
+			throw new IOException(e.getMessage(), e);
+		}
+		streamPosition = 0;
+	}
+
+	private void closeStream() throws IOException {
+		if (stream != null) {
+			InputStream toClose = stream;
+			stream = null;
+			toClose.close();
+		}
+	}
+
+	/**
+	 * Moves the stream to the given position, or to its end if the position is
+	 * beyond it.
+	 */
+	private void seekStream(long target) throws IOException {
+		if (stream == null || streamPosition > target)
+			openStream();
+		while (streamPosition < target) {
+			long skipped = stream.skip(target - streamPosition);
+			if (skipped <= 0) {
+				//skip may stop early, only the end of the stream is certain
+				if (stream.read() < 0)
+					return;
+				skipped = 1;
+			}
+			streamPosition += skipped;
+		}
+	}
+
+	@Override
+	public synchronized int read(ByteBuffer dst) throws IOException {
+		ensureOpen();
+		if (!dst.hasRemaining())
+			return 0;
+		if (size >= 0 && position >= size)
+			return -1;
+		seekStream(position);
+		if (streamPosition < position)
+			return -1;
+		int count;
+		if (dst.hasArray()) {
+			count = stream.read(dst.array(), dst.arrayOffset() + dst.position(), dst.remaining());
+			if (count > 0)
+				dst.position(dst.position() + count);
+		} else {
+			byte[] buffer = new byte[Math.min(dst.remaining(), 8192)];
+			count = stream.read(buffer);
+			if (count > 0)
+				dst.put(buffer, 0, count);
+		}
+		if (count < 0)
+			return -1;
+		position += count;
+		streamPosition += count;
+		return count;
+	}
+
+	@Override
+	public int write(ByteBuffer src) throws IOException {
+		throw new NonWritableChannelException();
+	}
+
+	@Override
+	public synchronized long position() throws IOException {
+		ensureOpen();
+		return position;
+	}
+
+	@Override
+	public synchronized SeekableByteChannel position(long newPosition) throws IOException {
+		ensureOpen();
+		if (newPosition < 0)
+			throw new IllegalArgumentException("Negative position: " + newPosition); //$NON-NLS-1$
+		position = newPosition;
+		return this;
+	}
+
+	@Override
+	public synchronized long size() throws IOException {
+		ensureOpen();
+		if (size < 0) {
+			//read up to the end of the stream to find out
+			seekStream(Long.MAX_VALUE);
+			size = streamPosition;
+		}
+		return size;
+	}
+
+	@Override
+	public SeekableByteChannel truncate(long newSize) throws IOException {
+		throw new NonWritableChannelException();
+	}
+
+	@Override
+	public synchronized boolean isOpen() {
+		return open;
+	}
+
+	@Override
+	public synchronized void close() throws IOException {
+		open = false;
+		closeStream();
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2005, 2015 IBM Corporation and others.
+ * Copyright (c) 2005, 2022 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -72,9 +72,10 @@ public class InternalFileSystemCore implements IRegistryChangeListener {
 			IConfigurationElement element = (IConfigurationElement) result;
 			FileSystem fs = (FileSystem) element.createExecutableExtension("run"); //$NON-NLS-1$
 			fs.initialize(scheme);
+			IFileSystem fileSystem = CachingFileSystem.wrap(fs);
 			//store the file system instance so we don't have to keep recreating it
-			registry.put(scheme, fs);
-			return fs;
+			registry.put(scheme, fileSystem);
+			return fileSystem;
 		} catch (CoreException e) {
 			//remove this invalid file system from the registry
 			registry.remove(scheme);
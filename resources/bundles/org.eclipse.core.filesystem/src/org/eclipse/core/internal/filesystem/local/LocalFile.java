@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2005, 2016 IBM Corporation and others.
+ * Copyright (c) 2005, 2022 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -20,7 +20,12 @@ package org.eclipse.core.internal.filesystem.local;
 
 import java.io.*;
 import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SeekableByteChannel;
 import java.nio.file.*;
+import java.util.ArrayList;
+import java.util.List;
 import org.eclipse.core.filesystem.*;
 import org.eclipse.core.filesystem.URIUtil;
 import org.eclipse.core.filesystem.provider.FileInfo;
@@ -35,6 +40,12 @@ import org.eclipse.osgi.util.NLS;
  * operating system's file system.
  */
 public class LocalFile extends FileStore {
+	/**
+	 * The number of bytes transferred between progress updates when copying
+	 * the contents of a file.
+	 */
+	private static final long TRANSFER_CHUNK_SIZE = 8 * 1024 * 1024;
+
 	/**
 	 * The java.io.File that this store represents.
 	 */
@@ -126,6 +137,103 @@ public class LocalFile extends FileStore {
 		super.copy(destFile, options, monitor);
 	}
 
+	/**
+	 * Copies the file contents between the file channels if the destination is
+	 * a local file as well, so that the operating system can transfer them
+	 * without passing them through buffers in the Java heap.
+	 */
+	@Override
+	protected void copyFile(IFileInfo sourceInfo, IFileStore destination, int options, IProgressMonitor monitor) throws CoreException {
+		//subclasses may provide their own streams, which the channels would bypass
+		if (getClass() != LocalFile.class || destination.getClass() != LocalFile.class) {
+			super.copyFile(sourceInfo, destination, options, monitor);
+			return;
+		}
+		if ((options & EFS.OVERWRITE) == 0 && destination.fetchInfo().exists())
+			Policy.error(EFS.ERROR_EXISTS, NLS.bind(Messages.fileExists, destination));
+		long length = sourceInfo.getLength();
+		String sourcePath = toString();
+		SubMonitor subMonitor = SubMonitor.convert(monitor, NLS.bind(Messages.copying, sourcePath), 100);
+		FileInputStream in = null;
+		FileOutputStream out = null;
+		try {
+			in = (FileInputStream) openInputStream(EFS.NONE, subMonitor.newChild(1));
+			if (subMonitor.isCanceled())
+				throw new OperationCanceledException();
+			out = (FileOutputStream) destination.openOutputStream(EFS.NONE, subMonitor.newChild(1));
+			transferChannels(in, out, length, sourcePath, subMonitor.newChild(98));
+			destination.putInfo(sourceInfo, EFS.SET_ATTRIBUTES | EFS.SET_LAST_MODIFIED, null);
+		} catch (CoreException | RuntimeException e) {
+			Policy.safeClose(in);
+			Policy.safeClose(out);
+			//if we failed to write, try to cleanup the half written file
+			if (out != null) {
+				try {
+					destination.delete(EFS.NONE, null);
+				} catch (CoreException deleteFailure) {
+					e.addSuppressed(deleteFailure);
+				}
+			}
+			throw e;
+		}
+	}
+
+	/**
+	 * Transfers the contents of the source stream to the destination stream
+	 * through their channels, and closes both streams.
+	 */
+	private static void transferChannels(FileInputStream source, FileOutputStream destination, long length, String path, IProgressMonitor monitor) throws CoreException {
+		FileChannel sourceChannel = source.getChannel();
+		FileChannel destinationChannel = destination.getChannel();
+		SubMonitor subMonitor = SubMonitor.convert(monitor, length >= 0 ? 1 + (int) (length / TRANSFER_CHUNK_SIZE) : 1000);
+		try {
+			long position = 0;
+			while (true) {
+				if (subMonitor.isCanceled())
+					throw new OperationCanceledException();
+				long transferred = 0;
+				try {
+					//returns 0 once the end of the source has been reached
+					transferred = sourceChannel.transferTo(position, TRANSFER_CHUNK_SIZE, destinationChannel);
+				} catch (IOException e) {
+					//the transfer fails on either side, tell reading from writing failures apart
+					if (isReadable(sourceChannel, position)) {
+						String msg = NLS.bind(Messages.couldNotWrite, path);
+						Policy.error(EFS.ERROR_WRITE, msg, e);
+					} else {
+						String msg = NLS.bind(Messages.failedReadDuringWrite, path);
+						Policy.error(EFS.ERROR_READ, msg, e);
+					}
+				}
+				if (transferred == 0)
+					break;
+				position += transferred;
+				subMonitor.worked(1);
+			}
+			try {
+				destination.close();
+			} catch (IOException e) {
+				String msg = NLS.bind(Messages.couldNotWrite, path);
+				Policy.error(EFS.ERROR_WRITE, msg, e);
+			}
+		} finally {
+			Policy.safeClose(source);
+			Policy.safeClose(destination);
+		}
+	}
+
+	/**
+	 * Returns whether the given channel can still be read at the given position.
+	 */
+	private static boolean isReadable(FileChannel channel, long position) {
+		try {
+			channel.read(ByteBuffer.allocate(1), position);
+			return true;
+		} catch (IOException e) {
+			return false;
+		}
+	}
+
 	@Override
 	public void delete(int options, IProgressMonitor monitor) throws CoreException {
 		if (monitor == null)
@@ -168,6 +276,69 @@ public class LocalFile extends FileStore {
 		return info;
 	}
 
+	/**
+	 * Lists the directory with a directory stream and fetches the info of each
+	 * entry directly, without creating a store for every child. Refresh lists
+	 * one directory at a time, after resource filters have been applied to its
+	 * parent, so this is where the walk over a subtree spends its time.
+	 */
+	@Override
+	public IFileInfo[] childInfos(int options, IProgressMonitor monitor) throws CoreException {
+		return readChildInfos(file);
+	}
+
+	private static IFileInfo[] readChildInfos(File directory) throws CoreException {
+		java.nio.file.Path path;
+		try {
+			path = directory.toPath();
+		} catch (InvalidPathException e) {
+			String message = NLS.bind(Messages.couldNotRead, directory.getAbsolutePath());
+			Policy.error(EFS.ERROR_READ, message, e);
+			return null;
+		}
+		List<IFileInfo> infos = new ArrayList<>();
+		try (DirectoryStream<java.nio.file.Path> entries = Files.newDirectoryStream(path)) {
+			for (java.nio.file.Path entry : entries) {
+				FileInfo info = LocalFileNativesManager.fetchFileInfo(entry.toString());
+				//natives don't set the file name on all platforms
+				if (info.getName().isEmpty())
+					info.setName(entry.getFileName().toString());
+				infos.add(info);
+			}
+		} catch (IOException | DirectoryIteratorException e) {
+			//like childNames, treat a directory that cannot be read as empty
+			return EMPTY_FILE_INFO_ARRAY;
+		}
+		return infos.toArray(EMPTY_FILE_INFO_ARRAY);
+	}
+
+	/**
+	 * Lists each directory of the subtree like {@link #childInfos(int, IProgressMonitor)}.
+	 */
+	@Override
+	public IFileTree fetchInfoTree(int depth, int options, IProgressMonitor monitor) throws CoreException {
+		SubMonitor subMonitor = SubMonitor.convert(monitor, 1);
+		IFileInfo rootInfo = fetchInfo(options, null);
+		FileInfoTree tree = new FileInfoTree(this, rootInfo);
+		if (depth > 0 && rootInfo.isDirectory())
+			fetchChildInfos(tree, this, depth, subMonitor);
+		return tree;
+	}
+
+	private static void fetchChildInfos(FileInfoTree tree, LocalFile directory, int depth, SubMonitor monitor) throws CoreException {
+		if (monitor.isCanceled())
+			throw new OperationCanceledException();
+		IFileInfo[] infos = readChildInfos(directory.file);
+		tree.setChildInfos(directory, infos);
+		if (depth == 1)
+			return;
+		for (IFileInfo info : infos) {
+			//symbolic links are fetched on demand, which also avoids cycles
+			if (info.isDirectory() && !info.getAttribute(EFS.ATTRIBUTE_SYMLINK))
+				fetchChildInfos(tree, new LocalFile(new File(directory.file, info.getName())), depth - 1, monitor);
+		}
+	}
+
 	@Deprecated
 	@Override
 	public IFileStore getChild(IPath path) {
@@ -432,6 +603,26 @@ public class LocalFile extends FileStore {
 		}
 	}
 
+	@Override
+	public SeekableByteChannel openChannel(int options, IProgressMonitor monitor) throws CoreException {
+		//unlike input streams, channels can be opened on directories
+		if (file.isDirectory())
+			Policy.error(EFS.ERROR_WRONG_TYPE, NLS.bind(Messages.notAFile, filePath));
+		try {
+			return FileChannel.open(file.toPath(), StandardOpenOption.READ);
+		} catch (IOException e) {
+			String message;
+			if (!file.exists()) {
+				message = NLS.bind(Messages.fileNotFound, filePath);
+				Policy.error(EFS.ERROR_NOT_EXISTS, message, e);
+			} else {
+				message = NLS.bind(Messages.couldNotRead, filePath);
+				Policy.error(EFS.ERROR_READ, message, e);
+			}
+			return null;
+		}
+	}
+
 	@Override
 	public OutputStream openOutputStream(int options, IProgressMonitor monitor) throws CoreException {
 		try {
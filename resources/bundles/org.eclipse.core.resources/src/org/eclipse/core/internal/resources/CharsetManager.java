@@ -44,7 +44,8 @@ public class CharsetManager implements IManager {
 	 */
 	private class CharsetManagerJob extends Job {
 		private static final int CHARSET_UPDATE_DELAY = 500;
-		private List<Map.Entry<IProject, Boolean>> asyncChanges = new ArrayList<>();
+		// project -> whether to disable the charset delta job while flushing its preferences
+		private Map<IProject, Boolean> asyncChanges = new LinkedHashMap<>();
 
 		public CharsetManagerJob() {
 			super(Messages.resources_charsetUpdating);
@@ -61,7 +62,9 @@ public class CharsetManager implements IManager {
 			if (newChanges.isEmpty())
 				return;
 			synchronized (asyncChanges) {
-				asyncChanges.addAll(newChanges.entrySet());
+				// flush the preferences of each project only once, and let the charset
+				// delta job react unless all the changes were made by ourselves
+				newChanges.forEach((project, disable) -> asyncChanges.merge(project, disable, (a, b) -> Boolean.valueOf(a.booleanValue() && b.booleanValue())));
 				asyncChanges.notify();
 			}
 			schedule(CHARSET_UPDATE_DELAY);
@@ -69,7 +72,12 @@ public class CharsetManager implements IManager {
 
 		public Map.Entry<IProject, Boolean> getNextChange() {
 			synchronized (asyncChanges) {
-				return asyncChanges.isEmpty() ? null : asyncChanges.remove(asyncChanges.size() - 1);
+				Iterator<Map.Entry<IProject, Boolean>> iterator = asyncChanges.entrySet().iterator();
+				if (!iterator.hasNext())
+					return null;
+				Map.Entry<IProject, Boolean> next = iterator.next();
+				iterator.remove();
+				return Map.entry(next.getKey(), next.getValue());
 			}
 		}
 
@@ -251,6 +259,7 @@ public class CharsetManager implements IManager {
 	private static final String PROJECT_KEY = "<project>"; //$NON-NLS-1$
 	private CharsetDeltaJob charsetListener;
 	CharsetManagerJob job;
+	ValidateProjectEncoding validateEncodingJob;
 	private IResourceChangeListener resourceChangeListener;
 	private IPreferenceChangeListener preferenceChangeListener;
 	protected final Bundle systemBundle = Platform.getBundle("org.eclipse.osgi"); //$NON-NLS-1$
@@ -469,6 +478,8 @@ public class CharsetManager implements IManager {
 		workspace.removeResourceChangeListener(resourceChangeListener);
 		if (charsetListener != null)
 			charsetListener.shutdown();
+		if (validateEncodingJob != null)
+			validateEncodingJob.cancel();
 	}
 
 	protected void splitEncodingPreferences(IProject project) {
@@ -514,6 +525,7 @@ public class CharsetManager implements IManager {
 		workspace.addResourceChangeListener(resourceChangeListener, IResourceChangeEvent.POST_CHANGE);
 		charsetListener = new CharsetDeltaJob(workspace);
 		charsetListener.startup();
+		validateEncodingJob = new ValidateProjectEncoding(workspace);
 		ValidateProjectEncoding.scheduleWorkspaceValidation(workspace);
 		initPreferenceChangeListener();
 	}
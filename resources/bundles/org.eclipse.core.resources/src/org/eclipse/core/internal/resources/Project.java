@@ -635,6 +635,7 @@ public class Project extends Container implements IProject {
 		info.clearModificationStamp();
 		info.clearCharsetGenerationCount();
 		info.setSyncInfo(null);
+		ProjectPreferences.closed(this);
 	}
 
 	protected void internalCopy(IProjectDescription destDesc, int updateFlags, IProgressMonitor monitor) throws CoreException {
@@ -22,6 +22,7 @@ import java.nio.charset.StandardCharsets;
 import java.text.MessageFormat;
 import java.util.*;
 import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
 import org.eclipse.core.internal.preferences.*;
 import org.eclipse.core.internal.utils.Messages;
 import org.eclipse.core.internal.utils.Policy;
@@ -49,7 +50,11 @@ public class ProjectPreferences extends EclipsePreferences {
 	/**
 	 * Cache which nodes have been loaded from disk
 	 */
-	protected static Set<String> loadedNodes = Collections.synchronizedSet(new HashSet<String>());
+	protected static Set<String> loadedNodes = ConcurrentHashMap.newKeySet();
+	/**
+	 * The parsed preference files, shared by all projects
+	 */
+	private static final ProjectPreferencesCache parsedFiles = new ProjectPreferencesCache();
 	private IFile file;
 	private boolean initialized = false;
 	/**
@@ -72,6 +77,7 @@ public class ProjectPreferences extends EclipsePreferences {
 
 	static void deleted(IFile file) throws CoreException {
 		IPath path = file.getFullPath();
+		parsedFiles.forget(path);
 		int count = path.segmentCount();
 		if (count != 3)
 			return;
@@ -100,6 +106,7 @@ public class ProjectPreferences extends EclipsePreferences {
 
 	static void deleted(IFolder folder) throws CoreException {
 		IPath path = folder.getFullPath();
+		parsedFiles.forget(path);
 		int count = path.segmentCount();
 		if (count != 2)
 			return;
@@ -120,6 +127,13 @@ public class ProjectPreferences extends EclipsePreferences {
 			preferencesChanged(folder.getProject());
 	}
 
+	/*
+	 * The project has been closed, so forget the state of its settings files
+	 */
+	static void closed(IProject project) {
+		parsedFiles.forget(project.getFullPath());
+	}
+
 	/*
 	 * The whole project has been removed so delete all of the project settings
 	 */
@@ -128,6 +142,7 @@ public class ProjectPreferences extends EclipsePreferences {
 		// for the resource. We have to do this now because (since we aren't
 		// synchronizing) there is short-circuit code that doesn't visit the
 		// children.
+		parsedFiles.forget(project.getFullPath());
 		Preferences root = Platform.getPreferencesService().getRootNode();
 		Preferences projectNode = root.node(ProjectScope.SCOPE).node(project.getName());
 		// check if we need to notify the charset manager
@@ -172,10 +187,8 @@ public class ProjectPreferences extends EclipsePreferences {
 		if (Policy.DEBUG_PREFERENCES)
 			Policy.debug("Loading preferences from file: " + file.getFullPath()); //$NON-NLS-1$
 		Properties result = new Properties();
-		try (
-			InputStream input = new BufferedInputStream(file.getContents(true));
-		) {
-			result.load(input);
+		try {
+			result = parsedFiles.load(file);
 		} catch (CoreException e) {
 			if (e.getStatus().getCode() == IResourceStatus.RESOURCE_NOT_FOUND) {
 				if (Policy.DEBUG_PREFERENCES)
@@ -313,13 +326,7 @@ public class ProjectPreferences extends EclipsePreferences {
 
 	private static void removeLoadedNodes(Preferences node) {
 		String path = node.absolutePath();
-		synchronized (loadedNodes) {
-			for (Iterator<String> i = loadedNodes.iterator(); i.hasNext();) {
-				String key = i.next();
-				if (key.startsWith(path))
-					i.remove();
-			}
-		}
+		loadedNodes.removeIf(key -> key.startsWith(path));
 	}
 
 	public static void updatePreferences(IFile file) throws CoreException {
@@ -575,9 +582,8 @@ public class ProjectPreferences extends EclipsePreferences {
 		}
 		if (Policy.DEBUG_PREFERENCES)
 			Policy.debug("Loading preferences from file: " + localFile.getFullPath()); //$NON-NLS-1$
-		Properties fromDisk = new Properties();
-		try (InputStream input = localFile.getContents(true)) {
-			fromDisk.load(input);
+		try {
+			Properties fromDisk = parsedFiles.load(localFile);
 			convertFromProperties(this, fromDisk, true);
 			loadedNodes.add(absolutePath());
 		} catch (CoreException e) {
@@ -0,0 +1,168 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.core.internal.resources;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.*;
+import org.eclipse.core.internal.utils.Policy;
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
+
+/**
+ * Caches the parsed contents of project preference files. Files are only read
+ * again if their modification stamp, time stamp or length changed, and files
+ * with the same contents, as often generated by the same tools for many
+ * projects, are parsed only once. Files with the same contents share one copy
+ * of the contents. Both the number of files and the number of different
+ * contents remembered are bounded, the least recently used are forgotten first.
+ * <p>
+ * This class is thread safe.
+ * </p>
+ */
+final class ProjectPreferencesCache {
+	/**
+	 * The maximum number of different file contents that are kept parsed.
+	 */
+	private static final int MAX_CONTENTS = 1000;
+
+	/**
+	 * The maximum number of files whose state is remembered.
+	 */
+	private static final int MAX_FILES = 5000;
+
+	/**
+	 * The contents of a file, compared by value.
+	 */
+	private static final class Contents {
+		final byte[] bytes;
+		private final int hash;
+
+		Contents(byte[] bytes) {
+			this.bytes = bytes;
+			this.hash = Arrays.hashCode(bytes);
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj)
+				return true;
+			if (!(obj instanceof Contents))
+				return false;
+			Contents other = (Contents) obj;
+			return hash == other.hash && Arrays.equals(bytes, other.bytes);
+		}
+	}
+
+	/**
+	 * The state of a file when it was last read.
+	 */
+	private static final class FileState {
+		final long modificationStamp;
+		final long lastModified;
+		final long length;
+		final Contents contents;
+
+		FileState(long modificationStamp, long lastModified, long length, Contents contents) {
+			this.modificationStamp = modificationStamp;
+			this.lastModified = lastModified;
+			this.length = length;
+			this.contents = contents;
+		}
+	}
+
+	/**
+	 * Parsed preferences, together with the contents they were parsed from.
+	 */
+	private static final class Parsed {
+		final Contents contents;
+		final Properties properties;
+
+		Parsed(Contents contents, Properties properties) {
+			this.contents = contents;
+			this.properties = properties;
+		}
+	}
+
+	private final Map<IPath, FileState> files = createLruMap(MAX_FILES);
+	private final Map<Contents, Parsed> parsed = createLruMap(MAX_CONTENTS);
+
+	private static <K, V> Map<K, V> createLruMap(int maxSize) {
+		return Collections.synchronizedMap(new LinkedHashMap<K, V>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+				return size() > maxSize;
+			}
+		});
+	}
+
+	/**
+	 * Returns the preferences stored in the given file. The result is a new
+	 * object that can be modified by the caller.
+	 */
+	Properties load(IFile file) throws CoreException, IOException {
+		IPath path = file.getFullPath();
+		long modificationStamp = file.getModificationStamp();
+		IPath location = file.getLocation();
+		java.io.File localFile = location == null ? null : location.toFile();
+		long lastModified = localFile == null ? 0 : localFile.lastModified();
+		long length = localFile == null ? 0 : localFile.length();
+
+		Contents contents;
+		boolean read = false;
+		FileState state = files.get(path);
+		if (localFile != null && state != null && state.modificationStamp == modificationStamp && state.lastModified == lastModified && state.length == length) {
+			contents = state.contents;
+		} else {
+			try (InputStream input = file.getContents(true)) {
+				contents = new Contents(input.readAllBytes());
+			}
+			read = true;
+		}
+
+		Parsed result = parsed.get(contents);
+		if (result == null) {
+			Properties properties = new Properties();
+			properties.load(new ByteArrayInputStream(contents.bytes));
+			Parsed created = new Parsed(contents, properties);
+			Parsed existing = parsed.putIfAbsent(contents, created);
+			result = existing == null ? created : existing;
+		} else if (Policy.DEBUG_PREFERENCES) {
+			Policy.debug("Reusing parsed preferences for file: " + path); //$NON-NLS-1$
+		}
+		// without a local file there is nothing to tell whether it changed
+		if (read && localFile != null)
+			files.put(path, new FileState(modificationStamp, lastModified, length, result.contents));
+		// the cached properties are shared, never hand them out
+		return (Properties) result.properties.clone();
+	}
+
+	/**
+	 * Forgets the state of the files at or below the given path.
+	 */
+	void forget(IPath path) {
+		synchronized (files) {
+			files.keySet().removeIf(path::isPrefixOf);
+		}
+	}
+}
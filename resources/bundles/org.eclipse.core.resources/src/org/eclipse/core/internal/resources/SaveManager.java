@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2016 IBM Corporation and others.
+ * Copyright (c) 2000, 2022 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -1677,7 +1677,7 @@ public class SaveManager implements IElementInfoFlattener, IManager, IStringPool
 		IPath syncInfoLocation = workspace.getMetaArea().getSyncInfoLocationFor(root);
 		IPath syncInfoTempLocation = workspace.getMetaArea().getBackupLocationFor(syncInfoLocation);
 		final List<String> writtenTypes = new ArrayList<>(5);
-		final List<QualifiedName> writtenPartners = new ArrayList<>(synchronizer.registry.size());
+		final SyncInfoWriter.Columns syncInfoColumns = new SyncInfoWriter.Columns();
 		DataOutputStream o1 = null;
 		DataOutputStream o2 = null;
 		String message;
@@ -1718,7 +1718,7 @@ public class SaveManager implements IElementInfoFlattener, IManager, IStringPool
 					// save the sync info - if we have the workspace root then the output stream will be null
 					if (syncInfoOutput != null) {
 						start = System.currentTimeMillis();
-						synchronizer.saveSyncInfo(info, requestor, syncInfoOutput, writtenPartners);
+						synchronizer.saveSyncInfo(info, requestor, syncInfoColumns);
 						long syncInfoSaveTime = System.currentTimeMillis() - start;
 						saveTimes[1] += syncInfoSaveTime;
 						persistSyncInfo += syncInfoSaveTime;
@@ -1738,6 +1738,13 @@ public class SaveManager implements IElementInfoFlattener, IManager, IStringPool
 			} catch (WrappedRuntimeException e) {
 				throw (IOException) e.getTargetException();
 			}
+			if (syncInfoOutput != null) {
+				long start = System.currentTimeMillis();
+				synchronizer.saveSyncInfo(syncInfoColumns, syncInfoOutput);
+				long syncInfoSaveTime = System.currentTimeMillis() - start;
+				saveTimes[1] += syncInfoSaveTime;
+				persistSyncInfo += syncInfoSaveTime;
+			}
 			if (Policy.DEBUG_SAVE_MARKERS)
 				Policy.debug("Save Markers for " + root.getFullPath() + ": " + saveTimes[0] + "ms"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
 			if (Policy.DEBUG_SAVE_SYNCINFO)
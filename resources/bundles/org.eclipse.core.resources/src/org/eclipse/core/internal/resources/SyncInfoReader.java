@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2016 IBM Corporation and others.
+ * Copyright (c) 2000, 2022 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -49,6 +49,8 @@ public class SyncInfoReader {
 				return new SyncInfoReader_2(workspace, synchronizer);
 			case 3 :
 				return new SyncInfoReader_3(workspace, synchronizer);
+			case 4 :
+				return new SyncInfoReader_4(workspace, synchronizer);
 			default :
 				throw new IOException(NLS.bind(Messages.resources_format, formatVersion));
 		}
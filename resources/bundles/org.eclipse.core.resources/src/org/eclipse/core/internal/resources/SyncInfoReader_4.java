@@ -0,0 +1,112 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.core.internal.resources;
+
+import java.io.*;
+import org.eclipse.core.internal.utils.Messages;
+import org.eclipse.core.internal.utils.ObjectMap;
+import org.eclipse.core.resources.IResourceStatus;
+import org.eclipse.core.runtime.*;
+import org.eclipse.osgi.util.NLS;
+
+/**
+ * This class is used to read sync info from disk. This is the implementation
+ * for reading files with version number 4.
+ */
+public class SyncInfoReader_4 extends SyncInfoReader {
+
+	public SyncInfoReader_4(Workspace workspace, Synchronizer synchronizer) {
+		super(workspace, synchronizer);
+	}
+
+	/**
+	 * <pre> {@code
+	 * SAVE_FILE -> VERSION_ID PARTNERS RESOURCE_COUNT PATH* SIZE* PARTNER_INDEX* LENGTH* BYTES*
+	 * VERSION_ID -> int
+	 * PARTNERS -> COUNT [String String]*
+	 * PATH -> PREFIX_LENGTH String
+	 * SIZE, PARTNER_INDEX, LENGTH, COUNT, PREFIX_LENGTH -> VARINT
+	 * BYTES -> byte*
+	 * }</pre>
+	 * @see SyncInfoWriter#saveSyncInfo(SyncInfoWriter.Columns, DataOutputStream)
+	 */
+	@Override
+	public void readSyncInfo(DataInputStream input) throws IOException, CoreException {
+		// read the rest of the file at once and decode the columns from memory
+		DataInputStream data = new DataInputStream(new ByteArrayInputStream(input.readAllBytes()));
+		QualifiedName[] partners = new QualifiedName[readVarInt(data)];
+		for (int i = 0; i < partners.length; i++) {
+			String qualifier = data.readUTF();
+			String local = data.readUTF();
+			partners[i] = new QualifiedName(qualifier, local);
+		}
+		IPath[] paths = new IPath[readVarInt(data)];
+		String previous = ""; //$NON-NLS-1$
+		for (int i = 0; i < paths.length; i++) {
+			int prefix = readVarInt(data);
+			if (prefix > previous.length())
+				throw corrupt(previous);
+			previous = previous.substring(0, prefix) + data.readUTF();
+			paths[i] = new Path(previous);
+		}
+		int[] sizes = new int[paths.length];
+		int entries = 0;
+		for (int i = 0; i < sizes.length; i++) {
+			sizes[i] = readVarInt(data);
+			entries += sizes[i];
+		}
+		QualifiedName[] names = new QualifiedName[entries];
+		for (int i = 0; i < entries; i++) {
+			int index = readVarInt(data);
+			if (index >= partners.length)
+				throw corrupt(""); //$NON-NLS-1$
+			names[i] = partners[index];
+		}
+		int[] lengths = new int[entries];
+		for (int i = 0; i < entries; i++)
+			lengths[i] = readVarInt(data);
+
+		int entry = 0;
+		for (int i = 0; i < paths.length; i++) {
+			ObjectMap<QualifiedName, Object> table = new ObjectMap<>(sizes[i]);
+			for (int j = 0; j < sizes[i]; j++, entry++) {
+				byte[] bytes = new byte[lengths[entry]];
+				data.readFully(bytes);
+				table.put(names[entry], bytes);
+			}
+			// set the table on the resource info
+			ResourceInfo info = workspace.getResourceInfo(paths[i], true, false);
+			if (info == null)
+				continue;
+			info.setSyncInfo(table);
+			info.clear(ICoreConstants.M_SYNCINFO_SNAP_DIRTY);
+		}
+	}
+
+	private static ResourceException corrupt(String path) {
+		String msg = NLS.bind(Messages.resources_readSync, path);
+		return new ResourceException(IResourceStatus.FAILED_READ_METADATA, null, msg, null);
+	}
+
+	static int readVarInt(DataInputStream input) throws IOException {
+		int value = 0;
+		for (int shift = 0; shift < 32; shift += 7) {
+			int b = input.readUnsignedByte();
+			value |= (b & 0x7F) << shift;
+			if ((b & 0x80) == 0)
+				return value;
+		}
+		throw new IOException("Malformed variable length int"); //$NON-NLS-1$
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2011 IBM Corporation and others.
+ * Copyright (c) 2000, 2022 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -25,13 +25,30 @@ public class SyncInfoWriter {
 	protected Workspace workspace;
 
 	// version number
-	public static final int SYNCINFO_SAVE_VERSION = 3;
+	public static final int SYNCINFO_SAVE_VERSION = 4;
+	public static final int SYNCINFO_SAVE_VERSION_3 = 3;
 	public static final int SYNCINFO_SNAP_VERSION = 3;
 
 	// for sync info
 	public static final byte INDEX = 1;
 	public static final byte QNAME = 2;
 
+	/**
+	 * Collects the sync info of the resources of a project, so that it can be
+	 * written column by column with {@link SyncInfoWriter#saveSyncInfo(Columns, DataOutputStream)}.
+	 * The sync bytes are not copied, they must not be changed until the columns
+	 * have been written.
+	 */
+	public static class Columns {
+		final Map<QualifiedName, Integer> partners = new LinkedHashMap<>();
+		final List<String> paths = new ArrayList<>();
+		// for each resource the number of its entries
+		final List<Integer> sizes = new ArrayList<>();
+		// for each entry the index of the partner and the sync bytes
+		final List<Integer> partnerIndexes = new ArrayList<>();
+		final List<byte[]> bytes = new ArrayList<>();
+	}
+
 	public SyncInfoWriter(Workspace workspace, Synchronizer synchronizer) {
 		super();
 		this.workspace = workspace;
@@ -68,7 +85,7 @@ public class SyncInfoWriter {
 		// if this is the first sync info that we have written, then
 		// write the version id for the file.
 		if (output.size() == 0)
-			output.writeInt(SYNCINFO_SAVE_VERSION);
+			output.writeInt(SYNCINFO_SAVE_VERSION_3);
 		output.writeUTF(requestor.requestPath().toString());
 		output.writeInt(table.size());
 		for (Map.Entry<QualifiedName, Object> entry : table.entrySet()) {
@@ -92,6 +109,80 @@ public class SyncInfoWriter {
 		}
 	}
 
+	/**
+	 * Adds the sync info of the given resource to the given columns.
+	 */
+	public void saveSyncInfo(ResourceInfo info, IPathRequestor requestor, Columns columns) {
+		Map<QualifiedName, Object> table = info.getSyncInfo(false);
+		if (table == null)
+			return;
+		columns.paths.add(requestor.requestPath().toString());
+		columns.sizes.add(table.size());
+		for (Map.Entry<QualifiedName, Object> entry : table.entrySet()) {
+			Integer index = columns.partners.get(entry.getKey());
+			if (index == null) {
+				index = columns.partners.size();
+				columns.partners.put(entry.getKey(), index);
+			}
+			columns.partnerIndexes.add(index);
+			columns.bytes.add((byte[]) entry.getValue());
+		}
+	}
+
+	/**
+	 * Writes the given columns. Nothing is written if they are empty.
+	 * Unlike {@link #saveSyncInfo(ResourceInfo, IPathRequestor, DataOutputStream, List)}
+	 * the partners are written once, and each path only by the characters
+	 * that differ from the path before.
+	 * <pre> {@code
+	 * SAVE_FILE -> VERSION_ID PARTNERS RESOURCE_COUNT PATH* SIZE* PARTNER_INDEX* LENGTH* BYTES*
+	 * VERSION_ID -> int
+	 * PARTNERS -> COUNT [String String]*
+	 * PATH -> PREFIX_LENGTH String
+	 * SIZE, PARTNER_INDEX, LENGTH, COUNT, PREFIX_LENGTH -> VARINT
+	 * BYTES -> byte*
+	 * }</pre>
+	 * A VARINT is an int written in groups of 7 bits, least significant group
+	 * first, with the highest bit set in all but the last byte.
+	 */
+	public void saveSyncInfo(Columns columns, DataOutputStream output) throws IOException {
+		if (columns.paths.isEmpty())
+			return;
+		output.writeInt(SYNCINFO_SAVE_VERSION);
+		writeVarInt(output, columns.partners.size());
+		for (QualifiedName name : columns.partners.keySet()) {
+			output.writeUTF(name.getQualifier());
+			output.writeUTF(name.getLocalName());
+		}
+		writeVarInt(output, columns.paths.size());
+		String previous = ""; //$NON-NLS-1$
+		for (String path : columns.paths) {
+			int prefix = 0;
+			int max = Math.min(previous.length(), path.length());
+			while (prefix < max && previous.charAt(prefix) == path.charAt(prefix))
+				prefix++;
+			writeVarInt(output, prefix);
+			output.writeUTF(path.substring(prefix));
+			previous = path;
+		}
+		for (Integer size : columns.sizes)
+			writeVarInt(output, size);
+		for (Integer index : columns.partnerIndexes)
+			writeVarInt(output, index);
+		for (byte[] bytes : columns.bytes)
+			writeVarInt(output, bytes.length);
+		for (byte[] bytes : columns.bytes)
+			output.write(bytes);
+	}
+
+	static void writeVarInt(DataOutputStream output, int value) throws IOException {
+		while ((value & ~0x7F) != 0) {
+			output.writeByte((value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		output.writeByte(value);
+	}
+
 	/**
 	 * <pre> {@code
 	 * SNAP_FILE -> [VERSION_ID RESOURCE]*
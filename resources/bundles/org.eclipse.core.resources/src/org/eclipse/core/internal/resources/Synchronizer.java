@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2015 IBM Corporation and others.
+ * Copyright (c) 2000, 2022 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -210,6 +210,14 @@ public class Synchronizer implements ISynchronizer {
 		writer.saveSyncInfo(info, requestor, output, writtenPartners);
 	}
 
+	public void saveSyncInfo(ResourceInfo info, IPathRequestor requestor, SyncInfoWriter.Columns columns) {
+		writer.saveSyncInfo(info, requestor, columns);
+	}
+
+	public void saveSyncInfo(SyncInfoWriter.Columns columns, DataOutputStream output) throws IOException {
+		writer.saveSyncInfo(columns, output);
+	}
+
 	protected void setRegistry(Set<QualifiedName> registry) {
 		this.registry = registry;
 	}
@@ -16,13 +16,19 @@
 package org.eclipse.core.internal.resources;
 
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
 import org.eclipse.core.internal.utils.Messages;
 import org.eclipse.core.resources.*;
 import org.eclipse.core.runtime.*;
+import org.eclipse.core.runtime.jobs.*;
 import org.eclipse.osgi.util.NLS;
 
 /**
  * Reports warning markers on projects without an explicit encoding setting.
+ * There is one job per workspace, owned by the {@link CharsetManager}, that
+ * validates all the projects scheduled since its last run at once.
  */
 public class ValidateProjectEncoding extends InternalWorkspaceJob {
 
@@ -39,27 +45,111 @@ public class ValidateProjectEncoding extends InternalWorkspaceJob {
 
 	public static void scheduleWorkspaceValidation(Workspace workspace) {
 		IProject[] projects = workspace.getRoot().getProjects();
-		ValidateProjectEncoding validateProjectEncoding = new ValidateProjectEncoding(workspace, projects);
-		validateProjectEncoding.setRule(workspace.getRoot());
-		validateProjectEncoding.schedule();
+		scheduleValidation(workspace, true, projects);
 	}
 
 	public static void scheduleProjectValidation(Workspace workspace, IProject project) {
 		// schedule a job only if marker state would change
 		boolean shouldScheduleValidation = shouldScheduleValidation(project);
 		if (shouldScheduleValidation) {
-			ValidateProjectEncoding validateProjectEncoding = new ValidateProjectEncoding(workspace, project);
-			validateProjectEncoding.setRule(project);
-			validateProjectEncoding.schedule();
+			scheduleValidation(workspace, false, project);
 		}
 	}
 
-	private final IProject[] projects;
+	private static void scheduleValidation(Workspace workspace, boolean wholeWorkspace, IProject... projects) {
+		CharsetManager charsetManager = workspace.getCharsetManager();
+		if (charsetManager != null) {
+			charsetManager.validateEncodingJob.addProjects(wholeWorkspace, projects);
+		}
+	}
+
+	/**
+	 * The projects to validate, in the order they were added
+	 */
+	private final Set<IProject> pendingProjects = new LinkedHashSet<>();
+
+	/**
+	 * Whether the pending projects include the validation of the whole
+	 * workspace, which runs with the workspace root as rule.
+	 * @GuardedBy("pendingProjects")
+	 */
+	private boolean workspaceValidation;
 
-	private ValidateProjectEncoding(Workspace workspace, IProject... projects) {
+	private final Workspace workspace;
+
+	ValidateProjectEncoding(Workspace workspace) {
 		super(Messages.resources_checkExplicitEncoding_jobName, workspace);
+		this.workspace = workspace;
 		setSystem(true);
-		this.projects = projects;
+		addJobChangeListener(new JobChangeAdapter() {
+			@Override
+			public void done(IJobChangeEvent event) {
+				// validate the projects added while running, or not covered by the rule of the run
+				if (event.getResult() == null || event.getResult().getSeverity() != IStatus.CANCEL) {
+					schedulePending();
+				}
+			}
+		});
+	}
+
+	/**
+	 * Schedules the validation of the given projects. Projects added while the
+	 * job is waiting are validated in the same run if its rule covers them, and
+	 * in the next run otherwise.
+	 *
+	 * @param wholeWorkspace whether this is the validation of the whole workspace
+	 */
+	void addProjects(boolean wholeWorkspace, IProject... projects) {
+		if (projects.length == 0)
+			return;
+		synchronized (pendingProjects) {
+			pendingProjects.addAll(Arrays.asList(projects));
+			workspaceValidation |= wholeWorkspace;
+		}
+		schedulePending();
+	}
+
+	/**
+	 * Schedules this job with a rule covering the pending projects, unless it
+	 * is already scheduled or running.
+	 */
+	private void schedulePending() {
+		synchronized (pendingProjects) {
+			if (pendingProjects.isEmpty() || getState() != Job.NONE)
+				return;
+			// only lock the projects being validated, so that builds of other projects can proceed
+			ISchedulingRule rule;
+			if (workspaceValidation) {
+				rule = workspace.getRoot();
+			} else if (pendingProjects.size() == 1) {
+				rule = pendingProjects.iterator().next();
+			} else {
+				rule = new MultiRule(pendingProjects.toArray(new ISchedulingRule[pendingProjects.size()]));
+			}
+			setRule(rule);
+			schedule();
+		}
+	}
+
+	/**
+	 * Returns the pending projects covered by the given rule, and removes them
+	 * from the pending projects.
+	 */
+	private IProject[] takePendingProjects(ISchedulingRule rule) {
+		synchronized (pendingProjects) {
+			List<IProject> projects = new ArrayList<>(pendingProjects.size());
+			for (Iterator<IProject> it = pendingProjects.iterator(); it.hasNext();) {
+				IProject project = it.next();
+				if (rule != null && rule.contains(project)) {
+					projects.add(project);
+					it.remove();
+				}
+			}
+			if (rule instanceof IWorkspaceRoot) {
+				workspaceValidation = false;
+			}
+			return projects.toArray(new IProject[projects.size()]);
+		}
 	}
 
 	@Override
@@ -67,36 +157,98 @@ public class ValidateProjectEncoding extends InternalWorkspaceJob {
 		return family == ValidateProjectEncoding.class;
 	}
 
+	@Override
+	public boolean shouldRun() {
+		synchronized (pendingProjects) {
+			return !pendingProjects.isEmpty();
+		}
+	}
+
 	@Override
 	public IStatus runInWorkspace(IProgressMonitor monitor) {
 		if (monitor.isCanceled()) {
 			return Status.CANCEL_STATUS;
 		}
-		SubMonitor subMonitor = SubMonitor.convert(monitor, projects.length);
-		for (IProject project : projects) {
+		IProject[] projects = takePendingProjects(getRule());
+		SubMonitor subMonitor = SubMonitor.convert(monitor, projects.length * 2);
+		int severity = getSeverity();
+		// reading the encodings loads the project preferences, so do it for all
+		// projects in parallel, and update the markers afterwards in this operation
+		Boolean[] missingEncodings = findMissingEncodings(projects, subMonitor.split(projects.length));
+		for (int i = 0; i < projects.length; i++) {
 			subMonitor.checkCanceled();
-			subMonitor.setTaskName(NLS.bind(Messages.resources_checkExplicitEncoding_taskName, project.getName()));
-			updateMissingEncodingMarker(project);
+			subMonitor.setTaskName(NLS.bind(Messages.resources_checkExplicitEncoding_taskName, projects[i].getName()));
+			if (missingEncodings[i] != null) {
+				updateMissingEncodingMarker(projects[i], severity, missingEncodings[i].booleanValue());
+			}
 			subMonitor.worked(1);
 		}
 		return Status.OK_STATUS;
 	}
 
+	/**
+	 * Returns for each of the given projects whether it has no explicit
+	 * encoding, or <code>null</code> if its markers are not to be updated.
+	 */
+	private static Boolean[] findMissingEncodings(IProject[] projects, IProgressMonitor monitor) {
+		Boolean[] missingEncodings = new Boolean[projects.length];
+		if (projects.length < 2) {
+			for (int i = 0; i < projects.length; i++) {
+				missingEncodings[i] = findMissingEncoding(projects[i]);
+			}
+			return missingEncodings;
+		}
+		// never use a shared ForkJoinPool.commonPool() as it may be busy with other tasks, which might deadlock:
+		ForkJoinPool forkJoinPool = new ForkJoinPool(ForkJoinPool.getCommonPoolParallelism());
+		try {
+			forkJoinPool.submit(() -> IntStream.range(0, projects.length).parallel().forEach(i -> {
+				if (!monitor.isCanceled()) {
+					missingEncodings[i] = findMissingEncoding(projects[i]);
+				}
+			})).get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new OperationCanceledException();
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException)
+				throw (RuntimeException) cause;
+			throw new IllegalStateException(cause);
+		} finally {
+			forkJoinPool.shutdown();
+		}
+		return missingEncodings;
+	}
+
+	private static Boolean findMissingEncoding(IProject project) {
+		try {
+			if (project.isAccessible() && !project.isHidden()) {
+				return Boolean.valueOf(getDefaultCharset(project) == null);
+			}
+		} catch (CoreException e) {
+			logException(e);
+		}
+		return null;
+	}
+
 	/**
 	 * Must be called from a workspace job
 	 *
 	 * @param project non null
 	 */
 	static void updateMissingEncodingMarker(IProject project) {
+		Boolean missingEncoding = findMissingEncoding(project);
+		if (missingEncoding != null) {
+			updateMissingEncodingMarker(project, getSeverity(), missingEncoding.booleanValue());
+		}
+	}
+
+	private static void updateMissingEncodingMarker(IProject project, int severity, boolean missingEncoding) {
 		try {
-			if (project.isAccessible() && !project.isHidden()) {
-				int severity = getSeverity();
-				String defaultCharset = getDefaultCharset(project);
-				if (severity != SEVERITY_IGNORE && defaultCharset == null) {
-					createOrUpdateMissingEncodingMarker(project, severity);
-				} else {
-					deleteEncodingMarkers(project);
-				}
+			if (severity != SEVERITY_IGNORE && missingEncoding) {
+				createOrUpdateMissingEncodingMarker(project, severity);
+			} else {
+				deleteEncodingMarkers(project);
 			}
 		} catch (CoreException e) {
 			logException(e);
@@ -640,6 +640,7 @@ public class Workspace extends PlatformObject implements IWorkspace, ICoreConsta
 				for (IProject project : projects) {
 					//notify managers of closing so they can cleanup
 					broadcastEvent(LifecycleEvent.newEvent(LifecycleEvent.PRE_PROJECT_CLOSE, project));
+					ProjectPreferences.closed(project);
 					subMonitor.worked(1);
 				}
 				//empty the workspace tree so we leave in a clean state
@@ -0,0 +1,122 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.core.internal.filesystem.zip;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.NonWritableChannelException;
+import java.nio.channels.SeekableByteChannel;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * A read-only channel on an entry of a local zip file. The entry is looked
+ * up in the central directory of the zip file, so moving the position
+ * backward only has to read the entry again, not the whole archive.
+ */
+public class ZipEntryChannel implements SeekableByteChannel {
+	private final ZipFile zipFile;
+	private final ZipEntry entry;
+	private long position;
+	private InputStream stream;
+	/**
+	 * The position of the next byte read from the stream.
+	 */
+	private long streamPosition;
+	private boolean open = true;
+
+	/**
+	 * Creates a channel on an entry of the given zip file. The zip file is
+	 * closed when the channel is closed.
+	 */
+	public ZipEntryChannel(ZipFile zipFile, ZipEntry entry) {
+		this.zipFile = zipFile;
+		this.entry = entry;
+	}
+
+	private void seekStream(long target) throws IOException {
+		if (stream == null || streamPosition > target) {
+			if (stream != null)
+				stream.close();
+			stream = zipFile.getInputStream(entry);
+			streamPosition = 0;
+		}
+		while (streamPosition < target) {
+			long skipped = stream.skip(target - streamPosition);
+			if (skipped <= 0)
+				return;
+			streamPosition += skipped;
+		}
+	}
+
+	@Override
+	public synchronized int read(ByteBuffer dst) throws IOException {
+		if (!isOpen())
+			throw new ClosedChannelException();
+		if (position >= size())
+			return -1;
+		seekStream(position);
+		byte[] buffer = new byte[Math.min(dst.remaining(), 8192)];
+		int count = stream.read(buffer);
+		if (count <= 0)
+			return count;
+		dst.put(buffer, 0, count);
+		position += count;
+		streamPosition += count;
+		return count;
+	}
+
+	@Override
+	public int write(ByteBuffer src) throws IOException {
+		throw new NonWritableChannelException();
+	}
+
+	@Override
+	public synchronized long position() throws IOException {
+		return position;
+	}
+
+	@Override
+	public synchronized SeekableByteChannel position(long newPosition) throws IOException {
+		if (newPosition < 0)
+			throw new IllegalArgumentException("Negative position: " + newPosition); //$NON-NLS-1$
+		position = newPosition;
+		return this;
+	}
+
+	@Override
+	public long size() throws IOException {
+		return entry.getSize();
+	}
+
+	@Override
+	public SeekableByteChannel truncate(long size) throws IOException {
+		throw new NonWritableChannelException();
+	}
+
+	@Override
+	public synchronized boolean isOpen() {
+		return open;
+	}
+
+	@Override
+	public synchronized void close() throws IOException {
+		open = false;
+		stream = null;
+		//closes the streams of its entries as well
+		zipFile.close();
+	}
+}
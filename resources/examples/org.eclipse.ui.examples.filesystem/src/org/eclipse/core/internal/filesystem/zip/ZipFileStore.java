@@ -17,8 +17,10 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.channels.SeekableByteChannel;
 import java.util.HashMap;
 import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
 import java.util.zip.ZipInputStream;
 import org.eclipse.core.filesystem.*;
 import org.eclipse.core.filesystem.provider.FileInfo;
@@ -235,6 +237,46 @@ public class ZipFileStore extends FileStore {
 		}
 	}
 
+	/**
+	 * Seeks within the entry if the zip file is local, instead of reading the
+	 * archive up to the entry and the entry up to the position.
+	 */
+	@Override
+	public SeekableByteChannel openChannel(int options, IProgressMonitor monitor) throws CoreException {
+		java.io.File localFile = rootStore.toLocalFile(EFS.NONE, monitor);
+		if (localFile == null) {
+			return super.openChannel(options, monitor);
+		}
+		ZipFile zipFile = null;
+		try {
+			zipFile = new ZipFile(localFile);
+			ZipEntry entry = zipFile.getEntry(path.toString());
+			if (entry == null) {
+				throw new CoreException(Status.error("File not found: " + rootStore.toString()));
+			}
+			if (entry.isDirectory()) {
+				throw new CoreException(Status.error("Resource is not a file: " + rootStore.toString()));
+			}
+			return new ZipEntryChannel(zipFile, entry);
+		} catch (IOException e) {
+			closeQuietly(zipFile);
+			throw new CoreException(Status.error("Could not read file: " + rootStore.toString(), e));
+		} catch (CoreException e) {
+			closeQuietly(zipFile);
+			throw e;
+		}
+	}
+
+	private static void closeQuietly(ZipFile zipFile) {
+		if (zipFile != null) {
+			try {
+				zipFile.close();
+			} catch (IOException e) {
+				// ignore
+			}
+		}
+	}
+
 	@Override
 	public URI toURI() {
 		try {
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2005, 2012 IBM Corporation and others.
+ * Copyright (c) 2005, 2022 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -21,7 +21,8 @@ import org.junit.runners.Suite;
  * Class for collecting all test classes that deal with the file system API.
  */
 @RunWith(Suite.class)
-@Suite.SuiteClasses({ CreateDirectoryTest.class, DeleteTest.class, EFSTest.class, FileCacheTest.class,
-		FileStoreTest.class, OpenOutputStreamTest.class, PutInfoTest.class, SymlinkTest.class, URIUtilTest.class })
+@Suite.SuiteClasses({ CachingFileSystemTest.class, CreateDirectoryTest.class, DeleteTest.class, EFSTest.class, FileCacheTest.class,
+		FileStoreTest.class, OpenChannelTest.class, OpenOutputStreamTest.class, PutInfoTest.class, SymlinkTest.class,
+		URIUtilTest.class })
 public class AllFileSystemTests {
 }
@@ -0,0 +1,180 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.core.tests.filesystem;
+
+import java.io.OutputStream;
+import java.net.URI;
+import java.util.Arrays;
+import org.eclipse.core.filesystem.*;
+import org.eclipse.core.filesystem.provider.FileSystem;
+import org.eclipse.core.internal.filesystem.CachingFileSystem;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.tests.internal.filesystem.ram.MemoryTree;
+
+/**
+ * Tests for the caching of file infos and child lists by {@link CachingFileSystem}.
+ */
+public class CachingFileSystemTest extends FileSystemTest {
+	private static final URI BASE_URI = URI.create("mem:/baseStore");
+
+	private CachingFileSystem fileSystem;
+	/** The base store, accessed without the cache */
+	private IFileStore uncachedBaseStore;
+
+	@Override
+	protected void doFSSetUp() throws Exception {
+		MemoryTree.TREE.deleteAll();
+		fileSystem = new CachingFileSystem(EFS.getFileSystem("mem"), 60000, 100);
+		baseStore = fileSystem.getStore(BASE_URI);
+		baseStore.mkdir(EFS.NONE, null);
+		uncachedBaseStore = EFS.getStore(BASE_URI);
+	}
+
+	public void testChangesByOtherMeans() throws Exception {
+		IFileStore file = baseStore.getChild("file");
+		ensureExists(file, false);
+		assertTrue("1.0", file.fetchInfo().exists());
+		assertEquals("1.1", Arrays.asList("file"), Arrays.asList(baseStore.childNames(EFS.NONE, getMonitor())));
+		assertEquals("1.2", 1, baseStore.childInfos(EFS.NONE, getMonitor()).length);
+
+		// not seen until the cache is cleared
+		uncachedBaseStore.getChild("file").delete(EFS.NONE, getMonitor());
+		assertTrue("2.0", file.fetchInfo().exists());
+		assertEquals("2.1", 1, baseStore.childInfos(EFS.NONE, getMonitor()).length);
+		assertEquals("2.2", 1, baseStore.childNames(EFS.NONE, getMonitor()).length);
+
+		fileSystem.clearCache();
+		assertFalse("3.0", file.fetchInfo().exists());
+		assertEquals("3.1", 0, baseStore.childInfos(EFS.NONE, getMonitor()).length);
+	}
+
+	public void testChangesThroughStore() throws Exception {
+		IFileStore folder = baseStore.getChild("folder");
+		IFileStore file = folder.getChild("file");
+		assertFalse("1.0", folder.fetchInfo().exists());
+		assertEquals("1.1", 0, baseStore.childNames(EFS.NONE, getMonitor()).length);
+
+		folder.mkdir(EFS.NONE, getMonitor());
+		assertTrue("2.0", folder.fetchInfo().isDirectory());
+		assertEquals("2.1", 1, baseStore.childNames(EFS.NONE, getMonitor()).length);
+
+		assertFalse("3.0", file.fetchInfo().exists());
+		try (OutputStream out = file.openOutputStream(EFS.NONE, getMonitor())) {
+			out.write(new byte[] {1, 2, 3});
+		}
+		assertEquals("3.1", 3, file.fetchInfo().getLength());
+		assertEquals("3.2", 1, folder.childInfos(EFS.NONE, getMonitor()).length);
+
+		IFileInfo info = EFS.createFileInfo();
+		info.setLastModified(file.fetchInfo().getLastModified() + 1000);
+		file.putInfo(info, EFS.SET_LAST_MODIFIED, getMonitor());
+		assertEquals("4.0", info.getLastModified(), file.fetchInfo().getLastModified());
+
+		IFileStore copy = baseStore.getChild("copy");
+		folder.copy(copy, EFS.NONE, getMonitor());
+		assertTrue("5.0", copy.getChild("file").fetchInfo().exists());
+		assertEquals("5.1", 2, baseStore.childNames(EFS.NONE, getMonitor()).length);
+
+		folder.delete(EFS.NONE, getMonitor());
+		assertFalse("6.0", folder.fetchInfo().exists());
+		assertFalse("6.1", file.fetchInfo().exists());
+		assertEquals("6.2", 1, baseStore.childNames(EFS.NONE, getMonitor()).length);
+
+		IFileStore moved = baseStore.getChild("moved");
+		copy.move(moved, EFS.NONE, getMonitor());
+		assertFalse("7.0", copy.getChild("file").fetchInfo().exists());
+		assertTrue("7.1", moved.getChild("file").fetchInfo().exists());
+		assertEquals("7.2", Arrays.asList("moved"), Arrays.asList(baseStore.childNames(EFS.NONE, getMonitor())));
+	}
+
+	public void testExpiry() throws Exception {
+		fileSystem = new CachingFileSystem(EFS.getFileSystem("mem"), 10, 100);
+		IFileStore file = fileSystem.getStore(BASE_URI).getChild("file");
+		assertFalse("1.0", file.fetchInfo().exists());
+		ensureExists(uncachedBaseStore.getChild("file"), false);
+		Thread.sleep(50);
+		assertTrue("2.0", file.fetchInfo().exists());
+	}
+
+	public void testEviction() throws Exception {
+		fileSystem = new CachingFileSystem(EFS.getFileSystem("mem"), 60000, 2);
+		IFileStore base = fileSystem.getStore(BASE_URI);
+		for (String name : new String[] {"a", "b", "c"}) {
+			assertFalse("1." + name, base.getChild(name).fetchInfo().exists());
+		}
+		ensureExists(uncachedBaseStore.getChild("a"), false);
+		ensureExists(uncachedBaseStore.getChild("c"), false);
+		// the least recently used entry has been evicted
+		assertTrue("2.0", base.getChild("a").fetchInfo().exists());
+		assertFalse("2.1", base.getChild("c").fetchInfo().exists());
+	}
+
+	public void testFetchFileTree() throws Exception {
+		IFileSystem memory = EFS.getFileSystem("mem");
+		// a wrapped file system that supplies file trees
+		FileSystem treeFileSystem = new FileSystem() {
+			@Override
+			public IFileStore getStore(URI uri) {
+				return memory.getStore(uri);
+			}
+
+			@Override
+			public IFileTree fetchFileTree(IFileStore root, IProgressMonitor monitor) throws CoreException {
+				return root.fetchInfoTree(Integer.MAX_VALUE, EFS.NONE, monitor);
+			}
+		};
+		treeFileSystem.initialize("mem");
+		fileSystem = new CachingFileSystem(treeFileSystem, 60000, 100);
+		ensureExists(uncachedBaseStore.getChild("folder"), true);
+		ensureExists(uncachedBaseStore.getChild("folder").getChild("file"), false);
+		IFileStore base = fileSystem.getStore(BASE_URI);
+		IFileStore folder = base.getChild("folder");
+		IFileStore file = folder.getChild("file");
+
+		IFileTree tree = fileSystem.fetchFileTree(base, getMonitor());
+		assertNotNull("1.0", tree);
+		assertEquals("1.1", base, tree.getTreeRoot());
+		assertEquals("1.2", Arrays.asList(folder), Arrays.asList(tree.getChildStores(base)));
+		assertSame("1.3", fileSystem, tree.getChildStores(folder)[0].getFileSystem());
+		assertTrue("1.4", tree.getFileInfo(file).exists());
+		assertEquals("1.5", 1, tree.getChildInfos(folder).length);
+
+		// the cache has been filled from the tree
+		uncachedBaseStore.getChild("folder").delete(EFS.NONE, getMonitor());
+		assertTrue("2.0", folder.fetchInfo().isDirectory());
+		assertTrue("2.1", file.fetchInfo().exists());
+		assertEquals("2.2", Arrays.asList("file"), Arrays.asList(folder.childNames(EFS.NONE, getMonitor())));
+		assertEquals("2.3", 1, base.childInfos(EFS.NONE, getMonitor()).length);
+
+		// wrapped file systems without file trees don't supply one
+		assertNull("3.0", new CachingFileSystem(memory, 60000, 100).fetchFileTree(base, getMonitor()));
+	}
+
+	public void testInfosAreCopies() {
+		IFileStore file = baseStore.getChild("file");
+		ensureExists(file, false);
+		file.fetchInfo().setLength(1000);
+		assertEquals("1.0", 1, file.fetchInfo().getLength());
+	}
+
+	public void testStores() {
+		IFileStore file = baseStore.getChild("file");
+		assertSame("1.0", fileSystem, file.getFileSystem());
+		assertEquals("1.1", baseStore, file.getParent());
+		assertTrue("1.2", baseStore.isParentOf(file));
+		assertEquals("1.3", BASE_URI.resolve("baseStore/file"), file.toURI());
+		assertEquals("1.4", file, fileSystem.getStore(file.toURI()));
+	}
+}
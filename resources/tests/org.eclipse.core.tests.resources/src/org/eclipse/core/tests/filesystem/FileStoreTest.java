@@ -1,5 +1,5 @@
 /*******************************************************************************
- *  Copyright (c) 2000, 2018 IBM Corporation and others.
+ *  Copyright (c) 2000, 2022 IBM Corporation and others.
  *
  *  This program and the accompanying materials
  *  are made available under the terms of the Eclipse Public License 2.0
@@ -13,8 +13,7 @@
  *******************************************************************************/
 package org.eclipse.core.tests.filesystem;
 
-import java.io.File;
-import java.io.OutputStream;
+import java.io.*;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.*;
@@ -362,6 +361,88 @@ public class FileStoreTest extends LocalStoreTest {
 		target.delete(EFS.NONE, null);
 	}
 
+	public void testCopyFileOverwrite() throws Throwable {
+		IFileStore temp = createDir(getWorkspace().getRoot().getLocation().append("temp").toString(), true);
+		try {
+			String content = "this is the content of the source";
+			String anotherContent = "this is the content of the destination";
+			IFileStore source = temp.getChild("source");
+			IFileStore destination = temp.getChild("destination");
+			createFile(source, content);
+			createFile(destination, anotherContent);
+
+			// without EFS.OVERWRITE the destination must not be touched
+			try {
+				source.copy(destination, EFS.NONE, getMonitor());
+				fail("1.0");
+			} catch (CoreException e) {
+				assertEquals("1.1", EFS.ERROR_EXISTS, e.getStatus().getCode());
+			}
+			assertTrue("1.2", compareContent(getContents(anotherContent), destination.openInputStream(EFS.NONE, null)));
+
+			source.copy(destination, EFS.OVERWRITE, getMonitor());
+			assertTrue("2.0", compareContent(getContents(content), destination.openInputStream(EFS.NONE, null)));
+		} finally {
+			temp.delete(EFS.NONE, null);
+		}
+	}
+
+	public void testCopyFileSubclass() throws Throwable {
+		IFileStore temp = createDir(getWorkspace().getRoot().getLocation().append("temp").toString(), true);
+		try {
+			String content = "this is the content of the source";
+			String anotherContent = "this is the content of the destination";
+			IFileStore destination = temp.getChild("destination");
+			createFile(temp.getChild("source"), content);
+			createFile(destination, anotherContent);
+			// a subclass providing its own streams, which must be used for the copy
+			List<String> opened = new ArrayList<>();
+			IFileStore source = new LocalFile(temp.getChild("source").toLocalFile(EFS.NONE, null)) {
+				@Override
+				public InputStream openInputStream(int options, IProgressMonitor monitor) throws CoreException {
+					opened.add(getName());
+					return new BufferedInputStream(super.openInputStream(options, monitor));
+				}
+			};
+
+			try {
+				source.copy(destination, EFS.NONE, getMonitor());
+				fail("1.0");
+			} catch (CoreException e) {
+				assertEquals("1.1", EFS.ERROR_EXISTS, e.getStatus().getCode());
+			}
+			assertTrue("1.2", compareContent(getContents(anotherContent), destination.openInputStream(EFS.NONE, null)));
+
+			source.copy(destination, EFS.OVERWRITE, getMonitor());
+			assertEquals("2.0", Collections.singletonList("source"), opened);
+			assertTrue("2.1", compareContent(getContents(content), destination.openInputStream(EFS.NONE, null)));
+		} finally {
+			temp.delete(EFS.NONE, null);
+		}
+	}
+
+	public void testCopyFileCanceled() throws Throwable {
+		IFileStore temp = createDir(getWorkspace().getRoot().getLocation().append("temp").toString(), true);
+		try {
+			IFileStore source = temp.getChild("source");
+			IFileStore destination = temp.getChild("destination");
+			createFile(source, "this is the content of the source");
+			IProgressMonitor monitor = new NullProgressMonitor();
+			monitor.setCanceled(true);
+			try {
+				source.copy(destination, EFS.NONE, monitor);
+				fail("1.0");
+			} catch (OperationCanceledException e) {
+				// expected
+			}
+			// no partially written destination is left behind
+			assertFalse("1.1", destination.fetchInfo().exists());
+			assertTrue("1.2", source.fetchInfo().exists());
+		} finally {
+			temp.delete(EFS.NONE, null);
+		}
+	}
+
 	public void testGetLength() throws Exception {
 		// evaluate test environment
 		IPath root = getWorkspace().getRoot().getLocation().append("" + new Date().getTime());
@@ -411,6 +492,88 @@ public class FileStoreTest extends LocalStoreTest {
 		temp.delete(EFS.NONE, null);
 	}
 
+	public void testFetchInfoTree() throws Exception {
+		IFileStore temp = createDir(getWorkspace().getRoot().getLocation().append("" + new Date().getTime()).toString(), true);
+		try {
+			IFileStore folder = temp.getChild("folder");
+			IFileStore subFolder = folder.getChild("subFolder");
+			IFileStore file = folder.getChild("file");
+			IFileStore subFile = subFolder.getChild("subFile");
+			createDir(subFolder, true);
+			createFile(file, "contents");
+			createFile(subFile, "more contents");
+
+			IFileTree tree = temp.fetchInfoTree(Integer.MAX_VALUE, EFS.NONE, getMonitor());
+			assertEquals("1.0", temp, tree.getTreeRoot());
+			assertTrue("1.1", tree.getFileInfo(temp).isDirectory());
+			assertEquals("1.2", 1, tree.getChildInfos(temp).length);
+			assertEquals("1.3", 2, tree.getChildInfos(folder).length);
+			assertEquals("1.4", 1, tree.getChildInfos(subFolder).length);
+			assertEquals("1.5", 0, tree.getChildInfos(file).length);
+			for (IFileStore store : new IFileStore[] {folder, subFolder, file, subFile}) {
+				IFileInfo expected = store.fetchInfo();
+				IFileInfo actual = tree.getFileInfo(store);
+				assertEquals("1.6." + store.getName(), expected.getName(), actual.getName());
+				assertEquals("1.7." + store.getName(), expected.isDirectory(), actual.isDirectory());
+				assertEquals("1.8." + store.getName(), expected.getLength(), actual.getLength());
+				assertEquals("1.9." + store.getName(), expected.getLastModified(), actual.getLastModified());
+			}
+			assertFalse("1.10", tree.getFileInfo(folder.getChild("missing")).exists());
+			assertEquals("1.11", new HashSet<>(Arrays.asList(file, subFolder)), new HashSet<>(Arrays.asList(tree.getChildStores(folder))));
+
+			// the tree is a snapshot of the fetched levels
+			subFile.delete(EFS.NONE, null);
+			assertTrue("2.0", tree.getFileInfo(subFile).exists());
+
+			// deeper levels are fetched from the file system on demand
+			tree = temp.fetchInfoTree(1, EFS.NONE, getMonitor());
+			assertEquals("3.0", 1, tree.getChildInfos(temp).length);
+			assertEquals("3.1", 2, tree.getChildInfos(folder).length);
+			assertEquals("3.2", 0, tree.getChildInfos(subFolder).length);
+
+			tree = temp.fetchInfoTree(0, EFS.NONE, getMonitor());
+			assertTrue("4.0", tree.getFileInfo(temp).exists());
+		} finally {
+			temp.delete(EFS.NONE, null);
+		}
+	}
+
+	public void testChildInfos() throws Exception {
+		IFileStore temp = createDir(getWorkspace().getRoot().getLocation().append("" + new Date().getTime()).toString(), true);
+		try {
+			IFileStore folder = temp.getChild("folder");
+			IFileStore file = temp.getChild("file");
+			createDir(folder.getChild("subFolder"), true);
+			createFile(file, "contents");
+
+			IFileInfo[] infos = temp.childInfos(EFS.NONE, getMonitor());
+			assertEquals("1.0", 2, infos.length);
+			for (IFileInfo actual : infos) {
+				IFileInfo expected = temp.getChild(actual.getName()).fetchInfo();
+				assertTrue("1.1." + actual.getName(), actual.exists());
+				assertEquals("1.2." + actual.getName(), expected.isDirectory(), actual.isDirectory());
+				assertEquals("1.3." + actual.getName(), expected.getLength(), actual.getLength());
+				assertEquals("1.4." + actual.getName(), expected.getLastModified(), actual.getLastModified());
+			}
+			// only one level is listed
+			assertEquals("2.0", 1, folder.childInfos(EFS.NONE, getMonitor()).length);
+			assertEquals("2.1", 0, temp.getChild("missing").childInfos(EFS.NONE, getMonitor()).length);
+		} finally {
+			temp.delete(EFS.NONE, null);
+		}
+	}
+
+	public void testChildInfosInvalidPath() throws Exception {
+		// a NUL character is not valid in a path on any platform
+		IFileStore invalid = new LocalFile(new File(getTempDir().toFile(), "invalid\0name"));
+		try {
+			invalid.childInfos(EFS.NONE, getMonitor());
+			fail("1.0");
+		} catch (CoreException e) {
+			assertEquals("1.1", EFS.ERROR_READ, e.getStatus().getCode());
+		}
+	}
+
 	public void testMove() throws Throwable {
 		/* build scenario */
 		IFileStore tempC = createDir(getWorkspace().getRoot().getLocation().append("temp").toString(), true);
@@ -0,0 +1,108 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.core.tests.filesystem;
+
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.NonWritableChannelException;
+import java.nio.channels.SeekableByteChannel;
+import org.eclipse.core.filesystem.*;
+import org.eclipse.core.runtime.CoreException;
+
+/**
+ * Black box tests for {@link IFileStore#openChannel(int, org.eclipse.core.runtime.IProgressMonitor)}
+ */
+public class OpenChannelTest extends FileSystemTest {
+	private static final int LENGTH = 100000;
+
+	private void createContents(IFileStore file) throws Exception {
+		byte[] contents = new byte[LENGTH];
+		for (int i = 0; i < LENGTH; i++) {
+			contents[i] = (byte) i;
+		}
+		try (OutputStream out = file.openOutputStream(EFS.NONE, getMonitor())) {
+			out.write(contents);
+		}
+	}
+
+	private void assertRead(String message, SeekableByteChannel channel, long position, int length) throws Exception {
+		channel.position(position);
+		ByteBuffer buffer = ByteBuffer.allocate(length);
+		while (buffer.hasRemaining() && channel.read(buffer) > 0) {
+			// keep reading
+		}
+		assertEquals(message + ".length", length, buffer.position());
+		for (int i = 0; i < length; i++) {
+			assertEquals(message + "." + i, (byte) (position + i), buffer.get(i));
+		}
+		assertEquals(message + ".position", position + length, channel.position());
+	}
+
+	private void doTestRandomAccess(IFileStore store) throws Exception {
+		IFileStore file = store.getChild("file");
+		createContents(file);
+		try (SeekableByteChannel channel = file.openChannel(EFS.NONE, getMonitor())) {
+			assertEquals("1.0", LENGTH, channel.size());
+			assertRead("1.1", channel, 0, 10);
+			assertRead("1.2", channel, 50000, 100);
+			// backward
+			assertRead("1.3", channel, 20, 1000);
+			assertRead("1.4", channel, LENGTH - 10, 10);
+			// at the end
+			channel.position(LENGTH + 10);
+			assertEquals("1.5", -1, channel.read(ByteBuffer.allocate(10)));
+			try {
+				channel.write(ByteBuffer.allocate(10));
+				fail("1.6");
+			} catch (NonWritableChannelException e) {
+				// expected
+			}
+		}
+	}
+
+	private void doTestErrors(IFileStore store) throws Exception {
+		try {
+			store.getChild("missing").openChannel(EFS.NONE, getMonitor()).close();
+			fail("1.0");
+		} catch (CoreException e) {
+			assertEquals("1.1", EFS.ERROR_NOT_EXISTS, e.getStatus().getCode());
+		}
+		IFileStore folder = store.getChild("folder");
+		folder.mkdir(EFS.NONE, getMonitor());
+		try {
+			folder.openChannel(EFS.NONE, getMonitor()).close();
+			fail("2.0");
+		} catch (CoreException e) {
+			assertEquals("2.1", EFS.ERROR_WRONG_TYPE, e.getStatus().getCode());
+		}
+	}
+
+	public void testRandomAccess() throws Exception {
+		doTestRandomAccess(baseStore);
+	}
+
+	public void testRandomAccessLocal() throws Exception {
+		localFileBaseStore.mkdir(EFS.NONE, getMonitor());
+		doTestRandomAccess(localFileBaseStore);
+	}
+
+	public void testErrors() throws Exception {
+		doTestErrors(baseStore);
+	}
+
+	public void testErrorsLocal() throws Exception {
+		localFileBaseStore.mkdir(EFS.NONE, getMonitor());
+		doTestErrors(localFileBaseStore);
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2004, 2015 IBM Corporation and others.
+ * Copyright (c) 2004, 2022 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -15,6 +15,8 @@
 package org.eclipse.core.tests.internal.resources;
 
 import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.*;
 import org.eclipse.core.internal.preferences.EclipsePreferences;
 import org.eclipse.core.internal.resources.ProjectPreferences;
@@ -1638,6 +1640,51 @@ public class ProjectPreferencesTest extends ResourceTest {
 		ProjectPreferences.updatePreferences(prefsFile);
 	}
 
+	public void testSameContentsInDifferentProjects() throws CoreException, BackingStoreException {
+		String nodeA = "nodeA";
+		IProject project1 = getProject(getUniqueString());
+		IProject project2 = getProject(getUniqueString());
+		IFile prefsFile1 = getFileInWorkspace(project1, nodeA);
+		IFile prefsFile2 = getFileInWorkspace(project2, nodeA);
+		ensureExistsInWorkspace(prefsFile1, "key=value\n");
+		ensureExistsInWorkspace(prefsFile2, "key=value\n");
+
+		Preferences prefs1 = new ProjectScope(project1).getNode(nodeA);
+		Preferences prefs2 = new ProjectScope(project2).getNode(nodeA);
+		assertEquals("1.0", "value", prefs1.get("key", null));
+		assertEquals("1.1", "value", prefs2.get("key", null));
+
+		// the preferences of projects with the same files must stay independent
+		prefs1.put("key", "changed");
+		assertEquals("2.0", "value", prefs2.get("key", null));
+
+		prefsFile2.setContents(getContents("key=other\n"), IResource.NONE, getMonitor());
+		assertEquals("3.0", "changed", prefs1.get("key", null));
+		assertEquals("3.1", "other", prefs2.get("key", null));
+
+		// reading an unchanged file again must not lose any value
+		ProjectPreferences.updatePreferences(prefsFile2);
+		assertEquals("4.0", "other", prefs2.get("key", null));
+	}
+
+	public void testChangedWhileProjectClosed() throws Exception {
+		String nodeA = "nodeA";
+		IProject project = getProject(getUniqueString());
+		IFile prefsFile = getFileInWorkspace(project, nodeA);
+		ensureExistsInWorkspace(prefsFile, "key=value1\n");
+		assertEquals("1.0", "value1", new ProjectScope(project).getNode(nodeA).get("key", null));
+
+		project.close(getMonitor());
+		// same length and time stamp, only reading the file again tells the difference
+		File file = prefsFile.getLocation().toFile();
+		long lastModified = file.lastModified();
+		Files.write(file.toPath(), "key=value2\n".getBytes(StandardCharsets.ISO_8859_1));
+		file.setLastModified(lastModified);
+		project.open(getMonitor());
+
+		assertEquals("2.0", "value2", new ProjectScope(project).getNode(nodeA).get("key", null));
+	}
+
 	public void testSettingsFolderCreatedOutsideWorkspace() throws CoreException, BackingStoreException, IOException {
 		String nodeA = "nodeA";
 		String key = "key";
@@ -1,5 +1,5 @@
 /*******************************************************************************
- *  Copyright (c) 2000, 2017 IBM Corporation and others.
+ *  Copyright (c) 2000, 2022 IBM Corporation and others.
  *
  *  This program and the accompanying materials
  *  are made available under the terms of the Eclipse Public License 2.0
@@ -595,6 +595,73 @@ public class ISynchronizerTest extends ResourceTest {
 		}
 	}
 
+	public void testSaveColumns() throws Exception {
+		final Map<IPath, byte[]> table = new HashMap<>();
+		final QualifiedName qname = new QualifiedName("org.eclipse.core.tests.resources", "myTarget");
+		final QualifiedName qname2 = new QualifiedName("org.eclipse.core.tests.resources", "myOtherTarget");
+		final Synchronizer synchronizer = (Synchronizer) ResourcesPlugin.getWorkspace().getSynchronizer();
+
+		// register the sync partners and set the sync info on the resources
+		synchronizer.add(qname);
+		synchronizer.add(qname2);
+		getWorkspace().getRoot().accept(resource -> {
+			if (resource.getType() != IResource.ROOT) {
+				byte[] b = getRandomString().getBytes();
+				synchronizer.setSyncInfo(qname, resource, b);
+				synchronizer.setSyncInfo(qname2, resource, new byte[0]);
+				table.put(resource.getFullPath(), b);
+			}
+			return true;
+		});
+
+		// write out the data
+		SyncInfoWriter.Columns columns = new SyncInfoWriter.Columns();
+		getWorkspace().getRoot().accept(resource -> {
+			ResourceInfo info = ((Resource) resource).getResourceInfo(false, false);
+			if (info != null) {
+				synchronizer.saveSyncInfo(info, new IPathRequestor() {
+					@Override
+					public IPath requestPath() {
+						return resource.getFullPath();
+					}
+
+					@Override
+					public String requestName() {
+						return resource.getName();
+					}
+				}, columns);
+			}
+			return true;
+		});
+		File file = Platform.getLocation().append(".testsyncinfo").toFile();
+		try (DataOutputStream output = new DataOutputStream(new FileOutputStream(file))) {
+			synchronizer.saveSyncInfo(columns, output);
+		}
+
+		// flush the sync info in memory and read in the data
+		flushAllSyncInfo(getWorkspace().getRoot());
+		try (DataInputStream input = new DataInputStream(new FileInputStream(file))) {
+			getWorkspace().run((IWorkspaceRunnable) monitor -> {
+				try {
+					new SyncInfoReader((Workspace) getWorkspace(), synchronizer).readSyncInfo(input);
+				} catch (IOException e) {
+					fail("1.0", e);
+				}
+			}, getMonitor());
+		}
+
+		// confirm the sync bytes are the same
+		getWorkspace().getRoot().accept(resource -> {
+			if (resource.getType() == IResource.ROOT) {
+				assertNull("2.0", synchronizer.getSyncInfo(qname, resource));
+				return true;
+			}
+			assertTrue("2.1." + resource.getFullPath(), Arrays.equals(table.get(resource.getFullPath()), synchronizer.getSyncInfo(qname, resource)));
+			assertEquals("2.2." + resource.getFullPath(), 0, synchronizer.getSyncInfo(qname2, resource).length);
+			return true;
+		});
+	}
+
 	public void testSnap() {
 		/*
 		 final Hashtable table = new Hashtable(10);
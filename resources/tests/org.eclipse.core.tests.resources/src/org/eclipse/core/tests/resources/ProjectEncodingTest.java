@@ -17,6 +17,7 @@ import static org.hamcrest.MatcherAssert.assertThat;
 
 import org.eclipse.core.internal.resources.PreferenceInitializer;
 import org.eclipse.core.internal.resources.ValidateProjectEncoding;
+import org.eclipse.core.internal.resources.Workspace;
 import org.eclipse.core.internal.utils.Messages;
 import org.eclipse.core.resources.*;
 import org.eclipse.core.runtime.CoreException;
@@ -140,6 +141,62 @@ public class ProjectEncodingTest extends ResourceTest {
 		thenProjectHasNoEncodingMarker();
 	}
 
+	@Test
+	public void test_ManyProjects_PreferenceChanges_MarkersAreUpdatedForAllProjects() throws Exception {
+		givenPreferenceIsSetTo(IGNORE);
+		IProject[] projects = new IProject[10];
+		try {
+			for (int i = 0; i < projects.length; i++) {
+				projects[i] = ResourcesPlugin.getWorkspace().getRoot().getProject(getUniqueString());
+				ensureExistsInWorkspace(projects[i], true);
+				// every other project has no explicit encoding
+				projects[i].setDefaultCharset(i % 2 == 0 ? null : "UTF-8", null);
+			}
+			buildAndWaitForBuildFinish();
+
+			whenPreferenceIsChangedTo(IMarker.SEVERITY_ERROR);
+			for (int i = 0; i < projects.length; i++) {
+				IMarker[] markers = projects[i].findMarkers(ValidateProjectEncoding.MARKER_TYPE, false, IResource.DEPTH_ONE);
+				assertEquals(projects[i].getName(), i % 2 == 0 ? 1 : 0, markers.length);
+				if (markers.length == 1) {
+					assertEquals(projects[i].getName(), IMarker.SEVERITY_ERROR, markers[0].getAttribute(IMarker.SEVERITY, -1));
+				}
+			}
+		} finally {
+			for (IProject each : projects) {
+				if (each != null) {
+					each.delete(true, null);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void test_ProjectValidation_OtherProjectIsLocked_ValidationRuns() throws Exception {
+		givenPreferenceIsSetTo(IGNORE);
+		whenProjectIsCreated();
+		whenProjectSpecificEncodingWasRemoved();
+		IProject other = ResourcesPlugin.getWorkspace().getRoot().getProject(getUniqueString());
+		ensureExistsInWorkspace(other, true);
+		try {
+			Job.getJobManager().beginRule(other, null);
+			try {
+				ValidateProjectEncoding.scheduleProjectValidation((Workspace) ResourcesPlugin.getWorkspace(), project);
+				// the validation of a project only locks that project
+				long end = System.currentTimeMillis() + 10000;
+				while (Job.getJobManager().find(ValidateProjectEncoding.class).length > 0 && System.currentTimeMillis() < end) {
+					Thread.sleep(10);
+				}
+				assertEquals("Validation is blocked by the rule of another project", 0,
+						Job.getJobManager().find(ValidateProjectEncoding.class).length);
+			} finally {
+				Job.getJobManager().endRule(other);
+			}
+		} finally {
+			other.delete(true, null);
+		}
+	}
+
 	private void whenPreferenceIsChangedTo(int severity) throws Exception {
 		givenPreferenceIsSetTo(severity);
 	}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2004, 2018 IBM Corporation and others.
+ * Copyright (c) 2004, 2022 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -27,8 +27,7 @@ import static org.junit.Assert.assertTrue;
 import java.io.*;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
-import java.util.HashSet;
-import java.util.Set;
+import java.util.*;
 import org.eclipse.core.internal.content.*;
 import org.eclipse.core.runtime.*;
 import org.eclipse.core.runtime.content.*;
@@ -957,6 +956,9 @@ public class IContentTypeManagerTest extends ContentTypeTest {
 		assertEquals(targetContentType, single);
 		single = finder.findContentTypeFor(getInputStream("Just a test"), "somepredefinedContentTypeWithWildcardsFile");
 		assertEquals(targetContentType, single);
+		// a file pattern without wildcards matches exactly that name
+		single = finder.findContentTypeFor(getInputStream("Just a test"), "somethingElseToCheckCommaSeparated");
+		assertEquals(targetContentType, single);
 	}
 
 	@Test
@@ -974,6 +976,38 @@ public class IContentTypeManagerTest extends ContentTypeTest {
 		assertEquals("Text content should now match *Text* files", textContentType, single);
 	}
 
+	@Test
+	public void testGetDescriptionsFor() throws IOException {
+		IContentTypeManager contentTypeManager = Platform.getContentTypeManager();
+		String[] contents = { MINIMAL_XML, XML_ISO_8859_1, XML_UTF_16, "some contents" };
+		Charset[] charsets = { StandardCharsets.UTF_8, StandardCharsets.ISO_8859_1, StandardCharsets.UTF_16,
+				StandardCharsets.UTF_8 };
+		String[] fileNames = { "foo.xml", "bar.xml", "baz.xml", "abc.tzt" };
+		List<Integer> sources = new ArrayList<>();
+		for (int i = 0; i < 200; i++) {
+			sources.add(i);
+		}
+		Map<Integer, IContentDescription> descriptions = contentTypeManager.getDescriptionsFor(sources,
+				i -> i == 0 ? null : fileNames[i % fileNames.length], i -> {
+					if (i == 1) {
+						throw new IOException("This exception was thrown for testing purposes");
+					}
+					return getInputStream(contents[i % contents.length], charsets[i % charsets.length]);
+				}, IContentDescription.ALL, 4);
+		assertFalse("1.0", descriptions.containsKey(1));
+		assertEquals("1.1", sources.size() - 1, descriptions.size());
+		for (Map.Entry<Integer, IContentDescription> entry : descriptions.entrySet()) {
+			int i = entry.getKey();
+			IContentDescription expected = contentTypeManager.getDescriptionFor(
+					getInputStream(contents[i % contents.length], charsets[i % charsets.length]),
+					i == 0 ? null : fileNames[i % fileNames.length], IContentDescription.ALL);
+			IContentDescription actual = entry.getValue();
+			assertNotNull("2.0." + i, actual);
+			assertEquals("2.1." + i, expected.getContentType(), actual.getContentType());
+			assertEquals("2.2." + i, expected.getCharset(), actual.getCharset());
+		}
+	}
+
 	@Test
 	public void testImportFileAssociation() throws CoreException {
 		IContentTypeManager contentTypeManager = Platform.getContentTypeManager();
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2006, 2015 IBM Corporation and others.
+ * Copyright (c) 2006, 2022 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -13,6 +13,8 @@
  *******************************************************************************/
 package org.eclipse.core.tests.resources.perf;
 
+import java.io.ByteArrayInputStream;
+import java.util.Random;
 import org.eclipse.core.filesystem.EFS;
 import org.eclipse.core.filesystem.IFileStore;
 import org.eclipse.core.runtime.CoreException;
@@ -23,6 +25,8 @@ import org.eclipse.core.tests.resources.OldCorePerformanceTest;
  */
 public class BenchCopyFile extends OldCorePerformanceTest {
 	private static final int COUNT = 5000;
+	private static final int LARGE_COUNT = 20;
+	private static final int LARGE_SIZE = 32 * 1024 * 1024;
 
 	public void testCopyFile() {
 		IFileStore input = getTempStore();
@@ -43,6 +47,27 @@ public class BenchCopyFile extends OldCorePerformanceTest {
 
 	}
 
+	public void testCopyLargeFile() {
+		IFileStore input = getTempStore();
+		byte[] contents = new byte[LARGE_SIZE];
+		new Random(0).nextBytes(contents);
+		createFileInFileSystem(input, new ByteArrayInputStream(contents));
+		IFileStore[] output = new IFileStore[LARGE_COUNT];
+		for (int i = 0; i < output.length; i++) {
+			output[i] = getTempStore();
+		}
+		startBench();
+		for (IFileStore element : output) {
+			try {
+				input.copy(element, EFS.NONE, null);
+			} catch (CoreException e) {
+				fail("4.99", e);
+			}
+		}
+		stopBench("copyLargeFile", LARGE_COUNT);
+		assertEquals("5.0", LARGE_SIZE, output[0].fetchInfo().getLength());
+	}
+
 	/**
 	 * Override to get a bigger string
 	 */
@@ -0,0 +1,71 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.core.tests.resources.perf;
+
+import org.eclipse.core.internal.resources.ProjectPreferences;
+import org.eclipse.core.resources.*;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.preferences.IEclipsePreferences;
+import org.eclipse.core.tests.harness.PerformanceTestRunner;
+import org.eclipse.core.tests.resources.ResourceTest;
+import org.osgi.service.prefs.BackingStoreException;
+
+/**
+ * Measures reading the preferences of many projects that share the same
+ * preference files, like projects generated by the same tool.
+ */
+public class ProjectPreferencesPerformanceTest extends ResourceTest {
+	private static final int PROJECTS = 100;
+	private static final int KEYS = 500;
+	private static final String QUALIFIER = "org.eclipse.core.tests.resources.perf";
+
+	private IProject[] projects;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		StringBuilder contents = new StringBuilder();
+		for (int i = 0; i < KEYS; i++) {
+			contents.append("key").append(i).append("=value\\ ").append(i).append('\n');
+		}
+		projects = new IProject[PROJECTS];
+		for (int i = 0; i < PROJECTS; i++) {
+			projects[i] = getWorkspace().getRoot().getProject("project" + i);
+			IFile file = projects[i].getFile(".settings/" + QUALIFIER + ".prefs");
+			ensureExistsInWorkspace(file, contents.toString());
+		}
+	}
+
+	public void testUpdateProjectPreferences() throws BackingStoreException {
+		IFile[] files = new IFile[PROJECTS];
+		for (int i = 0; i < PROJECTS; i++) {
+			files[i] = projects[i].getFile(".settings/" + QUALIFIER + ".prefs");
+			IEclipsePreferences node = new ProjectScope(projects[i]).getNode(QUALIFIER);
+			assertEquals(projects[i].getName(), KEYS, node.keys().length);
+		}
+		new PerformanceTestRunner() {
+			@Override
+			protected void test() {
+				// what happens for each preference file when the projects are refreshed
+				try {
+					for (IFile file : files) {
+						ProjectPreferences.updatePreferences(file);
+					}
+				} catch (CoreException e) {
+					fail("Failed to update preferences", e);
+				}
+			}
+		}.run(this, 10, 10);
+	}
+}
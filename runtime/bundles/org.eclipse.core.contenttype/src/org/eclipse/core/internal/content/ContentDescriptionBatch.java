@@ -0,0 +1,174 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.core.internal.content;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import org.eclipse.core.runtime.QualifiedName;
+import org.eclipse.core.runtime.content.*;
+import org.eclipse.core.runtime.content.IContentTypeMatcher.IContentsProvider;
+
+/**
+ * Describes the contents of many sources at once.
+ * <p>
+ * The sources are grouped by the content types associated to their file
+ * names, and every group is split into chunks. Worker threads take chunks from
+ * a shared queue, so that sources of the same content types are usually
+ * described one after another by the same thread. Every worker reuses one
+ * buffer for all the contents it reads. The calling thread takes part, and
+ * the other workers run on a bounded pool of threads shared by all batches.
+ * </p>
+ *
+ * @see IContentTypeMatcher#getDescriptionsFor(Collection, Function, IContentsProvider, QualifiedName[], int)
+ */
+final class ContentDescriptionBatch<T> {
+	private static final int CHUNK_SIZE = 32;
+
+	private final ContentTypeCatalog catalog;
+	private final ContentTypeMatcher matcher;
+	private final List<T> sources;
+	private final String[] fileNames;
+	private final IContentsProvider<? super T> contents;
+	private final QualifiedName[] options;
+	private final IContentDescription[] descriptions;
+	private final boolean[] described;
+	private final Queue<int[]> chunks = new ConcurrentLinkedQueue<>();
+	/**
+	 * The first unexpected failure of a worker, which stops all workers.
+	 */
+	private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+	ContentDescriptionBatch(ContentTypeCatalog catalog, ContentTypeMatcher matcher, Collection<? extends T> sources, Function<? super T, String> fileNames, IContentsProvider<? super T> contents, QualifiedName[] options) {
+		this.catalog = catalog;
+		this.matcher = matcher;
+		this.sources = new ArrayList<>(sources);
+		this.contents = contents;
+		this.options = options;
+		int size = this.sources.size();
+		this.fileNames = new String[size];
+		for (int i = 0; i < size; i++)
+			this.fileNames[i] = fileNames.apply(this.sources.get(i));
+		this.descriptions = new IContentDescription[size];
+		this.described = new boolean[size];
+	}
+
+	/**
+	 * The threads shared by all batches. Their number is bounded, so that
+	 * concurrent batches do not add threads beyond the number of processors.
+	 */
+	private static final ExecutorService WORKERS;
+	static {
+		int threads = Runtime.getRuntime().availableProcessors();
+		ThreadPoolExecutor threadPool = new ThreadPoolExecutor(threads, threads, 10, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+			Thread thread = new Thread(runnable, "Content Description Worker"); //$NON-NLS-1$
+			thread.setDaemon(true);
+			return thread;
+		});
+		// do not keep threads while nothing is described
+		threadPool.allowCoreThreadTimeOut(true);
+		WORKERS = threadPool;
+	}
+
+	/**
+	 * Describes all sources using at most the given number of threads,
+	 * including the calling thread. The other threads are taken from a pool
+	 * shared by all batches, as far as it has idle threads.
+	 */
+	Map<T, IContentDescription> run(int parallelism) {
+		createChunks();
+		List<Future<?>> workers = new ArrayList<>();
+		for (int i = Math.min(parallelism, chunks.size()) - 1; i > 0; i--)
+			workers.add(WORKERS.submit(this::describeChunks));
+		describeChunks();
+		boolean interrupted = false;
+		for (Future<?> worker : workers) {
+			// workers that have not started are not needed anymore
+			if (worker.cancel(false))
+				continue;
+			while (true) {
+				try {
+					worker.get();
+					break;
+				} catch (InterruptedException e) {
+					// stop describing, but wait for the contents being read
+					interrupted = true;
+					chunks.clear();
+				} catch (ExecutionException e) {
+					// failures are recorded by the workers
+					break;
+				}
+			}
+		}
+		if (interrupted)
+			Thread.currentThread().interrupt();
+		Throwable error = failure.get();
+		if (error instanceof RuntimeException)
+			throw (RuntimeException) error;
+		if (error instanceof Error)
+			throw (Error) error;
+		Map<T, IContentDescription> result = new LinkedHashMap<>();
+		for (int i = 0; i < descriptions.length; i++) {
+			if (described[i])
+				result.put(sources.get(i), descriptions[i]);
+		}
+		return result;
+	}
+
+	/**
+	 * Groups the sources by the content types associated to their file names.
+	 */
+	private void createChunks() {
+		Map<String, List<IContentType>> candidatesByName = new HashMap<>();
+		Map<List<IContentType>, List<Integer>> groups = new LinkedHashMap<>();
+		for (int i = 0; i < fileNames.length; i++) {
+			List<IContentType> candidates = fileNames[i] == null ? Collections.emptyList() : candidatesByName.computeIfAbsent(fileNames[i], name -> Arrays.asList(catalog.findContentTypesFor(matcher, name)));
+			groups.computeIfAbsent(candidates, c -> new ArrayList<>()).add(i);
+		}
+		for (List<Integer> group : groups.values()) {
+			for (int start = 0; start < group.size(); start += CHUNK_SIZE) {
+				int[] chunk = new int[Math.min(CHUNK_SIZE, group.size() - start)];
+				for (int i = 0; i < chunk.length; i++)
+					chunk[i] = group.get(start + i);
+				chunks.add(chunk);
+			}
+		}
+	}
+
+	private void describeChunks() {
+		LazyInputStream buffer = null;
+		int[] chunk;
+		while ((chunk = chunks.poll()) != null) {
+			for (int index : chunk) {
+				try (InputStream stream = contents.open(sources.get(index))) {
+					if (buffer == null)
+						buffer = new LazyInputStream(stream, ContentTypeManager.BLOCK_SIZE);
+					else
+						buffer.reuse(stream);
+					descriptions[index] = catalog.getDescriptionFor(matcher, buffer, fileNames[index], options);
+					described[index] = true;
+				} catch (IOException e) {
+					// not part of the result
+				} catch (RuntimeException | Error e) {
+					failure.compareAndSet(null, e);
+					chunks.clear();
+					return;
+				}
+			}
+		}
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2004, 2009 IBM Corporation and others.
+ * Copyright (c) 2004, 2022 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -431,9 +431,11 @@ public final class ContentType implements IContentType, IContentTypeInfo {
 		@SuppressWarnings("unchecked")
 		ArrayList<FileSpec> tmpFileSpecs = (ArrayList<FileSpec>) fileSpecs.clone();
 		tmpFileSpecs.add(newFileSpec);
-		catalog.associate(this, newFileSpec.getText(), newFileSpec.getType());
 		// set the new file specs atomically
 		fileSpecs = tmpFileSpecs;
+		// associating discards the cached lookups, so this must happen after the new
+		// file specs are visible, or a concurrent lookup could cache a stale result
+		catalog.associate(this, newFileSpec.getText(), newFileSpec.getType());
 		return true;
 	}
 
@@ -503,9 +505,9 @@ public final class ContentType implements IContentType, IContentTypeInfo {
 			FileSpec spec = i.next();
 			if ((spec.getType() == typeMask) && fileSpec.equals(spec.getText())) {
 				i.remove();
-				catalog.dissociate(this, spec.getText(), spec.getType());
-				// update the list of file specs
+				// update the list of file specs before the cached lookups are discarded
 				fileSpecs = tmpFileSpecs;
+				catalog.dissociate(this, spec.getText(), spec.getType());
 				return true;
 			}
 		}
@@ -16,7 +16,7 @@ package org.eclipse.core.internal.content;
 
 import java.io.*;
 import java.util.*;
-import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Pattern;
 import org.eclipse.core.runtime.*;
 import org.eclipse.core.runtime.content.*;
@@ -27,6 +27,46 @@ import org.eclipse.osgi.util.NLS;
 public final class ContentTypeCatalog {
 	private static final IContentType[] NO_CONTENT_TYPES = new IContentType[0];
 
+	/**
+	 * The maximum number of file name lookups remembered by a catalog.
+	 */
+	private static final int MAX_LOOKUP_CACHE_SIZE = 4096;
+
+	/**
+	 * Key of a remembered file name lookup.
+	 */
+	private static final class LookupKey {
+		final String fileName;
+		final Comparator<IContentType> sortingPolicy;
+
+		LookupKey(String fileName, Comparator<IContentType> sortingPolicy) {
+			this.fileName = fileName;
+			this.sortingPolicy = sortingPolicy;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof LookupKey))
+				return false;
+			LookupKey other = (LookupKey) obj;
+			return fileName.equals(other.fileName) && sortingPolicy == other.sortingPolicy;
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * fileName.hashCode() + System.identityHashCode(sortingPolicy);
+		}
+	}
+
+	/**
+	 * The results of file name lookups in the context of the content type
+	 * manager. Read without locking. Replaced by an empty map under the lock
+	 * on "this" whenever the content types or their associations change, so a
+	 * lookup never returns a result computed from an older state of this
+	 * catalog. A new generation of the catalog starts with an empty map.
+	 */
+	private volatile Map<LookupKey, IContentType[][]> lookupCache = new ConcurrentHashMap<>();
+
 	/**
 	 * All fields are guarded by lock on "this"
 	 */
@@ -37,6 +77,11 @@ public final class ContentTypeCatalog {
 	private final Map<String, Pattern> compiledRegexps = new HashMap<>();
 	private final Map<Pattern, String> initialPatternForRegexp = new HashMap<>();
 	private final Map<Pattern, Set<ContentType>> fileRegexps = new HashMap<>();
+	/**
+	 * Index of the keys of {@link #fileRegexps}, or <code>null</code> if it
+	 * needs to be rebuilt.
+	 */
+	private FilePatternIndex fileRegexpIndex;
 	private int generation;
 	private ContentTypeManager manager;
 
@@ -148,6 +193,7 @@ public final class ContentTypeCatalog {
 
 	synchronized void addContentType(IContentType contentType) {
 		contentTypes.put(contentType.getId(), contentType);
+		invalidateLookupCache();
 	}
 
 	/**
@@ -190,6 +236,7 @@ public final class ContentTypeCatalog {
 	}
 
 	synchronized void associate(ContentType contentType, String text, int type) {
+		invalidateLookupCache();
 		Map<String, Set<ContentType>> fileSpecMap = null;
 		if ((type & IContentType.FILE_NAME_SPEC) != 0) {
 			fileSpecMap = fileNames;
@@ -209,6 +256,7 @@ public final class ContentTypeCatalog {
 				compiledRegexps.put(text, compiledPattern);
 				initialPatternForRegexp.put(compiledPattern, text);
 				fileRegexps.put(compiledPattern, new HashSet<>());
+				fileRegexpIndex = null;
 			}
 			fileRegexps.get(compiledPattern).add(contentType);
 		}
@@ -277,6 +325,7 @@ public final class ContentTypeCatalog {
 	}
 
 	synchronized void dissociate(ContentType contentType, String text, int type) {
+		invalidateLookupCache();
 		Map<String, Set<ContentType>> fileSpecMap = ((type & IContentType.FILE_NAME_SPEC) != 0) ? fileNames : fileExtensions;
 		String mappingKey = FileSpec.getMappingKeyFor(text);
 		Set<ContentType> existing = fileSpecMap.get(mappingKey);
@@ -377,7 +426,7 @@ public final class ContentTypeCatalog {
 		return (type != null && type.isValid() && !type.isAlias()) ? type : null;
 	}
 
-	private IContentDescription getDescriptionFor(ContentTypeMatcher matcher, ILazySource contents, String fileName, QualifiedName[] options) throws IOException {
+	IContentDescription getDescriptionFor(ContentTypeMatcher matcher, ILazySource contents, String fileName, QualifiedName[] options) throws IOException {
 		IContentType[] selected = internalFindContentTypesFor(matcher, contents, fileName, false);
 		if (selected.length == 0)
 			return null;
@@ -499,13 +548,53 @@ public final class ContentTypeCatalog {
 		return internalFindContentTypesFor(buffer, subset, validPolicy, indeterminatePolicy);
 	}
 
+	/**
+	 * Returns the content types associated with the given file name. Lookups in
+	 * the context of the content type manager are remembered until the catalog
+	 * changes, and do not need to lock the catalog once remembered.
+	 *
+	 * @return all matching content types in the preferred order
+	 * @see IContentTypeManager#findContentTypesFor(String)
+	 */
+	private IContentType[][] internalFindContentTypesFor(ContentTypeMatcher matcher, final String fileName, Comparator<IContentType> sortingPolicy) {
+		if (!matcher.getContext().equals(manager.getContext()))
+			// associations in other contexts are stored in preferences and can change without notice
+			return computeContentTypesFor(matcher, fileName, sortingPolicy);
+		LookupKey key = new LookupKey(fileName, sortingPolicy);
+		IContentType[][] result = lookupCache.get(key);
+		if (result == null) {
+			synchronized (this) {
+				// the cache is only replaced while holding the lock, so the result matches this cache
+				Map<LookupKey, IContentType[][]> cache = lookupCache;
+				result = computeContentTypesFor(matcher, fileName, sortingPolicy);
+				if (cache.size() >= MAX_LOOKUP_CACHE_SIZE)
+					cache.clear();
+				cache.put(key, result);
+			}
+		}
+		// callers may modify the arrays
+		return new IContentType[][] {copy(result[0]), copy(result[1]), copy(result[2])};
+	}
+
+	private static IContentType[] copy(IContentType[] types) {
+		return types.length == 0 ? NO_CONTENT_TYPES : types.clone();
+	}
+
+	/**
+	 * Discards all remembered file name lookups.
+	 */
+	private void invalidateLookupCache() {
+		assert Thread.holdsLock(this);
+		lookupCache = new ConcurrentHashMap<>();
+	}
+
 	/**
 	 * This is the implementation for file name based content type matching.
 	 *
 	 * @return all matching content types in the preferred order
 	 * @see IContentTypeManager#findContentTypesFor(String)
 	 */
-	synchronized private IContentType[][] internalFindContentTypesFor(ContentTypeMatcher matcher, final String fileName, Comparator<IContentType> sortingPolicy) {
+	synchronized private IContentType[][] computeContentTypesFor(ContentTypeMatcher matcher, final String fileName, Comparator<IContentType> sortingPolicy) {
 		IScopeContext context = matcher.getContext();
 		IContentType[][] result = { NO_CONTENT_TYPES, NO_CONTENT_TYPES, NO_CONTENT_TYPES };
 
@@ -564,11 +653,12 @@ public final class ContentTypeCatalog {
 			throw new IllegalArgumentException("This method requires FILE_PATTERN_SPEC."); //$NON-NLS-1$
 		}
 		Set<ContentType> res = new HashSet<>();
-		for (Entry<Pattern, Set<ContentType>> spec : this.fileRegexps.entrySet()) {
-			if (spec.getKey().matcher(fileName).matches()) {
-				res.addAll(filterOnDefinitionSource(initialPatternForRegexp.get(spec.getKey()), typeMask,
-						spec.getValue()));
-			}
+		if (fileRegexps.isEmpty())
+			return res;
+		if (fileRegexpIndex == null)
+			fileRegexpIndex = new FilePatternIndex(initialPatternForRegexp);
+		for (Pattern pattern : fileRegexpIndex.getMatching(fileName)) {
+			res.addAll(filterOnDefinitionSource(initialPatternForRegexp.get(pattern), typeMask, fileRegexps.get(pattern)));
 		}
 		return res;
 	}
@@ -652,6 +742,7 @@ public final class ContentTypeCatalog {
 	 * Resolves inter-content type associations (inheritance and aliasing).
 	 */
 	synchronized protected void organize() {
+		invalidateLookupCache();
 		// build the aliasing
 		makeAliases();
 		// do the validation
@@ -708,7 +799,10 @@ public final class ContentTypeCatalog {
 		if (!contentType.isUserDefined()) {
 			throw new IllegalArgumentException("Content type must be user-defined."); //$NON-NLS-1$
 		}
-		contentTypes.remove(contentType.getId());
+		synchronized (this) {
+			contentTypes.remove(contentType.getId());
+			invalidateLookupCache();
+		}
 	}
 
 }
@@ -16,6 +16,7 @@ package org.eclipse.core.internal.content;
 
 import java.io.*;
 import java.util.*;
+import java.util.function.Function;
 import java.util.regex.Pattern;
 import org.eclipse.core.runtime.QualifiedName;
 import org.eclipse.core.runtime.content.*;
@@ -87,6 +88,11 @@ public class ContentTypeMatcher implements IContentTypeMatcher {
 		return getCatalog().getDescriptionFor(this, contents, fileName, options);
 	}
 
+	@Override
+	public <T> Map<T, IContentDescription> getDescriptionsFor(Collection<? extends T> sources, Function<? super T, String> fileNames, IContentsProvider<? super T> contents, QualifiedName[] options, int parallelism) {
+		return new ContentDescriptionBatch<T>(getCatalog(), this, sources, fileNames, contents, options).run(parallelism);
+	}
+
 	public IScopeContext getContext() {
 		return context;
 	}
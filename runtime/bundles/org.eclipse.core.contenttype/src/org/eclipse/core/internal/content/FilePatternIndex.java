@@ -0,0 +1,155 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.core.internal.content;
+
+import java.util.*;
+import java.util.regex.Pattern;
+
+/**
+ * Finds the file patterns matching a file name without trying every pattern.
+ * <p>
+ * File patterns are wildcard expressions such as <code>*.xml</code> or
+ * <code>build*.properties</code>. Every pattern is indexed by its literal
+ * suffix, or by its literal prefix if it ends with a wildcard, so a lookup only
+ * needs one hash lookup per distinct suffix and prefix length to find the
+ * candidates. Only the candidates are then matched against the file name.
+ * Patterns using regular expression syntax that prevents extracting a literal
+ * prefix or suffix are always matched.
+ * </p>
+ * <p>
+ * Instances are immutable. A new index must be created when the set of
+ * patterns changes.
+ * </p>
+ */
+final class FilePatternIndex {
+	/**
+	 * Characters that are not matched literally by the regular expression
+	 * created from a file pattern. Dots are escaped by
+	 * {@link ContentTypeCatalog#toRegexp(String)}.
+	 */
+	private static final String SPECIAL_CHARACTERS = "*?+{}[]()|^$\\"; //$NON-NLS-1$
+
+	private static final class Entry {
+		final Pattern pattern;
+		final String prefix;
+		final String suffix;
+
+		Entry(Pattern pattern, String prefix, String suffix) {
+			this.pattern = pattern;
+			this.prefix = prefix;
+			this.suffix = suffix;
+		}
+
+		boolean matches(String fileName) {
+			return fileName.length() >= prefix.length() + suffix.length() && fileName.startsWith(prefix) && fileName.endsWith(suffix) && pattern.matcher(fileName).matches();
+		}
+	}
+
+	private final Map<String, List<Entry>> bySuffix = new HashMap<>();
+	private final Map<String, List<Entry>> byPrefix = new HashMap<>();
+	private final List<Entry> unindexed = new ArrayList<>();
+	private final int[] suffixLengths;
+	private final int[] prefixLengths;
+
+	/**
+	 * Creates an index of the given patterns.
+	 *
+	 * @param patterns maps the compiled patterns to the file patterns they were
+	 * created from
+	 */
+	FilePatternIndex(Map<Pattern, String> patterns) {
+		Set<Integer> suffixes = new TreeSet<>();
+		Set<Integer> prefixes = new TreeSet<>();
+		for (Map.Entry<Pattern, String> pattern : patterns.entrySet()) {
+			String filePattern = pattern.getValue();
+			if (filePattern.indexOf('|') >= 0 || filePattern.indexOf('\\') >= 0) {
+				// alternatives and escapes make literal extraction unreliable
+				unindexed.add(new Entry(pattern.getKey(), "", "")); //$NON-NLS-1$ //$NON-NLS-2$
+				continue;
+			}
+			String prefix = literalPrefix(filePattern);
+			// a pattern without wildcards is all prefix and all suffix, keep it only once
+			if (prefix.length() == filePattern.length())
+				prefix = ""; //$NON-NLS-1$
+			Entry entry = new Entry(pattern.getKey(), prefix, literalSuffix(filePattern));
+			if (!entry.suffix.isEmpty()) {
+				bySuffix.computeIfAbsent(entry.suffix, s -> new ArrayList<>(2)).add(entry);
+				suffixes.add(entry.suffix.length());
+			} else if (!entry.prefix.isEmpty()) {
+				byPrefix.computeIfAbsent(entry.prefix, p -> new ArrayList<>(2)).add(entry);
+				prefixes.add(entry.prefix.length());
+			} else {
+				unindexed.add(entry);
+			}
+		}
+		suffixLengths = suffixes.stream().mapToInt(Integer::intValue).toArray();
+		prefixLengths = prefixes.stream().mapToInt(Integer::intValue).toArray();
+	}
+
+	private static boolean isLiteral(char c) {
+		return SPECIAL_CHARACTERS.indexOf(c) < 0;
+	}
+
+	/**
+	 * Returns the characters the given file pattern must start with.
+	 */
+	static String literalPrefix(String filePattern) {
+		int end = 0;
+		while (end < filePattern.length() && isLiteral(filePattern.charAt(end)))
+			end++;
+		// a quantifier applies to the last literal character
+		if (end < filePattern.length() && end > 0 && (filePattern.charAt(end) == '+' || filePattern.charAt(end) == '{'))
+			end--;
+		return filePattern.substring(0, end);
+	}
+
+	/**
+	 * Returns the characters the given file pattern must end with.
+	 */
+	static String literalSuffix(String filePattern) {
+		int start = filePattern.length();
+		while (start > 0 && isLiteral(filePattern.charAt(start - 1)))
+			start--;
+		return filePattern.substring(start);
+	}
+
+	/**
+	 * Returns the patterns matching the given file name.
+	 */
+	List<Pattern> getMatching(String fileName) {
+		List<Pattern> result = new ArrayList<>(2);
+		int length = fileName.length();
+		for (int suffixLength : suffixLengths) {
+			if (suffixLength > length)
+				break;
+			collectMatching(bySuffix.get(fileName.substring(length - suffixLength)), fileName, result);
+		}
+		for (int prefixLength : prefixLengths) {
+			if (prefixLength > length)
+				break;
+			collectMatching(byPrefix.get(fileName.substring(0, prefixLength)), fileName, result);
+		}
+		collectMatching(unindexed, fileName, result);
+		return result;
+	}
+
+	private static void collectMatching(List<Entry> entries, String fileName, List<Pattern> result) {
+		if (entries == null)
+			return;
+		for (Entry entry : entries) {
+			if (entry.matches(fileName))
+				result.add(entry.pattern);
+		}
+	}
+}
@@ -19,6 +19,8 @@ import java.io.InputStream;
 public class LazyInputStream extends InputStream implements ILazySource {
 	private int blockCapacity;
 	byte[][] blocks = {};
+	// blocks of previous contents, see reuse(InputStream)
+	private byte[][] spareBlocks = {};
 	private int bufferSize;
 	private InputStream in;
 	private int mark;
@@ -100,7 +102,7 @@ public class LazyInputStream extends InputStream implements ILazySource {
 
 	private int loadBlock() throws IOException {
 		// read a block from the underlying stream
-		byte[] newBlock = new byte[blockCapacity];
+		byte[] newBlock = blocks.length < spareBlocks.length ? spareBlocks[blocks.length] : new byte[blockCapacity];
 		int readCount = in.read(newBlock);
 		if (readCount == -1)
 			return 0;
@@ -144,6 +146,19 @@ public class LazyInputStream extends InputStream implements ILazySource {
 		return copied == 0 ? -1 : copied;
 	}
 
+	/**
+	 * Discards the buffered contents and continues with the given stream. The
+	 * blocks allocated so far are reused for the new contents.
+	 */
+	void reuse(InputStream newIn) {
+		if (blocks.length > spareBlocks.length)
+			spareBlocks = blocks;
+		blocks = new byte[0][];
+		bufferSize = 0;
+		in = newIn;
+		rewind();
+	}
+
 	@Override
 	public synchronized void reset() {
 		offset = mark;
@@ -0,0 +1,439 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.core.internal.content;
+
+import java.io.*;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * A scanner for the prolog of XML documents that finds the DTD system
+ * identifier, and the name and namespace of the root element, without setting
+ * up an XML parser.
+ * <p>
+ * The scanner only handles the common cases: documents in UTF-8 or given as
+ * characters, with an optional XML declaration, comments, processing
+ * instructions and a document type declaration without internal subset before
+ * the root element. Whenever it encounters anything else, including content a
+ * parser would reject, it gives up, so that the caller can fall back to a full
+ * parser and get exactly the parser's result.
+ * </p>
+ * <p>
+ * Instances are not thread safe, but can be reused.
+ * </p>
+ */
+final class XMLPrologScanner {
+	private static final String XML_NAMESPACE = "http://www.w3.org/XML/1998/namespace"; //$NON-NLS-1$
+	private static final String XMLNS = "xmlns"; //$NON-NLS-1$
+	private static final String XMLNS_PREFIX = "xmlns:"; //$NON-NLS-1$
+	private static final int EOF = -1;
+	private static final int BUFFER_SIZE = 1024;
+	/**
+	 * The number of characters after which the scanner gives up. This bounds
+	 * the read limit of the marks set on the scanned streams.
+	 */
+	private static final int MAX_CHARACTERS = 8 * BUFFER_SIZE;
+	/**
+	 * The read limit for characters, including what the last read may fetch.
+	 */
+	private static final int CHARACTERS_READ_LIMIT = MAX_CHARACTERS + BUFFER_SIZE;
+	/**
+	 * The read limit for UTF-8 bytes, including what the decoder reads ahead.
+	 */
+	private static final int BYTES_READ_LIMIT = 4 * CHARACTERS_READ_LIMIT + 8192;
+
+	/**
+	 * Thrown when the document cannot be handled by the scanner.
+	 */
+	private static final class GiveUpException extends Exception {
+		private static final long serialVersionUID = 1L;
+
+		GiveUpException() {
+			super(null, null, false, false);
+		}
+	}
+
+	private static final GiveUpException GIVE_UP = new GiveUpException();
+
+	private final char[] buffer = new char[BUFFER_SIZE];
+	private final StringBuilder text = new StringBuilder();
+	private final Map<String, String> attributes = new HashMap<>();
+	private Reader reader;
+	private int position;
+	private int limit;
+	private int total;
+	private boolean checkRoot;
+
+	private String dtd;
+	private String rootName;
+	private String rootNamespace;
+
+	String getDTD() {
+		return dtd;
+	}
+
+	String getRootName() {
+		return rootName;
+	}
+
+	String getRootNamespace() {
+		return rootNamespace;
+	}
+
+	/**
+	 * Scans the given byte stream, which must support marking. The stream is
+	 * reset to its current position afterwards.
+	 *
+	 * @param checkRoot whether to continue scanning for the root element after
+	 * a document type declaration has been found
+	 * @return <code>true</code> if the document was scanned, and
+	 * <code>false</code> if it must be parsed by a full parser instead
+	 */
+	boolean scan(InputStream contents, boolean checkRoot) throws IOException {
+		contents.mark(BYTES_READ_LIMIT);
+		try {
+			// skip a UTF-8 byte order mark, give up on all other encodings
+			int first = contents.read();
+			if (first == 0xEF) {
+				if (contents.read() != 0xBB || contents.read() != 0xBF)
+					return false;
+			} else if (first == EOF || first == 0 || first == 0xFE || first == 0xFF || first == 0x4C) {
+				return false;
+			} else {
+				contents.reset();
+			}
+			return scan(new InputStreamReader(contents, StandardCharsets.UTF_8.newDecoder()), checkRoot, true);
+		} catch (CharacterCodingException e) {
+			// not UTF-8 after all
+			return false;
+		} finally {
+			contents.reset();
+		}
+	}
+
+	/**
+	 * Scans the given character stream, which must support marking. The stream
+	 * is reset to its current position afterwards.
+	 *
+	 * @param checkRoot whether to continue scanning for the root element after
+	 * a document type declaration has been found
+	 * @return <code>true</code> if the document was scanned, and
+	 * <code>false</code> if it must be parsed by a full parser instead
+	 */
+	boolean scan(Reader contents, boolean checkRoot) throws IOException {
+		contents.mark(CHARACTERS_READ_LIMIT);
+		try {
+			return scan(contents, checkRoot, false);
+		} finally {
+			contents.reset();
+		}
+	}
+
+	private boolean scan(Reader contents, boolean check, boolean decoded) throws IOException {
+		reader = contents;
+		position = 0;
+		limit = 0;
+		total = 0;
+		checkRoot = check;
+		dtd = null;
+		rootName = null;
+		rootNamespace = null;
+		try {
+			scanProlog(decoded);
+			return true;
+		} catch (GiveUpException e) {
+			dtd = null;
+			rootName = null;
+			rootNamespace = null;
+			return false;
+		} finally {
+			reader = null;
+			attributes.clear();
+		}
+	}
+
+	private void scanProlog(boolean decoded) throws IOException, GiveUpException {
+		if (skip("<?xml")) { //$NON-NLS-1$
+			if (!isWhitespace(peek()))
+				throw GIVE_UP;
+			scanXMLDeclaration(decoded);
+		} else if (peek() == '\uFEFF') {
+			throw GIVE_UP;
+		}
+		boolean documentType = false;
+		while (true) {
+			skipWhitespace();
+			expect('<');
+			if (skip("!--")) { //$NON-NLS-1$
+				skipComment();
+			} else if (skip("?")) { //$NON-NLS-1$
+				if (readName().equalsIgnoreCase("xml")) //$NON-NLS-1$
+					// misplaced XML declaration
+					throw GIVE_UP;
+				skipTo("?>"); //$NON-NLS-1$
+			} else if (skip("!DOCTYPE")) { //$NON-NLS-1$
+				if (documentType)
+					throw GIVE_UP;
+				documentType = true;
+				if (!scanDocumentType())
+					return;
+			} else {
+				scanRootElement();
+				return;
+			}
+		}
+	}
+
+	private void scanXMLDeclaration(boolean decoded) throws IOException, GiveUpException {
+		readAttributes('?');
+		expect('>');
+		if (!"1.0".equals(attributes.get("version"))) //$NON-NLS-1$ //$NON-NLS-2$
+			throw GIVE_UP;
+		String encoding = attributes.get("encoding"); //$NON-NLS-1$
+		if (decoded && encoding != null && !encoding.equalsIgnoreCase("UTF-8")) //$NON-NLS-1$
+			throw GIVE_UP;
+		attributes.clear();
+	}
+
+	/**
+	 * Scans a document type declaration after the keyword. Returns whether
+	 * scanning should continue.
+	 */
+	private boolean scanDocumentType() throws IOException, GiveUpException {
+		requireWhitespace();
+		readName();
+		String systemId = null;
+		boolean separated = skipWhitespace();
+		if (separated && skip("SYSTEM")) { //$NON-NLS-1$
+			requireWhitespace();
+			systemId = readQuoted();
+		} else if (separated && skip("PUBLIC")) { //$NON-NLS-1$
+			requireWhitespace();
+			readQuoted();
+			requireWhitespace();
+			systemId = readQuoted();
+		}
+		// a parser reports the declaration before reading the internal subset
+		dtd = systemId;
+		if (!checkRoot)
+			return false;
+		skipWhitespace();
+		// internal subsets may declare entities used by the root element
+		expect('>');
+		return true;
+	}
+
+	private void scanRootElement() throws IOException, GiveUpException {
+		String name = readName();
+		readAttributes('/');
+		Set<String> expandedNames = null;
+		for (Map.Entry<String, String> attribute : attributes.entrySet()) {
+			String attributeName = attribute.getKey();
+			if (attributeName.startsWith(XMLNS_PREFIX)) {
+				// prefixes cannot be unbound, and reserved prefixes not be rebound
+				if (attribute.getValue().isEmpty() || attributeName.startsWith("xml", XMLNS_PREFIX.length())) //$NON-NLS-1$
+					throw GIVE_UP;
+			} else if (attributeName.indexOf(':') >= 0) {
+				// the parser rejects attributes with unbound prefixes
+				int colon = attributeName.indexOf(':');
+				String namespace = getNamespace(attributeName.substring(0, colon), attributeName);
+				// and attributes with the same namespace and local name
+				if (expandedNames == null)
+					expandedNames = new HashSet<>();
+				if (!expandedNames.add(namespace + '}' + attributeName.substring(colon + 1)))
+					throw GIVE_UP;
+			}
+		}
+		int colon = name.indexOf(':');
+		String namespace;
+		if (colon < 0) {
+			namespace = attributes.get(XMLNS);
+		} else {
+			namespace = getNamespace(name.substring(0, colon), name);
+			name = name.substring(colon + 1);
+		}
+		rootName = name;
+		rootNamespace = namespace == null ? "" : namespace; //$NON-NLS-1$
+	}
+
+	/**
+	 * Returns the namespace bound to the prefix of the given qualified name on
+	 * the root element. Gives up if the prefix is not bound, or the name is
+	 * not a valid qualified name.
+	 */
+	private String getNamespace(String prefix, String qualifiedName) throws GiveUpException {
+		if (qualifiedName.length() == prefix.length() + 1 || qualifiedName.indexOf(':', prefix.length() + 1) >= 0 || prefix.equals(XMLNS))
+			throw GIVE_UP;
+		String namespace = prefix.equals("xml") ? XML_NAMESPACE : attributes.get(XMLNS_PREFIX + prefix); //$NON-NLS-1$
+		if (namespace == null || namespace.isEmpty())
+			// unbound prefix
+			throw GIVE_UP;
+		return namespace;
+	}
+
+	/**
+	 * Reads attributes up to the end of a tag, which may be preceded by the
+	 * given character.
+	 */
+	private void readAttributes(char beforeEnd) throws IOException, GiveUpException {
+		attributes.clear();
+		while (true) {
+			boolean separated = skipWhitespace();
+			int c = peek();
+			if (c == '>' || c == beforeEnd) {
+				if (c == beforeEnd) {
+					next();
+					if (peek() != '>')
+						throw GIVE_UP;
+				}
+				return;
+			}
+			if (!separated)
+				throw GIVE_UP;
+			String name = readName();
+			skipWhitespace();
+			expect('=');
+			skipWhitespace();
+			String value = readQuoted();
+			if (value.indexOf('<') >= 0 || value.indexOf('&') >= 0 || attributes.put(name, normalize(value)) != null)
+				// references need to be resolved, duplicates are errors
+				throw GIVE_UP;
+		}
+	}
+
+	private static String normalize(String value) {
+		return value.replace('\t', ' ').replace('\n', ' ').replace('\r', ' ');
+	}
+
+	private void skipComment() throws IOException, GiveUpException {
+		while (true) {
+			int c = next();
+			if (c == EOF)
+				throw GIVE_UP;
+			if (c == '-' && peek() == '-') {
+				next();
+				// "--" must end the comment
+				expect('>');
+				return;
+			}
+		}
+	}
+
+	private void skipTo(String end) throws IOException, GiveUpException {
+		while (!skip(end)) {
+			if (next() == EOF)
+				throw GIVE_UP;
+		}
+	}
+
+	private String readName() throws IOException, GiveUpException {
+		int c = peek();
+		if (!(Character.isLetter(c) || c == '_' || c == ':'))
+			throw GIVE_UP;
+		text.setLength(0);
+		while (c != EOF && !isWhitespace(c) && "/>=?\"'<[".indexOf(c) < 0) { //$NON-NLS-1$
+			text.append((char) next());
+			c = peek();
+		}
+		return text.toString();
+	}
+
+	private String readQuoted() throws IOException, GiveUpException {
+		int quote = next();
+		if (quote != '"' && quote != '\'')
+			throw GIVE_UP;
+		text.setLength(0);
+		int c;
+		while ((c = next()) != quote) {
+			if (c == EOF)
+				throw GIVE_UP;
+			text.append((char) c);
+		}
+		return text.toString();
+	}
+
+	private static boolean isWhitespace(int c) {
+		return c == ' ' || c == '\t' || c == '\n' || c == '\r';
+	}
+
+	/**
+	 * Skips whitespace and returns whether there was any.
+	 */
+	private boolean skipWhitespace() throws IOException {
+		boolean skipped = false;
+		while (isWhitespace(peek())) {
+			next();
+			skipped = true;
+		}
+		return skipped;
+	}
+
+	private void requireWhitespace() throws IOException, GiveUpException {
+		if (!skipWhitespace())
+			throw GIVE_UP;
+	}
+
+	private void expect(char expected) throws IOException, GiveUpException {
+		if (next() != expected)
+			throw GIVE_UP;
+	}
+
+	/**
+	 * Consumes the given string if the input continues with it.
+	 */
+	private boolean skip(String expected) throws IOException {
+		int length = expected.length();
+		if (!fill(length))
+			return false;
+		for (int i = 0; i < length; i++) {
+			if (buffer[position + i] != expected.charAt(i))
+				return false;
+		}
+		position += length;
+		return true;
+	}
+
+	private int peek() throws IOException {
+		return fill(1) ? buffer[position] : EOF;
+	}
+
+	private int next() throws IOException {
+		return fill(1) ? buffer[position++] : EOF;
+	}
+
+	/**
+	 * Makes sure the given number of characters is available in the buffer,
+	 * unless the input ends before. Input beyond {@link #MAX_CHARACTERS} is
+	 * treated as the end, which makes the scanner give up.
+	 */
+	private boolean fill(int count) throws IOException {
+		if (limit - position >= count)
+			return true;
+		System.arraycopy(buffer, position, buffer, 0, limit - position);
+		limit -= position;
+		position = 0;
+		while (limit < count) {
+			// reading beyond the marked limit would fail the reset
+			if (total > MAX_CHARACTERS)
+				return false;
+			int read = reader.read(buffer, limit, buffer.length - limit);
+			if (read < 0)
+				return false;
+			limit += read;
+			total += read;
+		}
+		return true;
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2004, 2008 IBM Corporation and others.
+ * Copyright (c) 2004, 2022 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -13,8 +13,9 @@
  *******************************************************************************/
 package org.eclipse.core.internal.content;
 
-import java.io.IOException;
-import java.io.StringReader;
+import java.io.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 import javax.xml.parsers.*;
 import org.eclipse.core.runtime.ServiceCaller;
 import org.xml.sax.*;
@@ -53,6 +54,17 @@ public final class XMLRootHandler extends DefaultHandler implements LexicalHandl
 		}
 	}
 
+	/**
+	 * The maximum number of idle SAX parsers kept for reuse.
+	 */
+	private static final int MAX_IDLE_PARSERS = 4;
+
+	/**
+	 * The SAX parsers available for reuse. A parser is taken out while it is
+	 * in use, so nested and concurrent calls each get their own parser.
+	 */
+	private static final BlockingQueue<SAXParser> PARSERS = new ArrayBlockingQueue<>(MAX_IDLE_PARSERS);
+
 	/**
 	 * Should we check the root element?
 	 */
@@ -87,14 +99,13 @@ public final class XMLRootHandler extends DefaultHandler implements LexicalHandl
 	}
 
 	/**
-	 * Creates a new SAX parser for use within this instance.
+	 * Configures a SAX parser for use within this instance. As parsers are
+	 * reused, this is done every time before parsing.
 	 *
-	 * @return The newly created parser.
+	 * @param parser The parser to configure.
 	 *
-	 * @throws ParserConfigurationException
-	 *             If a parser of the given configuration cannot be created.
 	 * @throws SAXException
-	 *             If something in general goes wrong when creating the parser.
+	 *             If something in general goes wrong when configuring the parser.
 	 * @throws SAXNotRecognizedException
 	 *             If the <code>XMLReader</code> does not recognize the
 	 *             lexical handler configuration option.
@@ -102,9 +113,7 @@ public final class XMLRootHandler extends DefaultHandler implements LexicalHandl
 	 *             If the <code>XMLReader</code> does not support the lexical
 	 *             handler configuration option.
 	 */
-	private SAXParser createParser(SAXParserFactory parserFactory) throws ParserConfigurationException, SAXException, SAXNotRecognizedException, SAXNotSupportedException {
-		// Initialize the parser.
-		final SAXParser parser = parserFactory.newSAXParser();
+	private void configureParser(SAXParser parser) throws SAXException, SAXNotRecognizedException, SAXNotSupportedException {
 		final XMLReader reader = parser.getXMLReader();
 		reader.setProperty("http://xml.org/sax/properties/lexical-handler", this); //$NON-NLS-1$
 		// disable DTD validation (bug 63625)
@@ -115,7 +124,6 @@ public final class XMLRootHandler extends DefaultHandler implements LexicalHandl
 		} catch (SAXNotRecognizedException | SAXNotSupportedException e) {
 			// not a big deal if the parser does not support the features
 		}
-		return parser;
 	}
 
 	@Override
@@ -153,21 +161,71 @@ public final class XMLRootHandler extends DefaultHandler implements LexicalHandl
 		throw (E) e;
 	}
 
+	/**
+	 * Finds the DTD and the root element of the given contents. Documents with a
+	 * simple prolog in UTF-8, or given as characters, are scanned without a
+	 * parser if the contents support marking. All other documents are parsed
+	 * with a SAX parser. A few idle parsers are kept for reuse by later calls.
+	 *
+	 * @return <code>false</code> if no SAX parser is available
+	 */
 	public boolean parseContents(InputSource contents) throws IOException, ParserConfigurationException, SAXException {
+		if (scanContents(contents))
+			return true;
+		SAXParser parser = PARSERS.poll();
+		if (parser == null) {
+			SAXParser[] created = new SAXParser[1];
+			boolean available = ServiceCaller.callOnce(getClass(), SAXParserFactory.class, factory -> {
+				try {
+					factory.setNamespaceAware(true);
+					created[0] = factory.newSAXParser();
+				} catch (SAXException | ParserConfigurationException e) {
+					sneakyThrow(e);
+				}
+			});
+			if (!available)
+				return false;
+			parser = created[0];
+		}
 		// Parse the file into we have what we need (or an error occurs).
-		return ServiceCaller.callOnce(getClass(), SAXParserFactory.class, factory -> {
-			try {
-				factory.setNamespaceAware(true);
-				final SAXParser parser = createParser(factory);
-				// to support external entities specified as relative URIs (see bug 63298)
-				contents.setSystemId("/"); //$NON-NLS-1$
-				parser.parse(contents, this);
-			} catch (StopParsingException e) {
-				// Abort the parsing normally. Fall through...
-			} catch (SAXException | IOException | ParserConfigurationException e) {
-				sneakyThrow(e);
-			}
-		});
+		configureParser(parser);
+		try {
+			// to support external entities specified as relative URIs (see bug 63298)
+			contents.setSystemId("/"); //$NON-NLS-1$
+			parser.parse(contents, this);
+		} catch (StopParsingException e) {
+			// Abort the parsing normally. Fall through...
+		}
+		// parsers failing with other exceptions are not reused
+		parser.reset();
+		// dropped if enough parsers are idle already
+		PARSERS.offer(parser);
+		return true;
+	}
+
+	/**
+	 * Scans the given contents without a parser, if possible.
+	 *
+	 * @return whether the contents have been scanned
+	 */
+	private boolean scanContents(InputSource contents) throws IOException {
+		XMLPrologScanner scanner = new XMLPrologScanner();
+		boolean scanned;
+		Reader characters = contents.getCharacterStream();
+		InputStream bytes = contents.getByteStream();
+		if (characters != null) {
+			scanned = characters.markSupported() && scanner.scan(characters, checkRoot);
+		} else if (bytes != null && contents.getEncoding() == null) {
+			scanned = bytes.markSupported() && scanner.scan(bytes, checkRoot);
+		} else {
+			scanned = false;
+		}
+		if (scanned) {
+			dtdFound = scanner.getDTD();
+			elementFound = scanner.getRootName();
+			namespaceFound = scanner.getRootNamespace();
+		}
+		return scanned;
 	}
 
 	/*
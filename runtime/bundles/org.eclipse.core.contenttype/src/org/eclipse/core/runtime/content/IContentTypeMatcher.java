@@ -14,6 +14,8 @@
 package org.eclipse.core.runtime.content;
 
 import java.io.*;
+import java.util.*;
+import java.util.function.Function;
 import org.eclipse.core.runtime.QualifiedName;
 import org.eclipse.core.runtime.preferences.IScopeContext;
 
@@ -27,6 +29,26 @@ import org.eclipse.core.runtime.preferences.IScopeContext;
  * @since 3.1
  */
 public interface IContentTypeMatcher {
+	/**
+	 * Opens the contents of a source described by
+	 * {@link IContentTypeMatcher#getDescriptionsFor(Collection, Function, IContentsProvider, QualifiedName[], int)}.
+	 *
+	 * @param <T> the type of the sources
+	 * @since 3.9
+	 */
+	@FunctionalInterface
+	interface IContentsProvider<T> {
+		/**
+		 * Opens the contents of the given source. The returned stream is
+		 * closed by the caller.
+		 *
+		 * @param source the source to open
+		 * @return the contents of the source
+		 * @throws IOException if the contents cannot be opened
+		 */
+		InputStream open(T source) throws IOException;
+	}
+
 	/**
 	 * Returns the preferred content type for the given contents and file name.
 	 * <p>
@@ -140,4 +162,49 @@ public interface IContentTypeMatcher {
 	 * @see IContentDescription
 	 */
 	IContentDescription getDescriptionFor(Reader contents, String fileName, QualifiedName[] options) throws IOException;
-}
\ No newline at end of file
+
+	/**
+	 * Tries to obtain descriptions for the contents of many sources, such as
+	 * all files of a project.
+	 * <p>
+	 * This is equivalent to calling
+	 * {@link #getDescriptionFor(InputStream, String, QualifiedName[])} for the
+	 * contents of every source, but sources with the same candidate content
+	 * types are described together, read buffers are reused, and up to
+	 * <code>parallelism</code> sources are described concurrently. Besides
+	 * the calling thread, this uses threads of a pool that is shared by all
+	 * callers and bounded by the number of processors. The given functions
+	 * may therefore be called from several threads. Every stream is closed
+	 * after it has been described.
+	 * </p>
+	 * <p>
+	 * Sources whose contents cannot be opened or read are not part of the
+	 * result, so that callers can handle them individually.
+	 * </p>
+	 *
+	 * @param <T> the type of the sources
+	 * @param sources the sources to be described
+	 * @param fileNames returns the file name associated to a source, or
+	 * <code>null</code>
+	 * @param contents opens the contents of a source
+	 * @param options an array of keys for all properties that should be
+	 * described, or <code>IContentDescription.ALL</code>, for all of them
+	 * @param parallelism the maximum number of sources described at the same
+	 * time
+	 * @return a map from every source that could be read to its content
+	 * description, or to <code>null</code> if no description could be obtained
+	 * @see #getDescriptionFor(InputStream, String, QualifiedName[])
+	 * @since 3.9
+	 */
+	default <T> Map<T, IContentDescription> getDescriptionsFor(Collection<? extends T> sources, Function<? super T, String> fileNames, IContentsProvider<? super T> contents, QualifiedName[] options, int parallelism) {
+		Map<T, IContentDescription> result = new LinkedHashMap<>();
+		for (T source : sources) {
+			try (InputStream stream = contents.open(source)) {
+				result.put(source, getDescriptionFor(stream, fileNames.apply(source), options));
+			} catch (IOException e) {
+				// not part of the result
+			}
+		}
+		return result;
+	}
+}
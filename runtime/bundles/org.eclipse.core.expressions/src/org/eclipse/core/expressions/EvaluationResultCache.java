@@ -0,0 +1,221 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.core.expressions;
+
+import java.lang.ref.Reference;
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.eclipse.core.runtime.Assert;
+import org.eclipse.core.runtime.CoreException;
+
+/**
+ * Caches the results of expression evaluations, so that an expression is
+ * only evaluated again when the variables it accesses have changed.
+ * <p>
+ * The variables accessed by an expression are taken from its
+ * {@link ExpressionInfo}. The cached result of an expression is reused if the
+ * default variable and all accessed variables of the context are the same
+ * objects as in the last evaluation, even if the context is a different one.
+ * Variables are compared by identity, so a context must be given a new
+ * variable value when the value changes, instead of modifying the value.
+ * </p>
+ * <p>
+ * The results of property tests are assumed to change only when the tested
+ * variables change. Clients that know that a property changed for other
+ * reasons must call {@link #invalidate(String)}. Expressions accessing system
+ * properties, expressions containing expression types that do not report the
+ * variables they access (see
+ * {@link ExpressionInfo#getMisbehavingExpressionTypes()}), and results that
+ * are {@link EvaluationResult#NOT_LOADED} are never cached.
+ * </p>
+ * <p>
+ * The cache keeps the last result of a bounded number of expressions, and
+ * discards the least recently evaluated ones first. Contexts are not kept,
+ * and the variable values of the last evaluation are only referenced weakly.
+ * This class is thread safe.
+ * </p>
+ *
+ * @since 3.9
+ */
+public final class EvaluationResultCache {
+
+	private static final int DEFAULT_MAX_SIZE= 1000;
+
+	private static final class Entry {
+		private final boolean fCacheable;
+		private final String[] fVariableNames;
+		private final String[] fPropertyNames;
+		/* incremented when the entry is invalidated, so that evaluations running at that time are not cached */
+		private volatile int fGeneration;
+		private volatile Result fLast;
+
+		Entry(Expression expression) {
+			ExpressionInfo info= expression.computeExpressionInfo();
+			fCacheable= !info.hasSystemPropertyAccess() && info.getMisbehavingExpressionTypes() == null;
+			fVariableNames= info.getAccessedVariableNames();
+			fPropertyNames= info.getAccessedPropertyNames();
+		}
+
+		Object[] getValues(IEvaluationContext context) {
+			Object[] values= new Object[fVariableNames.length];
+			for (int i= 0; i < values.length; i++)
+				values[i]= context.getVariable(fVariableNames[i]);
+			return values;
+		}
+
+		void invalidate() {
+			fGeneration++;
+			fLast= null;
+		}
+	}
+
+	private static final class Result {
+		private final int fGeneration;
+		private final boolean fAllowPluginActivation;
+		private final Reference<Object> fDefaultVariable;
+		/* null values are kept as null, all others weakly */
+		private final Reference<?>[] fValues;
+		private final EvaluationResult fResult;
+
+		Result(int generation, IEvaluationContext context, Object defaultVariable, Object[] values, EvaluationResult result) {
+			fGeneration= generation;
+			fAllowPluginActivation= context.getAllowPluginActivation();
+			fDefaultVariable= reference(defaultVariable);
+			fValues= new Reference<?>[values.length];
+			for (int i= 0; i < values.length; i++)
+				fValues[i]= reference(values[i]);
+			fResult= result;
+		}
+
+		private static Reference<Object> reference(Object value) {
+			return value == null ? null : new WeakReference<>(value);
+		}
+
+		private static boolean isSame(Reference<?> reference, Object value) {
+			// a collected value cannot be the current one, as that is still referenced
+			return reference == null ? value == null : value != null && reference.get() == value;
+		}
+
+		boolean isValidFor(Entry entry, IEvaluationContext context) {
+			if (fGeneration != entry.fGeneration || fAllowPluginActivation != context.getAllowPluginActivation()
+					|| !isSame(fDefaultVariable, context.getDefaultVariable()))
+				return false;
+			for (int i= 0; i < fValues.length; i++) {
+				if (!isSame(fValues[i], context.getVariable(entry.fVariableNames[i])))
+					return false;
+			}
+			return true;
+		}
+	}
+
+	private final Map<Expression, Entry> fEntries;
+
+	/**
+	 * Creates a cache for the results of up to 1000 expressions.
+	 */
+	public EvaluationResultCache() {
+		this(DEFAULT_MAX_SIZE);
+	}
+
+	/**
+	 * Creates a cache for the results of up to the given number of expressions.
+	 *
+	 * @param maxSize the maximum number of expressions whose result is kept
+	 */
+	public EvaluationResultCache(int maxSize) {
+		Assert.isLegal(maxSize > 0);
+		fEntries= new LinkedHashMap<Expression, Entry>(16, 0.75f, true) {
+			private static final long serialVersionUID= 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Expression, EvaluationResultCache.Entry> eldest) {
+				return size() > maxSize;
+			}
+		};
+	}
+
+	private Entry getEntry(Expression expression) {
+		synchronized (fEntries) {
+			Entry entry= fEntries.get(expression);
+			if (entry != null)
+				return entry;
+		}
+		// the expression info is computed by client code, which must not run under the lock
+		Entry created= new Entry(expression);
+		synchronized (fEntries) {
+			Entry existing= fEntries.putIfAbsent(expression, created);
+			return existing != null ? existing : created;
+		}
+	}
+
+	/**
+	 * Evaluates the given expression, or returns the result of its last
+	 * evaluation if none of the variables it accesses have changed since.
+	 *
+	 * @param expression the expression to evaluate
+	 * @param context the evaluation context
+	 * @return the result of the expression evaluation
+	 * @throws CoreException if the evaluation failed
+	 * @see Expression#evaluate(IEvaluationContext)
+	 */
+	public EvaluationResult evaluate(Expression expression, IEvaluationContext context) throws CoreException {
+		Assert.isNotNull(expression);
+		Assert.isNotNull(context);
+		Entry entry= getEntry(expression);
+		if (!entry.fCacheable)
+			return expression.evaluate(context);
+		Result last= entry.fLast;
+		if (last != null && last.isValidFor(entry, context))
+			return last.fResult;
+		int generation= entry.fGeneration;
+		Object defaultVariable= context.getDefaultVariable();
+		Object[] values= entry.getValues(context);
+		EvaluationResult result= expression.evaluate(context);
+		if (result != EvaluationResult.NOT_LOADED)
+			entry.fLast= new Result(generation, context, defaultVariable, values, result);
+		return result;
+	}
+
+	/**
+	 * Discards the cached results of all expressions testing the given
+	 * property, for example because the property changed without any of the
+	 * variables changing.
+	 *
+	 * @param propertyName the fully qualified name of the property, that is
+	 * the namespace and the property name separated by a dot
+	 */
+	public void invalidate(String propertyName) {
+		Assert.isNotNull(propertyName);
+		synchronized (fEntries) {
+			for (Entry entry : fEntries.values()) {
+				if (Arrays.asList(entry.fPropertyNames).contains(propertyName))
+					entry.invalidate();
+			}
+		}
+	}
+
+	/**
+	 * Discards all cached results.
+	 */
+	public void clear() {
+		synchronized (fEntries) {
+			for (Entry entry : fEntries.values())
+				entry.invalidate();
+			fEntries.clear();
+		}
+	}
+}
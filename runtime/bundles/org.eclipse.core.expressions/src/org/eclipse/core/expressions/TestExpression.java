@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2008 IBM Corporation and others.
+ * Copyright (c) 2000, 2022 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -35,6 +35,12 @@ public class TestExpression extends Expression {
 	private Object[] fArgs;
 	private Object fExpectedValue;
 	private boolean fForcePluginActivation;
+	/* the properties resolved for the latest receiver types, see TypeExtensionManager#getProperty(Property[], ...) */
+	private volatile Property[] fProperties= NO_PROPERTIES;
+
+	private static final Property[] NO_PROPERTIES= new Property[0];
+	/* the number of receiver types for which resolved properties are kept */
+	private static final int MAX_PROPERTIES= 4;
 
 	private static final char PROP_SEP = '.';
 	private static final String ATT_PROPERTY= "property"; //$NON-NLS-1$
@@ -101,12 +107,34 @@ public class TestExpression extends Expression {
 				return EvaluationResult.FALSE;
 			return EvaluationResult.valueOf(str.equals(fArgs[0]));
 		}
-		Property property= fgTypeExtensionManager.getProperty(element, fNamespace, fProperty, context.getAllowPluginActivation() && fForcePluginActivation);
+		Property[] properties= fProperties;
+		Property property= fgTypeExtensionManager.getProperty(properties, element, fNamespace, fProperty, context.getAllowPluginActivation() && fForcePluginActivation);
+		if (!contains(properties, property))
+			fProperties= add(properties, property);
 		if (!property.isInstantiated())
 			return EvaluationResult.NOT_LOADED;
 		return EvaluationResult.valueOf(property.test(element, fArgs, fExpectedValue));
 	}
 
+	private static boolean contains(Property[] properties, Property property) {
+		for (Property p : properties) {
+			if (p == property)
+				return true;
+		}
+		return false;
+	}
+
+	/*
+	 * Returns the given properties with the new one in front, dropping the
+	 * oldest if there are too many. Stale properties end up being dropped.
+	 */
+	private static Property[] add(Property[] properties, Property property) {
+		Property[] result= new Property[Math.min(properties.length + 1, MAX_PROPERTIES)];
+		result[0]= property;
+		System.arraycopy(properties, 0, result, 1, result.length - 1);
+		return result;
+	}
+
 	@Override
 	public void collectExpressionInfo(ExpressionInfo info) {
 		info.markDefaultVariableAccessed();
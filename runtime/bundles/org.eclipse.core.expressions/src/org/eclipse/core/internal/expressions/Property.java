@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2008 IBM Corporation and others.
+ * Copyright (c) 2000, 2022 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -27,6 +27,8 @@ public class Property {
 	private final String fName;
 
 	private IPropertyTester fTester;
+	/* the generation of the type extension manager that resolved the tester */
+	private int fGeneration;
 
 	/* package */ Property(Class<?> type, String namespace, String name) {
 		Assert.isNotNull(type);
@@ -38,9 +40,30 @@ public class Property {
 		fName= name;
 	}
 
-	/* package */ void setPropertyTester(IPropertyTester tester) {
+	/* package */ void setPropertyTester(IPropertyTester tester, int generation) {
 		Assert.isNotNull(tester);
 		fTester= tester;
+		fGeneration= generation;
+	}
+
+	/* package */ int getGeneration() {
+		return fGeneration;
+	}
+
+	/* package */ Class<?> getType() {
+		return fType;
+	}
+
+	/* package */ String getNamespace() {
+		return fNamespace;
+	}
+
+	/* package */ String getName() {
+		return fName;
+	}
+
+	/* package */ boolean isFor(Class<?> type, String namespace, String name) {
+		return fType == type && fNamespace.equals(namespace) && fName.equals(name);
 	}
 
 	public boolean isInstantiated() {
@@ -79,7 +102,7 @@ public class Property {
 
 	@Override
 	public int hashCode() {
-		return (fType.hashCode() << 16) | fNamespace.hashCode() << 8 | fName.hashCode();
+		return (fType.hashCode() * 31 + fNamespace.hashCode()) * 31 + fName.hashCode();
 	}
 
 	@Override
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2008 IBM Corporation and others.
+ * Copyright (c) 2000, 2022 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -13,26 +13,34 @@
  *******************************************************************************/
 package org.eclipse.core.internal.expressions;
 
-import org.eclipse.core.internal.expressions.util.LRUCache;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * A cache of resolved properties, keyed by receiver type, namespace and
+ * property name. Lookups do not lock, so that threads evaluating expressions
+ * do not contend with each other. The cache is cleared when it is full.
+ */
 /* package */ class PropertyCache {
 
-	private LRUCache fCache;
+	private final Map<Property, Property> fCache= new ConcurrentHashMap<>();
+	private final int fCacheSize;
 
 	public PropertyCache(final int cacheSize) {
-		fCache= new LRUCache(100);
-		fCache.setSpaceLimit(cacheSize);
+		fCacheSize= cacheSize;
 	}
 
 	public Property get(Property key) {
-		return (Property)fCache.get(key);
+		return fCache.get(key);
 	}
 
 	public void put(Property method) {
+		if (fCache.size() >= fCacheSize)
+			fCache.clear();
 		fCache.put(method, method);
 	}
 
 	public void remove(Property method) {
-		fCache.removeKey(method);
+		fCache.remove(method);
 	}
 }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2008 IBM Corporation and others.
+ * Copyright (c) 2000, 2022 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -13,6 +13,9 @@
  *******************************************************************************/
 package org.eclipse.core.internal.expressions;
 
+import java.util.HashMap;
+import java.util.Map;
+
 import org.eclipse.core.expressions.IPropertyTester;
 import org.eclipse.core.expressions.PropertyTester;
 
@@ -65,6 +68,9 @@ public class TypeExtension {
 	/* the extensions associated with <code>fTypes</code>'s interfaces */
 	private TypeExtension[] fImplements;
 
+	/* the instantiated testers found in the type hierarchy, or CONTINUE, by property */
+	private Map<String, IPropertyTester> fResolved;
+
 	private TypeExtension() {
 		// special constructor to create the CONTINUE instance
 	}
@@ -75,6 +81,22 @@ public class TypeExtension {
 	}
 
 	/* package */ IPropertyTester findTypeExtender(TypeExtensionManager manager, String namespace, String method, boolean staticMethod, boolean forcePluginActivation) throws CoreException {
+		// the result stays valid until the manager discards all type extensions
+		String key= (staticMethod ? "static " : "") + namespace + '.' + method; //$NON-NLS-1$ //$NON-NLS-2$
+		IPropertyTester result= fResolved != null ? fResolved.get(key) : null;
+		if (result != null)
+			return result;
+		result= searchTypeExtender(manager, namespace, method, staticMethod, forcePluginActivation);
+		if (result == CONTINUE || (result != null && result.isInstantiated())) {
+			// testers which are not instantiated yet are looked up again
+			if (fResolved == null)
+				fResolved= new HashMap<>();
+			fResolved.put(key, result);
+		}
+		return result;
+	}
+
+	private IPropertyTester searchTypeExtender(TypeExtensionManager manager, String namespace, String method, boolean staticMethod, boolean forcePluginActivation) throws CoreException {
 		if (fExtenders == null) {
 			fExtenders= manager.loadTesters(fType);
 		}
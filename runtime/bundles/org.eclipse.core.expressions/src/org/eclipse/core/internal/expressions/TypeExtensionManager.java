@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2009 IBM Corporation and others.
+ * Copyright (c) 2000, 2022 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -17,6 +17,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
 
 import org.eclipse.core.expressions.IPropertyTester;
 
@@ -79,9 +80,18 @@ public class TypeExtensionManager implements IRegistryChangeListener {
 	private Map<String, List<IConfigurationElement>> fConfigurationElementMap;
 
 	/*
-	 * A cache to give fast access to the last 1000 method invocations.
+	 * A cache to give fast access to up to 1000 resolved properties.
 	 */
-	private PropertyCache fPropertyCache;
+	private volatile PropertyCache fPropertyCache;
+
+	private final LongAdder fCacheHits= new LongAdder();
+	private final LongAdder fCacheMisses= new LongAdder();
+
+	/*
+	 * Incremented whenever the caches are flushed, so that properties
+	 * resolved before can be recognized as stale.
+	 */
+	private volatile int fGeneration;
 
 
 	public TypeExtensionManager(String extensionPoint) {
@@ -95,7 +105,28 @@ public class TypeExtensionManager implements IRegistryChangeListener {
 		return getProperty(receiver, namespace, method, false);
 	}
 
-	public synchronized Property getProperty(Object receiver, String namespace, String method, boolean forcePluginActivation) throws CoreException  {
+	/**
+	 * Returns the first of the given properties that can still be used to test
+	 * the receiver, and looks up the property otherwise. Callers testing the
+	 * same property repeatedly can keep the returned properties, one per
+	 * receiver type, and pass them back in. This avoids the cache lookup as
+	 * long as no property testers are added or removed.
+	 *
+	 * @param previous properties returned by earlier calls
+	 */
+	public Property getProperty(Property[] previous, Object receiver, String namespace, String method, boolean forcePluginActivation) throws CoreException  {
+		if (previous.length > 0) {
+			int generation= fGeneration;
+			Class<?> clazz= receiver instanceof Class ? (Class<?>)receiver : receiver.getClass();
+			for (Property property : previous) {
+				if (property.getGeneration() == generation && property.isFor(clazz, namespace, method) && property.isValidCacheEntry(forcePluginActivation))
+					return property;
+			}
+		}
+		return getProperty(receiver, namespace, method, forcePluginActivation);
+	}
+
+	public Property getProperty(Object receiver, String namespace, String method, boolean forcePluginActivation) throws CoreException  {
 		long start= 0;
 		if (Expressions.TRACING)
 			start= System.currentTimeMillis();
@@ -104,16 +135,29 @@ public class TypeExtensionManager implements IRegistryChangeListener {
 		Class<?> clazz= receiver instanceof Class ? (Class<?>)receiver : receiver.getClass();
 		Property result= new Property(clazz, namespace, method);
 		Property cached= fPropertyCache.get(result);
+		if (cached != null && cached.isValidCacheEntry(forcePluginActivation)) {
+			fCacheHits.increment();
+			if (Expressions.TRACING) {
+				System.out.println("[Type Extension] - method " + //$NON-NLS-1$
+					clazz.getName() + "#" + method + //$NON-NLS-1$
+					" found in cache: " +  //$NON-NLS-1$
+					(System.currentTimeMillis() - start) + " ms."); //$NON-NLS-1$
+			}
+			return cached;
+		}
+		fCacheMisses.increment();
+		return resolveProperty(result, receiver, forcePluginActivation, start);
+	}
+
+	private synchronized Property resolveProperty(Property result, Object receiver, boolean forcePluginActivation, long start) throws CoreException  {
+		Class<?> clazz= result.getType();
+		String namespace= result.getNamespace();
+		String method= result.getName();
+		Property cached= fPropertyCache.get(result);
 		if (cached != null) {
-			if (cached.isValidCacheEntry(forcePluginActivation)) {
-				if (Expressions.TRACING) {
-					System.out.println("[Type Extension] - method " + //$NON-NLS-1$
-						clazz.getName() + "#" + method + //$NON-NLS-1$
-						" found in cache: " +  //$NON-NLS-1$
-						(System.currentTimeMillis() - start) + " ms."); //$NON-NLS-1$
-				}
+			// another thread may have resolved the property in the meantime
+			if (cached.isValidCacheEntry(forcePluginActivation))
 				return cached;
-			}
 			// The type extender isn't loaded in the cached method but can be loaded
 			// now. So remove method from cache and do the normal look up so that the
 			// implementation class gets loaded.
@@ -135,7 +179,7 @@ public class TypeExtensionManager implements IRegistryChangeListener {
 					new String[] {namespace + '.' + method, clazz.toString()}),
 					t));
 		}
-		result.setPropertyTester(extender);
+		result.setPropertyTester(extender, fGeneration);
 		fPropertyCache.put(result);
 		if (Expressions.TRACING) {
 			System.out.println("[Type Extension] - method " + //$NON-NLS-1$
@@ -146,9 +190,23 @@ public class TypeExtensionManager implements IRegistryChangeListener {
 		return result;
 	}
 
+	/**
+	 * Returns how many property lookups were answered by the cache.
+	 */
+	public long getCacheHits() {
+		return fCacheHits.sum();
+	}
+
+	/**
+	 * Returns how many property lookups had to resolve the property tester.
+	 */
+	public long getCacheMisses() {
+		return fCacheMisses.sum();
+	}
+
 	/*
 	 * This method doesn't need to be synchronized since it is called
-	 * from withing the getProperty method which is synchronized
+	 * from withing the resolveProperty method which is synchronized
 	 */
 	/* package */ TypeExtension get(Class<?> clazz) {
 		TypeExtension result= fTypeExtensionMap.get(clazz);
@@ -161,7 +219,7 @@ public class TypeExtensionManager implements IRegistryChangeListener {
 
 	/*
 	 * This method doesn't need to be synchronized since it is called
-	 * from withing the getProperty method which is synchronized
+	 * from withing the resolveProperty method which is synchronized
 	 */
 	/* package */ IPropertyTester[] loadTesters(Class<?> type) {
 		if (fConfigurationElementMap == null) {
@@ -208,6 +266,7 @@ public class TypeExtensionManager implements IRegistryChangeListener {
 	}
 
 	private synchronized void initializeCaches() {
+		fGeneration++;
 		fTypeExtensionMap= new HashMap<>();
 		fConfigurationElementMap= null;
 		fPropertyCache= new PropertyCache(1000);
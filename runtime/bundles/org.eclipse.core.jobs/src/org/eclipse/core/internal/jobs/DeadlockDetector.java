@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2003, 2012 IBM Corporation and others.
+ * Copyright (c) 2003, 2022 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -15,7 +15,7 @@ package org.eclipse.core.internal.jobs;
 
 import java.io.PrintWriter;
 import java.io.StringWriter;
-import java.util.ArrayList;
+import java.util.*;
 import org.eclipse.core.internal.runtime.RuntimeLog;
 import org.eclipse.core.runtime.*;
 import org.eclipse.core.runtime.jobs.ILock;
@@ -23,16 +23,20 @@ import org.eclipse.core.runtime.jobs.ISchedulingRule;
 
 /**
  * Stores all the relationships between locks (rules are also considered locks),
- * and the threads that own them. All the relationships are stored in a 2D integer array.
- * The rows in the array are threads, while the columns are locks.
- * Two corresponding arrayLists store the actual threads and locks.
- * The index of a thread in the first arrayList is the index of the row in the graph.
- * The index of a lock in the second arrayList is the index of the column in the graph.
+ * and the threads that own them. Conceptually, the relationships form a graph
+ * with threads as rows and locks as columns.
  * An entry greater than 0 in the graph is the number of times a thread in the entry's row
  * acquired the lock in the entry's column.
  * An entry of -1 means that the thread is waiting to acquire the lock.
  * An entry of 0 means that the thread and the lock have no relationship.
  *
+ * The graph is sparse: only entries that are not 0 are stored, both by thread
+ * (the locks a thread owns or waits for) and by lock (the threads owning or
+ * waiting for a lock). The known threads and locks are kept in insertion order.
+ * This way, acquiring, releasing and waiting for a lock only touch the entries
+ * of the threads and locks involved, and cycle detection only follows the
+ * wait-for edges reachable from the lock being waited for.
+ *
  * The difference between rules and locks is that locks can be suspended, while
  * rules are implicit locks and as such cannot be suspended.
  * To resolve deadlock, the graph will first try to find a thread that only owns
@@ -72,16 +76,22 @@ public class DeadlockDetector {
 	private static int NO_STATE = 0;
 	//state variables in the graph
 	private static int WAITING_FOR_LOCK = -1;
-	//empty matrix
-	private static final int[][] EMPTY_MATRIX = new int[0][0];
-	//matrix of relationships between threads and locks
-	private int[][] graph = EMPTY_MATRIX;
-	//index is column in adjacency matrix for the lock
-	private final ArrayList<ISchedulingRule> locks = new ArrayList<>();
-	//index is row in adjacency matrix for the thread
-	private final ArrayList<Thread> lockThreads = new ArrayList<>();
-	//whether the graph needs to be resized
-	private boolean resize = false;
+
+	/**
+	 * A non-empty entry of the graph, shared by the row and the column it belongs to.
+	 */
+	private static final class Entry {
+		int state;
+
+		Entry(int state) {
+			this.state = state;
+		}
+	}
+
+	//non-empty entries for each lock (columns of the graph), in the order the locks were added
+	private final Map<ISchedulingRule, Map<Thread, Entry>> locks = new LinkedHashMap<>();
+	//non-empty entries for each thread (rows of the graph), in the order the threads were added
+	private final Map<Thread, Map<ISchedulingRule, Entry>> lockThreads = new LinkedHashMap<>();
 	private static volatile boolean noDeadlockReport;
 
 	/**
@@ -125,38 +135,85 @@ public class DeadlockDetector {
 	/**
 	 * Check that the addition of a waiting thread did not produce deadlock.
 	 * If deadlock is detected return true, else return false.
+	 * Only the threads owning the given lock, and transitively the locks they
+	 * are waiting for, are visited.
 	 */
-	private boolean checkWaitCycles(int[] waitingThreads, int lockIndex) {
+	private boolean checkWaitCycles(Set<Thread> waitingThreads, ISchedulingRule lock) {
 		/**
-		 * find the lock that this thread is waiting for
+		 * find the threads owning the lock that this thread is waiting for
 		 * recursively check if this is a cycle (i.e. a thread waiting on itself)
 		 */
-		for (int i = 0; i < graph.length; i++) {
-			if (graph[i][lockIndex] > NO_STATE) {
-				if (waitingThreads[i] > NO_STATE) {
+		for (Map.Entry<Thread, Entry> owner : column(lock).entrySet()) {
+			if (owner.getValue().state > NO_STATE) {
+				Thread thread = owner.getKey();
+				//keep track that we already visited this thread
+				if (!waitingThreads.add(thread)) {
 					return true;
 				}
-				//keep track that we already visited this thread
-				waitingThreads[i]++;
-				for (int j = 0; j < graph[i].length; j++) {
-					if (graph[i][j] == WAITING_FOR_LOCK) {
-						if (checkWaitCycles(waitingThreads, j))
+				for (Map.Entry<ISchedulingRule, Entry> entry : row(thread).entrySet()) {
+					if (entry.getValue().state == WAITING_FOR_LOCK) {
+						if (checkWaitCycles(waitingThreads, entry.getKey()))
 							return true;
 					}
 				}
 				//this thread is not involved in a cycle yet, so remove the visited flag
-				waitingThreads[i]--;
+				waitingThreads.remove(thread);
 			}
 		}
 		return false;
 	}
 
+	/**
+	 * Returns the non-empty entries of the given lock, by thread.
+	 */
+	private Map<Thread, Entry> column(ISchedulingRule lock) {
+		Map<Thread, Entry> column = locks.get(lock);
+		return column == null ? Collections.emptyMap() : column;
+	}
+
+	/**
+	 * Returns the non-empty entries of the given thread, by lock.
+	 */
+	private Map<ISchedulingRule, Entry> row(Thread thread) {
+		Map<ISchedulingRule, Entry> row = lockThreads.get(thread);
+		return row == null ? Collections.emptyMap() : row;
+	}
+
+	/**
+	 * Returns the entry for the given thread and lock.
+	 */
+	private int get(Thread thread, ISchedulingRule lock) {
+		Entry entry = row(thread).get(lock);
+		return entry == null ? NO_STATE : entry.state;
+	}
+
+	/**
+	 * Sets the entry for the given thread and lock. Both the thread and the lock
+	 * must already be present in the graph.
+	 */
+	private void set(Thread thread, ISchedulingRule lock, int state) {
+		Map<ISchedulingRule, Entry> row = lockThreads.get(thread);
+		Entry entry = row.get(lock);
+		if (state == NO_STATE) {
+			if (entry != null) {
+				row.remove(lock);
+				locks.get(lock).remove(thread);
+			}
+		} else if (entry != null) {
+			entry.state = state;
+		} else {
+			entry = new Entry(state);
+			row.put(lock, entry);
+			locks.get(lock).put(thread, entry);
+		}
+	}
+
 	/**
 	 * Returns true IFF the matrix contains a row for the given thread.
 	 * (meaning the given thread either owns locks or is waiting for locks)
 	 */
 	boolean contains(Thread t) {
-		return lockThreads.contains(t);
+		return lockThreads.containsKey(t);
 	}
 
 	/**
@@ -164,24 +221,28 @@ public class DeadlockDetector {
 	 * Find a rule it conflicts with and update the new rule with the number of times
 	 * it was acquired implicitly when threads acquired conflicting rule.
 	 */
-	private void fillPresentEntries(ISchedulingRule newLock, int lockIndex) {
+	private void fillPresentEntries(ISchedulingRule newLock) {
+		List<ISchedulingRule> conflicting = new ArrayList<>(1);
+		for (ISchedulingRule lock : locks.keySet()) {
+			if ((lock != newLock) && (newLock.isConflicting(lock)))
+				conflicting.add(lock);
+		}
 		//fill in the entries for the new rule from rules it conflicts with
-		for (int j = 0; j < locks.size(); j++) {
-			if ((j != lockIndex) && (newLock.isConflicting(locks.get(j)))) {
-				for (int[] g : graph) {
-					if ((g[j] > NO_STATE) && (g[lockIndex] == NO_STATE)) {
-						g[lockIndex] = g[j];
-					}
+		for (ISchedulingRule lock : conflicting) {
+			for (Map.Entry<Thread, Entry> owner : column(lock).entrySet()) {
+				Thread thread = owner.getKey();
+				if ((owner.getValue().state > NO_STATE) && (get(thread, newLock) == NO_STATE)) {
+					set(thread, newLock, owner.getValue().state);
 				}
 			}
 		}
 		//now back fill the entries for rules the current rule conflicts with
-		for (int j = 0; j < locks.size(); j++) {
-			if ((j != lockIndex) && (newLock.isConflicting(locks.get(j)))) {
-				for (int[] g : graph) {
-					if ((g[lockIndex] > NO_STATE) && (g[j] == NO_STATE)) {
-						g[j] = g[lockIndex];
-					}
+		Map<Thread, Entry> newColumn = column(newLock);
+		for (ISchedulingRule lock : conflicting) {
+			for (Map.Entry<Thread, Entry> owner : newColumn.entrySet()) {
+				Thread thread = owner.getKey();
+				if ((owner.getValue().state > NO_STATE) && (get(thread, lock) == NO_STATE)) {
+					set(thread, lock, owner.getValue().state);
 				}
 			}
 		}
@@ -192,11 +253,9 @@ public class DeadlockDetector {
 	 */
 	private Object[] getOwnedLocks(Thread current) {
 		ArrayList<ISchedulingRule> ownedLocks = new ArrayList<>(1);
-		int index = indexOf(current, false);
-
-		for (int j = 0; j < graph[index].length; j++) {
-			if (graph[index][j] > NO_STATE)
-				ownedLocks.add(locks.get(j));
+		for (Map.Entry<ISchedulingRule, Entry> entry : row(current).entrySet()) {
+			if (entry.getValue().state > NO_STATE)
+				ownedLocks.add(entry.getKey());
 		}
 		if (ownedLocks.isEmpty())
 			Assert.isLegal(false, "A thread with no locks is part of a deadlock."); //$NON-NLS-1$
@@ -224,11 +283,10 @@ public class DeadlockDetector {
 	private Thread[] getThreadsOwningLock(ISchedulingRule rule) {
 		if (rule == null)
 			return new Thread[0];
-		int lockIndex = indexOf(rule, false);
 		ArrayList<Thread> blocking = new ArrayList<>(1);
-		for (int i = 0; i < graph.length; i++) {
-			if (graph[i][lockIndex] > NO_STATE)
-				blocking.add(lockThreads.get(i));
+		for (Map.Entry<Thread, Entry> owner : column(rule).entrySet()) {
+			if (owner.getValue().state > NO_STATE)
+				blocking.add(owner.getKey());
 		}
 		if ((blocking.isEmpty()) && (JobManager.DEBUG_LOCKS))
 			System.out.println("Lock " + rule + " is involved in deadlock but is not owned by any thread."); //$NON-NLS-1$ //$NON-NLS-2$
@@ -241,61 +299,49 @@ public class DeadlockDetector {
 	 * Returns the lock the given thread is waiting for.
 	 */
 	private Object getWaitingLock(Thread current) {
-		int index = indexOf(current, false);
 		//find the lock that this thread is waiting for
-		for (int j = 0; j < graph[index].length; j++) {
-			if (graph[index][j] == WAITING_FOR_LOCK)
-				return locks.get(j);
+		for (Map.Entry<ISchedulingRule, Entry> entry : row(current).entrySet()) {
+			if (entry.getValue().state == WAITING_FOR_LOCK)
+				return entry.getKey();
 		}
 		//it can happen that a thread is not waiting for any lock (it is not really part of the deadlock)
 		return null;
 	}
 
 	/**
-	 * Returns the index of the given lock in the lock array. If the lock is
-	 * not present in the array, it is added to the end.
+	 * Adds the given lock to the graph, if it is not present yet.
 	 */
-	private int indexOf(ISchedulingRule lock, boolean add) {
-		int index = locks.indexOf(lock);
-		if ((index < 0) && add) {
-			locks.add(lock);
-			resize = true;
-			index = locks.size() - 1;
-		}
-		return index;
+	private void addLock(ISchedulingRule lock) {
+		locks.computeIfAbsent(lock, l -> new LinkedHashMap<>(2));
 	}
 
 	/**
-	 * Returns the index of the given thread in the thread array. If the thread
-	 * is not present in the array, it is added to the end.
+	 * Adds the given thread to the graph, if it is not present yet.
 	 */
-	private int indexOf(Thread owner, boolean add) {
-		int index = lockThreads.indexOf(owner);
-		if ((index < 0) && add) {
-			lockThreads.add(owner);
-			resize = true;
-			index = lockThreads.size() - 1;
-		}
-		return index;
+	private void addThread(Thread owner) {
+		lockThreads.computeIfAbsent(owner, t -> new LinkedHashMap<>(2));
 	}
 
 	/**
 	 * Returns true IFF the adjacency matrix is empty.
 	 */
 	boolean isEmpty() {
-		return (locks.isEmpty()) && (lockThreads.isEmpty()) && (graph.length == 0);
+		return (locks.isEmpty()) && (lockThreads.isEmpty());
 	}
 
 	/**
 	 * The given lock was acquired by the given thread.
 	 */
 	void lockAcquired(Thread owner, ISchedulingRule lock) {
-		int lockIndex = indexOf(lock, true);
-		int threadIndex = indexOf(owner, true);
-		if (resize)
-			resizeGraph();
-		if (graph[threadIndex][lockIndex] == WAITING_FOR_LOCK)
-			graph[threadIndex][lockIndex] = NO_STATE;
+		addLock(lock);
+		addThread(owner);
+		int state = get(owner, lock);
+		if (state == WAITING_FOR_LOCK)
+			state = NO_STATE;
+		set(owner, lock, state + 1);
+		//a lock only conflicts with itself, so there is nothing to acquire implicitly
+		if (lock instanceof ILock)
+			return;
 		/**
 		 * acquire all locks that conflict with the given lock
 		 * or conflict with a lock the given lock will acquire implicitly
@@ -305,15 +351,13 @@ public class DeadlockDetector {
 		//only need two passes through all the locks to pick up all conflicting rules
 		int NUM_PASSES = 2;
 		conflicting.add(lock);
-		graph[threadIndex][lockIndex]++;
 		for (int i = 0; i < NUM_PASSES; i++) {
 			for (int k = 0; k < conflicting.size(); k++) {
 				ISchedulingRule current = conflicting.get(k);
-				for (int j = 0; j < locks.size(); j++) {
-					ISchedulingRule possible = locks.get(j);
+				for (ISchedulingRule possible : locks.keySet()) {
 					if (current.isConflicting(possible) && !conflicting.contains(possible)) {
 						conflicting.add(possible);
-						graph[threadIndex][j]++;
+						set(owner, possible, get(owner, possible) + 1);
 					}
 				}
 			}
@@ -324,39 +368,44 @@ public class DeadlockDetector {
 	 * The given lock was released by the given thread. Update the graph.
 	 */
 	void lockReleased(Thread owner, ISchedulingRule lock) {
-		int lockIndex = indexOf(lock, false);
-		int threadIndex = indexOf(owner, false);
 		//make sure the lock and thread exist in the graph
-		if (threadIndex < 0) {
+		if (!lockThreads.containsKey(owner)) {
 			if (JobManager.DEBUG_LOCKS)
 				System.out.println("[lockReleased] Lock " + lock + " was already released by thread " + owner.getName()); //$NON-NLS-1$ //$NON-NLS-2$
 			return;
 		}
-		if (lockIndex < 0) {
+		if (!locks.containsKey(lock)) {
 			if (JobManager.DEBUG_LOCKS)
 				System.out.println("[lockReleased] Thread " + owner.getName() + " already released lock " + lock); //$NON-NLS-1$ //$NON-NLS-2$
 			return;
 		}
 		//if this lock was suspended, set it to NO_STATE
-		if ((lock instanceof ILock) && (graph[threadIndex][lockIndex] == WAITING_FOR_LOCK)) {
-			graph[threadIndex][lockIndex] = NO_STATE;
+		if ((lock instanceof ILock) && (get(owner, lock) == WAITING_FOR_LOCK)) {
+			set(owner, lock, NO_STATE);
 			return;
 		}
+		if (JobManager.DEBUG_LOCKS) {
+			for (ISchedulingRule other : locks.keySet()) {
+				if (lock.isConflicting(other) && (get(owner, other) == NO_STATE))
+					System.out.println("[lockReleased] More releases than acquires for thread " + owner.getName() + " and lock " + lock); //$NON-NLS-1$ //$NON-NLS-2$
+			}
+		}
 		//release all locks that conflict with the given lock
 		//or release all rules that are owned by the given thread, if we are releasing a rule
-		for (int j = 0; j < graph[threadIndex].length; j++) {
-			if ((lock.isConflicting(locks.get(j))) || (!(lock instanceof ILock) && !(locks.get(j) instanceof ILock) && (graph[threadIndex][j] > NO_STATE))) {
-				if (graph[threadIndex][j] == NO_STATE) {
-					if (JobManager.DEBUG_LOCKS)
-						System.out.println("[lockReleased] More releases than acquires for thread " + owner.getName() + " and lock " + lock); //$NON-NLS-1$ //$NON-NLS-2$
-				} else {
-					graph[threadIndex][j]--;
+		//(only entries that are not empty need to be updated)
+		for (Iterator<Map.Entry<ISchedulingRule, Entry>> it = lockThreads.get(owner).entrySet().iterator(); it.hasNext();) {
+			Map.Entry<ISchedulingRule, Entry> entry = it.next();
+			ISchedulingRule other = entry.getKey();
+			if ((lock.isConflicting(other)) || (!(lock instanceof ILock) && !(other instanceof ILock) && (entry.getValue().state > NO_STATE))) {
+				if (--entry.getValue().state == NO_STATE) {
+					it.remove();
+					locks.get(other).remove(owner);
 				}
 			}
 		}
 		//if this thread just released the given lock, try to simplify the graph
-		if (graph[threadIndex][lockIndex] == NO_STATE)
-			reduceGraph(threadIndex, lock);
+		if (get(owner, lock) == NO_STATE)
+			reduceGraph(owner, lock);
 	}
 
 	/**
@@ -364,15 +413,13 @@ public class DeadlockDetector {
 	 * Release this rule regardless of how many times it was acquired.
 	 */
 	void lockReleasedCompletely(Thread owner, ISchedulingRule rule) {
-		int ruleIndex = indexOf(rule, false);
-		int threadIndex = indexOf(owner, false);
 		//need to make sure that the given thread and rule were not already removed from the graph
-		if (threadIndex < 0) {
+		if (!lockThreads.containsKey(owner)) {
 			if (JobManager.DEBUG_LOCKS)
 				System.out.println("[lockReleasedCompletely] Lock " + rule + " was already released by thread " + owner.getName()); //$NON-NLS-1$ //$NON-NLS-2$
 			return;
 		}
-		if (ruleIndex < 0) {
+		if (!locks.containsKey(rule)) {
 			if (JobManager.DEBUG_LOCKS)
 				System.out.println("[lockReleasedCompletely] Thread " + owner.getName() + " already released lock " + rule); //$NON-NLS-1$ //$NON-NLS-2$
 			return;
@@ -382,11 +429,15 @@ public class DeadlockDetector {
 		 * (not just rules that conflict with the rule we are releasing)
 		 * if we are releasing a lock, then only update the one entry for the lock
 		 */
-		for (int j = 0; j < graph[threadIndex].length; j++) {
-			if (!(locks.get(j) instanceof ILock) && (graph[threadIndex][j] > NO_STATE))
-				graph[threadIndex][j] = NO_STATE;
+		for (Iterator<Map.Entry<ISchedulingRule, Entry>> it = lockThreads.get(owner).entrySet().iterator(); it.hasNext();) {
+			Map.Entry<ISchedulingRule, Entry> entry = it.next();
+			ISchedulingRule other = entry.getKey();
+			if (!(other instanceof ILock) && (entry.getValue().state > NO_STATE)) {
+				it.remove();
+				locks.get(other).remove(owner);
+			}
 		}
-		reduceGraph(threadIndex, rule);
+		reduceGraph(owner, rule);
 	}
 
 	/**
@@ -395,10 +446,8 @@ public class DeadlockDetector {
 	 */
 	Deadlock lockWaitStart(Thread client, ISchedulingRule lock) {
 		setToWait(client, lock, false);
-		int lockIndex = indexOf(lock, false);
-		int[] temp = new int[lockThreads.size()];
 		//check if the addition of the waiting thread caused deadlock
-		if (!checkWaitCycles(temp, lockIndex))
+		if (!checkWaitCycles(new HashSet<>(), lock))
 			return null;
 		//there is a deadlock in the graph
 		Thread[] threads = getThreadsInDeadlock(client);
@@ -423,36 +472,34 @@ public class DeadlockDetector {
 	 * If the lock has already been granted, then it isn't removed.
 	 */
 	void lockWaitStop(Thread owner, ISchedulingRule lock) {
-		int lockIndex = indexOf(lock, false);
-		int threadIndex = indexOf(owner, false);
 		//make sure the thread and lock exist in the graph
-		if (threadIndex < 0) {
+		if (!lockThreads.containsKey(owner)) {
 			if (JobManager.DEBUG_LOCKS)
 				System.out.println("Thread " + owner.getName() + " was already removed."); //$NON-NLS-1$ //$NON-NLS-2$
 			return;
 		}
-		if (lockIndex < 0) {
+		if (!locks.containsKey(lock)) {
 			if (JobManager.DEBUG_LOCKS)
 				System.out.println("Lock " + lock + " was already removed."); //$NON-NLS-1$ //$NON-NLS-2$
 			return;
 		}
-		if (graph[threadIndex][lockIndex] != WAITING_FOR_LOCK) {
+		int state = get(owner, lock);
+		if (state != WAITING_FOR_LOCK) {
 			// Lock has already been granted, nothing to do...
 			if (JobManager.DEBUG_LOCKS)
-				System.out.println("Lock " + lock + " already granted to depth: " + graph[threadIndex][lockIndex]); //$NON-NLS-1$ //$NON-NLS-2$
+				System.out.println("Lock " + lock + " already granted to depth: " + state); //$NON-NLS-1$ //$NON-NLS-2$
 			return;
 		}
-		graph[threadIndex][lockIndex] = NO_STATE;
-		reduceGraph(threadIndex, lock);
+		set(owner, lock, NO_STATE);
+		reduceGraph(owner, lock);
 	}
 
 	/**
 	 * Returns true IFF the given thread owns a single lock
 	 */
 	private boolean ownsLocks(Thread cause) {
-		int threadIndex = indexOf(cause, false);
-		for (int j = 0; j < graph[threadIndex].length; j++) {
-			if (graph[threadIndex][j] > NO_STATE)
+		for (Entry entry : row(cause).values()) {
+			if (entry.state > NO_STATE)
 				return true;
 		}
 		return false;
@@ -463,10 +510,9 @@ public class DeadlockDetector {
 	 * A real lock is a lock that can be suspended.
 	 */
 	private boolean ownsRealLocks(Thread owner) {
-		int threadIndex = indexOf(owner, false);
-		for (int j = 0; j < graph[threadIndex].length; j++) {
-			if (graph[threadIndex][j] > NO_STATE) {
-				Object lock = locks.get(j);
+		for (Map.Entry<ISchedulingRule, Entry> entry : row(owner).entrySet()) {
+			if (entry.getValue().state > NO_STATE) {
+				Object lock = entry.getKey();
 				if (lock instanceof ILock)
 					return true;
 			}
@@ -479,10 +525,9 @@ public class DeadlockDetector {
 	 * cannot be suspended)
 	 */
 	private boolean ownsRuleLocks(Thread owner) {
-		int threadIndex = indexOf(owner, false);
-		for (int j = 0; j < graph[threadIndex].length; j++) {
-			if (graph[threadIndex][j] > NO_STATE) {
-				Object lock = locks.get(j);
+		for (Map.Entry<ISchedulingRule, Entry> entry : row(owner).entrySet()) {
+			if (entry.getValue().state > NO_STATE) {
+				Object lock = entry.getKey();
 				if (!(lock instanceof ILock))
 					return true;
 			}
@@ -495,11 +540,10 @@ public class DeadlockDetector {
 	 * Real locks are locks that implement the ILock interface and can be suspended.
 	 */
 	private ISchedulingRule[] realLocksForThread(Thread owner) {
-		int threadIndex = indexOf(owner, false);
 		ArrayList<ISchedulingRule> ownedLocks = new ArrayList<>(1);
-		for (int j = 0; j < graph[threadIndex].length; j++) {
-			if ((graph[threadIndex][j] > NO_STATE) && (locks.get(j) instanceof ILock))
-				ownedLocks.add(locks.get(j));
+		for (Map.Entry<ISchedulingRule, Entry> entry : row(owner).entrySet()) {
+			if ((entry.getValue().state > NO_STATE) && (entry.getKey() instanceof ILock))
+				ownedLocks.add(entry.getKey());
 		}
 		if (ownedLocks.isEmpty())
 			Assert.isLegal(false, "A thread with no real locks was chosen to resolve deadlock."); //$NON-NLS-1$
@@ -507,94 +551,25 @@ public class DeadlockDetector {
 	}
 
 	/**
-	 * The matrix has been simplified. Check if any unnecessary rows or columns
+	 * The graph has been simplified. Check if any unnecessary rows or columns
 	 * can be removed.
 	 */
-	private void reduceGraph(int row, ISchedulingRule lock) {
-		int numLocks = locks.size();
-		boolean[] emptyColumns = new boolean[numLocks];
-
+	private void reduceGraph(Thread row, ISchedulingRule lock) {
 		/**
-		 * find all columns that could possibly be empty
+		 * Remove all columns that are empty and could possibly be empty
 		 * (consist of locks which conflict with the given lock, or of locks which are rules)
 		 */
-		for (int j = 0; j < numLocks; j++) {
-			if ((lock.isConflicting(locks.get(j))) || !(locks.get(j) instanceof ILock))
-				emptyColumns[j] = true;
-		}
-
-		boolean rowEmpty = true;
-		int numEmpty = 0;
-		//check if the given row is empty
-		for (int j = 0; j < graph[row].length; j++) {
-			if (graph[row][j] != NO_STATE) {
-				rowEmpty = false;
-				break;
+		for (Iterator<Map.Entry<ISchedulingRule, Map<Thread, Entry>>> it = locks.entrySet().iterator(); it.hasNext();) {
+			Map.Entry<ISchedulingRule, Map<Thread, Entry>> column = it.next();
+			if (column.getValue().isEmpty()) {
+				ISchedulingRule other = column.getKey();
+				if ((lock.isConflicting(other)) || !(other instanceof ILock))
+					it.remove();
 			}
 		}
-		/**
-		 * Check if the possibly empty columns are actually empty.
-		 * If a column is actually empty, remove the corresponding lock from the list of locks
-		 * Start at the last column so that when locks are removed from the list,
-		 * the index of the remaining locks is unchanged. Store the number of empty columns.
-		 */
-		for (int j = emptyColumns.length - 1; j >= 0; j--) {
-			for (int[] element : graph) {
-				if (emptyColumns[j] && (element[j] != NO_STATE)) {
-					emptyColumns[j] = false;
-					break;
-				}
-			}
-			if (emptyColumns[j]) {
-				locks.remove(j);
-				numEmpty++;
-			}
-		}
-		//if no columns or rows are empty, return right away
-		if ((numEmpty == 0) && (!rowEmpty))
-			return;
-
-		if (rowEmpty)
+		//check if the given row is empty
+		if (row(row).isEmpty())
 			lockThreads.remove(row);
-
-		//new graph (the list of locks and the list of threads are already updated)
-		final int numThreads = lockThreads.size();
-		numLocks = locks.size();
-		//optimize empty graph case
-		if (numThreads == 0 && numLocks == 0) {
-			graph = EMPTY_MATRIX;
-			return;
-		}
-		int[][] tempGraph = new int[numThreads][numLocks];
-
-		//the number of rows we need to skip to get the correct entry from the old graph
-		int numRowsSkipped = 0;
-		for (int i = 0; i < graph.length - numRowsSkipped; i++) {
-			if ((i == row) && rowEmpty) {
-				numRowsSkipped++;
-				//check if we need to skip the last row
-				if (i >= graph.length - numRowsSkipped)
-					break;
-			}
-			//the number of columns we need to skip to get the correct entry from the old graph
-			//needs to be reset for every new row
-			int numColsSkipped = 0;
-			for (int j = 0; j < graph[i].length - numColsSkipped; j++) {
-				while (emptyColumns[j + numColsSkipped]) {
-					numColsSkipped++;
-					//check if we need to skip the last column
-					if (j >= graph[i].length - numColsSkipped)
-						break;
-				}
-				//need to break out of the outer loop
-				if (j >= graph[i].length - numColsSkipped)
-					break;
-				tempGraph[i][j] = graph[i + numRowsSkipped][j + numColsSkipped];
-			}
-		}
-		graph = tempGraph;
-		Assert.isTrue(numThreads == graph.length, "Rows and threads don't match."); //$NON-NLS-1$
-		Assert.isTrue(numLocks == ((graph.length > 0) ? graph[0].length : 0), "Columns and locks don't match."); //$NON-NLS-1$
 	}
 
 	/**
@@ -647,28 +622,6 @@ public class DeadlockDetector {
 		RuntimeLog.log(main);
 	}
 
-	/**
-	 * The number of threads/locks in the graph has changed. Update the
-	 * underlying matrix.
-	 */
-	private void resizeGraph() {
-		// a new row and/or a new column was added to the graph.
-		// since new rows/columns are always added to the end, just transfer
-		// old entries to the new graph, with the same indices.
-		final int newRows = lockThreads.size();
-		final int newCols = locks.size();
-		//optimize 0x0 and 1x1 matrices
-		if (newRows == 0 && newCols == 0) {
-			graph = EMPTY_MATRIX;
-			return;
-		}
-		int[][] tempGraph = new int[newRows][newCols];
-		for (int i = 0; i < graph.length; i++)
-			System.arraycopy(graph[i], 0, tempGraph[i], 0, graph[i].length);
-		graph = tempGraph;
-		resize = false;
-	}
-
 	/**
 	 * Get the thread whose locks can be suspended. (i.e. all locks it owns are
 	 * actual locks and not rules). Return the first thread in the array by default.
@@ -701,14 +654,13 @@ public class DeadlockDetector {
 		 */
 		if (!suspend && !(lock instanceof ILock))
 			needTransfer = true;
-		int lockIndex = indexOf(lock, !suspend);
-		int threadIndex = indexOf(owner, !suspend);
-		if (resize)
-			resizeGraph();
-
-		graph[threadIndex][lockIndex] = WAITING_FOR_LOCK;
+		if (!suspend) {
+			addLock(lock);
+			addThread(owner);
+		}
+		set(owner, lock, WAITING_FOR_LOCK);
 		if (needTransfer)
-			fillPresentEntries(lock, lockIndex);
+			fillPresentEntries(lock);
 	}
 
 	/**
@@ -719,14 +671,14 @@ public class DeadlockDetector {
 		StringWriter sWriter = new StringWriter();
 		PrintWriter out = new PrintWriter(sWriter, true);
 		out.println(" :: "); //$NON-NLS-1$
-		for (ISchedulingRule lock : locks) {
+		for (ISchedulingRule lock : locks.keySet()) {
 			out.print(" " + lock + ','); //$NON-NLS-1$
 		}
 		out.println();
-		for (int i = 0; i < graph.length; i++) {
-			out.print(" " + lockThreads.get(i).getName() + " : "); //$NON-NLS-1$ //$NON-NLS-2$
-			for (int j = 0; j < graph[i].length; j++) {
-				out.print(" " + graph[i][j] + ','); //$NON-NLS-1$
+		for (Thread thread : lockThreads.keySet()) {
+			out.print(" " + thread.getName() + " : "); //$NON-NLS-1$ //$NON-NLS-2$
+			for (ISchedulingRule lock : locks.keySet()) {
+				out.print(" " + get(thread, lock) + ','); //$NON-NLS-1$
 			}
 			out.println();
 		}
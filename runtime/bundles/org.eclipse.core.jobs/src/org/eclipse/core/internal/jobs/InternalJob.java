@@ -139,6 +139,25 @@ public abstract class InternalJob extends PlatformObject implements Comparable<I
 	 */
 	private long waitQueueStamp = T_NONE;
 
+	/**
+	 * The {@link System#nanoTime()} of the last state change, used to collect
+	 * {@link JobMetrics}.
+	 */
+	private long stateChangeTime;
+
+	/**
+	 * Whether {@link #stateChangeTime} is known. It is not known before the
+	 * first state change that happens while metrics are enabled.
+	 */
+	private boolean stateChangeTimed;
+
+	/**
+	 * The tracked {@link JobMetrics} families this job belongs to, or
+	 * <code>null</code> if none. Resolved when the job is scheduled, so that
+	 * {@link #belongsTo(Object)} is not called while the job manager is locked.
+	 */
+	private Object[] metricFamilies;
+
 	/*
 	 * The thread that is currently running this job
 	 */
@@ -310,7 +329,32 @@ public abstract class InternalJob extends PlatformObject implements Comparable<I
 	 * Must be called from JobManager#changeState
 	 */
 	final void internalSetState(int i) {
+		int oldState = flags & M_STATE;
 		flags = (flags & ~M_STATE) | i;
+		if (oldState == i)
+			return;
+		JobMetrics metrics = manager.getMetrics();
+		if (!metrics.isEnabled()) {
+			//the time of the current phase is unknown once metrics are enabled again
+			stateChangeTimed = false;
+			return;
+		}
+		int oldPhase = JobMetrics.phaseFor(this, oldState);
+		if (oldPhase == JobMetrics.phaseFor(this, i) && stateChangeTimed)
+			return;
+		long now = System.nanoTime();
+		if (oldPhase >= 0 && stateChangeTimed)
+			metrics.record(this, oldPhase, now - stateChangeTime);
+		stateChangeTime = now;
+		stateChangeTimed = true;
+	}
+
+	final Object[] getMetricFamilies() {
+		return metricFamilies;
+	}
+
+	final void setMetricFamilies(Object[] families) {
+		this.metricFamilies = families;
 	}
 
 	/**
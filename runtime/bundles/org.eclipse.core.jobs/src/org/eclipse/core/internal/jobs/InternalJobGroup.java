@@ -58,14 +58,37 @@ public class InternalJobGroup {
 	private int seedJobsCount;
 	private int seedJobsRemainingCount;
 
+	/**
+	 * The members of this group that are waiting to run, or <code>null</code> if
+	 * the members are queued with all other jobs in the job manager.
+	 *
+	 * @GuardedBy("JobManager.lock")
+	 */
+	final JobQueue waiting;
+
+	/**
+	 * The workers dedicated to running the members of this group, created when
+	 * the first member is queued. Always <code>null</code> if {@link #waiting}
+	 * is <code>null</code>.
+	 *
+	 * @GuardedBy("JobManager.lock")
+	 */
+	WorkerPool pool;
+
 	protected InternalJobGroup(String name, int maxThreads, int seedJobsCount) {
+		this(name, maxThreads, seedJobsCount, false);
+	}
+
+	protected InternalJobGroup(String name, int maxThreads, int seedJobsCount, boolean dedicatedWorkers) {
 		Assert.isNotNull(name);
 		Assert.isLegal(maxThreads >= 0);
 		Assert.isLegal(seedJobsCount >= 0);
+		Assert.isLegal(!dedicatedWorkers || maxThreads > 0, "Dedicated workers require a maximum number of threads"); //$NON-NLS-1$
 		this.name = name;
 		this.maxThreads = maxThreads;
 		this.seedJobsCount = seedJobsCount;
 		this.seedJobsRemainingCount = seedJobsCount;
+		this.waiting = dedicatedWorkers ? new JobQueue(false) : null;
 	}
 
 	protected String getName() {
@@ -76,6 +99,10 @@ public class InternalJobGroup {
 		return maxThreads;
 	}
 
+	protected boolean hasDedicatedWorkers() {
+		return waiting != null;
+	}
+
 	protected MultiStatus getResult() {
 		return result;
 	}
@@ -77,6 +77,8 @@ public class JobManager implements IJobManager, DebugOptionsListener {
 	private static final String OPTION_DEBUG_JOBS = PI_JOBS + "/jobs"; //$NON-NLS-1$
 	private static final String OPTION_LOCKS = PI_JOBS + "/jobs/locks"; //$NON-NLS-1$
 	private static final String OPTION_SHUTDOWN = PI_JOBS + "/jobs/shutdown"; //$NON-NLS-1$
+	private static final String OPTION_METRICS = PI_JOBS + "/jobs/metrics"; //$NON-NLS-1$
+	private static final String OPTION_METRICS_DUMP = PI_JOBS + "/jobs/metrics/dump"; //$NON-NLS-1$
 
 	static DebugTrace DEBUG_TRACE;
 	static boolean DEBUG = false;
@@ -148,6 +150,11 @@ public class JobManager implements IJobManager, DebugOptionsListener {
 
 	private final LockManager lockManager = new LockManager();
 
+	/**
+	 * Timing statistics of jobs, disabled by default.
+	 */
+	private final JobMetrics metrics = new JobMetrics();
+
 	/**
 	 * The pool of worker threads.
 	 */
@@ -191,6 +198,21 @@ public class JobManager implements IJobManager, DebugOptionsListener {
 	 */
 	private final JobQueue waiting;
 
+	/**
+	 * Job groups with dedicated workers that have members waiting to be run.
+	 * Their members are queued in the group instead of {@link #waiting}.
+	 * Should only be modified from changeState
+	 * @GuardedBy("lock")
+	 */
+	private final Set<InternalJobGroup> groupsWaiting = new LinkedHashSet<>();
+
+	/**
+	 * Job groups with dedicated workers that have a worker pool. Weak, so that
+	 * groups can be collected once all their workers have expired.
+	 * @GuardedBy("lock")
+	 */
+	private final Set<InternalJobGroup> groupsWithPool = Collections.newSetFromMap(new WeakHashMap<>());
+
 	/**
 	 * ThreadJobs that are waiting to be run. Should only be modified from changeState
 	 * @GuardedBy("lock")
@@ -298,6 +320,10 @@ public class JobManager implements IJobManager, DebugOptionsListener {
 			pool = new WorkerPool(this);
 		}
 		pool.setDaemon(JobOSGiUtils.getDefault().useDaemonThreads());
+		if (JobOSGiUtils.getDefault().useVirtualThreads() && !pool.setUseVirtualThreads(true)) {
+			String msg = "Virtual threads are not supported by this Java VM, jobs will run on platform threads"; //$NON-NLS-1$
+			RuntimeLog.log(new Status(IStatus.INFO, JobManager.PI_JOBS, msg));
+		}
 		internalWorker = new InternalWorker(this);
 		internalWorker.setDaemon(JobOSGiUtils.getDefault().useDaemonThreads());
 		internalWorker.start();
@@ -396,6 +422,7 @@ public class JobManager implements IJobManager, DebugOptionsListener {
 	private void changeState(InternalJob job, int newState) {
 		assert Thread.holdsLock(lock);
 		boolean blockedJobs = false;
+		WorkerPool groupPool = null;
 		int oldJobState;
 		synchronized (job.jobStateLock) {
 			job.jobStateLock.notifyAll();
@@ -412,11 +439,14 @@ public class JobManager implements IJobManager, DebugOptionsListener {
 				job.remove();
 				break;
 			case Job.WAITING:
+				JobQueue queue = waitingQueue(job);
 				try {
-					waiting.remove(job);
+					queue.remove(job);
 				} catch (RuntimeException e) {
 					Assert.isLegal(false, "Tried to remove a job that wasn't in the queue"); //$NON-NLS-1$
 				}
+				if (queue != waiting && queue.isEmpty())
+					groupsWaiting.remove(job.getJobGroup());
 				break;
 			case Job.SLEEPING:
 				try {
@@ -450,7 +480,13 @@ public class JobManager implements IJobManager, DebugOptionsListener {
 			case InternalJob.BLOCKED:
 				break;
 			case Job.WAITING:
-				waiting.enqueue(job);
+				JobQueue queue = waitingQueue(job);
+				queue.enqueue(job);
+				if (queue != waiting) {
+					InternalJobGroup jobGroup = job.getJobGroup();
+					groupsWaiting.add(jobGroup);
+					groupPool = getGroupPool(jobGroup);
+				}
 				break;
 			case Job.SLEEPING:
 				try {
@@ -483,6 +519,29 @@ public class JobManager implements IJobManager, DebugOptionsListener {
 		//notify queue outside sync block
 		if (blockedJobs)
 			pool.jobQueued();
+		if (groupPool != null)
+			groupPool.jobQueued();
+	}
+
+	/**
+	 * Returns the queue the given job is added to when waiting to be run.
+	 * @GuardedBy("lock")
+	 */
+	private JobQueue waitingQueue(InternalJob job) {
+		InternalJobGroup jobGroup = job.getJobGroup();
+		return jobGroup == null || jobGroup.waiting == null ? waiting : jobGroup.waiting;
+	}
+
+	/**
+	 * Returns the worker pool dedicated to the given job group, creating it if needed.
+	 * @GuardedBy("lock")
+	 */
+	private WorkerPool getGroupPool(InternalJobGroup jobGroup) {
+		if (jobGroup.pool == null) {
+			jobGroup.pool = pool.createGroupPool(jobGroup);
+			groupsWithPool.add(jobGroup);
+		}
+		return jobGroup.pool;
 	}
 
 	/**
@@ -559,9 +618,10 @@ public class JobManager implements IJobManager, DebugOptionsListener {
 
 	@Override
 	public Job currentJob() {
+		Worker worker = Worker.current();
+		if (worker != null)
+			return worker.currentJob();
 		Thread current = Thread.currentThread();
-		if (current instanceof Worker)
-			return ((Worker) current).currentJob();
 		synchronized (lock) {
 			for (InternalJob internalJob : running) {
 				Job job = (Job) internalJob;
@@ -665,6 +725,12 @@ public class JobManager implements IJobManager, DebugOptionsListener {
 			//discard any jobs that have not yet started running
 			sleeping.clear();
 			waiting.clear();
+			for (InternalJobGroup jobGroup : groupsWaiting)
+				jobGroup.waiting.clear();
+			groupsWaiting.clear();
+			//wake up idle dedicated workers so they can exit
+			for (InternalJobGroup jobGroup : groupsWithPool)
+				jobGroup.pool.shutdown();
 		}
 
 		// Give running jobs a chance to finish. Wait 0.1 seconds for up to 3 times.
@@ -860,6 +926,13 @@ public class JobManager implements IJobManager, DebugOptionsListener {
 		return lockManager;
 	}
 
+	/**
+	 * Returns the collector of job timing statistics.
+	 */
+	public JobMetrics getMetrics() {
+		return metrics;
+	}
+
 	/**
 	 * Returns a translated message indicating we are waiting for the given
 	 * number of jobs to complete.
@@ -912,7 +985,7 @@ public class JobManager implements IJobManager, DebugOptionsListener {
 	@Override
 	public boolean isIdle() {
 		synchronized (lock) {
-			return running.isEmpty() && waiting.isEmpty();
+			return running.isEmpty() && waiting.isEmpty() && groupsWaiting.isEmpty();
 		}
 	}
 
@@ -1201,23 +1274,29 @@ public class JobManager implements IJobManager, DebugOptionsListener {
 	 * Returns null if there are no items waiting in the queue.  If an item is
 	 * removed from the queue, it is moved to the running jobs list.
 	 */
-	private Job nextJob() {
+	private Job nextJob(InternalJobGroup group) {
 		synchronized (lock) {
 			// do nothing if the job manager is suspended
 			if (suspended)
 				return null;
-			// tickle the sleep queue to see if anyone wakes up
-			long now = now();
-			InternalJob job = sleeping.peek();
-			while (job != null && job.getStartTime() < now) {
-				job.setStartTime(now + delayFor(job.getPriority()));
-				job.setWaitQueueStamp(getNextWaitQueueStamp());
-				changeState(job, Job.WAITING);
-				job = sleeping.peek();
+			JobQueue queue = waiting;
+			if (group != null) {
+				// dedicated workers only run members of their group
+				queue = group.waiting;
+			} else {
+				// tickle the sleep queue to see if anyone wakes up
+				long now = now();
+				InternalJob job = sleeping.peek();
+				while (job != null && job.getStartTime() < now) {
+					job.setStartTime(now + delayFor(job.getPriority()));
+					job.setWaitQueueStamp(getNextWaitQueueStamp());
+					changeState(job, Job.WAITING);
+					job = sleeping.peek();
+				}
 			}
 			InternalJobGroup jobGroup = null;
 			// process the wait queue until we find a job whose rules are satisfied.
-			job = waiting.peek();
+			InternalJob job = queue.peek();
 			while (job != null) {
 				InternalJob blocker = findBlockingJob(job);
 				jobGroup = job.getJobGroup();
@@ -1235,7 +1314,7 @@ public class JobManager implements IJobManager, DebugOptionsListener {
 				}
 				// skip this job as either this job is blocked on another job or
 				// the maximum number of jobs from the same group are already running.
-				job = nextWaitingJob == waiting.dummy ? null : nextWaitingJob;
+				job = nextWaitingJob == queue.dummy ? null : nextWaitingJob;
 			}
 			// the job to run must be in the running list before we exit
 			// the sync block, otherwise two jobs with conflicting rules could start at once
@@ -1285,6 +1364,10 @@ public class JobManager implements IJobManager, DebugOptionsListener {
 		DEBUG_DEADLOCK = options.getBooleanOption(OPTION_DEADLOCK_ERROR, false);
 		DEBUG_LOCKS = options.getBooleanOption(OPTION_LOCKS, false);
 		DEBUG_SHUTDOWN = options.getBooleanOption(OPTION_SHUTDOWN, false);
+		boolean collectMetrics = options.getBooleanOption(OPTION_METRICS, false);
+		if (collectMetrics)
+			metrics.setEnabled(true);
+		metrics.setDumpInterval(collectMetrics ? options.getIntegerOption(OPTION_METRICS_DUMP, 0) : 0);
 	}
 
 	@Override
@@ -1331,6 +1414,11 @@ public class JobManager implements IJobManager, DebugOptionsListener {
 			suspended = false;
 			//poke the job pool
 			pool.jobQueued();
+			//and the dedicated workers of groups whose members were queued while suspended
+			for (InternalJobGroup jobGroup : groupsWaiting) {
+				if (jobGroup.pool != null)
+					jobGroup.pool.jobQueued();
+			}
 		}
 	}
 
@@ -1375,16 +1463,72 @@ public class JobManager implements IJobManager, DebugOptionsListener {
 	}
 
 	protected void schedule(InternalJob job, long delay) {
+		metrics.resolveFamilies(job);
 		waitEventsSend(job);
 		synchronized (lock) {
 			waitEventsSend2(job);
-			if (scheduleInternal(job, delay, false)) {
+			//members of groups with dedicated workers are dispatched by their own pool
+			if (scheduleInternal(job, delay, false) && !isQueuedInGroup(job)) {
 				pool.jobQueued();
 			}
 		}
 		sendEvents(job);
 	}
 
+	@Override
+	public void schedule(Collection<? extends Job> jobs) {
+		Assert.isNotNull(jobs);
+		List<InternalJob> accepted = new ArrayList<>(jobs.size());
+		for (Job job : jobs) {
+			Assert.isNotNull(job, "Job is null"); //$NON-NLS-1$
+			// shouldSchedule is client code and must be called outside the lock
+			if (job.shouldSchedule())
+				accepted.add(job);
+		}
+		if (accepted.isEmpty())
+			return;
+		for (InternalJob job : accepted) {
+			metrics.resolveFamilies(job);
+			waitEventsSend(job);
+		}
+		synchronized (lock) {
+			int runnable = 0;
+			Map<InternalJobGroup, Integer> groupSlots = null;
+			for (InternalJob job : accepted) {
+				waitEventsSend2(job);
+				if (!scheduleInternal(job, 0, false) || job.getState() != Job.WAITING || isQueuedInGroup(job))
+					continue;
+				InternalJobGroup jobGroup = job.getJobGroup();
+				int maxThreads = jobGroup == null ? 0 : jobGroup.getMaxThreads();
+				if (maxThreads == 0) {
+					runnable++;
+					continue;
+				}
+				// jobs beyond the throttling limit of their group will not run now, so don't wake a worker for them
+				if (groupSlots == null)
+					groupSlots = new HashMap<>();
+				int slots = groupSlots.computeIfAbsent(jobGroup, g -> Math.max(0, maxThreads - g.getRunningJobsCount()));
+				if (slots > 0) {
+					groupSlots.put(jobGroup, slots - 1);
+					runnable++;
+				}
+			}
+			if (runnable > 0)
+				pool.jobsQueued(runnable);
+		}
+		for (InternalJob job : accepted)
+			sendEvents(job);
+	}
+
+	/**
+	 * Returns whether the given job is waiting to be run by the workers dedicated
+	 * to its job group.
+	 * @GuardedBy("lock")
+	 */
+	private boolean isQueuedInGroup(InternalJob job) {
+		return job.getState() == Job.WAITING && waitingQueue(job) != waiting;
+	}
+
 	protected boolean scheduleInternal(InternalJob job, long delay, boolean reschedule) {
 		assert Thread.holdsLock(lock);
 		if (!active)
@@ -1448,6 +1592,9 @@ public class JobManager implements IJobManager, DebugOptionsListener {
 			}
 			if ((stateMask & Job.WAITING) != 0) {
 				select(members, family, waiting.peek(), stateMask);
+				for (InternalJobGroup jobGroup : groupsWaiting) {
+					select(members, family, jobGroup.waiting.peek(), stateMask);
+				}
 				for (InternalJob internalJob : yielding) {
 					select(members, family, internalJob, stateMask);
 				}
@@ -1458,6 +1605,32 @@ public class JobManager implements IJobManager, DebugOptionsListener {
 		return members;
 	}
 
+	/**
+	 * Returns the number of worker threads of the shared pool that are virtual
+	 * threads. Virtual workers stop after
+	 * <code>setUseVirtualThreads(false)</code>, once they have finished their
+	 * current job.
+	 */
+	public int getVirtualThreadCount() {
+		return pool.getVirtualThreadCount();
+	}
+
+	/**
+	 * Sets whether jobs should run on virtual threads. Only affects worker
+	 * threads created after this call, except that existing virtual workers
+	 * stop once they have finished their current job when virtual threads are
+	 * turned off.
+	 *
+	 * @return <code>true</code> if jobs will run on virtual threads, and
+	 *         <code>false</code> if platform threads are used, either because
+	 *         <code>value</code> is <code>false</code> or the running Java VM
+	 *         does not support virtual threads
+	 * @see IJobManager#PROP_USE_VIRTUAL_THREADS
+	 */
+	public boolean setUseVirtualThreads(boolean value) {
+		return pool.setUseVirtualThreads(value);
+	}
+
 	@Override
 	public void setLockListener(LockListener listener) {
 		lockManager.setLockListener(listener);
@@ -1476,7 +1649,7 @@ public class JobManager implements IJobManager, DebugOptionsListener {
 			if (job.getState() == Job.WAITING) {
 				long oldStart = job.getStartTime();
 				job.setStartTime(oldStart + (delayFor(newPriority) - delayFor(oldPriority)));
-				waiting.resort(job);
+				waitingQueue(job).resort(job);
 			}
 		}
 	}
@@ -1540,13 +1713,17 @@ public class JobManager implements IJobManager, DebugOptionsListener {
 	/**
 	 * Returns the estimated time in milliseconds before the next job is scheduled
 	 * to wake up. The result may be negative.  Returns InternalJob.T_INFINITE if
-	 * there are no sleeping or waiting jobs.
+	 * there are no sleeping or waiting jobs. If a job group is given, only its
+	 * waiting members are considered, since sleeping members are woken up by
+	 * the shared workers.
 	 */
-	protected long sleepHint() {
+	protected long sleepHint(InternalJobGroup group) {
 		synchronized (lock) {
 			//wait forever if job manager is suspended
 			if (suspended)
 				return InternalJob.T_INFINITE;
+			if (group != null)
+				return group.waiting.isEmpty() ? InternalJob.T_INFINITE : 0L;
 			if (!waiting.isEmpty())
 				return 0L;
 			//return the anticipated time that the next sleeping job will wake
@@ -1745,12 +1922,13 @@ public class JobManager implements IJobManager, DebugOptionsListener {
 
 	/**
 	 * Returns the next job to be run, or null if no jobs are waiting to run.
+	 * If a job group is given, only its members are considered.
 	 * The worker must call endJob when the job is finished running.
 	 */
-	protected Job startJob(Worker worker) {
+	protected Job startJob(Worker worker, InternalJobGroup group) {
 		Job job = null;
 		while (true) {
-			job = nextJob();
+			job = nextJob(group);
 			if (job == null)
 				return null;
 			//must perform this outside sync block because it is third party code
@@ -1774,7 +1952,8 @@ public class JobManager implements IJobManager, DebugOptionsListener {
 						if (shouldRun && !internal.isAboutToRunCanceled()) {
 							internal.setProgressMonitor(createMonitor(job));
 							//change from ABOUT_TO_RUN to RUNNING
-							internal.setThread(worker);
+							//the worker may be run by a virtual thread
+							internal.setThread(Thread.currentThread());
 							internal.internalSetState(Job.RUNNING);
 							internal.jobStateLock.notifyAll();
 							jobListeners.queueRunning(job);
@@ -0,0 +1,305 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.core.internal.jobs;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+
+/**
+ * Collects timing statistics of the job system. For every job class, and for
+ * every tracked job family, a {@link PerformanceHistogram} of the durations in
+ * microseconds is maintained for the time jobs spend waiting in the queue,
+ * sleeping, blocked by a conflicting scheduling rule or lock, and running.
+ * <p>
+ * Recording is disabled by default. When disabled, the only overhead is a
+ * volatile read on every job state change. Recording can be enabled with the
+ * <code>org.eclipse.core.jobs/jobs/metrics</code> debug option, and the
+ * <code>org.eclipse.core.jobs/jobs/metrics/dump</code> option sets the interval
+ * in milliseconds at which the collected metrics are written to the trace.
+ * </p>
+ *
+ * @ThreadSafe
+ */
+public class JobMetrics {
+	/**
+	 * Phase index for the time a job spent waiting to run, including the time
+	 * spent in <code>aboutToRun</code> listeners.
+	 */
+	public static final int WAITING = 0;
+	/**
+	 * Phase index for the time a job spent sleeping.
+	 */
+	public static final int SLEEPING = 1;
+	/**
+	 * Phase index for the time a job spent blocked by a job with a conflicting
+	 * scheduling rule, by a yielding job, or while acquiring an {@link OrderedLock}.
+	 */
+	public static final int BLOCKED = 2;
+	/**
+	 * Phase index for the time a job spent running.
+	 */
+	public static final int RUNNING = 3;
+
+	private static final int PHASE_COUNT = 4;
+	private static final String[] PHASE_NAMES = {"waiting", "sleeping", "blocked", "running"}; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+
+	/**
+	 * The histograms of all phases of one job class or family.
+	 */
+	public static final class Statistics {
+		private final PerformanceHistogram[] phases = new PerformanceHistogram[PHASE_COUNT];
+
+		Statistics() {
+			for (int i = 0; i < PHASE_COUNT; i++)
+				phases[i] = new PerformanceHistogram();
+		}
+
+		/**
+		 * Returns the histogram of the given phase.
+		 *
+		 * @param phase one of {@link JobMetrics#WAITING}, {@link JobMetrics#SLEEPING},
+		 * {@link JobMetrics#BLOCKED} or {@link JobMetrics#RUNNING}
+		 */
+		public PerformanceHistogram getHistogram(int phase) {
+			return phases[phase];
+		}
+
+		void reset() {
+			for (PerformanceHistogram histogram : phases)
+				histogram.reset();
+		}
+	}
+
+	private volatile boolean enabled = false;
+
+	private final Map<String, Statistics> byClass = new ConcurrentHashMap<>();
+
+	private final Map<Object, Statistics> byFamily = new ConcurrentHashMap<>();
+
+	private final Set<Object> families = new CopyOnWriteArraySet<>();
+
+	/**
+	 * The job periodically writing the metrics to the trace, or <code>null</code>.
+	 * @GuardedBy("this")
+	 */
+	private Job dumpJob;
+
+	/**
+	 * Returns the phase accounting for time spent in the given internal job state,
+	 * or -1 if the state is not measured.
+	 */
+	static int phaseFor(InternalJob job, int state) {
+		switch (state) {
+			case InternalJob.ABOUT_TO_SCHEDULE :
+			case Job.WAITING :
+			case InternalJob.ABOUT_TO_RUN :
+				// thread jobs only wait because of a conflicting rule
+				return job instanceof ThreadJob ? BLOCKED : WAITING;
+			case Job.SLEEPING :
+				return SLEEPING;
+			case InternalJob.BLOCKED :
+			case InternalJob.YIELDING :
+				return BLOCKED;
+			case Job.RUNNING :
+				return RUNNING;
+		}
+		return -1;
+	}
+
+	/**
+	 * Returns the key under which statistics of the given job are recorded.
+	 */
+	private static String keyFor(InternalJob job) {
+		if (job instanceof ThreadJob) {
+			Job realJob = ((ThreadJob) job).realJob;
+			if (realJob != null)
+				return realJob.getClass().getName();
+		}
+		return job.getClass().getName();
+	}
+
+	/**
+	 * Returns whether metrics are being recorded.
+	 */
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Enables or disables recording of metrics. Already recorded data is kept.
+	 */
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	/**
+	 * Starts recording separate statistics for all jobs belonging to the given
+	 * family.  Every tracked family adds a {@link Job#belongsTo(Object)} call
+	 * each time a job is scheduled, so only few families should be tracked.
+	 * Jobs that are already scheduled are counted in the family once they are
+	 * scheduled again.
+	 */
+	public void trackFamily(Object family) {
+		Objects.requireNonNull(family);
+		byFamily.computeIfAbsent(family, f -> new Statistics());
+		families.add(family);
+	}
+
+	/**
+	 * Stops recording statistics for the given family and discards the
+	 * statistics recorded so far.
+	 */
+	public void untrackFamily(Object family) {
+		families.remove(family);
+		byFamily.remove(family);
+	}
+
+	/**
+	 * Returns a snapshot of the statistics recorded per job class name. The
+	 * returned histograms continue to be updated.
+	 */
+	public Map<String, Statistics> getStatistics() {
+		return new TreeMap<>(byClass);
+	}
+
+	/**
+	 * Returns the statistics recorded for the given job class name, or
+	 * <code>null</code> if no job of that class was recorded.
+	 */
+	public Statistics getStatistics(String jobClassName) {
+		return byClass.get(jobClassName);
+	}
+
+	/**
+	 * Returns the statistics recorded for the given tracked family, or
+	 * <code>null</code> if the family is not tracked.
+	 */
+	public Statistics getFamilyStatistics(Object family) {
+		return byFamily.get(family);
+	}
+
+	/**
+	 * Discards all recorded data.
+	 */
+	public void reset() {
+		byClass.clear();
+		for (Statistics statistics : byFamily.values())
+			statistics.reset();
+	}
+
+	/**
+	 * Sets the interval in milliseconds at which the metrics are written to the
+	 * debug trace. An interval of zero or less stops writing the metrics.
+	 */
+	synchronized void setDumpInterval(long interval) {
+		if (dumpJob != null) {
+			dumpJob.cancel();
+			dumpJob = null;
+		}
+		if (interval <= 0)
+			return;
+		dumpJob = new Job("Job metrics dump") { //$NON-NLS-1$
+			@Override
+			protected IStatus run(IProgressMonitor monitor) {
+				JobManager.debug(JobMetrics.this.toString());
+				if (!monitor.isCanceled())
+					schedule(interval);
+				return Status.OK_STATUS;
+			}
+		};
+		dumpJob.setSystem(true);
+		dumpJob.schedule(interval);
+	}
+
+	/**
+	 * Records the time the current thread spent waiting to acquire a lock.
+	 */
+	void lockWaited(long nanos) {
+		Worker worker = Worker.current();
+		Job job = worker == null ? null : worker.currentJob();
+		if (job != null)
+			record(job, BLOCKED, nanos);
+	}
+
+	/**
+	 * Remembers the tracked families the given job belongs to. Must not be
+	 * called while holding the job manager lock, because
+	 * {@link Job#belongsTo(Object)} is client code.
+	 */
+	void resolveFamilies(InternalJob job) {
+		Object[] matched = null;
+		if (enabled && !families.isEmpty()) {
+			List<Object> result = new ArrayList<>(1);
+			for (Object family : families) {
+				if (job.belongsTo(family))
+					result.add(family);
+			}
+			if (!result.isEmpty())
+				matched = result.toArray();
+		}
+		job.setMetricFamilies(matched);
+	}
+
+	/**
+	 * Records that the given job spent the given time in the given phase.
+	 */
+	void record(InternalJob job, int phase, long nanos) {
+		long micros = nanos / 1000;
+		byClass.computeIfAbsent(keyFor(job), k -> new Statistics()).phases[phase].record(micros);
+		Object[] jobFamilies = job.getMetricFamilies();
+		if (jobFamilies == null)
+			return;
+		for (Object family : jobFamilies) {
+			Statistics statistics = byFamily.get(family);
+			if (statistics != null)
+				statistics.phases[phase].record(micros);
+		}
+	}
+
+	/**
+	 * Returns a human readable dump of all statistics, sorted by total running
+	 * time so that the job classes using most of the pool come first.
+	 */
+	@Override
+	public String toString() {
+		List<Map.Entry<String, Statistics>> entries = new ArrayList<>(byClass.entrySet());
+		entries.sort(Comparator.comparingLong((Map.Entry<String, Statistics> e) -> e.getValue().phases[RUNNING].getTotal(false)).reversed());
+		StringBuilder buffer = new StringBuilder("Job metrics (ms: count/total/p50/p99/max)"); //$NON-NLS-1$
+		for (Map.Entry<String, Statistics> entry : entries)
+			append(buffer, entry.getKey(), entry.getValue());
+		for (Map.Entry<Object, Statistics> entry : byFamily.entrySet())
+			append(buffer, "family " + entry.getKey(), entry.getValue()); //$NON-NLS-1$
+		return buffer.toString();
+	}
+
+	private static void append(StringBuilder buffer, String name, Statistics statistics) {
+		buffer.append("\n  ").append(name); //$NON-NLS-1$
+		for (int i = 0; i < PHASE_COUNT; i++) {
+			PerformanceHistogram histogram = statistics.phases[i];
+			long count = histogram.getCount();
+			if (count == 0)
+				continue;
+			buffer.append("\n    ").append(PHASE_NAMES[i]).append(": ").append(count); //$NON-NLS-1$ //$NON-NLS-2$
+			buffer.append('/').append(histogram.getTotal(false) / 1000);
+			buffer.append('/').append(histogram.getValue(50) / 1000);
+			buffer.append('/').append(histogram.getValue(99) / 1000);
+			buffer.append('/').append(histogram.getMax(false) / 1000);
+		}
+	}
+}
@@ -108,4 +108,23 @@ class JobOSGiUtils {
 			return false;
 		return "true".equalsIgnoreCase(value); //$NON-NLS-1$
 	}
+
+	/**
+	 * Calculates whether the job plugin should run jobs on virtual threads.
+	 * Virtual threads are only used when explicitly requested, and only if the
+	 * running Java VM supports them.
+	 * @return <code>true</code> if worker threads should be virtual threads,
+	 * and <code>false</code> otherwise.
+	 */
+	boolean useVirtualThreads() {
+		BundleContext context = JobActivator.getContext();
+		String value;
+		if (context == null) {
+			//we are running stand-alone, so consult global system property
+			value = System.getProperty(IJobManager.PROP_USE_VIRTUAL_THREADS);
+		} else {
+			value = context.getProperty(IJobManager.PROP_USE_VIRTUAL_THREADS);
+		}
+		return "true".equalsIgnoreCase(value); //$NON-NLS-1$
+	}
 }
@@ -107,7 +107,12 @@ public class OrderedLock implements ILock, ISchedulingRule {
 			return true;
 		if (DEBUG)
 			System.out.println("[" + Thread.currentThread() + "] Operation waiting to be executed... " + this); //$NON-NLS-1$ //$NON-NLS-2$
+		JobMetrics metrics = JobManager.getInstance().getMetrics();
+		boolean timed = metrics.isEnabled();
+		long start = timed ? System.nanoTime() : 0;
 		boolean success = doAcquire(semaphore, delay);
+		if (timed)
+			metrics.lockWaited(System.nanoTime() - start);
 		manager.resumeSuspendedLocks(Thread.currentThread());
 		if (DEBUG)
 			System.out.println("[" + Thread.currentThread() + //$NON-NLS-1$
@@ -0,0 +1,174 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.core.internal.jobs;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Records the distribution of durations, such as the durations of a
+ * performance event or of the phases of jobs (see {@link JobMetrics}).
+ * <p>
+ * Like an HdrHistogram, every power of two is divided into
+ * {@link #SUB_BUCKETS} buckets of the same width, so a value is known with a
+ * relative error of less than 1/{@link #SUB_BUCKETS}, no matter how large it
+ * is. Recording a value neither locks nor allocates.
+ * </p>
+ */
+public final class PerformanceHistogram {
+	private static final int SUB_BUCKET_BITS = 4;
+	static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+	/**
+	 * Values of 2^MAX_EXPONENT or more, about 12 days in microseconds, are
+	 * counted in the last bucket.
+	 */
+	private static final int MAX_EXPONENT = 40;
+
+	public static final int BUCKET_COUNT = SUB_BUCKETS + (MAX_EXPONENT - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+	private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+	private final AtomicLong total = new AtomicLong();
+	private final AtomicLong max = new AtomicLong();
+
+	/**
+	 * Returns the bucket that counts the given value.
+	 */
+	public static int getBucket(long value) {
+		if (value < SUB_BUCKETS)
+			return value < 0 ? 0 : (int) value;
+		int exponent = 63 - Long.numberOfLeadingZeros(value);
+		if (exponent >= MAX_EXPONENT)
+			return BUCKET_COUNT - 1;
+		int shift = exponent - SUB_BUCKET_BITS;
+		int subBucket = (int) (value >>> shift) - SUB_BUCKETS;
+		return SUB_BUCKETS + shift * SUB_BUCKETS + subBucket;
+	}
+
+	/**
+	 * Returns the highest value counted by the given bucket.
+	 */
+	public static long getHighestValue(int bucket) {
+		if (bucket < SUB_BUCKETS)
+			return bucket;
+		int shift = (bucket - SUB_BUCKETS) / SUB_BUCKETS;
+		int subBucket = (bucket - SUB_BUCKETS) % SUB_BUCKETS;
+		long lowest = (long) (SUB_BUCKETS + subBucket) << shift;
+		return lowest + (1L << shift) - 1;
+	}
+
+	/**
+	 * Returns the value that the given percentage of the counted values did not
+	 * exceed, as known from the buckets that count them.
+	 *
+	 * @param bucketCounts the number of values counted by each bucket
+	 * @param count the sum of the bucket counts
+	 * @param max the largest value
+	 * @param percentile the percentage of values, between 0 and 100
+	 * @return the value, or 0 if no value was counted
+	 */
+	public static long getValue(long[] bucketCounts, long count, long max, double percentile) {
+		if (count == 0)
+			return 0;
+		long wanted = Math.max(1, (long) Math.ceil(count * Math.min(100, Math.max(0, percentile)) / 100));
+		long seen = 0;
+		for (int i = 0; i < bucketCounts.length; i++) {
+			seen += bucketCounts[i];
+			if (seen >= wanted)
+				return Math.min(getHighestValue(i), max);
+		}
+		return max;
+	}
+
+	/**
+	 * Returns the number of recorded values.
+	 */
+	public long getCount() {
+		long count = 0;
+		for (int i = 0; i < BUCKET_COUNT; i++)
+			count += counts.get(i);
+		return count;
+	}
+
+	/**
+	 * Returns the value that the given percentage of the recorded values did
+	 * not exceed, known with the precision of the buckets.
+	 *
+	 * @param percentile the percentage of values, between 0 and 100
+	 * @return the value, or 0 if no value was recorded
+	 */
+	public long getValue(double percentile) {
+		long[] bucketCounts = new long[BUCKET_COUNT];
+		copyCounts(bucketCounts, false);
+		long count = 0;
+		for (long bucketCount : bucketCounts)
+			count += bucketCount;
+		return getValue(bucketCounts, count, getMax(false), percentile);
+	}
+
+	/**
+	 * Records a value.
+	 *
+	 * @param value the value, usually a duration in microseconds
+	 */
+	public void record(long value) {
+		if (value < 0)
+			value = 0;
+		counts.incrementAndGet(getBucket(value));
+		total.addAndGet(value);
+		long oldMax = max.get();
+		while (value > oldMax && !max.compareAndSet(oldMax, value))
+			oldMax = max.get();
+	}
+
+	/**
+	 * Copies the number of values counted by each bucket into the given array.
+	 * Values recorded while the copy is taken may or may not be included.
+	 *
+	 * @param bucketCounts an array of length {@link #BUCKET_COUNT}
+	 * @param reset whether to remove the copied counts from this histogram
+	 */
+	public void copyCounts(long[] bucketCounts, boolean reset) {
+		for (int i = 0; i < BUCKET_COUNT; i++)
+			bucketCounts[i] = reset ? counts.getAndSet(i, 0) : counts.get(i);
+	}
+
+	/**
+	 * Returns the sum of the recorded values.
+	 *
+	 * @param reset whether to set the sum to zero
+	 */
+	public long getTotal(boolean reset) {
+		return reset ? total.getAndSet(0) : total.get();
+	}
+
+	/**
+	 * Returns the largest recorded value.
+	 *
+	 * @param reset whether to set the maximum to zero
+	 */
+	public long getMax(boolean reset) {
+		return reset ? max.getAndSet(0) : max.get();
+	}
+
+	/**
+	 * Removes all recorded values.
+	 */
+	public void reset() {
+		for (int i = 0; i < BUCKET_COUNT; i++)
+			counts.set(i, 0);
+		total.set(0);
+		max.set(0);
+	}
+}
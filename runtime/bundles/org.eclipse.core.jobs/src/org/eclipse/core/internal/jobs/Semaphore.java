@@ -15,11 +15,23 @@
 package org.eclipse.core.internal.jobs;
 
 import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
 
+/**
+ * A counting semaphore used to block threads waiting for locks and jobs.
+ *
+ * Implementation note: this class uses a {@link ReentrantLock} rather than the
+ * object monitor, so that a virtual thread waiting on the semaphore does not pin
+ * its carrier thread.
+ */
 public class Semaphore {
 	protected long notifications;
 	protected Runnable runnable;
 	private static final int NANOS_IN_MS = 1_000_000;
+	private final ReentrantLock lock = new ReentrantLock();
+	private final Condition released = lock.newCondition();
 
 	public Semaphore(Runnable runnable) {
 		this.runnable = runnable;
@@ -30,20 +42,25 @@ public class Semaphore {
 	 * Attempts to acquire this semaphore.  Returns true if it was successfully acquired,
 	 * and false otherwise.
 	 */
-	public synchronized boolean acquire(long delay) throws InterruptedException {
+	public boolean acquire(long delay) throws InterruptedException {
 		if (Thread.interrupted())
 			throw new InterruptedException();
 		long start = System.nanoTime();
 		long timeLeft = delay;
-		while (true) {
-			if (notifications > 0) {
-				notifications--;
-				return true;
+		lock.lockInterruptibly();
+		try {
+			while (true) {
+				if (notifications > 0) {
+					notifications--;
+					return true;
+				}
+				if (timeLeft <= 0)
+					return false;
+				released.await(timeLeft, TimeUnit.MILLISECONDS);
+				timeLeft = ((start - System.nanoTime()) / NANOS_IN_MS) + delay;
 			}
-			if (timeLeft <= 0)
-				return false;
-			wait(timeLeft);
-			timeLeft = ((start - System.nanoTime()) / NANOS_IN_MS) + delay;
+		} finally {
+			lock.unlock();
 		}
 	}
 
@@ -51,12 +68,17 @@ public class Semaphore {
 	 * Attempt to acquire the semaphore without waiting.
 	 * Returns true if successfully acquired, false otherwise.
 	 */
-	public synchronized boolean attempt() {
-		if (notifications > 0) {
-			notifications--;
-			return true;
+	public boolean attempt() {
+		lock.lock();
+		try {
+			if (notifications > 0) {
+				notifications--;
+				return true;
+			}
+			return false;
+		} finally {
+			lock.unlock();
 		}
-		return false;
 	}
 
 	@Override
@@ -75,9 +97,14 @@ public class Semaphore {
 		return Objects.hashCode(runnable);
 	}
 
-	public synchronized void release() {
-		notifications++;
-		notifyAll();
+	public void release() {
+		lock.lock();
+		try {
+			notifications++;
+			released.signalAll();
+		} finally {
+			lock.unlock();
+		}
 	}
 
 	// for debug only
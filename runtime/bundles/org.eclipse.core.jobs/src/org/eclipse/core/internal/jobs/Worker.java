@@ -22,10 +22,17 @@ import org.eclipse.osgi.util.NLS;
 /**
  * A worker thread processes jobs supplied to it by the worker pool.  When
  * the worker pool gives it a null job, the worker dies.
+ * <p>
+ * When the pool runs on virtual threads, the worker itself is never started.
+ * Instead it is run by a virtual thread, and {@link #current()} must be used
+ * to find the worker of the current thread.
+ * </p>
  */
 public class Worker extends Thread {
 	// worker number used for debugging purposes only
 	private static int nextWorkerNumber = 0;
+	// workers run by virtual threads
+	private static final ThreadLocal<Worker> virtualWorker = new ThreadLocal<>();
 	private volatile InternalJob currentJob;
 	private final WorkerPool pool;
 	private final String generalName;
@@ -39,6 +46,17 @@ public class Worker extends Thread {
 		setContextClassLoader(pool.defaultContextLoader);
 	}
 
+	/**
+	 * Returns the worker running on the current thread, or null if the current
+	 * thread is not a worker.
+	 */
+	static Worker current() {
+		Thread current = Thread.currentThread();
+		if (current instanceof Worker)
+			return (Worker) current;
+		return virtualWorker.get();
+	}
+
 	/**
 	 * Returns the currently running job, or null if none.
 	 */
@@ -53,13 +71,19 @@ public class Worker extends Thread {
 
 	@Override
 	public void run() {
-		setNormPriority();
+		// the thread running this worker, which is a virtual thread if this worker was not started itself
+		Thread thread = Thread.currentThread();
+		if (thread != this) {
+			virtualWorker.set(this);
+			thread.setName(generalName);
+		}
+		setNormPriority(thread);
 		try {
 			while ((currentJob = pool.startJob(this)) != null) {
 				IStatus result = Status.OK_STATUS;
 				IProgressMonitor monitor = currentJob.getProgressMonitor();
 				try {
-					setName(getJobName());
+					thread.setName(getJobName());
 					result = currentJob.run(monitor);
 				} catch (OperationCanceledException e) {
 					result = Status.CANCEL_STATUS;
@@ -82,23 +106,25 @@ public class Worker extends Thread {
 					}
 					pool.endJob(currentJob, result);
 					currentJob = null;
-					setName(generalName);
+					thread.setName(generalName);
 					// reset thread priority in case job changed it
-					setNormPriority();
+					setNormPriority(thread);
 				}
 			}
 		} catch (Throwable t) {
 			RuntimeLog.log(new Status(IStatus.ERROR, JobManager.PI_JOBS, JobManager.PLUGIN_ERROR, "Unhandled error", t)); //$NON-NLS-1$
 		} finally {
 			currentJob = null;
+			if (thread != this)
+				virtualWorker.remove();
 			pool.endWorker(this);
 		}
 	}
 
-	private void setNormPriority() {
-		if (getPriority() != Thread.NORM_PRIORITY) {
+	private static void setNormPriority(Thread thread) {
+		if (thread.getPriority() != Thread.NORM_PRIORITY) {
 			// Setting priority on some platforms may cause high overhead
-			setPriority(Thread.NORM_PRIORITY);
+			thread.setPriority(Thread.NORM_PRIORITY);
 		}
 	}
 
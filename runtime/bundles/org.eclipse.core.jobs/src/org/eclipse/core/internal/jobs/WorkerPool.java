@@ -14,6 +14,8 @@
  *******************************************************************************/
 package org.eclipse.core.internal.jobs;
 
+import java.lang.reflect.Method;
+import java.util.concurrent.ThreadFactory;
 import org.eclipse.core.runtime.Assert;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.jobs.Job;
@@ -45,6 +47,14 @@ class WorkerPool {
 	 */
 	private static final int MAX_THREADS = 50;
 
+	/**
+	 * Soft limit on the maximum number of workers in the pool when running on
+	 * virtual threads. Virtual threads are cheap to create, so idle workers are
+	 * discarded right away instead of being kept around. Sleeping idle workers
+	 * would also pin their carrier thread while waiting on the pool monitor.
+	 */
+	private static final int MAX_VIRTUAL_THREADS = MIN_THREADS;
+
 	/**
 	 * Use the busy thread count to avoid starting new threads when a living
 	 * thread is just doing house cleaning (notifying listeners, etc).
@@ -62,6 +72,11 @@ class WorkerPool {
 	private boolean isDaemon = false;
 
 	private final JobManager manager;
+	/**
+	 * The job group whose members are run by this pool, or <code>null</code> if
+	 * this is the shared pool running all other jobs.
+	 */
+	private final InternalJobGroup group;
 	/**
 	 * The number of workers in the threads array
 	 */
@@ -75,11 +90,40 @@ class WorkerPool {
 	 */
 	private Worker[] threads = new Worker[10];
 
+	/**
+	 * The factory used to create virtual threads for new workers, or
+	 * <code>null</code> if workers are platform threads.
+	 */
+	private ThreadFactory virtualThreadFactory;
+
+	/**
+	 * The number of workers in the threads array that run on virtual threads
+	 */
+	private int numVirtualThreads = 0;
+
 	protected WorkerPool(JobManager manager) {
+		this(manager, null);
+	}
+
+	private WorkerPool(JobManager manager, InternalJobGroup group) {
 		this.manager = manager;
+		this.group = group;
 		this.defaultContextLoader = Thread.currentThread().getContextClassLoader();
 	}
 
+	/**
+	 * Returns a new pool dedicated to running the members of the given job group.
+	 * The pool never has more workers than the group's maximum number of threads,
+	 * and all of its workers expire when idle. New workers are created like the
+	 * ones of this pool.
+	 */
+	synchronized WorkerPool createGroupPool(InternalJobGroup jobGroup) {
+		WorkerPool groupPool = new WorkerPool(manager, jobGroup);
+		groupPool.isDaemon = isDaemon;
+		groupPool.virtualThreadFactory = virtualThreadFactory;
+		return groupPool;
+	}
+
 	/**
 	 * Adds a worker to the list of workers.
 	 */
@@ -127,10 +171,38 @@ class WorkerPool {
 	 * OutOfMemoryError conditions and thus must be paranoid about allocating objects.
 	 */
 	protected synchronized void endWorker(Worker worker) {
-		if (remove(worker) && JobManager.DEBUG)
+		if (!remove(worker))
+			return;
+		if (isVirtual(worker))
+			numVirtualThreads--;
+		if (JobManager.DEBUG)
 			JobManager.debug("worker removed from pool: " + worker); //$NON-NLS-1$
 	}
 
+	/**
+	 * Returns the number of workers in this pool that run on virtual threads.
+	 */
+	synchronized int getVirtualThreadCount() {
+		return numVirtualThreads;
+	}
+
+	/**
+	 * Returns whether the given worker runs on a virtual thread. Must be called
+	 * by the thread running the worker.
+	 */
+	private static boolean isVirtual(Worker worker) {
+		return Thread.currentThread() != worker;
+	}
+
+	/**
+	 * Returns whether the given worker must stop because it runs on a virtual
+	 * thread although new workers are platform threads. Must be called by the
+	 * thread running the worker.
+	 */
+	private boolean isRetired(Worker worker) {
+		return virtualThreadFactory == null && isVirtual(worker);
+	}
+
 	private synchronized void incrementBusyThreads() {
 		//impossible to have more busy threads than there are threads
 		if (++busyThreads > numThreads) {
@@ -151,14 +223,60 @@ class WorkerPool {
 			return;
 		}
 		//create a thread if all threads are busy
-		if (busyThreads >= numThreads) {
-			Worker worker = new Worker(this);
+		if (busyThreads >= numThreads && (group == null || numThreads < group.getMaxThreads())) {
+			startWorker();
+		}
+	}
+
+	/**
+	 * Notification that the given number of jobs have been added to the queue at
+	 * once. Wakes up to that many sleeping workers, and creates at most one new
+	 * worker like {@link #jobQueued()}. Every worker that starts a job wakes or
+	 * creates another one while jobs are still waiting, so the pool only grows
+	 * as far as the jobs actually need.
+	 */
+	protected synchronized void jobsQueued(int count) {
+		//wake up sleeping threads first
+		int woken = Math.min(count, sleepingThreads);
+		for (int i = 0; i < woken; i++)
+			notify();
+		//create a thread if all threads are busy
+		if (woken < count && busyThreads >= numThreads && (group == null || numThreads < group.getMaxThreads()))
+			startWorker();
+	}
+
+	/**
+	 * Adds a new worker to the pool and starts it.
+	 */
+	private synchronized void startWorker() {
+		Worker worker = new Worker(this);
+		add(worker);
+		if (JobManager.DEBUG)
+			JobManager.debug("worker added to pool: " + worker); //$NON-NLS-1$
+		if (virtualThreadFactory != null) {
+			//the worker only carries the state, the job runs on the virtual thread
+			virtualThreadFactory.newThread(worker).start();
+			numVirtualThreads++;
+		} else {
 			worker.setDaemon(isDaemon);
-			add(worker);
-			if (JobManager.DEBUG)
-				JobManager.debug("worker added to pool: " + worker); //$NON-NLS-1$
 			worker.start();
-			return;
+		}
+	}
+
+	/**
+	 * Returns a factory for virtual threads, or <code>null</code> if the
+	 * running Java VM does not support virtual threads.
+	 */
+	private static ThreadFactory createVirtualThreadFactory() {
+		try {
+			//this bundle must run on Java 11, so use reflection to access Thread.ofVirtual().factory()
+			Object builder = Thread.class.getMethod("ofVirtual").invoke(null); //$NON-NLS-1$
+			Method factory = Class.forName("java.lang.Thread$Builder").getMethod("factory"); //$NON-NLS-1$ //$NON-NLS-2$
+			return (ThreadFactory) factory.invoke(builder);
+		} catch (ReflectiveOperationException | RuntimeException | LinkageError e) {
+			if (JobManager.DEBUG)
+				JobManager.debug("virtual threads are not available: " + e); //$NON-NLS-1$
+			return null;
 		}
 	}
 
@@ -184,6 +302,34 @@ class WorkerPool {
 		this.isDaemon = value;
 	}
 
+	/**
+	 * Sets whether workers created from now on should run on virtual threads.
+	 * Existing platform workers are kept, while existing virtual workers stop
+	 * once they have finished their current job. Returns whether virtual
+	 * threads are used, which is <code>false</code> if the running Java VM does
+	 * not support them.
+	 */
+	synchronized boolean setUseVirtualThreads(boolean value) {
+		if (!value) {
+			virtualThreadFactory = null;
+			//wake sleeping virtual workers so they stop
+			if (numVirtualThreads > 0)
+				notifyAll();
+		} else if (virtualThreadFactory == null) {
+			virtualThreadFactory = createVirtualThreadFactory();
+		}
+		return virtualThreadFactory != null;
+	}
+
+	/**
+	 * Returns the soft limit on the number of workers in this pool.
+	 */
+	private int getMaxThreads() {
+		if (group != null)
+			return group.getMaxThreads();
+		return virtualThreadFactory != null ? MAX_VIRTUAL_THREADS : MAX_THREADS;
+	}
+
 	protected synchronized void shutdown() {
 		notifyAll();
 	}
@@ -219,33 +365,59 @@ class WorkerPool {
 				endWorker(worker);
 				return null;
 			}
-			// set the thread to be busy now in case of reentrant scheduling
-			incrementBusyThreads();
-			busy = true;
+			if (isRetired(worker)) {
+				endWorker(worker);
+				busy = false;
+			} else {
+				// set the thread to be busy now in case of reentrant scheduling
+				incrementBusyThreads();
+				busy = true;
+			}
+		}
+		if (!busy) {
+			//hand waiting jobs over to a platform worker
+			if (manager.sleepHint(group) < InternalJob.T_INFINITE)
+				jobQueued();
+			return null;
 		}
 		Job job = null;
 		try {
-			job = manager.startJob(worker);
+			job = manager.startJob(worker, group);
 			//spin until a job is found or until we have been idle for too long
 			long idleStart = manager.now();
 			while (manager.isActive() && job == null) {
-				long hint = manager.sleepHint();
+				long hint = manager.sleepHint(group);
 				if (hint > 0) {
+					boolean retired;
 					synchronized (this) {
-						if (numThreads > MAX_THREADS) {
+						if (numThreads > getMaxThreads()) {
 							endWorker(worker);
 							decrementBusyThreads();
 							busy = false;
 							return null;
 						}
+						if (!isRetired(worker))
+							sleep(Math.min(hint, BEST_BEFORE));
+						//virtual workers stop as soon as the pool no longer uses virtual threads
+						retired = isRetired(worker);
+						if (retired) {
+							endWorker(worker);
+							decrementBusyThreads();
+							busy = false;
+						}
+					}
+					if (retired) {
+						//hand waiting jobs over to a platform worker
+						if (manager.sleepHint(group) < InternalJob.T_INFINITE)
+							jobQueued();
+						return null;
 					}
-					sleep(Math.min(hint, BEST_BEFORE));
 				}
-				job = manager.startJob(worker);
+				job = manager.startJob(worker, group);
 				//if we were already idle, and there are still no new jobs, then
 				// the thread can expire
 				synchronized (this) {
-					if (job == null && (manager.now() - idleStart > BEST_BEFORE) && (numThreads - busyThreads) > MIN_THREADS) {
+					if (job == null && (manager.now() - idleStart > BEST_BEFORE) && (numThreads - busyThreads) > (group == null ? MIN_THREADS : 0)) {
 						//must remove the worker immediately to prevent all threads from expiring
 						endWorker(worker);
 						decrementBusyThreads();
@@ -265,7 +437,7 @@ class WorkerPool {
 					manager.getLockManager().addLockThread(Thread.currentThread(), job.getRule());
 				}
 				//see if we need to wake another worker
-				if (manager.sleepHint() < InternalJob.T_INFINITE)
+				if (manager.sleepHint(group) < InternalJob.T_INFINITE)
 					jobQueued();
 			}
 		} finally {
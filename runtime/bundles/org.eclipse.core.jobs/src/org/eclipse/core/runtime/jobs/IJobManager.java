@@ -13,6 +13,7 @@
  *******************************************************************************/
 package org.eclipse.core.runtime.jobs;
 
+import java.util.Collection;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.OperationCanceledException;
 
@@ -49,6 +50,30 @@ public interface IJobManager {
 	 */
 	String PROP_USE_DAEMON_THREADS = "eclipse.jobs.daemon"; //$NON-NLS-1$
 
+	/**
+	 * A system property key indicating whether the job manager should run jobs
+	 * on virtual threads. Set to <code>true</code> to run jobs on virtual
+	 * threads when the running Java VM supports them. The property is ignored,
+	 * and platform worker threads are used, if virtual threads are not available.
+	 * Virtual threads are always daemon threads, so {@link #PROP_USE_DAEMON_THREADS}
+	 * has no effect on them.
+	 * <p>
+	 * This mode is intended for jobs that spend most of their time waiting for
+	 * I/O. The number of concurrently running members of a {@link JobGroup} is
+	 * still limited by {@link JobGroup#getMaxThreads()}.
+	 * </p>
+	 * <p>
+	 * Note that a job blocked in {@link #beginRule(ISchedulingRule, IProgressMonitor)}
+	 * or {@link Job#join()} waits on an object monitor, and so does an idle
+	 * worker. On Java VMs that pin a virtual thread to its carrier thread while
+	 * it waits on a monitor, such waits still occupy a carrier thread. Jobs that
+	 * mostly wait for conflicting scheduling rules or for other jobs do not
+	 * benefit from virtual threads.
+	 * </p>
+	 * @since 3.14
+	 */
+	String PROP_USE_VIRTUAL_THREADS = "eclipse.jobs.virtualThreads"; //$NON-NLS-1$
+
 	/**
 	 * Registers a job listener with the job manager.
 	 * Has no effect if an identical listener is already registered.
@@ -296,6 +321,23 @@ public interface IJobManager {
 	 */
 	void resume();
 
+	/**
+	 * Schedules all of the given jobs to be run. This is equivalent to calling
+	 * {@link Job#schedule()} on each job in iteration order, but the jobs are
+	 * added to the queue atomically, and only as many worker threads are woken
+	 * or started as are needed to run them. Limits imposed by the
+	 * {@link JobGroup} of a job still apply.
+	 * <p>
+	 * Listeners are notified of each scheduled job after all jobs have been
+	 * added to the queue.
+	 * </p>
+	 *
+	 * @param jobs the jobs to schedule
+	 * @see Job#schedule()
+	 * @since 3.14
+	 */
+	void schedule(Collection<? extends Job> jobs);
+
 	/**
 	 * Provides a hook that is notified whenever a thread is about to wait on a lock,
 	 * or when a thread is about to release a lock.  This hook must only be set once.
@@ -109,6 +109,31 @@ public class JobGroup extends InternalJobGroup {
 		super(name, maxThreads, seedJobsCount);
 	}
 
+	/**
+	 * Creates a new job group as described in {@link #JobGroup(String, int, int)},
+	 * optionally with dedicated workers.
+	 * <p>
+	 * The members of a job group with dedicated workers are queued separately from
+	 * all other jobs, and are run by up to <code>maxThreads</code> worker threads that
+	 * only run members of this group. This avoids interference with other jobs when a
+	 * group schedules a large number of jobs. Scheduling rules, priorities,
+	 * cancellation and all other job manager services apply to the members as usual.
+	 * </p>
+	 *
+	 * @param name the name of the job group.
+	 * @param maxThreads the maximum number of threads allowed to be concurrently scheduled.
+	 * Must be greater than zero if <code>dedicatedWorkers</code> is <code>true</code>.
+	 * @param seedJobsCount the initial number of jobs that will be added to the job group.
+	 * @param dedicatedWorkers <code>true</code> if the members of the group should be run
+	 * by dedicated worker threads, and <code>false</code> if they should be run by the
+	 * worker threads shared by all jobs.
+	 * @see #hasDedicatedWorkers()
+	 * @since 3.14
+	 */
+	public JobGroup(String name, int maxThreads, int seedJobsCount, boolean dedicatedWorkers) {
+		super(name, maxThreads, seedJobsCount, dedicatedWorkers);
+	}
+
 	/**
 	 * Returns the human readable name of this job group.  The name is never <code>null</code>.
 	 *
@@ -131,6 +156,20 @@ public class JobGroup extends InternalJobGroup {
 		return super.getMaxThreads();
 	}
 
+	/**
+	 * Returns whether the jobs belonging to the group are run by worker threads
+	 * dedicated to this group.
+	 *
+	 * @return <code>true</code> if the group has dedicated workers, and
+	 * <code>false</code> otherwise
+	 * @see #JobGroup(String, int, int, boolean)
+	 * @since 3.14
+	 */
+	@Override
+	public final boolean hasDedicatedWorkers() {
+		return super.hasDedicatedWorkers();
+	}
+
 	/**
 	 * Returns the result of this job group's last run. If a job group completes and then
 	 * its jobs are rescheduled, this method returns the results of the previous run.
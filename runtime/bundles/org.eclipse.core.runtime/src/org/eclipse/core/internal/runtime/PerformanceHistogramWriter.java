@@ -0,0 +1,208 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.core.internal.runtime;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.function.Supplier;
+import org.eclipse.core.runtime.*;
+import org.eclipse.core.runtime.PerformanceStats.Histogram;
+import org.eclipse.core.runtime.jobs.Job;
+
+/**
+ * Periodically writes the duration histograms of all performance events to a
+ * file, in JSON if the name of the file ends with ".json" and in CSV otherwise.
+ * The file and the interval are set by the
+ * "org.eclipse.core.runtime/perf/histograms/file" and
+ * "org.eclipse.core.runtime/perf/histograms/interval" debug options.
+ */
+public class PerformanceHistogramWriter extends Job {
+	private static final String OPTION_FILE = Platform.PI_RUNTIME + "/perf/histograms/file"; //$NON-NLS-1$
+	private static final String OPTION_INTERVAL = Platform.PI_RUNTIME + "/perf/histograms/interval"; //$NON-NLS-1$
+	private static final long DEFAULT_INTERVAL = 60000;
+
+	/**
+	 * The percentiles written for each event.
+	 */
+	private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+	private static final String[] PERCENTILE_NAMES = {"p50", "p90", "p99", "p99.9"}; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+
+	private final Path file;
+	private final long interval;
+	private final Supplier<PerformanceStats[]> allStats;
+
+	/**
+	 * Starts writing the histograms if the debug options name a file.
+	 *
+	 * @param allStats supplies the events to write, including the successful
+	 * events that are not retained by {@link PerformanceStats#getAllStats()}
+	 */
+	public static void startIfConfigured(Supplier<PerformanceStats[]> allStats) {
+		InternalPlatform platform = InternalPlatform.getDefault();
+		String fileName = platform.getOption(OPTION_FILE);
+		if (fileName == null || fileName.trim().isEmpty())
+			return;
+		long interval = DEFAULT_INTERVAL;
+		String option = platform.getOption(OPTION_INTERVAL);
+		if (option != null) {
+			try {
+				interval = Math.max(1000, Long.parseLong(option.trim()));
+			} catch (NumberFormatException e) {
+				//invalid option, just ignore
+			}
+		}
+		new PerformanceHistogramWriter(Paths.get(fileName.trim()), interval, allStats).schedule(interval);
+	}
+
+	private PerformanceHistogramWriter(Path file, long interval, Supplier<PerformanceStats[]> allStats) {
+		super("Performance Histograms"); //$NON-NLS-1$
+		setSystem(true);
+		setPriority(DECORATE);
+		this.file = file;
+		this.interval = interval;
+		this.allStats = allStats;
+	}
+
+	@Override
+	protected IStatus run(IProgressMonitor monitor) {
+		Path temp = file.resolveSibling(file.getFileName() + ".tmp"); //$NON-NLS-1$
+		try {
+			try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(temp, StandardCharsets.UTF_8))) {
+				write(out, allStats.get(), file.getFileName().toString().endsWith(".json")); //$NON-NLS-1$
+			}
+			// readers never see a partially written file, if the file system allows
+			try {
+				Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			} catch (AtomicMoveNotSupportedException e) {
+				Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+			}
+		} catch (IOException e) {
+			// do not try again, the file is likely to stay unwritable
+			IStatus error = new Status(IStatus.ERROR, Platform.PI_RUNTIME, 1, "Error writing performance histograms to " + file, e); //$NON-NLS-1$
+			RuntimeLog.log(error);
+			return Status.OK_STATUS;
+		}
+		schedule(interval);
+		return Status.OK_STATUS;
+	}
+
+	/**
+	 * Writes the histograms of the given events, leaving out performance
+	 * failures.
+	 *
+	 * @param out the writer to write to
+	 * @param allStats the events to write
+	 * @param json <code>true</code> to write JSON, and <code>false</code> to
+	 * write CSV
+	 */
+	public static void write(PrintWriter out, PerformanceStats[] allStats, boolean json) {
+		if (json) {
+			out.print("{\"timestamp\":"); //$NON-NLS-1$
+			out.print(System.currentTimeMillis());
+			out.println(",\"unit\":\"us\",\"events\":["); //$NON-NLS-1$
+		} else {
+			out.print("event,blame,context,count,total,max"); //$NON-NLS-1$
+			for (String name : PERCENTILE_NAMES) {
+				out.print(',');
+				out.print(name);
+			}
+			out.println();
+		}
+		boolean first = true;
+		for (PerformanceStats stats : allStats) {
+			if (stats.isFailure())
+				continue;
+			Histogram histogram = stats.getHistogram(false);
+			if (json) {
+				if (!first)
+					out.println(',');
+				out.print("{\"event\":"); //$NON-NLS-1$
+				out.print(toJson(stats.getEvent()));
+				out.print(",\"blame\":"); //$NON-NLS-1$
+				out.print(toJson(stats.getBlameString()));
+				out.print(",\"context\":"); //$NON-NLS-1$
+				out.print(toJson(stats.getContext()));
+				out.print(",\"count\":"); //$NON-NLS-1$
+				out.print(histogram.getCount());
+				out.print(",\"total\":"); //$NON-NLS-1$
+				out.print(histogram.getTotalDuration());
+				out.print(",\"max\":"); //$NON-NLS-1$
+				out.print(histogram.getMaxDuration());
+				for (int i = 0; i < PERCENTILES.length; i++) {
+					out.print(",\""); //$NON-NLS-1$
+					out.print(PERCENTILE_NAMES[i]);
+					out.print("\":"); //$NON-NLS-1$
+					out.print(histogram.getDuration(PERCENTILES[i]));
+				}
+				out.print('}');
+			} else {
+				out.print(toCsv(stats.getEvent()));
+				out.print(',');
+				out.print(toCsv(stats.getBlameString()));
+				out.print(',');
+				out.print(toCsv(stats.getContext()));
+				out.print(',');
+				out.print(histogram.getCount());
+				out.print(',');
+				out.print(histogram.getTotalDuration());
+				out.print(',');
+				out.print(histogram.getMaxDuration());
+				for (double percentile : PERCENTILES) {
+					out.print(',');
+					out.print(histogram.getDuration(percentile));
+				}
+				out.println();
+			}
+			first = false;
+		}
+		if (json) {
+			if (!first)
+				out.println();
+			out.println("]}"); //$NON-NLS-1$
+		}
+	}
+
+	/**
+	 * Returns the given value as a JSON string, or <code>null</code>.
+	 */
+	public static String toJson(String value) {
+		if (value == null)
+			return "null"; //$NON-NLS-1$
+		StringBuilder result = new StringBuilder(value.length() + 2);
+		result.append('"');
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			if (c == '"' || c == '\\') {
+				result.append('\\').append(c);
+			} else if (c < 0x20) {
+				result.append(String.format("\\u%04x", Integer.valueOf(c))); //$NON-NLS-1$
+			} else {
+				result.append(c);
+			}
+		}
+		return result.append('"').toString();
+	}
+
+	/**
+	 * Returns the given value as a CSV field, quoted if needed.
+	 */
+	public static String toCsv(String value) {
+		if (value == null)
+			return ""; //$NON-NLS-1$
+		if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0)
+			return value;
+		return '"' + value.replace("\"", "\"\"") + '"'; //$NON-NLS-1$ //$NON-NLS-2$
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2005, 2019 IBM Corporation and others.
+ * Copyright (c) 2005, 2022 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -64,10 +64,14 @@ public class PerformanceStatsProcessor extends Job {
 	 * @param stats The event that occurred
 	 */
 	public static void changed(PerformanceStats stats) {
+		boolean pending;
 		synchronized (instance) {
+			pending = !instance.changes.isEmpty();
 			instance.changes.add(stats);
 		}
-		instance.schedule(SCHEDULE_DELAY);
+		// the job has already been scheduled for the pending changes
+		if (!pending)
+			instance.schedule(SCHEDULE_DELAY);
 	}
 
 	/**
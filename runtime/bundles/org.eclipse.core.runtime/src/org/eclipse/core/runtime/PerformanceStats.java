@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2021 IBM Corporation and others.
+ * Copyright (c) 2000, 2022 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -16,7 +16,9 @@ package org.eclipse.core.runtime;
 
 import java.io.PrintWriter;
 import java.util.*;
+import org.eclipse.core.internal.jobs.PerformanceHistogram;
 import org.eclipse.core.internal.runtime.InternalPlatform;
+import org.eclipse.core.internal.runtime.PerformanceHistogramWriter;
 import org.eclipse.core.internal.runtime.PerformanceStatsProcessor;
 
 /**
@@ -41,6 +43,13 @@ import org.eclipse.core.internal.runtime.PerformanceStatsProcessor;
  * Performance events and performance failures are batched up and periodically
  * sent to interested performance event listeners.
  * </p><p>
+ * When performance event gathering is enabled, the distribution of the
+ * durations of each event is recorded in a histogram
+ * ({@link #getHistogram(boolean)}), whether or not events that run within an
+ * acceptable duration are tracked. The histograms can also be written to a
+ * file periodically, see the "org.eclipse.core.runtime/perf/histograms" debug
+ * options.
+ * </p><p>
  * This class is not intended to be subclassed or instantiated by clients.
  * </p>
  * @since 3.1
@@ -90,6 +99,77 @@ public class PerformanceStats {
 		}
 	}
 
+	/**
+	 * A snapshot of the durations of the occurrences of an event. Durations are
+	 * in microseconds, and are known with a relative error of less than 7%.
+	 * <p>
+	 * This class is not intended to be subclassed or instantiated by clients.
+	 * </p>
+	 *
+	 * @see PerformanceStats#getHistogram(boolean)
+	 * @since 3.26
+	 */
+	public static final class Histogram {
+		private final long[] counts = new long[PerformanceHistogram.BUCKET_COUNT];
+		private final long count;
+		private final long total;
+		private final long max;
+
+		Histogram(PerformanceHistogram recorder, boolean reset) {
+			long sum = 0;
+			if (recorder != null) {
+				recorder.copyCounts(counts, reset);
+				for (long bucketCount : counts)
+					sum += bucketCount;
+				total = recorder.getTotal(reset);
+				max = recorder.getMax(reset);
+			} else {
+				total = 0;
+				max = 0;
+			}
+			count = sum;
+		}
+
+		/**
+		 * Returns the number of occurrences of the event.
+		 *
+		 * @return the number of occurrences
+		 */
+		public long getCount() {
+			return count;
+		}
+
+		/**
+		 * Returns the total duration of all occurrences of the event.
+		 *
+		 * @return the total duration in microseconds
+		 */
+		public long getTotalDuration() {
+			return total;
+		}
+
+		/**
+		 * Returns the longest duration of an occurrence of the event.
+		 *
+		 * @return the longest duration in microseconds
+		 */
+		public long getMaxDuration() {
+			return max;
+		}
+
+		/**
+		 * Returns the duration that the given percentage of the occurrences of the
+		 * event did not exceed. For example, <code>getDuration(99)</code> returns
+		 * the 99th percentile of the durations.
+		 *
+		 * @param percentile the percentage of occurrences, between 0 and 100
+		 * @return the duration in microseconds, or 0 if the event did not occur
+		 */
+		public long getDuration(double percentile) {
+			return PerformanceHistogram.getValue(counts, count, max, percentile);
+		}
+	}
+
 	/**
 	 * An empty stats object that is returned when tracing is turned off
 	 */
@@ -103,7 +183,7 @@ public class PerformanceStats {
 	/**
 	 * A constant indicating that the timer has not been started.
 	 */
-	private static final long NOT_STARTED = -1;
+	private static final long NOT_STARTED = Long.MIN_VALUE;
 
 	/**
 	 * All known event statistics.
@@ -143,7 +223,7 @@ public class PerformanceStats {
 	private String context;
 
 	/**
-	 * The starting time of the current occurrence of this event.
+	 * The starting time of the current occurrence of this event, in nanoseconds.
 	 */
 	private long currentStart = NOT_STARTED;
 
@@ -168,10 +248,18 @@ public class PerformanceStats {
 	 */
 	private long runningTime = 0;
 
+	/**
+	 * The durations of the occurrences of this event, or <code>null</code> if
+	 * they are not recorded.
+	 */
+	private PerformanceHistogram histogram;
+
 	static {
 		ENABLED = InternalPlatform.getDefault().getBooleanOption(Platform.PI_RUNTIME + "/perf", false);//$NON-NLS-1$
 		//turn these on by default if the global trace flag is turned on
 		TRACE_SUCCESS = InternalPlatform.getDefault().getBooleanOption(Platform.PI_RUNTIME + "/perf/success", ENABLED); //$NON-NLS-1$
+		if (ENABLED)
+			PerformanceHistogramWriter.startIfConfigured(() -> statMap.values().toArray(new PerformanceStats[0]));
 	}
 
 	/**
@@ -200,7 +288,12 @@ public class PerformanceStats {
 	 * will be empty if there are no recorded statistics.
 	 */
 	public static PerformanceStats[] getAllStats() {
-		return statMap.values().toArray(new PerformanceStats[statMap.size()]);
+		if (TRACE_SUCCESS)
+			return statMap.values().toArray(new PerformanceStats[statMap.size()]);
+		//the stats of successful events are only kept for their histograms
+		synchronized (statMap) {
+			return statMap.values().stream().filter(PerformanceStats::isFailure).toArray(PerformanceStats[]::new);
+		}
 	}
 
 	/**
@@ -220,14 +313,13 @@ public class PerformanceStats {
 		if (!ENABLED || eventName == null || blameObject == null)
 			return EMPTY_STATS;
 		PerformanceStats newStats = new PerformanceStats(eventName, blameObject);
-		if (!TRACE_SUCCESS)
-			return newStats;
 		//use existing stats object if available
 		PerformanceStats oldStats = statMap.get(newStats);
 		if (oldStats != null)
 			return oldStats;
-		statMap.put(newStats, newStats);
-		return newStats;
+		newStats.histogram = new PerformanceHistogram();
+		oldStats = statMap.putIfAbsent(newStats, newStats);
+		return oldStats != null ? oldStats : newStats;
 	}
 
 	/**
@@ -330,6 +422,16 @@ public class PerformanceStats {
 	public void addRun(long elapsed, String contextName) {
 		if (!ENABLED)
 			return;
+		addRun(elapsed, elapsed * 1000, contextName);
+	}
+
+	/**
+	 * Adds an occurrence of this event, whose duration is given in milliseconds
+	 * and in microseconds.
+	 */
+	private void addRun(long elapsed, long elapsedMicros, String contextName) {
+		if (histogram != null)
+			histogram.record(elapsedMicros);
 		runCount++;
 		runningTime += elapsed;
 		if (elapsed > getThreshold(event))
@@ -373,7 +475,8 @@ public class PerformanceStats {
 	public void endRun() {
 		if (!ENABLED || currentStart == NOT_STARTED)
 			return;
-		addRun(System.currentTimeMillis() - currentStart, context);
+		long elapsedNanos = System.nanoTime() - currentStart;
+		addRun(elapsedNanos / 1000000, elapsedNanos / 1000, context);
 		currentStart = NOT_STARTED;
 	}
 
@@ -425,6 +528,20 @@ public class PerformanceStats {
 		return event;
 	}
 
+	/**
+	 * Returns a snapshot of the durations of the occurrences of this event.
+	 * Durations are recorded if the "org.eclipse.core.runtime/perf" debug option
+	 * is set.
+	 *
+	 * @param reset whether to remove the durations in the snapshot from this
+	 *            event, to start a new period of recording
+	 * @return the snapshot, which is empty if durations are not recorded
+	 * @since 3.26
+	 */
+	public Histogram getHistogram(boolean reset) {
+		return new Histogram(histogram, reset);
+	}
+
 	/**
 	 * Returns the total number of times this event has occurred.
 	 *
@@ -485,11 +602,13 @@ public class PerformanceStats {
 	}
 
 	/**
-	 * Resets count and running time for this particular stats event.
+	 * Resets count, running time and histogram for this particular stats event.
 	 */
 	public void reset() {
 		runningTime = 0;
 		runCount = 0;
+		if (histogram != null)
+			histogram.reset();
 	}
 
 	/**
@@ -514,7 +633,7 @@ public class PerformanceStats {
 		if (!ENABLED)
 			return;
 		this.context = contextName;
-		this.currentStart = System.currentTimeMillis();
+		this.currentStart = System.nanoTime();
 	}
 
 	/**
@@ -15,6 +15,8 @@
 
 package org.eclipse.e4.core.contexts;
 
+import java.util.Map;
+
 /**
  * A context is used to isolate application code from its dependencies on an application framework
  * or container. This helps avoid building in dependencies on a specific framework that inhibit
@@ -253,6 +255,40 @@ public interface IEclipseContext {
 	 */
 	void processWaiting();
 
+	/**
+	 * Runs the given runnable as a batch of changes to this context and its
+	 * descendants.
+	 * <p>
+	 * Listeners and injected objects that depend on values changed by the
+	 * runnable through this context or its descendants are not updated after
+	 * each change, but once the runnable has completed. Each of them is
+	 * updated at most once per batch, no matter how many of the values it
+	 * depends on changed. Changes made through other contexts are processed
+	 * immediately. A batch started for a descendant while a batch runs on the
+	 * same thread becomes part of the outer batch.
+	 * </p>
+	 * <p>
+	 * All updates run even if the runnable or some of the updates fail. The
+	 * failure of the runnable is rethrown, with the failures of the updates
+	 * added as suppressed exceptions. If only updates fail, the first failure
+	 * is thrown with the others suppressed.
+	 * </p>
+	 *
+	 * @param runnable the runnable that changes the values
+	 * @since 1.12
+	 */
+	void runBatch(Runnable runnable);
+
+	/**
+	 * Sets all the given values in this context as one batch of changes.
+	 *
+	 * @param values the names and values to store
+	 * @see #set(String, Object)
+	 * @see #runBatch(Runnable)
+	 * @since 1.12
+	 */
+	void setAll(Map<String, ?> values);
+
 	/**
 	 * Creates a new context using this context as a parent.
 	 * @return a new child context
@@ -24,6 +24,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
@@ -32,6 +33,7 @@ import java.util.Set;
 import java.util.Stack;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.eclipse.e4.core.contexts.IContextFunction;
 import org.eclipse.e4.core.contexts.IEclipseContext;
 import org.eclipse.e4.core.contexts.RunAndTrack;
@@ -92,12 +94,34 @@ public class EclipseContext implements IEclipseContext {
 		}
 	}
 
+	/**
+	 * The first context in the parent chain that needs to be asked for a
+	 * name, as found by {@link EclipseContext#findProvider(String)}.
+	 */
+	private static class CachedLookup {
+
+		final EclipseContext provider;
+
+		CachedLookup(EclipseContext provider) {
+			this.provider = provider;
+		}
+	}
+
 	private WeakGroupedListenerList weakListeners = new WeakGroupedListenerList();
 	private Map<String, ValueComputation> localValueComputations = new ConcurrentHashMap<>();
 
 	final protected ConcurrentNeutralValueMap<String, Object> localValues = // null values allowed
 			new ConcurrentNeutralValueMap<>();
 
+	/**
+	 * Cached results of {@link #findProvider(String)}. Entries are removed when
+	 * they might have become stale. {@link #lookupVersion} is bumped on every
+	 * removal, so that lookups running at the same time do not cache stale
+	 * results.
+	 */
+	private final Map<String, CachedLookup> lookupCache = new ConcurrentHashMap<>();
+	private final AtomicInteger lookupVersion = new AtomicInteger();
+
 	private Set<String> modifiable;
 
 	private List<Computation> waiting; // list of Computations; null for all non-root entries
@@ -112,6 +136,29 @@ public class EclipseContext implements IEclipseContext {
 
 	static private ThreadLocal<Stack<Computation>> currentComputation = new ThreadLocal<>();
 
+	/**
+	 * A batch of changes to a context and its descendants; see
+	 * {@link #runBatch(Runnable)}
+	 */
+	private static class Batch {
+
+		final EclipseContext context;
+		/** the batch that was running on the thread when this one started */
+		final Batch outer;
+		/** the scheduled computations, with the first event each of them was scheduled for */
+		final Map<TrackableComputationExt, ContextChangeEvent> updates = new LinkedHashMap<>();
+
+		Batch(EclipseContext context, Batch outer) {
+			this.context = context;
+			this.outer = outer;
+		}
+	}
+
+	/**
+	 * The innermost batch running on the current thread
+	 */
+	static private ThreadLocal<Batch> currentBatch = new ThreadLocal<>();
+
 	// I don't think we need to sync referenceQueue access
 	private ReferenceQueue<Object> referenceQueue = new ReferenceQueue<>();
 
@@ -151,8 +198,10 @@ public class EclipseContext implements IEclipseContext {
 			return true;
 		if (localOnly)
 			return false;
-		EclipseContext parent = getParent();
-		if (parent != null && parent.containsKey(name, localOnly))
+		EclipseContext provider = findProvider(name);
+		if (provider == this)
+			provider = getParent();
+		if (provider != null && provider.containsKey(name, localOnly))
 			return true;
 		return false;
 	}
@@ -179,6 +228,9 @@ public class EclipseContext implements IEclipseContext {
 			computation.handleInvalid(event, scheduled);
 		}
 		processScheduled(scheduled);
+		// computations of this context must not be updated when a batch ends
+		for (Batch batch = currentBatch.get(); batch != null; batch = batch.outer)
+			batch.updates.keySet().removeAll(allComputations);
 
 		synchronized (notifyOnDisposal) {
 			for (IContextDisposalListener listener : notifyOnDisposal) {
@@ -201,6 +253,7 @@ public class EclipseContext implements IEclipseContext {
 		}
 
 		localValues.clear();
+		lookupCache.clear();
 
 		if (parent != null) {
 			selfRef.clear(); // remove from parent
@@ -245,6 +298,14 @@ public class EclipseContext implements IEclipseContext {
 					return result;
 				}
 			}
+			if (!local) {
+				// skip the contexts known not to provide the name
+				EclipseContext provider = findProvider(name);
+				if (provider == null)
+					return null;
+				if (provider != this)
+					return provider.internalGet(originatingContext, name, local);
+			}
 		}
 
 		Object result = null;
@@ -279,6 +340,54 @@ public class EclipseContext implements IEclipseContext {
 		return null;
 	}
 
+	/**
+	 * Returns the first context in the parent chain, starting with this context,
+	 * that sets the given name locally or might look it up, or <code>null</code>
+	 * if no context provides the name.
+	 */
+	private EclipseContext findProvider(String name) {
+		CachedLookup cached = lookupCache.get(name);
+		if (cached != null)
+			return cached.provider;
+		int version = lookupVersion.get();
+		EclipseContext provider = this;
+		// subclasses may override lookup(), so they are never skipped
+		while (provider != null && provider.getClass() == EclipseContext.class && !provider.isSetLocally(name))
+			provider = provider.getParent();
+		CachedLookup lookup = new CachedLookup(provider);
+		lookupCache.put(name, lookup);
+		// an invalidation may have missed the entry, which was not there yet
+		if (lookupVersion.get() != version)
+			lookupCache.remove(name, lookup);
+		return provider;
+	}
+
+	/**
+	 * The given name has been set in this context for the first time, or the
+	 * parent chain has changed if the name is <code>null</code>. Drop the
+	 * cached lookups of the name in this context and in all child contexts
+	 * that might have skipped it. Cached lookups of other names stay valid.
+	 */
+	private void invalidateLookups(String name) {
+		invalidateLookups(name, this);
+	}
+
+	private void invalidateLookups(String name, EclipseContext changed) {
+		lookupVersion.incrementAndGet();
+		if (name == null) {
+			lookupCache.clear();
+		} else {
+			// only lookups that missed the name or continued above the changed context are stale
+			CachedLookup cached = lookupCache.get(name);
+			if (cached != null && cached.provider != changed)
+				lookupCache.remove(name, cached);
+		}
+		for (EclipseContext childContext : getChildren()) {
+			if (name == null || !childContext.isSetLocally(name))
+				childContext.invalidateLookups(name, changed);
+		}
+	}
+
 	/**
 	 * The given name has been modified or removed in this context. Invalidate all local value
 	 * computations and listeners that depend on this name.
@@ -354,11 +463,83 @@ public class EclipseContext implements IEclipseContext {
 	}
 
 	protected void processScheduled(Set<Scheduled> scheduledList) {
+		Batch batch = getBatch();
 		for (Scheduled scheduled : scheduledList) {
-			scheduled.runnable.update(scheduled.event);
+			if (batch != null)
+				batch.updates.putIfAbsent(scheduled.runnable, scheduled.event);
+			else
+				scheduled.runnable.update(scheduled.event);
 		}
 	}
 
+	/**
+	 * Returns the innermost batch running on the current thread for this
+	 * context or one of its ancestors, or <code>null</code>.
+	 */
+	private Batch getBatch() {
+		for (Batch batch = currentBatch.get(); batch != null; batch = batch.outer) {
+			if (isDescendantOf(batch.context))
+				return batch;
+		}
+		return null;
+	}
+
+	private boolean isDescendantOf(EclipseContext context) {
+		for (EclipseContext current = this; current != null; current = current.getParent()) {
+			if (current == context)
+				return true;
+		}
+		return false;
+	}
+
+	@Override
+	public void runBatch(Runnable runnable) {
+		if (getBatch() != null) {
+			runnable.run(); // part of the outer batch
+			return;
+		}
+		Batch outer = currentBatch.get();
+		Batch batch = new Batch(this, outer);
+		currentBatch.set(batch);
+		Throwable failure = null;
+		try {
+			runnable.run();
+		} catch (RuntimeException | Error e) {
+			failure = e;
+			throw e;
+		} finally {
+			if (outer != null)
+				currentBatch.set(outer);
+			else
+				currentBatch.remove();
+			// also update for the changes made before a failure
+			Throwable updateFailure = null;
+			for (Map.Entry<TrackableComputationExt, ContextChangeEvent> entry : batch.updates.entrySet()) {
+				try {
+					entry.getKey().update(entry.getValue());
+				} catch (RuntimeException | Error e) {
+					// run all updates, and report the failures together
+					if (failure != null) {
+						failure.addSuppressed(e);
+					} else if (updateFailure == null) {
+						updateFailure = e;
+					} else {
+						updateFailure.addSuppressed(e);
+					}
+				}
+			}
+			if (updateFailure instanceof Error)
+				throw (Error) updateFailure;
+			if (updateFailure != null)
+				throw (RuntimeException) updateFailure;
+		}
+	}
+
+	@Override
+	public void setAll(Map<String, ?> values) {
+		runBatch(() -> values.forEach(this::set));
+	}
+
 	@Override
 	public void set(String name, Object value) {
 		if (PARENT.equals(name)) {
@@ -368,6 +549,8 @@ public class EclipseContext implements IEclipseContext {
 		Value<Object> old = localValues.putAndGetOld(name, value);
 		boolean containsKey = old.isPresent();
 		Object oldValue = old.unwrapped();
+		if (!containsKey)
+			invalidateLookups(name);
 		if (!containsKey || oldValue != value) {
 			Set<Scheduled> scheduled = new LinkedHashSet<>();
 			invalidate(name, ContextChangeEvent.ADDED, oldValue, value, scheduled);
@@ -434,6 +617,7 @@ public class EclipseContext implements IEclipseContext {
 			selfRef = new WeakReference<>(this);
 			newParent.addChild(selfRef);
 		}
+		invalidateLookups(null);
 		processScheduled(scheduled);
 		return;
 	}
@@ -469,6 +653,7 @@ public class EclipseContext implements IEclipseContext {
 			modifiable = new HashSet<>(3);
 		modifiable.add(name);
 		localValues.putIfAbsent(name, null);
+		invalidateLookups(name);
 	}
 
 	private boolean checkModifiable(String name) {
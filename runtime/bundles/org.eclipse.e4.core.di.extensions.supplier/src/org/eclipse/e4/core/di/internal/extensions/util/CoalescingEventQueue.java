@@ -0,0 +1,333 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.e4.core.di.internal.extensions.util;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.osgi.service.event.Event;
+import org.osgi.service.event.EventAdmin;
+
+/**
+ * Delivers posted events asynchronously, in the order they were posted, on a
+ * single dispatch thread. It can be used instead of
+ * {@link EventAdmin#postEvent(Event)} to keep bursts of events from flooding
+ * the subscribers:
+ * <ul>
+ * <li>For topics registered with {@link #coalesce(String, String)}, a posted
+ * event replaces the pending event with the same topic and key, so only the
+ * latest value is delivered.</li>
+ * <li>Handlers registered with {@link #subscribe(String, BatchEventHandler)}
+ * receive all the delivered events of their topic at once.</li>
+ * <li>At most <code>capacity</code> events are pending. Further events are
+ * rejected, and the counters of {@link #getStatistics()} tell how often that
+ * happened.</li>
+ * </ul>
+ * Events are delivered to regular subscribers through
+ * {@link EventAdmin#sendEvent(Event)}, so events sent synchronously by other
+ * means are not affected.
+ */
+final public class CoalescingEventQueue {
+
+	/**
+	 * A subscriber that handles the events of a topic in batches.
+	 */
+	public interface BatchEventHandler {
+		/**
+		 * Handles the events of a batch, in the order they were posted.
+		 *
+		 * @param events the events, never empty
+		 */
+		void handleEvents(List<Event> events);
+	}
+
+	/**
+	 * The counters of a queue at one point in time.
+	 */
+	public static final class Statistics {
+		public final long posted;
+		public final long coalesced;
+		public final long rejected;
+		public final long delivered;
+		public final int pending;
+		public final int maxPending;
+
+		Statistics(long posted, long coalesced, long rejected, long delivered, int pending, int maxPending) {
+			this.posted = posted;
+			this.coalesced = coalesced;
+			this.rejected = rejected;
+			this.delivered = delivered;
+			this.pending = pending;
+			this.maxPending = maxPending;
+		}
+
+		@Override
+		public String toString() {
+			return "posted=" + posted + ", coalesced=" + coalesced + ", rejected=" + rejected + ", delivered=" //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+					+ delivered + ", pending=" + pending + ", maxPending=" + maxPending; //$NON-NLS-1$ //$NON-NLS-2$
+		}
+	}
+
+	// The key of a pending event that replaces earlier events with the same key
+	static private class CoalescingKey {
+		private final String topic;
+		private final Object key;
+
+		CoalescingKey(String topic, Object key) {
+			this.topic = topic;
+			this.key = key;
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * topic.hashCode() + Objects.hashCode(key);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj)
+				return true;
+			if (!(obj instanceof CoalescingKey))
+				return false;
+			CoalescingKey other = (CoalescingKey) obj;
+			return topic.equals(other.topic) && Objects.equals(key, other.key);
+		}
+	}
+
+	static private class BatchSubscriber {
+		final String topic;
+		final BatchEventHandler handler;
+
+		BatchSubscriber(String topic, BatchEventHandler handler) {
+			this.topic = topic;
+			this.handler = handler;
+		}
+	}
+
+	// marks topics that are coalesced without a key property
+	private static final String NO_KEY_PROPERTY = ""; //$NON-NLS-1$
+
+	private final EventAdmin eventAdmin;
+	private final int capacity;
+	private final ExecutorService executor;
+
+	// topic pattern -> name of the property that identifies events to coalesce
+	private final Map<String, String> coalescedTopics = new LinkedHashMap<>();
+	private final List<BatchSubscriber> batchSubscribers = new CopyOnWriteArrayList<>();
+
+	// all fields below are guarded by pending
+	private final LinkedHashMap<Object, Event> pending = new LinkedHashMap<>();
+	private boolean dispatching;
+	private boolean disposed;
+	private long posted;
+	private long coalesced;
+	private long rejected;
+	private long delivered;
+	private int maxPending;
+
+	/**
+	 * @param eventAdmin the event admin that delivers the events to subscribers
+	 * @param capacity the maximum number of pending events
+	 */
+	public CoalescingEventQueue(EventAdmin eventAdmin, int capacity) {
+		if (capacity < 1)
+			throw new IllegalArgumentException("Capacity must be positive: " + capacity); //$NON-NLS-1$
+		this.eventAdmin = eventAdmin;
+		this.capacity = capacity;
+		ThreadPoolExecutor threadPool = new ThreadPoolExecutor(1, 1, 10, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+				runnable -> {
+					Thread thread = new Thread(runnable, "Event Dispatcher"); //$NON-NLS-1$
+					thread.setDaemon(true);
+					return thread;
+				});
+		// do not keep a thread while there is nothing to deliver
+		threadPool.allowCoreThreadTimeOut(true);
+		this.executor = threadPool;
+	}
+
+	/**
+	 * Keeps only the latest pending event of the given topic for each value of
+	 * the given property.
+	 *
+	 * @param topic the topic, or a topic prefix followed by "*"
+	 * @param keyProperty the property that identifies the events that replace
+	 *            each other, or <code>null</code> to keep only the latest event
+	 *            of each topic
+	 */
+	public void coalesce(String topic, String keyProperty) {
+		synchronized (coalescedTopics) {
+			coalescedTopics.put(topic, keyProperty == null ? NO_KEY_PROPERTY : keyProperty);
+		}
+	}
+
+	public void subscribe(String topic, BatchEventHandler handler) {
+		batchSubscribers.add(new BatchSubscriber(topic, handler));
+	}
+
+	public void unsubscribe(BatchEventHandler handler) {
+		batchSubscribers.removeIf(subscriber -> subscriber.handler == handler);
+	}
+
+	/**
+	 * Queues an event for asynchronous delivery.
+	 *
+	 * @see EventUtils#constructEvent(String, Object)
+	 * @return <code>true</code> if the event was queued, and <code>false</code>
+	 *         if the queue is full or disposed, so that the caller can slow
+	 *         down or deliver the event otherwise
+	 */
+	public boolean post(String topic, Object data) {
+		Event event = EventUtils.constructEvent(topic, data);
+		Object key = getCoalescingKey(event);
+		synchronized (pending) {
+			if (disposed)
+				return false;
+			Event replaced = key == null ? null : pending.remove(key);
+			if (replaced != null) {
+				coalesced++;
+			} else if (pending.size() >= capacity) {
+				rejected++;
+				return false;
+			}
+			// an event without key never replaces another one
+			pending.put(key == null ? new Object() : key, event);
+			posted++;
+			maxPending = Math.max(maxPending, pending.size());
+			if (!dispatching) {
+				dispatching = true;
+				executor.execute(this::dispatch);
+			}
+		}
+		return true;
+	}
+
+	private Object getCoalescingKey(Event event) {
+		String topic = event.getTopic();
+		synchronized (coalescedTopics) {
+			for (Map.Entry<String, String> entry : coalescedTopics.entrySet()) {
+				if (matches(entry.getKey(), topic)) {
+					String keyProperty = entry.getValue();
+					if (keyProperty.isEmpty())
+						return new CoalescingKey(topic, null);
+					Object key = event.getProperty(keyProperty);
+					// events without the key property cannot be told apart, so never replace them
+					return key == null ? null : new CoalescingKey(topic, key);
+				}
+			}
+		}
+		return null;
+	}
+
+	private static boolean matches(String pattern, String topic) {
+		if (pattern.endsWith("*")) //$NON-NLS-1$
+			return topic.startsWith(pattern.substring(0, pattern.length() - 1));
+		return pattern.equals(topic);
+	}
+
+	private void dispatch() {
+		boolean done = false;
+		try {
+			while (true) {
+				List<Event> batch;
+				synchronized (pending) {
+					if (pending.isEmpty() || disposed) {
+						dispatching = false;
+						pending.notifyAll();
+						done = true;
+						return;
+					}
+					batch = new ArrayList<>(pending.values());
+					pending.clear();
+				}
+				for (Event event : batch) {
+					deliver(() -> eventAdmin.sendEvent(event));
+				}
+				for (BatchSubscriber subscriber : batchSubscribers) {
+					List<Event> events = new ArrayList<>();
+					for (Event event : batch) {
+						if (matches(subscriber.topic, event.getTopic()))
+							events.add(event);
+					}
+					if (!events.isEmpty())
+						deliver(() -> subscriber.handler.handleEvents(events));
+				}
+				synchronized (pending) {
+					delivered += batch.size();
+				}
+			}
+		} finally {
+			if (!done) {
+				// a handler threw an Error, let the next post start a new dispatch
+				synchronized (pending) {
+					dispatching = false;
+					pending.notifyAll();
+				}
+			}
+		}
+	}
+
+	private static void deliver(Runnable delivery) {
+		try {
+			delivery.run();
+		} catch (RuntimeException e) {
+			// like EventAdmin, do not let one handler stop the delivery
+			Thread thread = Thread.currentThread();
+			thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+		}
+	}
+
+	/**
+	 * Waits until all pending events have been delivered.
+	 *
+	 * @param timeout the maximum time to wait, in milliseconds
+	 * @return <code>true</code> if all events have been delivered
+	 * @throws InterruptedException if the current thread is interrupted
+	 */
+	public boolean waitForDelivery(long timeout) throws InterruptedException {
+		long end = System.currentTimeMillis() + timeout;
+		synchronized (pending) {
+			while (dispatching) {
+				long remaining = end - System.currentTimeMillis();
+				if (remaining <= 0)
+					return false;
+				pending.wait(remaining);
+			}
+		}
+		return true;
+	}
+
+	public Statistics getStatistics() {
+		synchronized (pending) {
+			return new Statistics(posted, coalesced, rejected, delivered, pending.size(), maxPending);
+		}
+	}
+
+	/**
+	 * Discards the pending events and stops the dispatch thread.
+	 */
+	public void dispose() {
+		synchronized (pending) {
+			disposed = true;
+			pending.clear();
+		}
+		executor.shutdown();
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2010, 2016 IBM Corporation and others.
+ * Copyright (c) 2010, 2022 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -14,6 +14,7 @@
 package org.eclipse.e4.core.internal.di;
 
 import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Type;
@@ -24,14 +25,22 @@ import org.eclipse.e4.core.di.suppliers.PrimaryObjectSupplier;
 
 public class ConstructorRequestor extends Requestor<Constructor<?>> {
 
+	/** Calls the constructor, or <code>null</code> to use reflection */
+	private final MethodHandle creator;
+
 	public ConstructorRequestor(Constructor<?> constructor, IInjector injector, PrimaryObjectSupplier primarySupplier, PrimaryObjectSupplier tempSupplier) {
+		this(constructor, null, injector, primarySupplier, tempSupplier);
+	}
+
+	ConstructorRequestor(Constructor<?> constructor, MethodHandle creator, IInjector injector, PrimaryObjectSupplier primarySupplier, PrimaryObjectSupplier tempSupplier) {
 		super(constructor, injector, primarySupplier, tempSupplier, null, false /* do not track */);
+		this.creator = creator;
 	}
 
 	@Override
 	public Object execute() throws InjectionException {
 		Object result = null;
-		if (!location.isAccessible()) {
+		if (creator == null && !location.isAccessible()) {
 			location.setAccessible(true);
 		}
 		boolean pausedRecording = false;
@@ -40,7 +49,10 @@ public class ConstructorRequestor extends Requestor<Constructor<?>> {
 			pausedRecording = true;
 		}
 		try {
-			result = location.newInstance(actualArgs);
+			if (creator != null)
+				result = invokeHandle();
+			else
+				result = location.newInstance(actualArgs);
 		} catch (IllegalArgumentException | IllegalAccessException e) {
 			throw new InjectionException(e);
 		} catch (InstantiationException e) {
@@ -61,6 +73,16 @@ public class ConstructorRequestor extends Requestor<Constructor<?>> {
 		return result;
 	}
 
+	private Object invokeHandle() throws InjectionException {
+		try {
+			return (Object) creator.invokeExact(actualArgs);
+		} catch (Error e) {
+			throw e;
+		} catch (Throwable e) {
+			throw new InjectionException(e);
+		}
+	}
+
 	@Override
 	public IObjectDescriptor[] calcDependentObjects() {
 		Annotation[][] annotations = location.getParameterAnnotations();
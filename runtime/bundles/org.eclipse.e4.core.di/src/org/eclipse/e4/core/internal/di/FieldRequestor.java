@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2010, 2016 IBM Corporation and others.
+ * Copyright (c) 2010, 2022 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -13,6 +13,7 @@
  *******************************************************************************/
 package org.eclipse.e4.core.internal.di;
 
+import java.lang.invoke.MethodHandle;
 import java.lang.reflect.Field;
 import org.eclipse.e4.core.di.IInjector;
 import org.eclipse.e4.core.di.InjectionException;
@@ -21,8 +22,16 @@ import org.eclipse.e4.core.di.suppliers.PrimaryObjectSupplier;
 
 public class FieldRequestor extends Requestor<Field> {
 
+	/** Sets the field, or <code>null</code> to use reflection */
+	private final MethodHandle setter;
+
 	public FieldRequestor(Field field, IInjector injector, PrimaryObjectSupplier primarySupplier, PrimaryObjectSupplier tempSupplier, Object requestingObject, boolean track) {
+		this(field, null, injector, primarySupplier, tempSupplier, requestingObject, track);
+	}
+
+	FieldRequestor(Field field, MethodHandle setter, IInjector injector, PrimaryObjectSupplier primarySupplier, PrimaryObjectSupplier tempSupplier, Object requestingObject, boolean track) {
 		super(field, injector, primarySupplier, tempSupplier, requestingObject, track);
+		this.setter = setter;
 	}
 
 	@Override
@@ -44,6 +53,16 @@ public class FieldRequestor extends Requestor<Field> {
 		Object userObject = getRequestingObject();
 		if (userObject == null)
 			return false;
+		if (setter != null) {
+			try {
+				setter.invokeExact(userObject, value);
+			} catch (Error e) {
+				throw e;
+			} catch (Throwable e) {
+				throw new InjectionException(e);
+			}
+			return true;
+		}
 		if (!field.isAccessible()) {
 			field.setAccessible(true);
 		}
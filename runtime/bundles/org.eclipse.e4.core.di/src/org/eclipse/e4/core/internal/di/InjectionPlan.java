@@ -0,0 +1,157 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.e4.core.internal.di;
+
+import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+/**
+ * The members of a class that take part in injection, determined once per
+ * class. The injector uses the plan instead of scanning the class hierarchy
+ * for every object it creates or injects, and calls the members through
+ * method handles instead of reflection.
+ */
+final class InjectionPlan {
+
+	private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+	private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+	private static final MethodType INVOKER_TYPE = MethodType.methodType(Object.class, Object.class, Object[].class);
+	private static final MethodType CREATOR_TYPE = MethodType.methodType(Object.class, Object[].class);
+
+	/**
+	 * A member to inject, with the method handle to call it, or
+	 * <code>null</code> if it has to be called through reflection.
+	 */
+	static final class Target<L extends AccessibleObject> {
+		final L location;
+		final MethodHandle handle;
+
+		Target(L location, MethodHandle handle) {
+			this.location = location;
+			this.handle = handle;
+		}
+	}
+
+	/**
+	 * The injected members declared by one class of the hierarchy.
+	 */
+	static final class Level {
+		final Class<?> type;
+		/** Whether the class has static members, which are only injected once */
+		final boolean hasStatic;
+		final List<Target<Field>> fields;
+		final List<Target<Method>> methods;
+
+		Level(Class<?> type, boolean hasStatic, List<Target<Field>> fields, List<Target<Method>> methods) {
+			this.type = type;
+			this.hasStatic = hasStatic;
+			this.fields = fields;
+			this.methods = methods;
+		}
+	}
+
+	/** The classes of the hierarchy, superclasses first */
+	final List<Level> levels;
+	/** The constructors that may be used, with the most arguments first */
+	final List<Target<Constructor<?>>> constructors;
+	final boolean singleton;
+	final List<Target<Method>> postConstruct;
+	final List<Target<Method>> preDestroy;
+	/** The methods to call by {@link InjectorImpl#invoke}, per qualifier */
+	private final Map<Class<? extends Annotation>, List<Target<Method>>> invocable = new ConcurrentHashMap<>();
+
+	InjectionPlan(List<Level> levels, List<Target<Constructor<?>>> constructors, boolean singleton,
+			List<Target<Method>> postConstruct, List<Target<Method>> preDestroy) {
+		this.levels = levels;
+		this.constructors = constructors;
+		this.singleton = singleton;
+		this.postConstruct = postConstruct;
+		this.preDestroy = preDestroy;
+	}
+
+	/**
+	 * Returns the methods called at the end of the object's life cycle phase
+	 * identified by the given annotation, or <code>null</code> if the plan does
+	 * not know the annotation.
+	 */
+	List<Target<Method>> getLifecycleMethods(Class<? extends Annotation> annotation) {
+		if (annotation == PostConstruct.class)
+			return postConstruct;
+		if (annotation == PreDestroy.class)
+			return preDestroy;
+		return null;
+	}
+
+	List<Target<Method>> getInvocableMethods(Class<? extends Annotation> qualifier,
+			Function<Class<? extends Annotation>, List<Target<Method>>> finder) {
+		return invocable.computeIfAbsent(qualifier, finder);
+	}
+
+	static Target<Field> target(Field field) {
+		MethodHandle handle = null;
+		try {
+			field.setAccessible(true);
+			handle = LOOKUP.unreflectSetter(field);
+			if (Modifier.isStatic(field.getModifiers()))
+				handle = MethodHandles.dropArguments(handle, 0, Object.class);
+			handle = handle.asType(SETTER_TYPE);
+		} catch (ReflectiveOperationException | RuntimeException e) {
+			// not accessible, let reflection report the problem when injecting
+			handle = null;
+		}
+		return new Target<>(field, handle);
+	}
+
+	static Target<Method> target(Method method) {
+		MethodHandle handle = null;
+		try {
+			method.setAccessible(true);
+			handle = LOOKUP.unreflect(method);
+			if (Modifier.isStatic(method.getModifiers()))
+				handle = MethodHandles.dropArguments(handle, 0, Object.class);
+			handle = handle.asSpreader(Object[].class, method.getParameterCount()).asType(INVOKER_TYPE);
+		} catch (ReflectiveOperationException | RuntimeException e) {
+			handle = null;
+		}
+		return new Target<>(method, handle);
+	}
+
+	static Target<Constructor<?>> target(Constructor<?> constructor) {
+		MethodHandle handle = null;
+		// abstract classes are reported by reflection
+		if (!Modifier.isAbstract(constructor.getDeclaringClass().getModifiers())) {
+			try {
+				constructor.setAccessible(true);
+				handle = LOOKUP.unreflectConstructor(constructor);
+				handle = handle.asSpreader(Object[].class, constructor.getParameterCount()).asType(CREATOR_TYPE);
+			} catch (ReflectiveOperationException | RuntimeException e) {
+				handle = null;
+			}
+		}
+		return new Target<>(constructor, handle);
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2009, 2017 IBM Corporation and others.
+ * Copyright (c) 2009, 2022 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -16,6 +16,7 @@
 package org.eclipse.e4.core.internal.di;
 
 import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
 import java.lang.ref.WeakReference;
 import java.lang.reflect.AnnotatedElement;
 import java.lang.reflect.Constructor;
@@ -36,6 +37,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Stream;
 import javax.annotation.PostConstruct;
 import javax.annotation.PreDestroy;
@@ -52,6 +54,7 @@ import org.eclipse.e4.core.di.suppliers.ExtendedObjectSupplier;
 import org.eclipse.e4.core.di.suppliers.IObjectDescriptor;
 import org.eclipse.e4.core.di.suppliers.IRequestor;
 import org.eclipse.e4.core.di.suppliers.PrimaryObjectSupplier;
+import org.eclipse.e4.core.internal.di.InjectionPlan.Target;
 import org.eclipse.e4.core.internal.di.osgi.LogHelper;
 import org.osgi.framework.Bundle;
 import org.osgi.framework.FrameworkUtil;
@@ -78,7 +81,7 @@ public class InjectorImpl implements IInjector {
 	private Set<WeakReference<Class<?>>> injectedClasses = new HashSet<>();
 	private HashMap<Class<?>, Object> singletonCache = new HashMap<>();
 	private Map<Class<?>, Set<Binding>> bindings = new HashMap<>();
-	private Map<Class<? extends Annotation>, Map<AnnotatedElement, Boolean>> annotationsPresent = new HashMap<>();
+	private Map<Class<? extends Annotation>, Map<AnnotatedElement, Boolean>> annotationsPresent = new ConcurrentHashMap<>();
 
 	// Performance improvement:
 	private Map<Class<?>, Method[]> methodsCache = Collections.synchronizedMap(new WeakHashMap<>());
@@ -90,6 +93,39 @@ public class InjectorImpl implements IInjector {
 
 	private PrimaryObjectSupplier defaultSupplier;
 
+	/**
+	 * The injection plans per class, or <code>null</code> if the class hierarchy
+	 * is scanned for every injection.
+	 */
+	final private ClassValue<InjectionPlan> injectionPlans;
+
+	/**
+	 * Creates an injector which uses injection plans if the system property
+	 * <code>org.eclipse.e4.core.di.injectionPlans</code> is set to
+	 * <code>true</code>.
+	 */
+	public InjectorImpl() {
+		this(Boolean.getBoolean("org.eclipse.e4.core.di.injectionPlans")); //$NON-NLS-1$
+	}
+
+	/**
+	 * @param useInjectionPlans <code>true</code> to determine the members to
+	 *                          inject once per class and to call them through
+	 *                          method handles, see {@link InjectionPlan}
+	 */
+	public InjectorImpl(boolean useInjectionPlans) {
+		if (useInjectionPlans) {
+			injectionPlans = new ClassValue<>() {
+				@Override
+				protected InjectionPlan computeValue(Class<?> type) {
+					return createInjectionPlan(type);
+				}
+			};
+		} else {
+			injectionPlans = null;
+		}
+	}
+
 	@Override
 	public void inject(Object object, PrimaryObjectSupplier objectSupplier) {
 		try {
@@ -299,6 +335,24 @@ public class InjectorImpl implements IInjector {
 	private Object invokeUsingClass(Object userObject, Class<?> currentClass, Class<? extends Annotation> qualifier,
 			Object defaultValue, PrimaryObjectSupplier objectSupplier, PrimaryObjectSupplier tempSupplier,
 			boolean throwUnresolved, boolean initial, boolean track) {
+		if (injectionPlans != null) {
+			List<Target<Method>> targets = injectionPlans.get(currentClass).getInvocableMethods(qualifier,
+					q -> findInvocableMethods(currentClass, q));
+			for (Target<Method> target : targets) {
+				MethodRequestor requestor = new MethodRequestor(target.location, target.handle, this, objectSupplier,
+						tempSupplier, userObject, track);
+				Object[] actualArgs = resolveArgs(requestor, objectSupplier, tempSupplier, false, initial, track);
+				int unresolved = unresolved(actualArgs);
+				if (unresolved != -1) {
+					if (throwUnresolved)
+						reportUnresolvedArgument(requestor, unresolved);
+					continue;
+				}
+				requestor.setResolvedArgs(actualArgs);
+				return requestor.execute();
+			}
+			return defaultValue;
+		}
 		Method[] methods = getDeclaredMethods(currentClass);
 		for (Method method : methods) {
 			if (method.getAnnotation(qualifier) == null)
@@ -368,7 +422,8 @@ public class InjectorImpl implements IInjector {
 			if (shouldDebug)
 				classesBeingCreated.add(clazz);
 
-			boolean isSingleton = isAnnotationPresent(clazz, Singleton.class);
+			InjectionPlan plan = (injectionPlans != null) ? injectionPlans.get(clazz) : null;
+			boolean isSingleton = (plan != null) ? plan.singleton : isAnnotationPresent(clazz, Singleton.class);
 			if (isSingleton) {
 				synchronized (singletonCache) {
 					if (singletonCache.containsKey(clazz))
@@ -376,38 +431,28 @@ public class InjectorImpl implements IInjector {
 				}
 			}
 
-			Constructor<?>[] constructors = getDeclaredConstructors(clazz);
-			// Sort the constructors by descending number of constructor arguments
-			ArrayList<Constructor<?>> sortedConstructors = new ArrayList<>(constructors.length);
-			sortedConstructors.addAll(Arrays.asList(constructors));
-			sortedConstructors.sort(Comparator.comparing(c -> c.getParameterTypes().length, Comparator.reverseOrder()));
-
-			for (Constructor<?> constructor : sortedConstructors) {
-				// skip private and protected constructors; allow public and package visibility
-				int modifiers = constructor.getModifiers();
-				if (((modifiers & Modifier.PRIVATE) != 0) || ((modifiers & Modifier.PROTECTED) != 0))
-					continue;
-
-				// unless this is the default constructor, it has to be tagged
-				if (!isAnnotationPresent(constructor, Inject.class) && constructor.getParameterTypes().length != 0)
-					continue;
-
-				ConstructorRequestor requestor = new ConstructorRequestor(constructor, this, objectSupplier, tempSupplier);
-				Object[] actualArgs = resolveArgs(requestor, objectSupplier, tempSupplier, false, true, false);
-				if (unresolved(actualArgs) != -1)
-					continue;
-				requestor.setResolvedArgs(actualArgs);
-
-				Object newInstance = requestor.execute();
-				if (newInstance != null) {
-					internalInject(newInstance, objectSupplier, tempSupplier);
-					if (isSingleton) {
-						synchronized (singletonCache) { // TBD this is not quite right, synch the method
-							singletonCache.put(clazz, newInstance);
-						}
+			Object newInstance = null;
+			if (plan != null) {
+				for (Target<Constructor<?>> target : plan.constructors) {
+					newInstance = construct(target.location, target.handle, objectSupplier, tempSupplier);
+					if (newInstance != null)
+						break;
+				}
+			} else {
+				for (Constructor<?> constructor : getInjectableConstructors(clazz)) {
+					newInstance = construct(constructor, null, objectSupplier, tempSupplier);
+					if (newInstance != null)
+						break;
+				}
+			}
+			if (newInstance != null) {
+				internalInject(newInstance, objectSupplier, tempSupplier);
+				if (isSingleton) {
+					synchronized (singletonCache) { // TBD this is not quite right, synch the method
+						singletonCache.put(clazz, newInstance);
 					}
-					return newInstance;
 				}
+				return newInstance;
 			}
 			throw new InjectionException("Could not find satisfiable constructor in " + clazz.getName()); //$NON-NLS-1$
 		} catch (NoClassDefFoundError | NoSuchMethodError e) {
@@ -418,6 +463,44 @@ public class InjectorImpl implements IInjector {
 		}
 	}
 
+	/**
+	 * Returns the constructors that may be used to create instances of the
+	 * given class, with the most arguments first.
+	 */
+	private List<Constructor<?>> getInjectableConstructors(Class<?> clazz) {
+		Constructor<?>[] constructors = getDeclaredConstructors(clazz);
+		// Sort the constructors by descending number of constructor arguments
+		ArrayList<Constructor<?>> sortedConstructors = new ArrayList<>(constructors.length);
+		sortedConstructors.addAll(Arrays.asList(constructors));
+		sortedConstructors.sort(Comparator.comparing(c -> c.getParameterTypes().length, Comparator.reverseOrder()));
+
+		for (Iterator<Constructor<?>> i = sortedConstructors.iterator(); i.hasNext();) {
+			Constructor<?> constructor = i.next();
+			// skip private and protected constructors; allow public and package visibility
+			int modifiers = constructor.getModifiers();
+			if (((modifiers & Modifier.PRIVATE) != 0) || ((modifiers & Modifier.PROTECTED) != 0))
+				i.remove();
+			// unless this is the default constructor, it has to be tagged
+			else if (!isAnnotationPresent(constructor, Inject.class) && constructor.getParameterTypes().length != 0)
+				i.remove();
+		}
+		return sortedConstructors;
+	}
+
+	/**
+	 * Calls the given constructor if all its arguments can be resolved.
+	 *
+	 * @return the new instance, or <code>null</code>
+	 */
+	private Object construct(Constructor<?> constructor, MethodHandle creator, PrimaryObjectSupplier objectSupplier, PrimaryObjectSupplier tempSupplier) {
+		ConstructorRequestor requestor = new ConstructorRequestor(constructor, creator, this, objectSupplier, tempSupplier);
+		Object[] actualArgs = resolveArgs(requestor, objectSupplier, tempSupplier, false, true, false);
+		if (unresolved(actualArgs) != -1)
+			return null;
+		requestor.setResolvedArgs(actualArgs);
+		return requestor.execute();
+	}
+
 	public void resolveArguments(IRequestor requestor, boolean initial) {
 		Requestor<?> internalRequestor = ((Requestor<?>) requestor);
 		Object[] actualArgs = resolveArgs(internalRequestor, internalRequestor.getPrimarySupplier(), internalRequestor.getTempSupplier(), false, initial, internalRequestor.shouldTrack());
@@ -645,6 +728,10 @@ public class InjectorImpl implements IInjector {
 	}
 
 	private void processClassHierarchy(Object userObject, PrimaryObjectSupplier objectSupplier, PrimaryObjectSupplier tempSupplier, boolean track, boolean normalOrder, List<Requestor<?>> requestors) {
+		if (injectionPlans != null && userObject != null) {
+			processInjectionPlan(injectionPlans.get(userObject.getClass()), userObject, objectSupplier, tempSupplier, track, normalOrder, requestors);
+			return;
+		}
 		processClass(userObject, objectSupplier, tempSupplier, (userObject == null) ? null : userObject.getClass(), new ArrayList<>(5), track, normalOrder, requestors);
 	}
 
@@ -674,6 +761,110 @@ public class InjectorImpl implements IInjector {
 			rememberInjectedStatic(objectsClass);
 	}
 
+	/**
+	 * Adds the requestors for the members in the given plan, in the same order
+	 * as {@link #processClass}.
+	 */
+	private void processInjectionPlan(InjectionPlan plan, Object userObject, PrimaryObjectSupplier objectSupplier, PrimaryObjectSupplier tempSupplier, boolean track, boolean normalOrder, List<Requestor<?>> requestors) {
+		for (InjectionPlan.Level level : plan.levels) {
+			boolean skipStatic = level.hasStatic && hasInjectedStatic(level.type);
+			if (normalOrder) {
+				addFieldRequestors(level, skipStatic, userObject, objectSupplier, tempSupplier, track, requestors);
+				addMethodRequestors(level, skipStatic, userObject, objectSupplier, tempSupplier, track, requestors);
+			} else {
+				addMethodRequestors(level, skipStatic, userObject, objectSupplier, tempSupplier, track, requestors);
+				addFieldRequestors(level, skipStatic, userObject, objectSupplier, tempSupplier, track, requestors);
+			}
+			if (level.hasStatic && !skipStatic)
+				rememberInjectedStatic(level.type);
+		}
+	}
+
+	private void addFieldRequestors(InjectionPlan.Level level, boolean skipStatic, Object userObject, PrimaryObjectSupplier objectSupplier, PrimaryObjectSupplier tempSupplier, boolean track, List<Requestor<?>> requestors) {
+		for (Target<Field> target : level.fields) {
+			if (skipStatic && Modifier.isStatic(target.location.getModifiers()))
+				continue;
+			requestors.add(new FieldRequestor(target.location, target.handle, this, objectSupplier, tempSupplier, userObject, track));
+		}
+	}
+
+	private void addMethodRequestors(InjectionPlan.Level level, boolean skipStatic, Object userObject, PrimaryObjectSupplier objectSupplier, PrimaryObjectSupplier tempSupplier, boolean track, List<Requestor<?>> requestors) {
+		for (Target<Method> target : level.methods) {
+			if (skipStatic && Modifier.isStatic(target.location.getModifiers()))
+				continue;
+			requestors.add(new MethodRequestor(target.location, target.handle, this, objectSupplier, tempSupplier, userObject, track));
+		}
+	}
+
+	/**
+	 * Determines the members of the given class and its superclasses that take
+	 * part in injection, using the same rules as {@link #processClass},
+	 * {@link #internalMake} and {@link #processAnnotated}.
+	 */
+	private InjectionPlan createInjectionPlan(Class<?> type) {
+		// the class hierarchy, starting with the given class
+		ArrayList<Class<?>> hierarchy = new ArrayList<>(5);
+		Class<?> current = type;
+		while (true) {
+			hierarchy.add(current);
+			Class<?> superClass = current.getSuperclass();
+			if (superClass == null || superClass.getName().equals(JAVA_OBJECT))
+				break;
+			current = superClass;
+		}
+
+		List<InjectionPlan.Level> levels = new ArrayList<>(hierarchy.size());
+		List<Target<Method>> postConstruct = new ArrayList<>(0);
+		List<Target<Method>> preDestroy = new ArrayList<>(0);
+		for (int i = hierarchy.size() - 1; i >= 0; i--) {
+			Class<?> objectsClass = hierarchy.get(i);
+			ArrayList<Class<?>> subClasses = new ArrayList<>(hierarchy.subList(0, i));
+			boolean hasStatic = false;
+			List<Target<Field>> fields = new ArrayList<>(0);
+			for (Field field : getDeclaredFields(objectsClass)) {
+				if (Modifier.isStatic(field.getModifiers()))
+					hasStatic = true;
+				if (isAnnotationPresent(field, Inject.class))
+					fields.add(InjectionPlan.target(field));
+			}
+			List<Target<Method>> methods = new ArrayList<>(0);
+			for (Method method : getDeclaredMethods(objectsClass)) {
+				if (isOverridden(method, subClasses))
+					continue; // process in the subclass
+				if (Modifier.isStatic(method.getModifiers()))
+					hasStatic = true;
+				if (isAnnotationPresent(method, Inject.class))
+					methods.add(InjectionPlan.target(method));
+				if (isAnnotated(method, PostConstruct.class))
+					postConstruct.add(InjectionPlan.target(method));
+				if (isAnnotated(method, PreDestroy.class))
+					preDestroy.add(InjectionPlan.target(method));
+			}
+			levels.add(new InjectionPlan.Level(objectsClass, hasStatic, fields, methods));
+		}
+
+		List<Target<Constructor<?>>> constructors = new ArrayList<>(1);
+		for (Constructor<?> constructor : getInjectableConstructors(type))
+			constructors.add(InjectionPlan.target(constructor));
+
+		return new InjectionPlan(levels, constructors, isAnnotationPresent(type, Singleton.class), postConstruct, preDestroy);
+	}
+
+	/**
+	 * Returns the methods of the given class and its superclasses with the given
+	 * annotation, in the order used by {@link #invokeUsingClass}.
+	 */
+	private List<Target<Method>> findInvocableMethods(Class<?> type, Class<? extends Annotation> qualifier) {
+		List<Target<Method>> result = new ArrayList<>(1);
+		for (Class<?> current = type; current != null; current = current.getSuperclass()) {
+			for (Method method : getDeclaredMethods(current)) {
+				if (method.getAnnotation(qualifier) != null)
+					result.add(InjectionPlan.target(method));
+			}
+		}
+		return result;
+	}
+
 	private boolean hasInjectedStatic(Class<?> objectsClass) {
 		synchronized (injectedClasses) {
 			for (WeakReference<Class<?>> ref : injectedClasses) {
@@ -954,6 +1145,14 @@ public class InjectorImpl implements IInjector {
 	}
 
 	private void processAnnotated(Class<? extends Annotation> annotation, Object userObject, Class<?> objectClass, PrimaryObjectSupplier objectSupplier, PrimaryObjectSupplier tempSupplier, ArrayList<Class<?>> classHierarchy) {
+		List<Target<Method>> targets = (injectionPlans != null && classHierarchy.isEmpty())
+				? injectionPlans.get(objectClass).getLifecycleMethods(annotation)
+				: null;
+		if (targets != null) {
+			for (Target<Method> target : targets)
+				callAnnotated(target.location, target.handle, userObject, objectSupplier, tempSupplier);
+			return;
+		}
 		Class<?> superClass = objectClass.getSuperclass();
 		if (superClass != null && !superClass.getName().equals(JAVA_OBJECT)) {
 			classHierarchy.add(objectClass);
@@ -962,38 +1161,46 @@ public class InjectorImpl implements IInjector {
 		}
 		Method[] methods = getDeclaredMethods(objectClass);
 		for (Method method : methods) {
-			if (!isAnnotationPresent(method, annotation)) {
-				if (shouldDebug) {
-					for (Annotation a : method.getAnnotations()) {
-						if (annotation.getName().equals(a.annotationType().getName())) {
-							StringBuilder tmp = new StringBuilder();
-							tmp.append("Possbible annotation mismatch: method \""); //$NON-NLS-1$
-							tmp.append(method.toString());
-							tmp.append("\" annotated with \""); //$NON-NLS-1$
-							tmp.append(describeClass(a.annotationType()));
-							tmp.append("\" but was looking for \""); //$NON-NLS-1$
-							tmp.append(describeClass(annotation));
-							tmp.append("\""); //$NON-NLS-1$
-							LogHelper.logWarning(tmp.toString(), null);
-						}
-					}
-				}
+			if (!isAnnotated(method, annotation))
 				continue;
-			}
 			if (isOverridden(method, classHierarchy))
 				continue;
+			callAnnotated(method, null, userObject, objectSupplier, tempSupplier);
+		}
+	}
 
-			MethodRequestor requestor = new MethodRequestor(method, this, objectSupplier, tempSupplier, userObject, false);
-			Object[] actualArgs = resolveArgs(requestor, objectSupplier, tempSupplier, false, false, false);
-			int unresolved = unresolved(actualArgs);
-			if (unresolved != -1) {
-				if (isAnnotationPresent(method, Optional.class))
-					continue;
-				reportUnresolvedArgument(requestor, unresolved);
+	private boolean isAnnotated(Method method, Class<? extends Annotation> annotation) {
+		if (isAnnotationPresent(method, annotation))
+			return true;
+		if (shouldDebug) {
+			for (Annotation a : method.getAnnotations()) {
+				if (annotation.getName().equals(a.annotationType().getName())) {
+					StringBuilder tmp = new StringBuilder();
+					tmp.append("Possbible annotation mismatch: method \""); //$NON-NLS-1$
+					tmp.append(method.toString());
+					tmp.append("\" annotated with \""); //$NON-NLS-1$
+					tmp.append(describeClass(a.annotationType()));
+					tmp.append("\" but was looking for \""); //$NON-NLS-1$
+					tmp.append(describeClass(annotation));
+					tmp.append("\""); //$NON-NLS-1$
+					LogHelper.logWarning(tmp.toString(), null);
+				}
 			}
-			requestor.setResolvedArgs(actualArgs);
-			requestor.execute();
 		}
+		return false;
+	}
+
+	private void callAnnotated(Method method, MethodHandle invoker, Object userObject, PrimaryObjectSupplier objectSupplier, PrimaryObjectSupplier tempSupplier) {
+		MethodRequestor requestor = new MethodRequestor(method, invoker, this, objectSupplier, tempSupplier, userObject, false);
+		Object[] actualArgs = resolveArgs(requestor, objectSupplier, tempSupplier, false, false, false);
+		int unresolved = unresolved(actualArgs);
+		if (unresolved != -1) {
+			if (isAnnotationPresent(method, Optional.class))
+				return;
+			reportUnresolvedArgument(requestor, unresolved);
+		}
+		requestor.setResolvedArgs(actualArgs);
+		requestor.execute();
 	}
 
 	/** Provide a human-meaningful description of the provided class */
@@ -1019,11 +1226,8 @@ public class InjectorImpl implements IInjector {
 
 	private boolean isAnnotationPresent(AnnotatedElement annotatedElement,
 			Class<? extends Annotation> annotation) {
-		Map<AnnotatedElement, Boolean> cache = annotationsPresent.get(annotation);
-		if (cache == null) {
-			cache = Collections.synchronizedMap(new WeakHashMap<>());
-			annotationsPresent.put(annotation, cache);
-		}
+		Map<AnnotatedElement, Boolean> cache = annotationsPresent.computeIfAbsent(annotation,
+				a -> Collections.synchronizedMap(new WeakHashMap<>()));
 
 		Boolean present = cache.get(annotatedElement);
 		if (present != null) {
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2010, 2016 IBM Corporation and others.
+ * Copyright (c) 2010, 2022 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -14,6 +14,7 @@
 package org.eclipse.e4.core.internal.di;
 
 import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Type;
@@ -32,8 +33,16 @@ public class MethodRequestor extends Requestor<Method> {
 	 */
 	private static Map<Method, Annotation[][]> annotationCache = Collections.synchronizedMap(new WeakHashMap<>());
 
+	/** Calls the method, or <code>null</code> to use reflection */
+	private final MethodHandle invoker;
+
 	public MethodRequestor(Method method, IInjector injector, PrimaryObjectSupplier primarySupplier, PrimaryObjectSupplier tempSupplier, Object requestingObject, boolean track) {
+		this(method, null, injector, primarySupplier, tempSupplier, requestingObject, track);
+	}
+
+	MethodRequestor(Method method, MethodHandle invoker, IInjector injector, PrimaryObjectSupplier primarySupplier, PrimaryObjectSupplier tempSupplier, Object requestingObject, boolean track) {
 		super(method, injector, primarySupplier, tempSupplier, requestingObject, track);
+		this.invoker = invoker;
 	}
 
 	@Override
@@ -46,7 +55,7 @@ public class MethodRequestor extends Requestor<Method> {
 		if (userObject == null)
 			return null;
 		Object result = null;
-		if (!location.isAccessible()) {
+		if (invoker == null && !location.isAccessible()) {
 			location.setAccessible(true);
 		}
 		boolean pausedRecording = false;
@@ -55,7 +64,10 @@ public class MethodRequestor extends Requestor<Method> {
 			pausedRecording = true;
 		}
 		try {
-			result = location.invoke(userObject, actualArgs);
+			if (invoker != null)
+				result = invokeHandle(userObject);
+			else
+				result = location.invoke(userObject, actualArgs);
 		} catch (IllegalArgumentException | IllegalAccessException e) {
 			throw new InjectionException(e);
 		} catch (InvocationTargetException e) {
@@ -74,6 +86,16 @@ public class MethodRequestor extends Requestor<Method> {
 		return result;
 	}
 
+	private Object invokeHandle(Object userObject) throws InjectionException {
+		try {
+			return (Object) invoker.invokeExact(userObject, actualArgs);
+		} catch (Error e) {
+			throw e;
+		} catch (Throwable e) {
+			throw new InjectionException(e);
+		}
+	}
+
 	@Override
 	protected IObjectDescriptor[] calcDependentObjects() {
 		Type[] parameterTypes = location.getGenericParameterTypes();
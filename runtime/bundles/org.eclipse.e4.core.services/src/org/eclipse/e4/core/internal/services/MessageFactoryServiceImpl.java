@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2011, 2018 BestSolution.at and others.
+ * Copyright (c) 2011, 2022 BestSolution.at and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -22,13 +22,16 @@ import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.security.AccessController;
 import java.security.PrivilegedAction;
+import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.ResourceBundle;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
 import javax.annotation.PostConstruct;
 import org.eclipse.e4.core.services.nls.IMessageFactoryService;
 import org.eclipse.e4.core.services.nls.Message;
@@ -48,12 +51,54 @@ public class MessageFactoryServiceImpl implements IMessageFactoryService {
 	private LoggerFactory factory;
 	private Logger logger;
 
+	/**
+	 * The fields and the translations of a message class, so that further
+	 * instances are created without searching resource bundles again.
+	 */
+	private static final class MessageClass {
+		final Field[] fields;
+		final Method[] postConstructMethods;
+		// provider -> locale -> translations of the fields, in the order of the fields.
+		// The resource bundles are searched through the provider, so translations
+		// found by one provider are not valid for another one.
+		private final Map<ResourceBundleProvider, Map<String, String[]>> translations = Collections
+				.synchronizedMap(new WeakHashMap<>());
+
+		MessageClass(Class<?> messages) {
+			List<Field> stringFields = new ArrayList<>();
+			for (Field field : messages.getDeclaredFields()) {
+				if (field.getType().isAssignableFrom(String.class)) {
+					stringFields.add(field);
+				}
+			}
+			List<Method> methods = new ArrayList<>();
+			for (Method method : messages.getDeclaredMethods()) {
+				if (method.isAnnotationPresent(PostConstruct.class)) {
+					methods.add(method);
+				}
+			}
+			this.fields = stringFields.toArray(new Field[stringFields.size()]);
+			this.postConstructMethods = methods.toArray(new Method[methods.size()]);
+		}
+
+		Map<String, String[]> getTranslations(ResourceBundleProvider provider) {
+			return translations.computeIfAbsent(provider, p -> new ConcurrentHashMap<>());
+		}
+	}
+
+	// Computed once per message class, and released together with the class.
+	// The class determines the @Message annotation and thus the contributionURI.
+	private static final ClassValue<MessageClass> MESSAGE_CLASSES = new ClassValue<MessageClass>() {
+		@Override
+		protected MessageClass computeValue(Class<?> type) {
+			return new MessageClass(type);
+		}
+	};
+
 	// Cache so when multiple instance use the same message class
-	private Map<Object, Reference<Object>> SOFT_CACHE = Collections
-			.synchronizedMap(new HashMap<>());
+	private Map<Object, Reference<Object>> SOFT_CACHE = new ConcurrentHashMap<>();
 
-	private Map<Object, Reference<Object>> WEAK_CACHE = Collections
-			.synchronizedMap(new HashMap<>());
+	private Map<Object, Reference<Object>> WEAK_CACHE = new ConcurrentHashMap<>();
 
 	private int CLEANUPCOUNT = 0;
 
@@ -91,14 +136,16 @@ public class MessageFactoryServiceImpl implements IMessageFactoryService {
 			type = ReferenceType.WEAK;
 		}
 
-		if (cache != null && cache.containsKey(key)) {
+		if (cache != null) {
 			@SuppressWarnings("unchecked")
 			Reference<M> ref = (Reference<M>) cache.get(key);
-			M o = ref.get();
-			if (o != null) {
-				return o;
+			if (ref != null) {
+				M o = ref.get();
+				if (o != null) {
+					return o;
+				}
+				cache.remove(key, ref);
 			}
-			cache.remove(key);
 		}
 
 		M instance;
@@ -142,6 +189,12 @@ public class MessageFactoryServiceImpl implements IMessageFactoryService {
 	 * this method will not break. In this case the fields of the message class will get initialized
 	 * with values that look like <code>!key!</code> to indicate that there is no translation value
 	 * found for that key.
+	 * <p>
+	 * The translations are only searched for the first instance of a message class,
+	 * {@link Locale} and {@link ResourceBundleProvider}. Further instances, e.g. for message classes that are not cached or after the
+	 * cached instance has been garbage collected, are initialized from the translations found
+	 * before.
+	 * </p>
 	 *
 	 * @param locale
 	 *            The {@link Locale} for which the message class instance is requested.
@@ -161,6 +214,55 @@ public class MessageFactoryServiceImpl implements IMessageFactoryService {
 	private <M> M createInstance(Locale locale, Class<M> messages, Message annotation,
 			ResourceBundleProvider rbProvider) {
 
+		MessageClass messageClass = MESSAGE_CLASSES.get(messages);
+		Map<String, String[]> providerTranslations = messageClass.getTranslations(rbProvider);
+		String localeKey = String.valueOf(locale);
+		String[] translations = providerTranslations.get(localeKey);
+		if (translations == null) {
+			translations = translate(messageClass, locale, messages, annotation, rbProvider);
+			providerTranslations.putIfAbsent(localeKey, translations);
+		}
+
+		M instance = null;
+		try {
+			instance = messages.newInstance();
+			Field[] fields = messageClass.fields;
+			for (int i = 0; i < fields.length; i++) {
+				Field field = fields[i];
+				if (!field.isAccessible()) {
+					field.setAccessible(true);
+				}
+				field.set(instance, translations[i]);
+			}
+		} catch (InstantiationException e) {
+			Logger log = this.logger;
+			if (log != null) {
+				log.error("Instantiation of messages class failed", e); //$NON-NLS-1$
+			}
+		} catch (IllegalAccessException e) {
+			Logger log = this.logger;
+			if (log != null) {
+				log.error("Failed to access messages class", e); //$NON-NLS-1$
+			}
+		}
+
+		// invoke the method annotated with @PostConstruct
+		processPostConstruct(instance, messageClass, messages);
+
+		return instance;
+	}
+
+	/**
+	 * Searches the {@link ResourceBundle} of the given messages class in the
+	 * order described in {@link #createInstance(Locale, Class, Message, ResourceBundleProvider)}
+	 * and returns the translations of the fields of the messages class.
+	 *
+	 * @return The translations, in the order of {@link MessageClass#fields}
+	 */
+	@SuppressWarnings("deprecation")
+	private String[] translate(MessageClass messageClass, Locale locale, Class<?> messages, Message annotation,
+			ResourceBundleProvider rbProvider) {
+
 		ResourceBundle resourceBundle = null;
 		if (annotation != null) {
 			if (!annotation.contributionURI().isEmpty()) {
@@ -205,35 +307,11 @@ public class MessageFactoryServiceImpl implements IMessageFactoryService {
 		ResourceBundleTranslationProvider provider = new ResourceBundleTranslationProvider(
 				resourceBundle);
 
-		M instance = null;
-		try {
-			instance = messages.newInstance();
-			Field[] fields = messages.getDeclaredFields();
-
-			for (Field field : fields) {
-				if (!field.isAccessible()) {
-					field.setAccessible(true);
-				}
-				if (field.getType().isAssignableFrom(String.class)) {
-					field.set(instance, provider.translate(field.getName()));
-				}
-			}
-		} catch (InstantiationException e) {
-			Logger log = this.logger;
-			if (log != null) {
-				log.error("Instantiation of messages class failed", e); //$NON-NLS-1$
-			}
-		} catch (IllegalAccessException e) {
-			Logger log = this.logger;
-			if (log != null) {
-				log.error("Failed to access messages class", e); //$NON-NLS-1$
-			}
+		String[] translations = new String[messageClass.fields.length];
+		for (int i = 0; i < translations.length; i++) {
+			translations[i] = provider.translate(messageClass.fields[i].getName());
 		}
-
-		// invoke the method annotated with @PostConstruct
-		processPostConstruct(instance, messages);
-
-		return instance;
+		return translations;
 	}
 
 	/**
@@ -247,24 +325,21 @@ public class MessageFactoryServiceImpl implements IMessageFactoryService {
 	 *            The message instance of the given class where the method annotated with
 	 *            {@link PostConstruct} should be called
 	 * @param messageClass
+	 *            The fields and methods of the message class.
+	 * @param messages
 	 *            The type of the message class whose instance is requested.
 	 */
-	private void processPostConstruct(Object messageObject, Class<?> messageClass) {
+	private void processPostConstruct(Object messageObject, MessageClass messageClass, Class<?> messages) {
 		if (messageObject != null) {
-			Method[] methods = messageClass.getDeclaredMethods();
-			for (Method method : methods) {
-				if (!method.isAnnotationPresent(PostConstruct.class)) {
-					continue;
-				} else {
-					try {
-						method.invoke(messageObject);
-					} catch (Exception e) {
-						Logger log = this.logger;
-						if (log != null) {
-							log.error(
-									"Exception on trying to execute the @PostConstruct annotated method in {}", //$NON-NLS-1$
-									messageClass, e);
-						}
+			for (Method method : messageClass.postConstructMethods) {
+				try {
+					method.invoke(messageObject);
+				} catch (Exception e) {
+					Logger log = this.logger;
+					if (log != null) {
+						log.error(
+								"Exception on trying to execute the @PostConstruct annotated method in {}", //$NON-NLS-1$
+								messages, e);
 					}
 				}
 			}
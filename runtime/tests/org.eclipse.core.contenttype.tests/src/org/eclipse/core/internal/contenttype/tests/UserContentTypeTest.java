@@ -97,4 +97,55 @@ public class UserContentTypeTest {
 		Assert.assertTrue("Association wasn't persisted", Arrays
 				.asList(this.createdUserContentType.getFileSpecs(IContentType.FILE_NAME_SPEC)).contains("fileSpec"));
 	}
+
+	@Test
+	public void testFindContentTypesForAfterAssociationChange() throws CoreException {
+		testAddUserDefinedContentTypes();
+		String fileName = "lookupTest" + System.nanoTime();
+		// the lookup result is remembered, so make sure it is not stale after associations change
+		Assert.assertFalse(Arrays.asList(manager.findContentTypesFor(fileName)).contains(this.createdUserContentType));
+		this.createdUserContentType.addFileSpec(fileName, IContentType.FILE_NAME_SPEC);
+		Assert.assertTrue("Lookup doesn't reflect added association",
+				Arrays.asList(manager.findContentTypesFor(fileName)).contains(this.createdUserContentType));
+		this.createdUserContentType.removeFileSpec(fileName, IContentType.FILE_NAME_SPEC);
+		Assert.assertFalse("Lookup doesn't reflect removed association",
+				Arrays.asList(manager.findContentTypesFor(fileName)).contains(this.createdUserContentType));
+	}
+
+	@Test
+	public void testFindContentTypesForFilePatterns() throws CoreException {
+		testAddUserDefinedContentTypes();
+		String unique = "p" + System.nanoTime();
+		this.createdUserContentType.addFileSpec(unique + "*.cfg", IContentType.FILE_PATTERN_SPEC);
+		this.createdUserContentType.addFileSpec("*." + unique, IContentType.FILE_PATTERN_SPEC);
+		this.createdUserContentType.addFileSpec("x?" + unique + "*", IContentType.FILE_PATTERN_SPEC);
+		this.createdUserContentType.addFileSpec("[ab]" + unique + "+", IContentType.FILE_PATTERN_SPEC);
+		assertMatches(true, unique + ".cfg");
+		assertMatches(true, unique + "-test.cfg");
+		assertMatches(false, unique + ".cfgx");
+		assertMatches(false, "a" + unique + ".cfg");
+		assertMatches(true, "file." + unique);
+		assertMatches(false, "file." + unique + "x");
+		assertMatches(true, "xy" + unique);
+		assertMatches(true, "xy" + unique + ".txt");
+		assertMatches(false, "x" + unique);
+		assertMatches(true, "a" + unique);
+		assertMatches(true, "b" + unique + unique.charAt(unique.length() - 1));
+		assertMatches(false, "c" + unique);
+	}
+
+	@Test
+	public void testFindContentTypesForLiteralFilePattern() throws CoreException {
+		testAddUserDefinedContentTypes();
+		String unique = "Makefile" + System.nanoTime();
+		this.createdUserContentType.addFileSpec(unique, IContentType.FILE_PATTERN_SPEC);
+		assertMatches(true, unique);
+		assertMatches(false, "x" + unique);
+		assertMatches(false, unique + "x");
+	}
+
+	private void assertMatches(boolean expected, String fileName) {
+		Assert.assertEquals(fileName, expected,
+				Arrays.asList(manager.findContentTypesFor(fileName)).contains(this.createdUserContentType));
+	}
 }
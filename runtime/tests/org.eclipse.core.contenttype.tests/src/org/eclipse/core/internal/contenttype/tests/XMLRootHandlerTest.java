@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2020, 2021 Alex Blewitt and others.
+ * Copyright (c) 2020, 2022 Alex Blewitt and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -13,10 +13,17 @@
  *******************************************************************************/
 package org.eclipse.core.internal.contenttype.tests;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.StringReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 
 import javax.xml.parsers.ParserConfigurationException;
 
@@ -49,4 +56,133 @@ public class XMLRootHandlerTest {
 
 		assertTrue(handler.parseContents(contents));
 	}
+
+	@Test
+	public void testParseNamespace() throws IOException, ParserConfigurationException, SAXException {
+		parse("<?xml version=\"1.0\"?>\n<!-- comment -->\n<?target data?>\n<p:root xmlns:p='urn:p' xmlns='urn:default'/>", StandardCharsets.UTF_8); //$NON-NLS-1$
+		assertEquals("root", handler.getRootName()); //$NON-NLS-1$
+		assertEquals("urn:p", handler.getRootNamespace()); //$NON-NLS-1$
+		assertNull(handler.getDTD());
+	}
+
+	@Test
+	public void testParseDefaultNamespace() throws IOException, ParserConfigurationException, SAXException {
+		parse("<root xmlns=\"urn:default\" attribute = 'value'><child/></root>", StandardCharsets.UTF_8); //$NON-NLS-1$
+		assertEquals("root", handler.getRootName()); //$NON-NLS-1$
+		assertEquals("urn:default", handler.getRootNamespace()); //$NON-NLS-1$
+	}
+
+	@Test
+	public void testParseDTD() throws IOException, ParserConfigurationException, SAXException {
+		parse("<!DOCTYPE root PUBLIC \"-//Eclipse//Test\" \"root.dtd\">\n<root/>", StandardCharsets.UTF_8); //$NON-NLS-1$
+		assertEquals("root.dtd", handler.getDTD()); //$NON-NLS-1$
+		assertEquals("root", handler.getRootName()); //$NON-NLS-1$
+		assertEquals("", handler.getRootNamespace()); //$NON-NLS-1$
+	}
+
+	@Test
+	public void testParseDTDOnly() throws IOException, ParserConfigurationException, SAXException {
+		handler = new XMLRootHandler(false);
+		parse("<!DOCTYPE root SYSTEM \"root.dtd\"><root/>", StandardCharsets.UTF_8); //$NON-NLS-1$
+		assertEquals("root.dtd", handler.getDTD()); //$NON-NLS-1$
+		assertNull(handler.getRootName());
+	}
+
+	@Test
+	public void testParseInternalSubset() throws IOException, ParserConfigurationException, SAXException {
+		parse("<!DOCTYPE root [<!ENTITY uri 'urn:entity'>]><root xmlns='&uri;'/>", StandardCharsets.UTF_8); //$NON-NLS-1$
+		assertEquals("root", handler.getRootName()); //$NON-NLS-1$
+		assertEquals("urn:entity", handler.getRootNamespace()); //$NON-NLS-1$
+	}
+
+	@Test
+	public void testParseByteOrderMark() throws IOException, ParserConfigurationException, SAXException {
+		parse("\uFEFF<?xml version='1.0' encoding='UTF-8'?><root/>", StandardCharsets.UTF_8); //$NON-NLS-1$
+		assertEquals("root", handler.getRootName()); //$NON-NLS-1$
+	}
+
+	@Test
+	public void testParseUTF16() throws IOException, ParserConfigurationException, SAXException {
+		parse("<?xml version='1.0' encoding='UTF-16'?><p:r\u00f6\u00f6t xmlns:p='urn:p'/>", StandardCharsets.UTF_16); //$NON-NLS-1$
+		assertEquals("r\u00f6\u00f6t", handler.getRootName()); //$NON-NLS-1$
+		assertEquals("urn:p", handler.getRootNamespace()); //$NON-NLS-1$
+	}
+
+	@Test
+	public void testParseLatin1() throws IOException, ParserConfigurationException, SAXException {
+		parse("<?xml version='1.0' encoding='ISO-8859-1'?><r\u00f6\u00f6t/>", StandardCharsets.ISO_8859_1); //$NON-NLS-1$
+		assertEquals("r\u00f6\u00f6t", handler.getRootName()); //$NON-NLS-1$
+	}
+
+	@Test
+	public void testParseCharacters() throws IOException, ParserConfigurationException, SAXException {
+		assertTrue(handler.parseContents(new InputSource(new StringReader("<?xml version='1.0' encoding='ISO-8859-1'?><root xmlns='urn:default'/>")))); //$NON-NLS-1$
+		assertEquals("root", handler.getRootName()); //$NON-NLS-1$
+		assertEquals("urn:default", handler.getRootNamespace()); //$NON-NLS-1$
+	}
+
+	@Test(expected = SAXException.class)
+	public void testParseUnboundPrefix() throws IOException, ParserConfigurationException, SAXException {
+		parse("<p:root/>", StandardCharsets.UTF_8); //$NON-NLS-1$
+	}
+
+	@Test
+	public void testParseUnboundAttributePrefix() throws IOException, ParserConfigurationException {
+		// the prolog is scanned in UTF-8, and parsed in UTF-16
+		for (Charset charset : new Charset[] {StandardCharsets.UTF_8, StandardCharsets.UTF_16}) {
+			handler = new XMLRootHandler(true);
+			try {
+				parse("<root foo:a='x'/>", charset); //$NON-NLS-1$
+				fail(charset.name());
+			} catch (SAXException e) {
+				// expected
+			}
+			assertNull(charset.name(), handler.getRootName());
+		}
+	}
+
+	@Test
+	public void testParseAttributePrefixes() throws IOException, ParserConfigurationException, SAXException {
+		String[] documents = {"<root xmlns:foo='urn:foo' foo:a='x'/>", "<p:root xmlns:p='urn:p' p:a='x' xml:lang='en'/>", //$NON-NLS-1$ //$NON-NLS-2$
+				"<root xmlns:a='urn:a' xmlns:b='urn:a' a:x='1' b:x='2'/>"}; //$NON-NLS-1$
+		for (String document : documents) {
+			String[] results = new String[2];
+			int i = 0;
+			for (Charset charset : new Charset[] {StandardCharsets.UTF_8, StandardCharsets.UTF_16}) {
+				handler = new XMLRootHandler(true);
+				try {
+					parse(document, charset);
+					results[i++] = handler.getRootName() + ' ' + handler.getRootNamespace();
+				} catch (SAXException e) {
+					results[i++] = "error"; //$NON-NLS-1$
+				}
+			}
+			assertEquals(document, results[1], results[0]);
+		}
+	}
+
+	@Test
+	public void testParseLongProlog() throws IOException, ParserConfigurationException, SAXException {
+		StringBuilder contents = new StringBuilder("<!--"); //$NON-NLS-1$
+		for (int i = 0; i < 100000; i++) {
+			contents.append('-').append(' ');
+		}
+		contents.append("--><root/>"); //$NON-NLS-1$
+		// the marks set on the stream are bounded
+		assertTrue(handler.parseContents(new InputSource(new BufferedReader(new StringReader(contents.toString())))));
+		assertEquals("root", handler.getRootName()); //$NON-NLS-1$
+	}
+
+	@Test
+	public void testParseRepeatedly() throws IOException, ParserConfigurationException, SAXException {
+		for (int i = 0; i < 3; i++) {
+			handler = new XMLRootHandler(true);
+			parse("<?xml version='1.0' encoding='UTF-16'?><root" + i + "/>", StandardCharsets.UTF_16); //$NON-NLS-1$ //$NON-NLS-2$
+			assertEquals("root" + i, handler.getRootName()); //$NON-NLS-1$
+		}
+	}
+
+	private void parse(String contents, Charset charset) throws IOException, ParserConfigurationException, SAXException {
+		assertTrue(handler.parseContents(new InputSource(new ByteArrayInputStream(contents.getBytes(charset)))));
+	}
 }
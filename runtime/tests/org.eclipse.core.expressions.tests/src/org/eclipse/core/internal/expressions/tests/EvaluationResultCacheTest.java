@@ -0,0 +1,149 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.core.internal.expressions.tests;
+
+import org.junit.Assert;
+
+import org.eclipse.core.expressions.EvaluationContext;
+import org.eclipse.core.expressions.EvaluationResult;
+import org.eclipse.core.expressions.EvaluationResultCache;
+import org.eclipse.core.expressions.Expression;
+import org.eclipse.core.expressions.ExpressionInfo;
+import org.eclipse.core.expressions.IEvaluationContext;
+
+import org.eclipse.core.runtime.CoreException;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+public class EvaluationResultCacheTest extends TestCase {
+
+	/**
+	 * Tests whether the variable "selection" is set, and counts its evaluations.
+	 */
+	private static class CountingExpression extends Expression {
+		int fEvaluations;
+		private final boolean fDescribed;
+
+		CountingExpression(boolean described) {
+			fDescribed= described;
+		}
+
+		@Override
+		public EvaluationResult evaluate(IEvaluationContext context) {
+			fEvaluations++;
+			return EvaluationResult.valueOf(context.getVariable("selection") != null); //$NON-NLS-1$
+		}
+
+		@Override
+		public void collectExpressionInfo(ExpressionInfo info) {
+			if (fDescribed) {
+				info.addVariableNameAccess("selection"); //$NON-NLS-1$
+				info.addAccessedPropertyName("org.eclipse.core.expressions.tests.counting"); //$NON-NLS-1$
+			} else {
+				super.collectExpressionInfo(info);
+			}
+		}
+	}
+
+	public static Test suite() {
+		return new TestSuite(EvaluationResultCacheTest.class);
+	}
+
+	public void testUnchangedVariables() throws CoreException {
+		EvaluationResultCache cache= new EvaluationResultCache();
+		CountingExpression expression= new CountingExpression(true);
+		EvaluationContext context= new EvaluationContext(null, new Object());
+		context.addVariable("selection", new Object()); //$NON-NLS-1$
+		Assert.assertEquals(EvaluationResult.TRUE, cache.evaluate(expression, context));
+		Assert.assertEquals(EvaluationResult.TRUE, cache.evaluate(expression, context));
+		context.addVariable("other", new Object()); //$NON-NLS-1$
+		Assert.assertEquals(EvaluationResult.TRUE, cache.evaluate(expression, context));
+		Assert.assertEquals(1, expression.fEvaluations);
+	}
+
+	public void testChangedVariable() throws CoreException {
+		EvaluationResultCache cache= new EvaluationResultCache();
+		CountingExpression expression= new CountingExpression(true);
+		EvaluationContext context= new EvaluationContext(null, new Object());
+		context.addVariable("selection", new Object()); //$NON-NLS-1$
+		Assert.assertEquals(EvaluationResult.TRUE, cache.evaluate(expression, context));
+		context.removeVariable("selection"); //$NON-NLS-1$
+		Assert.assertEquals(EvaluationResult.FALSE, cache.evaluate(expression, context));
+		context.addVariable("selection", new Object()); //$NON-NLS-1$
+		Assert.assertEquals(EvaluationResult.TRUE, cache.evaluate(expression, context));
+		Assert.assertEquals(3, expression.fEvaluations);
+	}
+
+	public void testChangedContext() throws CoreException {
+		EvaluationResultCache cache= new EvaluationResultCache();
+		CountingExpression expression= new CountingExpression(true);
+		Object selection= new Object();
+		EvaluationContext context= new EvaluationContext(null, new Object());
+		context.addVariable("selection", selection); //$NON-NLS-1$
+		cache.evaluate(expression, context);
+		// a new context with the same variables
+		EvaluationContext other= new EvaluationContext(null, context.getDefaultVariable());
+		other.addVariable("selection", selection); //$NON-NLS-1$
+		cache.evaluate(expression, other);
+		cache.evaluate(expression, new EvaluationContext(other, context.getDefaultVariable()));
+		Assert.assertEquals(1, expression.fEvaluations);
+		other.setAllowPluginActivation(true);
+		cache.evaluate(expression, other);
+		Assert.assertEquals(2, expression.fEvaluations);
+		cache.evaluate(expression, new EvaluationContext(other, new Object()));
+		Assert.assertEquals(3, expression.fEvaluations);
+	}
+
+	public void testMaxSize() throws CoreException {
+		EvaluationResultCache cache= new EvaluationResultCache(2);
+		CountingExpression[] expressions= {new CountingExpression(true), new CountingExpression(true), new CountingExpression(true)};
+		EvaluationContext context= new EvaluationContext(null, new Object());
+		for (CountingExpression expression : expressions)
+			cache.evaluate(expression, context);
+		// the least recently evaluated expression has been dropped
+		cache.evaluate(expressions[2], context);
+		cache.evaluate(expressions[1], context);
+		cache.evaluate(expressions[0], context);
+		Assert.assertEquals(1, expressions[2].fEvaluations);
+		Assert.assertEquals(1, expressions[1].fEvaluations);
+		Assert.assertEquals(2, expressions[0].fEvaluations);
+	}
+
+	public void testInvalidate() throws CoreException {
+		EvaluationResultCache cache= new EvaluationResultCache();
+		CountingExpression expression= new CountingExpression(true);
+		EvaluationContext context= new EvaluationContext(null, new Object());
+		cache.evaluate(expression, context);
+		cache.invalidate("org.eclipse.core.expressions.tests.other"); //$NON-NLS-1$
+		cache.evaluate(expression, context);
+		Assert.assertEquals(1, expression.fEvaluations);
+		cache.invalidate("org.eclipse.core.expressions.tests.counting"); //$NON-NLS-1$
+		cache.evaluate(expression, context);
+		Assert.assertEquals(2, expression.fEvaluations);
+		cache.clear();
+		cache.evaluate(expression, context);
+		Assert.assertEquals(3, expression.fEvaluations);
+	}
+
+	public void testMisbehavingExpression() throws CoreException {
+		EvaluationResultCache cache= new EvaluationResultCache();
+		CountingExpression expression= new CountingExpression(false);
+		EvaluationContext context= new EvaluationContext(null, new Object());
+		cache.evaluate(expression, context);
+		cache.evaluate(expression, context);
+		Assert.assertEquals(2, expression.fEvaluations);
+	}
+}
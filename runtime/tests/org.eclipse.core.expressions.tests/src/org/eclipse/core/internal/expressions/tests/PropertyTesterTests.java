@@ -179,6 +179,31 @@ public class PropertyTesterTests extends TestCase {
 		assertTrue(test("org.eclipse.core.internal.expressions.tests2", a, "differentNamespace", null, "A3"));		 //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
 	}
 
+	public void testExpressionReceiverChange() throws Exception {
+		TestExpression exp= new TestExpression("org.eclipse.core.internal.expressions.tests", "overridden", null, "B"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		// the property resolved for one receiver type must not be used for another one
+		for (int round= 0; round < 2; round++) {
+			assertEquals(EvaluationResult.FALSE, exp.evaluate(new EvaluationContext(null, a)));
+			assertEquals(EvaluationResult.TRUE, exp.evaluate(new EvaluationContext(null, b)));
+		}
+	}
+
+	public void testPreviousProperty() throws Exception {
+		String namespace= "org.eclipse.core.internal.expressions.tests"; //$NON-NLS-1$
+		Property p= fgManager.getProperty(new Property[0], a, namespace, "simple", false); //$NON-NLS-1$
+		assertSame(p, fgManager.getProperty(new Property[] {p}, a, namespace, "simple", false)); //$NON-NLS-1$
+		assertNotSame(p, fgManager.getProperty(new Property[] {p}, b, namespace, "simple", false)); //$NON-NLS-1$
+		assertNotSame(p, fgManager.getProperty(new Property[] {p}, a, namespace, "overridden", false)); //$NON-NLS-1$
+		assertTrue(fgManager.getProperty(new Property[] {p}, a, namespace, "overridden", false).test(a, null, "A")); //$NON-NLS-1$ //$NON-NLS-2$
+		// one property per receiver type
+		Property q= fgManager.getProperty(new Property[] {p}, b, namespace, "simple", false); //$NON-NLS-1$
+		Property[] previous= {p, q};
+		for (int round= 0; round < 2; round++) {
+			assertSame(p, fgManager.getProperty(previous, a, namespace, "simple", false)); //$NON-NLS-1$
+			assertSame(q, fgManager.getProperty(previous, b, namespace, "simple", false)); //$NON-NLS-1$
+		}
+	}
+
 	private boolean test(Object receiver, String property, Object[] args, Object expectedValue) throws CoreException {
 		Property p= fgManager.getProperty(receiver, "org.eclipse.core.internal.expressions.tests", property); //$NON-NLS-1$
 		assertTrue(p.isInstantiated());
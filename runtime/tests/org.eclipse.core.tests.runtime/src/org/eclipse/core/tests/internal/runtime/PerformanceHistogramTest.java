@@ -0,0 +1,180 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.core.tests.internal.runtime;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import org.eclipse.core.internal.jobs.PerformanceHistogram;
+import org.eclipse.core.internal.runtime.PerformanceHistogramWriter;
+import org.eclipse.core.runtime.PerformanceStats;
+import org.eclipse.core.runtime.PerformanceStats.Histogram;
+import org.junit.Test;
+
+@SuppressWarnings("restriction")
+public class PerformanceHistogramTest {
+
+	@Test
+	public void testBuckets() {
+		int lastBucket = 0;
+		for (long value = 0; value < 1L << 41; value = value < 100 ? value + 1 : value * 11 / 10) {
+			int bucket = PerformanceHistogram.getBucket(value);
+			assertTrue("Buckets must grow with the values: " + value, bucket >= lastBucket);
+			lastBucket = bucket;
+			if (bucket < PerformanceHistogram.BUCKET_COUNT - 1) {
+				long highest = PerformanceHistogram.getHighestValue(bucket);
+				assertTrue("Value must be in its bucket: " + value, value <= highest);
+				assertTrue("Bucket must be precise: " + value, highest - value <= value / 16);
+				assertEquals(bucket + 1, PerformanceHistogram.getBucket(highest + 1));
+			}
+		}
+		assertEquals(0, PerformanceHistogram.getBucket(-1));
+		assertEquals(PerformanceHistogram.BUCKET_COUNT - 1, PerformanceHistogram.getBucket(Long.MAX_VALUE));
+	}
+
+	@Test
+	public void testRecord() {
+		PerformanceHistogram histogram = new PerformanceHistogram();
+		histogram.record(3);
+		histogram.record(1000);
+		histogram.record(1000);
+		long[] counts = new long[PerformanceHistogram.BUCKET_COUNT];
+		histogram.copyCounts(counts, false);
+		assertEquals(1, counts[PerformanceHistogram.getBucket(3)]);
+		assertEquals(2, counts[PerformanceHistogram.getBucket(1000)]);
+		assertEquals(2003, histogram.getTotal(false));
+		assertEquals(1000, histogram.getMax(false));
+
+		histogram.copyCounts(counts, true);
+		assertEquals(2003, histogram.getTotal(true));
+		assertEquals(1000, histogram.getMax(true));
+		histogram.copyCounts(counts, false);
+		assertEquals(0, counts[PerformanceHistogram.getBucket(1000)]);
+		assertEquals(0, histogram.getTotal(false));
+		assertEquals(0, histogram.getMax(false));
+	}
+
+	@Test
+	public void testConcurrentRecord() throws InterruptedException {
+		PerformanceHistogram histogram = new PerformanceHistogram();
+		Thread[] threads = new Thread[4];
+		for (int i = 0; i < threads.length; i++) {
+			long value = i * 100;
+			threads[i] = new Thread(() -> {
+				for (int j = 0; j < 10000; j++)
+					histogram.record(value);
+			});
+			threads[i].start();
+		}
+		for (Thread thread : threads)
+			thread.join();
+		long[] counts = new long[PerformanceHistogram.BUCKET_COUNT];
+		histogram.copyCounts(counts, false);
+		long count = 0;
+		for (long bucketCount : counts)
+			count += bucketCount;
+		assertEquals(40000, count);
+		assertEquals(10000 * (100 + 200 + 300), histogram.getTotal(false));
+		assertEquals(300, histogram.getMax(false));
+	}
+
+	@Test
+	public void testGetValue() {
+		PerformanceHistogram histogram = new PerformanceHistogram();
+		for (int i = 1; i <= 100; i++)
+			histogram.record(i * 1000);
+		long[] counts = new long[PerformanceHistogram.BUCKET_COUNT];
+		histogram.copyCounts(counts, false);
+		long max = histogram.getMax(false);
+		assertEquals(0, PerformanceHistogram.getValue(new long[PerformanceHistogram.BUCKET_COUNT], 0, 0, 50));
+		assertEquals(PerformanceHistogram.getHighestValue(PerformanceHistogram.getBucket(1000)), PerformanceHistogram.getValue(counts, 100, max, 0));
+		long median = PerformanceHistogram.getValue(counts, 100, max, 50);
+		assertTrue("Median must be precise: " + median, median >= 50000 && median <= 50000 + 50000 / 16);
+		long p99 = PerformanceHistogram.getValue(counts, 100, max, 99);
+		assertTrue("99th percentile must be precise: " + p99, p99 >= 99000 && p99 <= 99000 + 99000 / 16);
+		// never more than the largest value, even though its bucket is wider
+		assertEquals(100000, PerformanceHistogram.getValue(counts, 100, max, 100));
+		assertEquals(100000, PerformanceHistogram.getValue(counts, 100, max, 1000));
+	}
+
+	@Test
+	public void testStatsHistogram() {
+		String event = getClass().getName() + ".testStatsHistogram"; //$NON-NLS-1$
+		PerformanceStats stats = PerformanceStats.getStats(event, this);
+		try {
+			stats.addRun(2, null);
+			stats.addRun(5, null);
+			long expected = PerformanceStats.ENABLED ? 2 : 0;
+			Histogram histogram = stats.getHistogram(false);
+			assertEquals(expected, histogram.getCount());
+			assertEquals(PerformanceStats.ENABLED ? 7000 : 0, histogram.getTotalDuration());
+			assertEquals(PerformanceStats.ENABLED ? 5000 : 0, histogram.getMaxDuration());
+			assertEquals(PerformanceStats.ENABLED ? 5000 : 0, histogram.getDuration(100));
+			// the histogram is shared by all lookups of the event
+			assertEquals(expected, PerformanceStats.getStats(event, this).getHistogram(false).getCount());
+
+			assertEquals(expected, stats.getHistogram(true).getCount());
+			histogram = stats.getHistogram(false);
+			assertEquals(0, histogram.getCount());
+			assertEquals(0, histogram.getTotalDuration());
+			assertEquals(0, histogram.getMaxDuration());
+			assertEquals(0, histogram.getDuration(50));
+		} finally {
+			PerformanceStats.removeStats(event, stats.getBlameString());
+		}
+	}
+
+	@Test
+	public void testWrite() {
+		String event = getClass().getName() + ".testWrite"; //$NON-NLS-1$
+		PerformanceStats stats = PerformanceStats.getStats(event, this);
+		try {
+			stats.addRun(1, null);
+			PerformanceStats[] allStats = {stats};
+			StringWriter csv = new StringWriter();
+			try (PrintWriter out = new PrintWriter(csv)) {
+				PerformanceHistogramWriter.write(out, allStats, false);
+			}
+			String[] lines = csv.toString().split("\\R"); //$NON-NLS-1$
+			assertEquals(2, lines.length);
+			assertEquals("event,blame,context,count,total,max,p50,p90,p99,p99.9", lines[0]); //$NON-NLS-1$
+			String row = PerformanceStats.ENABLED ? "1,1000,1000,1000,1000,1000,1000" : "0,0,0,0,0,0,0"; //$NON-NLS-1$ //$NON-NLS-2$
+			assertEquals(stats.getEvent() + ',' + stats.getBlameString() + ",," + row, lines[1]); //$NON-NLS-1$
+
+			StringWriter json = new StringWriter();
+			try (PrintWriter out = new PrintWriter(json)) {
+				PerformanceHistogramWriter.write(out, allStats, true);
+			}
+			String text = json.toString();
+			assertTrue(text, text.startsWith("{\"timestamp\":")); //$NON-NLS-1$
+			assertTrue(text, text.contains("\"event\":" + PerformanceHistogramWriter.toJson(stats.getEvent()))); //$NON-NLS-1$
+			assertTrue(text, text.contains("\"context\":null")); //$NON-NLS-1$
+			assertTrue(text, text.contains("\"count\":" + (PerformanceStats.ENABLED ? 1 : 0))); //$NON-NLS-1$
+			assertTrue(text, text.trim().endsWith("]}")); //$NON-NLS-1$
+		} finally {
+			PerformanceStats.removeStats(event, stats.getBlameString());
+		}
+	}
+
+	@Test
+	public void testEscape() {
+		assertEquals("null", PerformanceHistogramWriter.toJson(null)); //$NON-NLS-1$
+		assertEquals("\"a\\\"b\\\\c\\u000a\"", PerformanceHistogramWriter.toJson("a\"b\\c\n")); //$NON-NLS-1$ //$NON-NLS-2$
+		assertEquals("", PerformanceHistogramWriter.toCsv(null)); //$NON-NLS-1$
+		assertEquals("plain", PerformanceHistogramWriter.toCsv("plain")); //$NON-NLS-1$ //$NON-NLS-2$
+		assertEquals("\"a,\"\"b\"\"\"", PerformanceHistogramWriter.toCsv("a,\"b\"")); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+}
@@ -1814,6 +1814,67 @@ public class IJobManagerTest extends AbstractJobManagerTest {
 		assertTrue("1.0", !failure[0]);
 	}
 
+	/**
+	 * Tests scheduling several jobs at once.
+	 */
+	public void testScheduleBatch() {
+		final int JOB_COUNT = 10;
+		List<Job> jobs = new ArrayList<>();
+		for (int i = 0; i < JOB_COUNT; i++) {
+			jobs.add(new TestJob("testScheduleBatch", 1, 1));
+		}
+		manager.schedule(jobs);
+		assertEquals("1.0", JOB_COUNT, scheduledJobs.get());
+		waitForCompletion();
+		for (Job job : jobs) {
+			assertState("1.1", job, Job.NONE);
+		}
+		//jobs that should not be scheduled are skipped
+		Job vetoed = new TestJob("testScheduleBatch", 1, 1) {
+			@Override
+			public boolean shouldSchedule() {
+				return false;
+			}
+		};
+		manager.schedule(Collections.singletonList(vetoed));
+		assertEquals("2.0", JOB_COUNT, scheduledJobs.get());
+		assertState("2.1", vetoed, Job.NONE);
+	}
+
+	/**
+	 * Tests that scheduling several jobs at once respects the throttling of their job group.
+	 */
+	public void testScheduleBatchJobGroup() throws InterruptedException {
+		final int JOB_COUNT = 20;
+		final int MAX_THREADS = 2;
+		final AtomicInteger running = new AtomicInteger();
+		final AtomicInteger maxRunning = new AtomicInteger();
+		JobGroup jobGroup = new JobGroup("testScheduleBatchJobGroup", MAX_THREADS, JOB_COUNT);
+		List<Job> jobs = new ArrayList<>();
+		for (int i = 0; i < JOB_COUNT; i++) {
+			Job job = new Job("testScheduleBatchJobGroup") {
+				@Override
+				protected IStatus run(IProgressMonitor monitor) {
+					maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+					try {
+						Thread.sleep(10);
+					} catch (InterruptedException e) {
+						//ignore
+					} finally {
+						running.decrementAndGet();
+					}
+					return Status.OK_STATUS;
+				}
+			};
+			job.setJobGroup(jobGroup);
+			jobs.add(job);
+		}
+		manager.schedule(jobs);
+		assertTrue("1.0", jobGroup.join(10000, null));
+		assertTrue("1.1: " + maxRunning.get(), maxRunning.get() <= MAX_THREADS);
+		assertEquals("1.2", 0, running.get());
+	}
+
 	public void testSimple() {
 		final int JOB_COUNT = 10;
 		for (int i = 0; i < JOB_COUNT; i++) {
@@ -1415,6 +1415,113 @@ public class JobGroupTest extends AbstractJobTest {
 		waitForCompletion(jobGroup);
 	}
 
+	/**
+	 * Tests that the members of a job group with dedicated workers only run on
+	 * those workers, and never on more than the maximum number of threads.
+	 */
+	public void testDedicatedWorkers() {
+		final int NUM_JOBS = 100;
+		final int MAX_THREADS = 3;
+		final JobGroup jobGroup = new JobGroup("JobGroup", MAX_THREADS, NUM_JOBS, true);
+		assertTrue("1.0", jobGroup.hasDedicatedWorkers());
+		final Set<Thread> threads = Collections.synchronizedSet(new HashSet<>());
+		final AtomicIntegerArray running = new AtomicIntegerArray(2);
+		for (int i = 0; i < NUM_JOBS; i++) {
+			Job job = new Job("GroupJob") {
+				@Override
+				protected IStatus run(IProgressMonitor monitor) {
+					threads.add(Thread.currentThread());
+					int current = running.incrementAndGet(0);
+					running.accumulateAndGet(1, current, Math::max);
+					try {
+						Thread.sleep(1);
+					} catch (InterruptedException e) {
+						return Status.CANCEL_STATUS;
+					} finally {
+						running.decrementAndGet(0);
+					}
+					return Status.OK_STATUS;
+				}
+			};
+			job.setJobGroup(jobGroup);
+			job.schedule();
+		}
+		// jobs outside of the group still run while the group is busy
+		TestJob normalJob = new TestJob("NormalJob", 1, 1);
+		normalJob.schedule();
+		waitForCompletion(normalJob);
+		waitForCompletion(jobGroup);
+
+		assertEquals("2.0", IStatus.OK, jobGroup.getResult().getSeverity());
+		assertTrue("3.0: " + running.get(1), running.get(1) <= MAX_THREADS);
+		assertTrue("4.0: " + threads.size(), threads.size() <= MAX_THREADS);
+	}
+
+	/**
+	 * Tests that the waiting members of a job group with dedicated workers can
+	 * be found and canceled through the job manager, and that their scheduling
+	 * rules are honored.
+	 */
+	public void testDedicatedWorkersCancel() {
+		final int NUM_JOBS = 20;
+		final JobGroup jobGroup = new JobGroup("JobGroup", 5, NUM_JOBS, true);
+		ISchedulingRule rule = new IdentityRule();
+		TestJob[] jobs = new TestJob[NUM_JOBS];
+		for (int i = 0; i < NUM_JOBS; i++) {
+			jobs[i] = new TestJob("GroupJob", 1000000, 10);
+			jobs[i].setJobGroup(jobGroup);
+			jobs[i].setRule(rule);
+			jobs[i].schedule();
+		}
+		waitForStart(jobs[0]);
+		// all jobs share one rule, so only the first can be running
+		assertEquals("1.0", NUM_JOBS, jobGroup.getActiveJobs().size());
+		// the waiting members are known to the job manager
+		assertTrue("1.1", Arrays.asList(manager.find(null)).containsAll(Arrays.asList(jobs)));
+		int runningJobs = 0;
+		for (TestJob job : jobs) {
+			if (job.getState() == Job.RUNNING)
+				runningJobs++;
+		}
+		assertEquals("2.0", 1, runningJobs);
+		assertFalse("3.0", manager.isIdle());
+
+		jobGroup.cancel();
+		waitForCompletion(jobGroup);
+		assertEquals("4.0", IStatus.CANCEL, jobGroup.getResult().getSeverity());
+		for (TestJob job : jobs) {
+			assertEquals("5.0", Job.NONE, job.getState());
+		}
+		assertEquals("6.0", 0, jobGroup.getActiveJobs().size());
+	}
+
+	/**
+	 * Tests that members of a job group with dedicated workers that are
+	 * scheduled while the job manager is suspended run as soon as it is
+	 * resumed, and not only once an idle worker of the group wakes up.
+	 */
+	public void testDedicatedWorkersSuspend() {
+		final JobGroup jobGroup = new JobGroup("JobGroup", 2, 0, true);
+		// let the group create a worker, which is then idle
+		TestJob first = new TestJob("GroupJob", 1, 1);
+		first.setJobGroup(jobGroup);
+		first.schedule();
+		waitForCompletion(first);
+
+		TestJob second = new TestJob("GroupJob", 1, 1);
+		second.setJobGroup(jobGroup);
+		manager.suspend();
+		try {
+			second.schedule();
+			sleep(100);
+			assertEquals("1.0", Job.WAITING, second.getState());
+		} finally {
+			manager.resume();
+		}
+		waitForCompletion(second);
+		assertEquals("2.0", IStatus.OK, second.getResult().getSeverity());
+	}
+
 	/**
 	 * Tests that the JobManager publishes a final job group status to IJobChangeListeners.
 	 */
@@ -0,0 +1,167 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.core.tests.runtime.jobs;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.core.internal.jobs.JobManager;
+import org.eclipse.core.internal.jobs.JobMetrics;
+import org.eclipse.core.internal.jobs.PerformanceHistogram;
+import org.eclipse.core.runtime.*;
+import org.eclipse.core.runtime.jobs.ISchedulingRule;
+import org.eclipse.core.runtime.jobs.Job;
+import org.junit.*;
+
+/**
+ * Tests for {@link JobMetrics}.
+ */
+@SuppressWarnings("restriction")
+public class JobMetricsTest {
+	private static final long SLEEP_TIME = 100;
+	private JobMetrics metrics;
+
+	static class SleepingJob extends Job {
+		private final Object family;
+
+		SleepingJob(Object family) {
+			super("SleepingJob");
+			this.family = family;
+		}
+
+		@Override
+		public boolean belongsTo(Object f) {
+			return f == family;
+		}
+
+		@Override
+		protected IStatus run(IProgressMonitor monitor) {
+			try {
+				Thread.sleep(SLEEP_TIME);
+			} catch (InterruptedException e) {
+				return Status.CANCEL_STATUS;
+			}
+			return Status.OK_STATUS;
+		}
+	}
+
+	@Before
+	public void setUp() {
+		metrics = ((JobManager) Job.getJobManager()).getMetrics();
+		metrics.reset();
+		metrics.setEnabled(true);
+	}
+
+	@After
+	public void tearDown() {
+		metrics.setEnabled(false);
+		metrics.reset();
+	}
+
+	@Test
+	public void testRunningTime() throws InterruptedException {
+		Job job = new SleepingJob(null);
+		job.schedule();
+		job.join();
+		JobMetrics.Statistics statistics = metrics.getStatistics(SleepingJob.class.getName());
+		assertNotNull(statistics);
+		PerformanceHistogram running = statistics.getHistogram(JobMetrics.RUNNING);
+		assertEquals(1, running.getCount());
+		assertTrue("Running time too short: " + running.getTotal(false), running.getTotal(false) >= SLEEP_TIME * 1000);
+		assertTrue(running.getValue(99) >= running.getValue(50));
+		assertEquals(1, statistics.getHistogram(JobMetrics.WAITING).getCount());
+	}
+
+	@Test
+	public void testSleepingTime() throws InterruptedException {
+		Job job = new SleepingJob(null);
+		job.schedule(SLEEP_TIME);
+		job.join();
+		PerformanceHistogram sleeping = metrics.getStatistics(SleepingJob.class.getName()).getHistogram(JobMetrics.SLEEPING);
+		assertEquals(1, sleeping.getCount());
+		assertTrue("Sleeping time too short: " + sleeping.getTotal(false), sleeping.getTotal(false) >= SLEEP_TIME * 1000);
+	}
+
+	@Test
+	public void testBlockedTime() throws InterruptedException {
+		ISchedulingRule rule = new IdentityRule();
+		Job first = new SleepingJob(null);
+		Job second = new SleepingJob(null);
+		first.setRule(rule);
+		second.setRule(rule);
+		first.schedule();
+		second.schedule();
+		first.join();
+		second.join();
+		JobMetrics.Statistics statistics = metrics.getStatistics(SleepingJob.class.getName());
+		assertEquals(2, statistics.getHistogram(JobMetrics.RUNNING).getCount());
+		assertTrue(statistics.getHistogram(JobMetrics.BLOCKED).getCount() > 0);
+	}
+
+	@Test
+	public void testFamily() throws InterruptedException {
+		Object family = new Object();
+		metrics.trackFamily(family);
+		try {
+			Job member = new SleepingJob(family);
+			Job other = new SleepingJob(null);
+			member.schedule();
+			other.schedule();
+			member.join();
+			other.join();
+			assertEquals(1, metrics.getFamilyStatistics(family).getHistogram(JobMetrics.RUNNING).getCount());
+			assertEquals(2, metrics.getStatistics(SleepingJob.class.getName()).getHistogram(JobMetrics.RUNNING).getCount());
+		} finally {
+			metrics.untrackFamily(family);
+		}
+		assertNull(metrics.getFamilyStatistics(family));
+	}
+
+	@Test
+	public void testFamilyResolvedOnSchedule() throws InterruptedException {
+		Object family = new Object();
+		AtomicInteger calls = new AtomicInteger();
+		metrics.trackFamily(family);
+		try {
+			Job member = new SleepingJob(family) {
+				@Override
+				public boolean belongsTo(Object f) {
+					calls.incrementAndGet();
+					return super.belongsTo(f);
+				}
+			};
+			member.schedule();
+			member.join();
+			// checked once when scheduled, not on every state change
+			assertEquals(1, calls.get());
+			assertEquals(1, metrics.getFamilyStatistics(family).getHistogram(JobMetrics.RUNNING).getCount());
+			assertEquals(1, metrics.getFamilyStatistics(family).getHistogram(JobMetrics.WAITING).getCount());
+		} finally {
+			metrics.untrackFamily(family);
+		}
+	}
+
+	@Test
+	public void testDisabled() throws InterruptedException {
+		metrics.setEnabled(false);
+		Job job = new SleepingJob(null);
+		job.schedule();
+		job.join();
+		assertNull(metrics.getStatistics(SleepingJob.class.getName()));
+	}
+}
@@ -13,9 +13,16 @@
  *******************************************************************************/
 package org.eclipse.core.tests.runtime.jobs;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
 
+import java.util.*;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicReference;
+import org.eclipse.core.internal.jobs.JobManager;
 import org.eclipse.core.internal.jobs.Worker;
 import org.eclipse.core.runtime.*;
 import org.eclipse.core.runtime.jobs.Job;
@@ -68,4 +75,64 @@ public class WorkerPoolTest {
 		assertTrue("Too many worker threads active: " + wcount + ", must be <= " + MAX_THREADS, wcount <= MAX_THREADS);
 	}
 
+	@Test
+	public void testBatchWorkerGrowth() throws Exception {
+		final int count = 10000;
+		Set<Thread> workers = ConcurrentHashMap.newKeySet();
+		List<Job> jobs = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			Job job = new Job("testBatchWorkerGrowth-" + i) {
+				@Override
+				protected IStatus run(IProgressMonitor monitor) {
+					workers.add(Thread.currentThread());
+					return Status.OK_STATUS;
+				}
+			};
+			job.setSystem(true);
+			jobs.add(job);
+		}
+		Job.getJobManager().schedule(jobs);
+		for (Job job : jobs) {
+			job.join();
+		}
+		// the pool grows on demand instead of starting a worker for every job of the batch
+		assertTrue("Too many worker threads used: " + workers.size(), workers.size() < count / 10);
+	}
+
+	@Test
+	public void testVirtualThreads() throws Exception {
+		JobManager manager = (JobManager) Job.getJobManager();
+		assumeTrue("Virtual threads are not supported", manager.setUseVirtualThreads(true));
+		try {
+			AtomicReference<Job> currentJob = new AtomicReference<>();
+			AtomicReference<Thread> runningThread = new AtomicReference<>();
+			Job job = new Job("testVirtualThreads") {
+				@Override
+				protected IStatus run(IProgressMonitor monitor) {
+					currentJob.set(Job.getJobManager().currentJob());
+					runningThread.set(Thread.currentThread());
+					return Status.OK_STATUS;
+				}
+			};
+			job.schedule();
+			job.join();
+			assertEquals(IStatus.OK, job.getResult().getSeverity());
+			assertSame(job, currentJob.get());
+			assertFalse("Job did not run on a virtual thread", runningThread.get() instanceof Worker);
+		} finally {
+			manager.setUseVirtualThreads(false);
+			waitForVirtualWorkers(manager);
+		}
+	}
+
+	/**
+	 * Waits until the virtual workers have stopped, so later tests run on
+	 * platform workers again.
+	 */
+	private static void waitForVirtualWorkers(JobManager manager) throws InterruptedException {
+		long timeout = System.currentTimeMillis() + 10000;
+		while (manager.getVirtualThreadCount() > 0 && System.currentTimeMillis() < timeout)
+			Thread.sleep(10);
+		assertEquals("Virtual workers still running", 0, manager.getVirtualThreadCount());
+	}
 }
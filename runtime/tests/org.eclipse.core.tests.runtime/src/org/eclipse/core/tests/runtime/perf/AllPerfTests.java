@@ -45,6 +45,9 @@ public class AllPerfTests extends TestCase {
 
 		suite.addTest(new UIPerformanceSessionTestSuite(RuntimeTestsPlugin.PI_RUNTIME_TESTS, 5, UIStartupTest.class));
 		suite.addTestSuite(BenchPath.class);
+		suite.addTestSuite(BenchJobs.class);
+		suite.addTestSuite(BenchXMLRootHandler.class);
+		suite.addTestSuite(BenchExpressions.class);
 		suite.addTest(ContentTypePerformanceTest.suite());
 		suite.addTestSuite(PreferencePerformanceTest.class);
 		return suite;
@@ -0,0 +1,116 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.core.tests.runtime.perf;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import javax.xml.parsers.DocumentBuilderFactory;
+import org.eclipse.core.expressions.*;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.Platform;
+import org.eclipse.core.tests.harness.PerformanceTestRunner;
+import org.eclipse.core.tests.runtime.RuntimeTest;
+import org.w3c.dom.Element;
+
+public class BenchExpressions extends RuntimeTest {
+	private static final int EVALUATION_COUNT = 100000;
+	private static final int THREAD_COUNT = 4;
+
+	/**
+	 * A typical enablement expression from a <code>plugin.xml</code>, using the
+	 * property testers of <code>org.eclipse.core.expressions</code>.
+	 */
+	private static final String ENABLEMENT = "<enablement>" //
+			+ "<with variable=\"platform\">" //
+			+ "<and>" //
+			+ "<test property=\"org.eclipse.core.runtime.isBundleInstalled\" args=\"org.eclipse.core.expressions\"/>" //
+			+ "<not><test property=\"org.eclipse.core.runtime.isBundleInstalled\" args=\"org.eclipse.core.expressions.invalid.bundle.name\"/></not>" //
+			+ "<not><test property=\"org.eclipse.core.runtime.product\" value=\"org.eclipse.core.expressions.invalid.product.name\"/></not>" //
+			+ "</and>" //
+			+ "</with>" //
+			+ "</enablement>";
+
+	public BenchExpressions() {
+		super();
+	}
+
+	public BenchExpressions(String testName) {
+		super(testName);
+	}
+
+	private static Expression createExpression() throws Exception {
+		Element element = DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(new ByteArrayInputStream(ENABLEMENT.getBytes(StandardCharsets.UTF_8))).getDocumentElement();
+		return ExpressionConverter.getDefault().perform(element);
+	}
+
+	private static void evaluate(Expression expression) throws CoreException {
+		EvaluationContext context = new EvaluationContext(null, new Object());
+		context.addVariable("platform", Platform.class);
+		for (int i = 0; i < EVALUATION_COUNT; i++) {
+			assertEquals(EvaluationResult.TRUE, expression.evaluate(context));
+		}
+	}
+
+	/**
+	 * Tests evaluating an expression with property tests on one thread.
+	 */
+	public void testEvaluate() throws Exception {
+		Expression expression = createExpression();
+		new PerformanceTestRunner() {
+			@Override
+			protected void test() {
+				try {
+					evaluate(expression);
+				} catch (CoreException e) {
+					fail("Failed to evaluate expression", e);
+				}
+			}
+		}.run(this, 10, 1);
+	}
+
+	/**
+	 * Tests evaluating an expression with property tests on several threads at
+	 * the same time.
+	 */
+	public void testEvaluateConcurrently() throws Exception {
+		Expression expression = createExpression();
+		new PerformanceTestRunner() {
+			@Override
+			protected void test() {
+				Thread[] threads = new Thread[THREAD_COUNT];
+				CoreException[] failure = new CoreException[1];
+				for (int t = 0; t < THREAD_COUNT; t++) {
+					threads[t] = new Thread(() -> {
+						try {
+							evaluate(expression);
+						} catch (CoreException e) {
+							failure[0] = e;
+						}
+					}, "BenchExpressions-" + t);
+					threads[t].start();
+				}
+				for (Thread thread : threads) {
+					try {
+						thread.join();
+					} catch (InterruptedException e) {
+						fail("Interrupted while waiting for threads", e);
+					}
+				}
+				if (failure[0] != null) {
+					fail("Failed to evaluate expression", failure[0]);
+				}
+			}
+		}.run(this, 10, 1);
+	}
+}
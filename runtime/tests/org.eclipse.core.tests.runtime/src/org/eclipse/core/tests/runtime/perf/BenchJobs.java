@@ -0,0 +1,190 @@
+/*******************************************************************************
+ * Copyright (c) 2022 Eclipse Foundation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eclipse Foundation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.core.tests.runtime.perf;
+
+import java.util.TreeSet;
+import org.eclipse.core.internal.jobs.JobManager;
+import org.eclipse.core.runtime.*;
+import org.eclipse.core.runtime.jobs.ILock;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.core.runtime.jobs.JobGroup;
+import org.eclipse.core.tests.harness.PerformanceTestRunner;
+import org.eclipse.core.tests.runtime.RuntimeTest;
+
+@SuppressWarnings("restriction")
+public class BenchJobs extends RuntimeTest {
+	private static final int JOB_COUNT = 10000;
+	private static final long BLOCKING_TIME = 10;
+	private static final int LOCK_THREAD_COUNT = 100;
+	private static final int LOCK_COUNT = 1000;
+	private static final int GROUP_THREADS = 4;
+
+	public BenchJobs() {
+		super();
+	}
+
+	public BenchJobs(String testName) {
+		super(testName);
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		JobManager manager = (JobManager) Job.getJobManager();
+		manager.setUseVirtualThreads(false);
+		// wait for the virtual workers to stop so later tests run on platform workers
+		long timeout = System.currentTimeMillis() + 10000;
+		while (manager.getVirtualThreadCount() > 0 && System.currentTimeMillis() < timeout)
+			Thread.sleep(10);
+		super.tearDown();
+	}
+
+	/**
+	 * Tests the throughput of many jobs that block on I/O using platform worker
+	 * threads.
+	 */
+	public void testBlockingJobsPlatformThreads() {
+		((JobManager) Job.getJobManager()).setUseVirtualThreads(false);
+		runBlockingJobs();
+	}
+
+	/**
+	 * Tests the throughput of many jobs that block on I/O using virtual worker
+	 * threads.
+	 */
+	public void testBlockingJobsVirtualThreads() {
+		if (!((JobManager) Job.getJobManager()).setUseVirtualThreads(true)) {
+			// virtual threads are not supported by this VM
+			return;
+		}
+		runBlockingJobs();
+	}
+
+	/**
+	 * Tests the throughput of a large throttled job group run by the shared
+	 * workers.
+	 */
+	public void testJobGroupSharedWorkers() {
+		runJobGroup(false);
+	}
+
+	/**
+	 * Tests the throughput of a large throttled job group run by dedicated
+	 * workers.
+	 */
+	public void testJobGroupDedicatedWorkers() {
+		runJobGroup(true);
+	}
+
+	/**
+	 * Tests the overhead of deadlock detection with many threads holding
+	 * and waiting for many locks.
+	 */
+	public void testManyThreadsAndLocks() {
+		final ILock[] locks = new ILock[LOCK_COUNT];
+		for (int i = 0; i < LOCK_COUNT; i++) {
+			locks[i] = Job.getJobManager().newLock();
+		}
+		final int locksPerThread = LOCK_COUNT / LOCK_THREAD_COUNT;
+		new PerformanceTestRunner() {
+			@Override
+			protected void test() {
+				Thread[] threads = new Thread[LOCK_THREAD_COUNT];
+				for (int t = 0; t < LOCK_THREAD_COUNT; t++) {
+					final int thread = t;
+					threads[t] = new Thread(() -> {
+						for (int round = 0; round < 20; round++) {
+							// locks are always acquired in ascending order, so there is contention but no deadlock
+							TreeSet<Integer> indices = new TreeSet<>();
+							for (int i = 0; i < locksPerThread; i++) {
+								indices.add(thread * locksPerThread + i);
+							}
+							indices.add((thread * locksPerThread + locksPerThread + round) % LOCK_COUNT);
+							for (int index : indices) {
+								locks[index].acquire();
+							}
+							for (int index : indices.descendingSet()) {
+								locks[index].release();
+							}
+						}
+					}, "BenchJobs-" + t);
+					threads[t].start();
+				}
+				for (Thread thread : threads) {
+					try {
+						thread.join();
+					} catch (InterruptedException e) {
+						fail("Interrupted while waiting for threads", e);
+					}
+				}
+			}
+		}.run(this, 10, 1);
+	}
+
+	private void runJobGroup(boolean dedicatedWorkers) {
+		new PerformanceTestRunner() {
+			@Override
+			protected void test() {
+				JobGroup group = new JobGroup("BenchJobs", GROUP_THREADS, JOB_COUNT, dedicatedWorkers);
+				for (int i = 0; i < JOB_COUNT; i++) {
+					Job job = Job.create("BenchJobs-" + i, monitor -> {
+						// short jobs, so that scheduling dominates
+					});
+					job.setSystem(true);
+					job.setJobGroup(group);
+					job.schedule();
+				}
+				try {
+					group.join(0, null);
+				} catch (OperationCanceledException | InterruptedException e) {
+					fail("Interrupted while waiting for jobs", e);
+				}
+			}
+		}.run(this, 5, 1);
+	}
+
+	private void runBlockingJobs() {
+		final Object family = new Object();
+		new PerformanceTestRunner() {
+			@Override
+			protected void test() {
+				for (int i = 0; i < JOB_COUNT; i++) {
+					Job job = new Job("BenchJobs-" + i) {
+						@Override
+						public boolean belongsTo(Object f) {
+							return f == family;
+						}
+
+						@Override
+						protected IStatus run(IProgressMonitor monitor) {
+							try {
+								// simulates a blocking remote call
+								Thread.sleep(BLOCKING_TIME);
+							} catch (InterruptedException e) {
+								return Status.CANCEL_STATUS;
+							}
+							return Status.OK_STATUS;
+						}
+					};
+					job.setSystem(true);
+					job.schedule();
+				}
+				try {
+					Job.getJobManager().join(family, null);
+				} catch (OperationCanceledException | InterruptedException e) {
+					fail("Interrupted while waiting for jobs", e);
+				}
+			}
+		}.run(this, 5, 1);
+	}
+}
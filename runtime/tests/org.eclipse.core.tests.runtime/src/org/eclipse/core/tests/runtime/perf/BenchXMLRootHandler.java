@@ -0,0 +1,94 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.core.tests.runtime.perf;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import org.eclipse.core.internal.content.XMLRootHandler;
+import org.eclipse.core.tests.harness.PerformanceTestRunner;
+import org.eclipse.core.tests.runtime.RuntimeTest;
+import org.xml.sax.InputSource;
+
+@SuppressWarnings("restriction")
+public class BenchXMLRootHandler extends RuntimeTest {
+	private static final int FILE_COUNT = 100000;
+	private static final int DISTINCT_FILES = 1000;
+
+	public BenchXMLRootHandler() {
+		super();
+	}
+
+	public BenchXMLRootHandler(String testName) {
+		super(testName);
+	}
+
+	/**
+	 * Tests finding the root element of UTF-8 documents of mixed sizes, which
+	 * are handled without a parser.
+	 */
+	public void testUTF8() {
+		runFiles(createFiles(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Tests finding the root element of UTF-16 documents of mixed sizes, which
+	 * need a parser.
+	 */
+	public void testUTF16() {
+		runFiles(createFiles(StandardCharsets.UTF_16));
+	}
+
+	private static byte[][] createFiles(Charset charset) {
+		Random random = new Random(4711);
+		byte[][] files = new byte[DISTINCT_FILES][];
+		for (int i = 0; i < DISTINCT_FILES; i++) {
+			StringBuilder file = new StringBuilder();
+			file.append("<?xml version=\"1.0\" encoding=\"").append(charset.name()).append("\"?>\n");
+			if (i % 3 == 0) {
+				file.append("<!-- generated file ").append(i).append(" -->\n");
+			}
+			if (i % 4 == 0) {
+				file.append("<!DOCTYPE root").append(i).append(" SYSTEM \"root").append(i).append(".dtd\">\n");
+			}
+			file.append("<p:root").append(i).append(" xmlns:p=\"http://www.eclipse.org/bench/").append(i % 10).append("\" version=\"1\">\n");
+			// mixed sizes, from a few hundred bytes to about a hundred kilobytes
+			int elements = (int) Math.pow(10, random.nextInt(4)) * (1 + random.nextInt(3));
+			for (int j = 0; j < elements; j++) {
+				file.append("  <p:element id=\"").append(j).append("\">content ").append(j).append("</p:element>\n");
+			}
+			file.append("</p:root").append(i).append(">\n");
+			files[i] = file.toString().getBytes(charset);
+		}
+		return files;
+	}
+
+	private void runFiles(byte[][] files) {
+		new PerformanceTestRunner() {
+			@Override
+			protected void test() {
+				for (int i = 0; i < FILE_COUNT; i++) {
+					XMLRootHandler handler = new XMLRootHandler(true);
+					try {
+						assertTrue(handler.parseContents(new InputSource(new ByteArrayInputStream(files[i % DISTINCT_FILES]))));
+					} catch (Exception e) {
+						fail("Failed to parse file " + i, e);
+					}
+					assertEquals("root" + (i % DISTINCT_FILES), handler.getRootName());
+				}
+			}
+		}.run(this, 5, 1);
+	}
+}
@@ -141,6 +141,7 @@ public class ContentTypePerformanceTest extends RuntimeTest {
 		TestSuite singleRun = new PerformanceSessionTestSuite(PI_RUNTIME_TESTS, 1, "singleSessionTests");
 		singleRun.addTest(new ContentTypePerformanceTest("testContentMatching"));
 		singleRun.addTest(new ContentTypePerformanceTest("testNameMatching"));
+		singleRun.addTest(new ContentTypePerformanceTest("testNameMatchingMultiThreaded"));
 		singleRun.addTest(new ContentTypePerformanceTest("testIsKindOf"));
 		suite.addTest(singleRun);
 
@@ -378,4 +379,50 @@ public class ContentTypePerformanceTest extends RuntimeTest {
 			}
 		}.run(this, 10, 200000);
 	}
+
+	/**
+	 * Tests the throughput of content type matching by name when many threads
+	 * look up content types at the same time, as parallel builders do.
+	 */
+	public void testNameMatchingMultiThreaded() {
+		// warm up preference service
+		loadPreferences();
+		// warm up content type registry
+		final IContentTypeManager manager = loadContentTypeManager();
+		loadDescribers();
+		loadChildren();
+		final String[] fileNames = {"foo.txt", DEFAULT_NAME, "plugin.xml", "build.properties", "Foo.java", "foo.unknown"};
+		final int threadCount = Math.max(4, Runtime.getRuntime().availableProcessors());
+		new PerformanceTestRunner() {
+			@Override
+			protected void test() {
+				Thread[] threads = new Thread[threadCount];
+				final Throwable[] failure = new Throwable[1];
+				for (int t = 0; t < threadCount; t++) {
+					threads[t] = new Thread(() -> {
+						try {
+							for (int i = 0; i < 50000; i++) {
+								String fileName = fileNames[i % fileNames.length];
+								assertNotNull(fileName, manager.findContentTypesFor(fileName));
+							}
+							IContentType[] associated = manager.findContentTypesFor("foo.txt");
+							assertEquals(IContentTypeManager.CT_TEXT, associated[0].getId());
+						} catch (Throwable e) {
+							failure[0] = e;
+						}
+					}, "ContentTypePerformanceTest-" + t);
+					threads[t].start();
+				}
+				for (Thread thread : threads) {
+					try {
+						thread.join();
+					} catch (InterruptedException e) {
+						fail("1.0", e);
+					}
+				}
+				if (failure[0] != null)
+					fail("2.0", failure[0]);
+			}
+		}.run(this, 10, 1);
+	}
 }
\ No newline at end of file
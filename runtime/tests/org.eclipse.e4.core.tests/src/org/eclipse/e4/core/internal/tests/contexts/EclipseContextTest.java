@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2009, 2021 IBM Corporation and others.
+ * Copyright (c) 2009, 2022 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -384,6 +384,67 @@ public class EclipseContextTest {
 		parent.dispose();
 	}
 
+	@Test
+	public void testDeepHierarchyChanges() {
+		IEclipseContext root = EclipseContextFactory.create("Root");
+		IEclipseContext[] chain = new IEclipseContext[10];
+		IEclipseContext current = root;
+		for (int i = 0; i < chain.length; i++) {
+			current = current.createChild("Child-" + i);
+			chain[i] = current;
+		}
+		IEclipseContext leaf = chain[chain.length - 1];
+		assertNull(leaf.get("x"));
+		assertFalse(leaf.containsKey("x"));
+
+		chain[2].set("x", "2");
+		assertEquals("2", leaf.get("x"));
+		assertTrue(leaf.containsKey("x"));
+
+		// a new value closer to the leaf hides the cached one
+		chain[6].set("x", "6");
+		assertEquals("6", leaf.get("x"));
+		chain[6].remove("x");
+		assertEquals("2", leaf.get("x"));
+
+		chain[4].declareModifiable("x");
+		assertNull(leaf.get("x"));
+		assertTrue(leaf.containsKey("x"));
+		chain[4].remove("x");
+
+		IEclipseContext otherRoot = EclipseContextFactory.create("OtherRoot");
+		otherRoot.set("x", "other");
+		chain[5].setParent(otherRoot);
+		assertEquals("other", leaf.get("x"));
+		chain[5].setParent(chain[4]);
+		assertEquals("2", leaf.get("x"));
+
+		root.dispose();
+		otherRoot.dispose();
+	}
+
+	@Test
+	public void testLookupsOfOtherNames() {
+		IEclipseContext root = EclipseContextFactory.create("Root");
+		IEclipseContext middle = root.createChild("Middle");
+		IEclipseContext leaf = middle.createChild("Leaf");
+		root.set("x", "root");
+		assertEquals("root", leaf.get("x"));
+		assertNull(leaf.get("y"));
+
+		// setting one name leaves the cached lookups of others intact
+		middle.set("y", "middle");
+		assertEquals("root", leaf.get("x"));
+		assertEquals("middle", leaf.get("y"));
+		leaf.set("z", "leaf");
+		assertEquals("middle", leaf.get("y"));
+		middle.set("x", "middle");
+		assertEquals("middle", leaf.get("x"));
+		assertEquals("leaf", leaf.get("z"));
+
+		root.dispose();
+	}
+
 	@Test
 	public void testContextFunctionOrdering() {
 		IEclipseContext osgiContext = EclipseContextFactory.getServiceContext(FrameworkUtil.getBundle(getClass()).getBundleContext());
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2009, 2015 IBM Corporation and others.
+ * Copyright (c) 2009, 2022 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -18,9 +18,12 @@ package org.eclipse.e4.core.internal.tests.contexts;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.eclipse.e4.core.contexts.ContextFunction;
 import org.eclipse.e4.core.contexts.EclipseContextFactory;
@@ -405,6 +408,172 @@ public class RunAndTrackTest {
 
 	}
 
+	/**
+	 * Test that a RAT depending on several values changed in one batch runs once,
+	 * after the batch.
+	 */
+	@Test
+	public void testRunBatch() {
+		final IEclipseContext root = getGlobalContext();
+		final IEclipseContext child = createContext(root, "child");
+		final List<String> seen = new ArrayList<>();
+		child.runAndTrack(new RunAndTrack() {
+			@Override
+			public boolean changed(IEclipseContext context) {
+				seen.add(context.get("a") + "/" + context.get("b") + "/" + context.get("c"));
+				return true;
+			}
+		});
+		seen.clear();
+
+		root.runBatch(() -> {
+			root.set("a", "1");
+			child.set("b", "2");
+			root.runBatch(() -> root.set("c", "3"));
+			assertTrue(seen.isEmpty());
+		});
+		assertEquals(List.of("1/2/3"), seen);
+
+		seen.clear();
+		root.set("a", "4");
+		assertEquals(List.of("4/2/3"), seen);
+	}
+
+	/**
+	 * Test that {@link IEclipseContext#setAll(java.util.Map)} sets all values and
+	 * runs dependent RATs once.
+	 */
+	@Test
+	public void testSetAll() {
+		final IEclipseContext root = getGlobalContext();
+		final TestRAT ratA = new TestRAT("a");
+		final TestRAT ratB = new TestRAT("b");
+		root.runAndTrack(ratA);
+		root.runAndTrack(ratB);
+		ratA.resetCalls();
+		ratB.resetCalls();
+
+		Map<String, Object> values = new LinkedHashMap<>();
+		values.put("a", "1");
+		values.put("b", "2");
+		root.setAll(values);
+		assertEquals("1", root.get("a"));
+		assertEquals(1, ratA.getCalls());
+		assertEquals("1", ratA.getVarValue());
+		assertEquals(1, ratB.getCalls());
+		assertEquals("2", ratB.getVarValue());
+	}
+
+	/**
+	 * Test that RATs are updated for the changes made by a failing batch, and
+	 * not for contexts disposed in the batch.
+	 */
+	@Test
+	public void testRunBatchFailureAndDisposal() {
+		final IEclipseContext root = getGlobalContext();
+		final IEclipseContext child = createContext(root, "child");
+		final TestRAT rootRAT = new TestRAT("a");
+		final TestRAT childRAT = new TestRAT("a");
+		root.runAndTrack(rootRAT);
+		child.runAndTrack(childRAT);
+		rootRAT.resetCalls();
+		childRAT.resetCalls();
+
+		try {
+			root.runBatch(() -> {
+				root.set("a", "1");
+				child.dispose();
+				throw new IllegalStateException();
+			});
+			fail("Exception should be passed to the caller");
+		} catch (IllegalStateException e) {
+			// expected
+		}
+		assertEquals(1, rootRAT.getCalls());
+		assertEquals("1", rootRAT.getVarValue());
+		assertEquals(0, childRAT.getCalls());
+	}
+
+	/**
+	 * Test that all RATs are updated at the end of a batch even if some of them
+	 * fail, and that the failures are reported together.
+	 */
+	@Test
+	public void testRunBatchUpdateFailures() {
+		final IEclipseContext root = getGlobalContext();
+		final List<String> seen = new ArrayList<>();
+		for (String name : List.of("a", "b")) {
+			root.runAndTrack(new RunAndTrack() {
+				@Override
+				public boolean changed(IEclipseContext context) {
+					Object value = context.get(name);
+					if (value != null) {
+						seen.add(name);
+						throw new IllegalStateException(name);
+					}
+					return true;
+				}
+			});
+		}
+
+		try {
+			root.runBatch(() -> {
+				root.set("a", "1");
+				root.set("b", "1");
+			});
+			fail("Exception should be passed to the caller");
+		} catch (IllegalStateException e) {
+			assertEquals(1, e.getSuppressed().length);
+		}
+		assertEquals(List.of("a", "b"), seen);
+
+		seen.clear();
+		try {
+			root.runBatch(() -> {
+				root.set("a", "2");
+				throw new IllegalArgumentException();
+			});
+			fail("Exception should be passed to the caller");
+		} catch (IllegalArgumentException e) {
+			// the failure of the runnable is not hidden by the update
+			assertEquals(1, e.getSuppressed().length);
+			assertTrue(e.getSuppressed()[0] instanceof IllegalStateException);
+		}
+		assertEquals(List.of("a"), seen);
+	}
+
+	/**
+	 * Test that a batch only defers the updates for changes to its context and
+	 * the descendants of its context.
+	 */
+	@Test
+	public void testRunBatchOtherContexts() {
+		final IEclipseContext root = getGlobalContext();
+		final IEclipseContext child = createContext(root, "child");
+		final IEclipseContext other = EclipseContextFactory.create("other");
+		final TestRAT rootRAT = new TestRAT("a");
+		final TestRAT otherRAT = new TestRAT("a");
+		root.runAndTrack(rootRAT);
+		other.runAndTrack(otherRAT);
+		rootRAT.resetCalls();
+		otherRAT.resetCalls();
+
+		child.runBatch(() -> {
+			other.set("a", "1");
+			assertEquals(1, otherRAT.getCalls());
+			root.set("a", "1");
+			assertEquals(1, rootRAT.getCalls());
+			// a batch for an unrelated context starts its own batch
+			other.runBatch(() -> {
+				other.set("a", "2");
+				child.set("b", "2");
+				assertEquals(1, otherRAT.getCalls());
+			});
+			assertEquals(2, otherRAT.getCalls());
+		});
+		other.dispose();
+	}
+
 	/**
 	 * Creates a context, sets a variable 'v' to "root", creates a RAT dependent on 'v' in the context,
 	 * then executes <code>testAction</code> and tests whether the RAT ran the expected number of times,
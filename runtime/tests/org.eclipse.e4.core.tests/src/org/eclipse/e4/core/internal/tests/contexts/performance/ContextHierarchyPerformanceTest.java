@@ -0,0 +1,122 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.e4.core.internal.tests.contexts.performance;
+
+import org.eclipse.core.tests.harness.PerformanceTestRunner;
+import org.eclipse.e4.core.contexts.EclipseContextFactory;
+import org.eclipse.e4.core.contexts.IEclipseContext;
+import org.eclipse.e4.core.internal.tests.CoreTestsActivator;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+/**
+ * Tests looking up values in deep context hierarchies, as found in workbench
+ * applications, where most values are set close to the root.
+ */
+public class ContextHierarchyPerformanceTest extends TestCase {
+
+	private static final int DEPTH = 20;
+	private static final int KEYS = 200;
+
+	IEclipseContext[] contexts;
+	IEclipseContext leaf;
+
+	public static Test suite() {
+		return new TestSuite(ContextHierarchyPerformanceTest.class);
+	}
+
+	public ContextHierarchyPerformanceTest(String name) {
+		super(name);
+	}
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		IEclipseContext serviceContext = EclipseContextFactory.getServiceContext(CoreTestsActivator.getDefault().getBundleContext());
+		contexts = new IEclipseContext[DEPTH];
+		IEclipseContext parent = serviceContext;
+		for (int i = 0; i < DEPTH; i++) {
+			contexts[i] = parent.createChild(getName() + "-" + i);
+			parent = contexts[i];
+		}
+		leaf = contexts[DEPTH - 1];
+
+		// spread the keys over the hierarchy, with most of them near the root
+		for (int i = 0; i < KEYS; i++) {
+			contexts[(i * i) % DEPTH / 4].set("Value-" + i, Integer.valueOf(i));
+		}
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		contexts[0].dispose();
+		super.tearDown();
+	}
+
+	public void testLookupDeep() {
+		new PerformanceTestRunner() {
+			@Override
+			protected void test() {
+				for (int i = 0; i < KEYS; i++) {
+					leaf.get("Value-" + i);
+				}
+			}
+		}.run(this, 10, 10000);
+	}
+
+	public void testLookupDeepMissing() {
+		new PerformanceTestRunner() {
+			@Override
+			protected void test() {
+				for (int i = 0; i < KEYS; i++) {
+					leaf.get("NonExistentValue-" + i);
+				}
+			}
+		}.run(this, 10, 1000);
+	}
+
+	public void testContainsKeyDeep() {
+		new PerformanceTestRunner() {
+			@Override
+			protected void test() {
+				for (int i = 0; i < KEYS; i++) {
+					leaf.containsKey("Value-" + i);
+				}
+			}
+		}.run(this, 10, 10000);
+	}
+
+	/**
+	 * Tests looking up values while values are added to and removed from
+	 * contexts in the middle of the hierarchy.
+	 */
+	public void testLookupDeepWithChanges() {
+		new PerformanceTestRunner() {
+			int i = 0;
+
+			@Override
+			protected void test() {
+				IEclipseContext context = contexts[DEPTH / 2];
+				context.set("Changing", Integer.valueOf(i++));
+				for (int j = 0; j < KEYS; j++) {
+					leaf.get("Value-" + j);
+				}
+				context.remove("Changing");
+			}
+		}.run(this, 10, 1000);
+	}
+}
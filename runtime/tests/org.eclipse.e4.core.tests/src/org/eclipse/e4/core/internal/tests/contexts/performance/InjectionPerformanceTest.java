@@ -0,0 +1,139 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.e4.core.internal.tests.contexts.performance;
+
+import javax.annotation.PostConstruct;
+import javax.inject.Inject;
+import javax.inject.Named;
+
+import org.eclipse.core.tests.harness.PerformanceTestRunner;
+import org.eclipse.e4.core.contexts.EclipseContextFactory;
+import org.eclipse.e4.core.contexts.IEclipseContext;
+import org.eclipse.e4.core.di.IInjector;
+import org.eclipse.e4.core.di.annotations.Optional;
+import org.eclipse.e4.core.internal.contexts.ContextObjectSupplier;
+import org.eclipse.e4.core.internal.di.InjectorImpl;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+/**
+ * Compares creating objects through reflection with creating them through
+ * injection plans.
+ */
+@SuppressWarnings("restriction")
+public class InjectionPerformanceTest extends TestCase {
+
+	static public class Base {
+		@Inject
+		@Named("a")
+		String a;
+
+		@Inject
+		void setB(@Named("b") Integer b) {
+			// only injected
+		}
+
+		@PostConstruct
+		void init() {
+			// only called
+		}
+	}
+
+	static public class Part extends Base {
+		@Inject
+		@Optional
+		@Named("c")
+		Object c;
+
+		@Inject
+		public Part(@Named("a") String a) {
+			// only injected
+		}
+
+		@Inject
+		void setAB(@Named("a") String a, @Named("b") Integer b) {
+			// only injected
+		}
+	}
+
+	IEclipseContext context;
+
+	public static Test suite() {
+		return new TestSuite(InjectionPerformanceTest.class);
+	}
+
+	public InjectionPerformanceTest(String name) {
+		super(name);
+	}
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		context = EclipseContextFactory.create(getName());
+		context.set("a", "a");
+		context.set("b", Integer.valueOf(1));
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		context.dispose();
+		super.tearDown();
+	}
+
+	public void testMakeReflection() {
+		runMake(new InjectorImpl(false));
+	}
+
+	public void testMakeInjectionPlans() {
+		runMake(new InjectorImpl(true));
+	}
+
+	/**
+	 * Measures the first injection into a class, which has to inspect the class.
+	 */
+	public void testFirstMakeReflection() {
+		runFirstMake(false);
+	}
+
+	public void testFirstMakeInjectionPlans() {
+		runFirstMake(true);
+	}
+
+	private void runMake(IInjector injector) {
+		new PerformanceTestRunner() {
+			@Override
+			protected void test() {
+				// a new child for each object, as the injector remembers the objects per supplier
+				IEclipseContext child = context.createChild();
+				injector.make(Part.class, ContextObjectSupplier.getObjectSupplier(child, injector));
+				child.dispose();
+			}
+		}.run(this, 10, 5000);
+	}
+
+	private void runFirstMake(boolean useInjectionPlans) {
+		new PerformanceTestRunner() {
+			@Override
+			protected void test() {
+				IInjector injector = new InjectorImpl(useInjectionPlans);
+				IEclipseContext child = context.createChild();
+				injector.make(Part.class, ContextObjectSupplier.getObjectSupplier(child, injector));
+				child.dispose();
+			}
+		}.run(this, 10, 1000);
+	}
+}
@@ -0,0 +1,214 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.e4.core.internal.tests.di;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+import org.eclipse.e4.core.contexts.EclipseContextFactory;
+import org.eclipse.e4.core.contexts.IEclipseContext;
+import org.eclipse.e4.core.di.IInjector;
+import org.eclipse.e4.core.di.InjectionException;
+import org.eclipse.e4.core.di.annotations.Execute;
+import org.eclipse.e4.core.di.annotations.Optional;
+import org.eclipse.e4.core.di.suppliers.PrimaryObjectSupplier;
+import org.eclipse.e4.core.internal.contexts.ContextObjectSupplier;
+import org.eclipse.e4.core.internal.di.InjectorImpl;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the injector when it uses injection plans instead of reflection.
+ */
+@SuppressWarnings("restriction")
+public class InjectionPlanTest {
+
+	static public class Base {
+		static int staticInjections;
+
+		@Inject
+		@Named("a")
+		String baseField;
+
+		final List<String> calls = new ArrayList<>();
+
+		@Inject
+		static void injectStatic(@Named("a") String a) {
+			staticInjections++;
+		}
+
+		@Inject
+		void baseMethod(@Named("i") int i) {
+			calls.add("base " + i);
+		}
+
+		@Inject
+		void overridden() {
+			calls.add("base overridden");
+		}
+
+		@PostConstruct
+		void postConstruct() {
+			calls.add("base postConstruct " + baseField);
+		}
+
+		@PreDestroy
+		void preDestroy() {
+			calls.add("base preDestroy");
+		}
+	}
+
+	static public class Sub extends Base {
+		final String constructorArg;
+
+		@Inject
+		@Optional
+		@Named("missing")
+		Object optional;
+
+		@Inject
+		@Named("i")
+		private int primitive;
+
+		@Inject
+		public Sub(@Named("a") String a) {
+			constructorArg = a;
+		}
+
+		public Sub() {
+			constructorArg = null;
+		}
+
+		@Override
+		@Inject
+		void overridden() {
+			calls.add("sub overridden " + primitive);
+		}
+
+		@PostConstruct
+		private void subPostConstruct() {
+			calls.add("sub postConstruct");
+		}
+
+		@Execute
+		public String execute(@Named("a") String a) {
+			return "execute " + a;
+		}
+
+		@Inject
+		void fail(@Optional @Named("fail") Object value) {
+			if (value != null)
+				throw new IllegalStateException(value.toString());
+		}
+	}
+
+	static public class Unsatisfied {
+		@Inject
+		public Unsatisfied(@Named("unknown") String value) {
+			// never called
+		}
+	}
+
+	@Singleton
+	static public class Single {
+		// nothing to inject
+	}
+
+	private IEclipseContext context;
+	private IInjector injector;
+	private PrimaryObjectSupplier supplier;
+
+	@Before
+	public void setUp() {
+		context = EclipseContextFactory.create("InjectionPlanTest");
+		context.set("a", "A");
+		context.set("i", Integer.valueOf(42));
+		injector = new InjectorImpl(true);
+		supplier = ContextObjectSupplier.getObjectSupplier(context, injector);
+		Base.staticInjections = 0;
+	}
+
+	@After
+	public void tearDown() {
+		context.dispose();
+	}
+
+	@Test
+	public void testMake() {
+		Sub sub = injector.make(Sub.class, supplier);
+		assertEquals("A", sub.constructorArg);
+		assertEquals("A", sub.baseField);
+		assertEquals(42, sub.primitive);
+		assertNull(sub.optional);
+		List<String> expected = List.of("base 42", "sub overridden 42", "base postConstruct A", "sub postConstruct");
+		assertEquals(expected, sub.calls);
+
+		injector.make(Sub.class, supplier);
+		assertEquals(1, Base.staticInjections);
+	}
+
+	@Test
+	public void testUninject() {
+		Sub sub = injector.make(Sub.class, supplier);
+		sub.calls.clear();
+		injector.uninject(sub, supplier);
+		assertEquals(List.of("base preDestroy"), sub.calls);
+	}
+
+	@Test
+	public void testInvoke() {
+		Sub sub = injector.make(Sub.class, supplier);
+		assertEquals("execute A", injector.invoke(sub, Execute.class, supplier));
+		assertEquals("default", injector.invoke(new Base(), Execute.class, "default", supplier));
+	}
+
+	@Test
+	public void testUnsatisfied() {
+		try {
+			injector.make(Unsatisfied.class, supplier);
+			fail("Unsatisfied constructor should not be called");
+		} catch (InjectionException e) {
+			// expected
+		}
+	}
+
+	@Test
+	public void testSingleton() {
+		assertSame(injector.make(Single.class, supplier), injector.make(Single.class, supplier));
+	}
+
+	@Test
+	public void testException() {
+		context.set("fail", "failure");
+		try {
+			injector.inject(new Sub(), supplier);
+			fail("Exception thrown by an injected method should be reported");
+		} catch (InjectionException e) {
+			assertTrue(e.getCause() instanceof IllegalStateException);
+		}
+	}
+}
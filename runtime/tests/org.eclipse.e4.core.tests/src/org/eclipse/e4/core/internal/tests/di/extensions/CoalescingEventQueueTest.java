@@ -0,0 +1,180 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.e4.core.internal.tests.di.extensions;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.e4.core.di.internal.extensions.util.CoalescingEventQueue;
+import org.eclipse.e4.core.di.internal.extensions.util.CoalescingEventQueue.Statistics;
+import org.eclipse.e4.core.di.internal.extensions.util.EventUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.osgi.service.event.Event;
+import org.osgi.service.event.EventAdmin;
+
+@SuppressWarnings("restriction")
+public class CoalescingEventQueueTest {
+
+	/**
+	 * Records the delivered events. The first delivery waits until
+	 * {@link #release} is counted down, so that events pile up in the queue.
+	 */
+	static class RecordingEventAdmin implements EventAdmin {
+		final List<String> delivered = new ArrayList<>();
+		final CountDownLatch blocked = new CountDownLatch(1);
+		final CountDownLatch release = new CountDownLatch(1);
+
+		@Override
+		public void postEvent(Event event) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public void sendEvent(Event event) {
+			blocked.countDown();
+			try {
+				release.await(10, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			synchronized (delivered) {
+				delivered.add(event.getTopic() + "=" + event.getProperty(EventUtils.DATA));
+			}
+		}
+	}
+
+	private RecordingEventAdmin eventAdmin;
+	private CoalescingEventQueue queue;
+
+	@Before
+	public void setUp() {
+		eventAdmin = new RecordingEventAdmin();
+		queue = new CoalescingEventQueue(eventAdmin, 5);
+	}
+
+	@After
+	public void tearDown() {
+		eventAdmin.release.countDown();
+		queue.dispose();
+	}
+
+	private void startBurst() throws InterruptedException {
+		assertTrue(queue.post("start", "0"));
+		assertTrue(eventAdmin.blocked.await(10, TimeUnit.SECONDS));
+	}
+
+	private void endBurst() throws InterruptedException {
+		eventAdmin.release.countDown();
+		assertTrue(queue.waitForDelivery(10000));
+	}
+
+	@Test
+	public void testCoalescePerTopic() throws InterruptedException {
+		queue.coalesce("a/*", null);
+		startBurst();
+		assertTrue(queue.post("a/y", "1"));
+		for (int i = 1; i <= 100; i++) {
+			// replacing an event is possible when the queue is full
+			assertTrue(queue.post("a/x", String.valueOf(i)));
+			queue.post("b", String.valueOf(i));
+		}
+		endBurst();
+
+		assertEquals(List.of("start=0", "a/y=1", "b=1", "b=2", "b=3", "a/x=100"), eventAdmin.delivered);
+		Statistics statistics = queue.getStatistics();
+		assertEquals(99, statistics.coalesced);
+		assertEquals(97, statistics.rejected);
+		assertEquals(6, statistics.delivered);
+		assertEquals(5, statistics.maxPending);
+		assertEquals(0, statistics.pending);
+	}
+
+	@Test
+	public void testCoalescePerKey() throws InterruptedException {
+		queue.coalesce("element", "id");
+		startBurst();
+		for (int i = 1; i <= 10; i++) {
+			assertTrue(queue.post("element", Map.of("id", "first", EventUtils.DATA, "first" + i)));
+			assertTrue(queue.post("element", Map.of("id", "second", EventUtils.DATA, "second" + i)));
+		}
+		endBurst();
+
+		assertEquals(List.of("start=0", "element=first10", "element=second10"), eventAdmin.delivered);
+	}
+
+	@Test
+	public void testMissingKeyProperty() throws InterruptedException {
+		queue.coalesce("element", "id");
+		startBurst();
+		assertTrue(queue.post("element", Map.of(EventUtils.DATA, "first")));
+		assertTrue(queue.post("element", Map.of(EventUtils.DATA, "second")));
+		endBurst();
+
+		assertEquals(List.of("start=0", "element=first", "element=second"), eventAdmin.delivered);
+		assertEquals(0, queue.getStatistics().coalesced);
+	}
+
+	@Test
+	public void testHandlerError() throws InterruptedException {
+		eventAdmin.release.countDown();
+		queue.subscribe("fail", events -> {
+			throw new Error("This error was thrown for testing purposes");
+		});
+		assertTrue(queue.post("fail", "1"));
+		assertTrue(queue.waitForDelivery(10000));
+		// the queue keeps delivering after the error
+		assertTrue(queue.post("a", "2"));
+		assertTrue(queue.waitForDelivery(10000));
+
+		assertEquals(List.of("fail=1", "a=2"), eventAdmin.delivered);
+	}
+
+	@Test
+	public void testBatchDelivery() throws InterruptedException {
+		List<List<Object>> batches = new ArrayList<>();
+		queue.subscribe("a/*", events -> {
+			List<Object> batch = new ArrayList<>();
+			for (Event event : events)
+				batch.add(event.getProperty(EventUtils.DATA));
+			batches.add(batch);
+		});
+		startBurst();
+		queue.post("a/x", "1");
+		queue.post("b", "2");
+		queue.post("a/y", "3");
+		endBurst();
+
+		assertEquals(List.of(List.of("1", "3")), batches);
+	}
+
+	@Test
+	public void testDispose() throws InterruptedException {
+		startBurst();
+		queue.post("a", "1");
+		queue.dispose();
+		assertFalse(queue.post("a", "2"));
+		endBurst();
+
+		assertEquals(List.of("start=0"), eventAdmin.delivered);
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2014, 2015  Dirk Fauth and others.
+ * Copyright (c) 2014, 2022  Dirk Fauth and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -18,14 +18,18 @@ package org.eclipse.e4.core.internal.tests.nls;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 
+import java.util.ListResourceBundle;
 import java.util.Locale;
+import java.util.ResourceBundle;
 
 import javax.inject.Inject;
 
 import org.eclipse.e4.core.contexts.ContextInjectionFactory;
 import org.eclipse.e4.core.contexts.EclipseContextFactory;
 import org.eclipse.e4.core.contexts.IEclipseContext;
+import org.eclipse.e4.core.internal.services.MessageFactoryServiceImpl;
 import org.eclipse.e4.core.services.nls.Translation;
+import org.eclipse.e4.core.services.translation.ResourceBundleProvider;
 import org.eclipse.e4.core.services.translation.TranslationService;
 import org.junit.After;
 import org.junit.Before;
@@ -157,6 +161,48 @@ public class NLSTest {
 				messages.messageNine_Sub);
 	}
 
+	@Test
+	public void testSimpleMessagesSwitchLocale() {
+		this.context.set(TranslationService.LOCALE, Locale.ENGLISH);
+		SimpleMessages english = ContextInjectionFactory.make(TestSimpleObject.class, this.context).simpleMessages;
+
+		this.context.set(TranslationService.LOCALE, Locale.GERMAN);
+		SimpleMessages german = ContextInjectionFactory.make(TestSimpleObject.class, this.context).simpleMessages;
+
+		// the translations of a locale must not be mixed up with the ones of
+		// another locale, even when they are reused
+		this.context.set(TranslationService.LOCALE, Locale.ENGLISH);
+		SimpleMessages englishAgain = ContextInjectionFactory.make(TestSimpleObject.class, this.context).simpleMessages;
+
+		assertEquals("SimpleMessage", english.message);
+		assertEquals("SimpleNachricht", german.message);
+		assertEquals("SimpleMessageCamelCaseDot", german.messageThree);
+		assertEquals("SimpleMessage", englishAgain.message);
+		assertEquals("The idea is from Tom", englishAgain.messageFour);
+	}
+
+	@Test
+	public void testMessagesOfDifferentProviders() {
+		MessageFactoryServiceImpl factory = new MessageFactoryServiceImpl();
+		ResourceBundleProvider first = (bundle, locale) -> createBundle("first");
+		ResourceBundleProvider second = (bundle, locale) -> createBundle("second");
+
+		// the translations found through one provider must not be reused for
+		// another provider
+		assertEquals("first", factory.getMessageInstance(Locale.ENGLISH, ProviderMessages.class, first).message);
+		assertEquals("second", factory.getMessageInstance(Locale.ENGLISH, ProviderMessages.class, second).message);
+		assertEquals("first", factory.getMessageInstance(Locale.ENGLISH, ProviderMessages.class, first).message);
+	}
+
+	private static ResourceBundle createBundle(String message) {
+		return new ListResourceBundle() {
+			@Override
+			protected Object[][] getContents() {
+				return new Object[][] { { "message", message } };
+			}
+		};
+	}
+
 	@Test
 	public void testSimpleMessagesSkipDefaultLocaleForEquinoxRoot() {
 		//change the default Locale for this testcase
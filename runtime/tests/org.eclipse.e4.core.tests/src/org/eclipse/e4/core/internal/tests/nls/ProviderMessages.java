@@ -0,0 +1,16 @@
+package org.eclipse.e4.core.internal.tests.nls;
+
+import org.eclipse.e4.core.services.nls.Message;
+import org.eclipse.e4.core.services.nls.Message.ReferenceType;
+
+/**
+ * Load messages from the OSGi resource bundle returned by the ResourceBundleProvider, without
+ * caching the instances
+ */
+@Message(referenceType = ReferenceType.NONE)
+public class ProviderMessages {
+
+	//message as is
+	public String message;
+
+}
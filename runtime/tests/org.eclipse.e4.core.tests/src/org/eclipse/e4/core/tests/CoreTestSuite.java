@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2009, 2019 IBM Corporation and others.
+ * Copyright (c) 2009, 2022 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -51,10 +51,12 @@ import org.eclipse.e4.core.internal.tests.di.InjectArraysTest;
 import org.eclipse.e4.core.internal.tests.di.InjectBaseTypeTest;
 import org.eclipse.e4.core.internal.tests.di.InjectBridgeTest;
 import org.eclipse.e4.core.internal.tests.di.InjectionOrderTest;
+import org.eclipse.e4.core.internal.tests.di.InjectionPlanTest;
 import org.eclipse.e4.core.internal.tests.di.InjectionResultLeakTest;
 import org.eclipse.e4.core.internal.tests.di.InvokeTest;
 import org.eclipse.e4.core.internal.tests.di.InvokeTestMissingAnnotation;
 import org.eclipse.e4.core.internal.tests.di.RecursiveObjectCreationTest;
+import org.eclipse.e4.core.internal.tests.di.extensions.CoalescingEventQueueTest;
 import org.eclipse.e4.core.internal.tests.di.extensions.ExtendedSupplierInjectionTests;
 import org.eclipse.e4.core.internal.tests.di.extensions.InjectionEventTest;
 import org.eclipse.e4.core.internal.tests.di.extensions.InjectionMixedSuppliersTest;
@@ -79,6 +81,7 @@ import junit.framework.Test;
 		InjectionOSGiTest.class,
 		InjectionOSGiHandlerTest.class,
 		ServiceSupplierTestCase.class,
+		CoalescingEventQueueTest.class,
 
 		// About
 		AboutTest.class,
@@ -91,6 +94,7 @@ import junit.framework.Test;
 		InvokeTestMissingAnnotation.class,
 		InjectionResultLeakTest.class,
 		AutoConstructWithCreatableTest.class,
+		InjectionPlanTest.class,
 
 		// Contexts
 		StrongIterableTest.class,